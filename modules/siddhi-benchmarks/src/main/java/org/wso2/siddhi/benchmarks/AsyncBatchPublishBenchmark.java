@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.wso2.siddhi.core.SiddhiAppRuntime;
+import org.wso2.siddhi.core.SiddhiManager;
+import org.wso2.siddhi.core.event.Event;
+import org.wso2.siddhi.core.stream.input.InputHandler;
+import org.wso2.siddhi.core.stream.output.StreamCallback;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the event throughput of an {@code @async} stream when the events are sent one at a time and when they
+ * are sent as arrays of {@code batchSize} events, which get published to the ring buffer as sequence ranges.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AsyncBatchPublishBenchmark {
+
+    private static final int EVENTS_PER_INVOCATION = 1024;
+
+    @Param({"1", "16", "256"})
+    public int batchSize;
+
+    private SiddhiManager siddhiManager;
+    private SiddhiAppRuntime siddhiAppRuntime;
+    private InputHandler inputHandler;
+    private Event[][] batches;
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder().include(AsyncBatchPublishBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+
+    @Setup
+    public void setup(Blackhole blackhole) {
+        String siddhiApp = "" +
+                "@async(buffer.size='1024', workers='1', batch.size.max='256') " +
+                "define stream StockStream (symbol string, price float, volume long); " +
+                "" +
+                "from StockStream[price > 60] " +
+                "select symbol, price, volume " +
+                "insert into OutputStream;";
+
+        siddhiManager = new SiddhiManager();
+        siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("OutputStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                blackhole.consume(events);
+            }
+        });
+        inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+
+        String[] symbols = {"IBM", "WSO2", "ORACLE", "MSFT", "GOOG"};
+        batches = new Event[EVENTS_PER_INVOCATION / batchSize][batchSize];
+        for (int i = 0; i < EVENTS_PER_INVOCATION; i++) {
+            batches[i / batchSize][i % batchSize] = new Event(System.currentTimeMillis(),
+                    new Object[]{symbols[i % symbols.length], 50f + (i % 100), (long) i});
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        siddhiAppRuntime.shutdown();
+        siddhiManager.shutdown();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EVENTS_PER_INVOCATION)
+    public void send() throws InterruptedException {
+        if (batchSize == 1) {
+            for (Event[] batch : batches) {
+                inputHandler.send(batch[0]);
+            }
+        } else {
+            for (Event[] batch : batches) {
+                inputHandler.send(batch);
+            }
+        }
+    }
+}
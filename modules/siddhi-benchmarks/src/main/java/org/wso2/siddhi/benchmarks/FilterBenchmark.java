@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.wso2.siddhi.core.SiddhiAppRuntime;
+import org.wso2.siddhi.core.SiddhiManager;
+import org.wso2.siddhi.core.event.Event;
+import org.wso2.siddhi.core.stream.input.InputHandler;
+import org.wso2.siddhi.core.stream.output.StreamCallback;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of a stateless query that filters the events, that projects them to computed attributes,
+ * and that does both.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FilterBenchmark {
+
+    @Param({"filter", "projection", "filterAndProjection"})
+    public String query;
+
+    private SiddhiManager siddhiManager;
+    private SiddhiAppRuntime siddhiAppRuntime;
+    private InputHandler inputHandler;
+    private Object[][] events;
+    private int eventIndex = 0;
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder().include(FilterBenchmark.class.getSimpleName()).build();
+        new Runner(options).run();
+    }
+
+    @Setup
+    public void setup(Blackhole blackhole) {
+        String filter = "filter".equals(query) || "filterAndProjection".equals(query) ?
+                "[price > 70 and volume < 100]" : "";
+        String projection = "projection".equals(query) || "filterAndProjection".equals(query) ?
+                "select symbol, price * volume as value, volume / 2 as halfVolume " :
+                "select symbol, price, volume ";
+        String siddhiApp = "" +
+                "define stream StockStream (symbol string, price float, volume long); " +
+                "" +
+                "from StockStream" + filter + " " +
+                projection +
+                "insert into OutputStream;";
+
+        siddhiManager = new SiddhiManager();
+        siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("OutputStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                blackhole.consume(events);
+            }
+        });
+        inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+
+        String[] symbols = {"IBM", "WSO2", "ORACLE", "MSFT", "GOOG"};
+        events = new Object[1024][];
+        for (int i = 0; i < events.length; i++) {
+            events[i] = new Object[]{symbols[i % symbols.length], 50f + (i % 100), (long) (i % 150)};
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        siddhiAppRuntime.shutdown();
+        siddhiManager.shutdown();
+    }
+
+    @Benchmark
+    public void send() throws InterruptedException {
+        inputHandler.send(events[eventIndex++ & (events.length - 1)]);
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.wso2.siddhi.core.SiddhiAppRuntime;
+import org.wso2.siddhi.core.SiddhiManager;
+import org.wso2.siddhi.core.event.Event;
+import org.wso2.siddhi.core.stream.input.InputHandler;
+import org.wso2.siddhi.core.stream.output.StreamCallback;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of joining a stream with the length window of another stream, and with a table keyed by
+ * the join attribute. Each operation sends an event to each side of the join.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JoinBenchmark {
+
+    private static final int SYMBOLS = 1000;
+
+    @Param({"window", "table"})
+    public String join;
+
+    private SiddhiManager siddhiManager;
+    private SiddhiAppRuntime siddhiAppRuntime;
+    private InputHandler stockStream;
+    private InputHandler twitterStream;
+    private String[] symbols;
+    private int eventCount = 0;
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder().include(JoinBenchmark.class.getSimpleName()).build();
+        new Runner(options).run();
+    }
+
+    @Setup
+    public void setup(Blackhole blackhole) {
+        String siddhiApp;
+        if ("table".equals(join)) {
+            siddhiApp = "" +
+                    "define stream StockStream (symbol string, price float, volume long); " +
+                    "define stream TwitterStream (symbol string, tweet string, count int); " +
+                    "@PrimaryKey('symbol') " +
+                    "define table TwitterTable (symbol string, tweet string, count int); " +
+                    "" +
+                    "from TwitterStream " +
+                    "update or insert into TwitterTable " +
+                    "   on TwitterTable.symbol == symbol; " +
+                    "" +
+                    "from StockStream join TwitterTable " +
+                    "   on StockStream.symbol == TwitterTable.symbol " +
+                    "select StockStream.symbol, StockStream.price, TwitterTable.count " +
+                    "insert into OutputStream;";
+        } else {
+            siddhiApp = "" +
+                    "define stream StockStream (symbol string, price float, volume long); " +
+                    "define stream TwitterStream (symbol string, tweet string, count int); " +
+                    "" +
+                    "from StockStream#window.length(1000) join TwitterStream#window.length(1000) " +
+                    "   on StockStream.symbol == TwitterStream.symbol " +
+                    "select StockStream.symbol, StockStream.price, TwitterStream.count " +
+                    "insert into OutputStream;";
+        }
+
+        siddhiManager = new SiddhiManager();
+        siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("OutputStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                blackhole.consume(events);
+            }
+        });
+        stockStream = siddhiAppRuntime.getInputHandler("StockStream");
+        twitterStream = siddhiAppRuntime.getInputHandler("TwitterStream");
+        siddhiAppRuntime.start();
+
+        symbols = new String[SYMBOLS];
+        for (int i = 0; i < symbols.length; i++) {
+            symbols[i] = "S" + i;
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        siddhiAppRuntime.shutdown();
+        siddhiManager.shutdown();
+    }
+
+    @Benchmark
+    public void send() throws InterruptedException {
+        int i = eventCount++ & Integer.MAX_VALUE;
+        twitterStream.send(new Object[]{symbols[(i * 7) % SYMBOLS], "tweet", i});
+        stockStream.send(new Object[]{symbols[i % SYMBOLS], 50f + (i % 100), (long) i});
+    }
+}
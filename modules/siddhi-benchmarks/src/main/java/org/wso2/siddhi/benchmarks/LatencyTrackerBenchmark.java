@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.benchmarks;
+
+import com.codahale.metrics.MetricRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.wso2.siddhi.core.util.statistics.LatencyTracker;
+import org.wso2.siddhi.core.util.statistics.metrics.SiddhiHistogramLatencyMetric;
+import org.wso2.siddhi.core.util.statistics.metrics.SiddhiLatencyMetric;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the overhead of marking the latency of an event, with the timer based latency tracker and with the
+ * histogram based latency tracker, by four threads sharing the same tracker as the junction and query trackers are.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class LatencyTrackerBenchmark {
+
+    @Param({"timer", "histogram"})
+    public String tracker;
+
+    private LatencyTracker latencyTracker;
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder().include(LatencyTrackerBenchmark.class.getSimpleName()).build();
+        new Runner(options).run();
+    }
+
+    @Setup
+    public void setup() {
+        MetricRegistry metricRegistry = new MetricRegistry();
+        if ("timer".equals(tracker)) {
+            latencyTracker = new SiddhiLatencyMetric("query1.latency", metricRegistry);
+        } else {
+            latencyTracker = new SiddhiHistogramLatencyMetric("query1.latency", metricRegistry, 60000);
+        }
+    }
+
+    @Benchmark
+    public void markInAndOut() {
+        latencyTracker.markIn();
+        latencyTracker.markOut();
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.wso2.siddhi.core.SiddhiAppRuntime;
+import org.wso2.siddhi.core.SiddhiManager;
+import org.wso2.siddhi.core.event.Event;
+import org.wso2.siddhi.core.stream.input.InputHandler;
+import org.wso2.siddhi.core.stream.output.StreamCallback;
+import org.wso2.siddhi.core.util.transport.InMemoryBroker;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of the source and sink paths through the in-memory transport and the pass through
+ * mappers: events published to the broker are mapped by the source into a stream, and events sent to a stream are
+ * mapped by the sink and published to the broker.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    private static final String SOURCE_TOPIC = "benchmark-source";
+    private static final String SINK_TOPIC = "benchmark-sink";
+
+    @Param({"source", "sink"})
+    public String path;
+
+    private SiddhiManager siddhiManager;
+    private SiddhiAppRuntime siddhiAppRuntime;
+    private InputHandler inputHandler;
+    private InMemoryBroker.Subscriber subscriber;
+    private boolean source;
+    private Event[] events;
+    private int eventIndex = 0;
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder().include(MapperBenchmark.class.getSimpleName()).build();
+        new Runner(options).run();
+    }
+
+    @Setup
+    public void setup(Blackhole blackhole) {
+        source = "source".equals(path);
+        String siddhiApp;
+        if (source) {
+            siddhiApp = "" +
+                    "@source(type='inMemory', topic='" + SOURCE_TOPIC + "', @map(type='passThrough')) " +
+                    "define stream StockStream (symbol string, price float, volume long); " +
+                    "" +
+                    "from StockStream " +
+                    "insert into OutputStream;";
+        } else {
+            siddhiApp = "" +
+                    "define stream StockStream (symbol string, price float, volume long); " +
+                    "@sink(type='inMemory', topic='" + SINK_TOPIC + "', @map(type='passThrough')) " +
+                    "define stream OutputStream (symbol string, price float, volume long); " +
+                    "" +
+                    "from StockStream " +
+                    "insert into OutputStream;";
+        }
+
+        siddhiManager = new SiddhiManager();
+        siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("OutputStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                blackhole.consume(events);
+            }
+        });
+        subscriber = new InMemoryBroker.Subscriber() {
+            @Override
+            public void onMessage(Object msg) {
+                blackhole.consume(msg);
+            }
+
+            @Override
+            public String getTopic() {
+                return SINK_TOPIC;
+            }
+        };
+        InMemoryBroker.subscribe(subscriber);
+        inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+
+        String[] symbols = {"IBM", "WSO2", "ORACLE", "MSFT", "GOOG"};
+        events = new Event[1024];
+        for (int i = 0; i < events.length; i++) {
+            events[i] = new Event(System.currentTimeMillis(),
+                    new Object[]{symbols[i % symbols.length], 50f + (i % 100), (long) i});
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        InMemoryBroker.unsubscribe(subscriber);
+        siddhiAppRuntime.shutdown();
+        siddhiManager.shutdown();
+    }
+
+    @Benchmark
+    public void send() throws InterruptedException {
+        Event event = events[eventIndex++ & (events.length - 1)];
+        if (source) {
+            InMemoryBroker.publish(SOURCE_TOPIC, event);
+        } else {
+            inputHandler.send(event);
+        }
+    }
+}
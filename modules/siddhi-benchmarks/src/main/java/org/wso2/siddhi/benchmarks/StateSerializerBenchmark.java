@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.wso2.siddhi.core.event.ComplexEvent;
+import org.wso2.siddhi.core.event.stream.StreamEvent;
+import org.wso2.siddhi.core.util.snapshot.serializer.BinaryStateSerializer;
+import org.wso2.siddhi.core.util.snapshot.serializer.JavaStateSerializer;
+import org.wso2.siddhi.core.util.snapshot.serializer.StateSerializer;
+import org.wso2.siddhi.core.util.snapshot.state.SnapshotState;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the time taken by the state serializers to encode and decode a snapshot resembling the state of a
+ * length window query with a group by aggregation. The encoded snapshot sizes are printed at setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StateSerializerBenchmark {
+
+    @Param({"java", "binary"})
+    public String serializer;
+
+    @Param({"1000"})
+    public int windowLength;
+
+    private StateSerializer stateSerializer;
+    private Map<String, Map<String, Object>> snapshot;
+    private byte[] serializedSnapshot;
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder().include(StateSerializerBenchmark.class.getSimpleName()).build();
+        new Runner(options).run();
+    }
+
+    @Setup
+    public void setup() throws Exception {
+        stateSerializer = "binary".equals(serializer) ? new BinaryStateSerializer() : new JavaStateSerializer();
+
+        List<StreamEvent> window = new ArrayList<>(windowLength);
+        Map<String, Object> aggregates = new HashMap<>();
+        String[] symbols = {"IBM", "WSO2", "ORACLE", "MSFT", "GOOG"};
+        for (int i = 0; i < windowLength; i++) {
+            StreamEvent streamEvent = new StreamEvent(0, 0, 3);
+            String symbol = symbols[i % symbols.length];
+            streamEvent.setOutputData(new Object[]{symbol, 55.6f + i, (long) i});
+            streamEvent.setTimestamp(1500000000000L + i);
+            streamEvent.setType(ComplexEvent.Type.CURRENT);
+            window.add(streamEvent);
+            aggregates.put(symbol, new SnapshotState(new Object[]{(long) i, 55.6d * i}));
+        }
+        Map<String, Object> windowState = new HashMap<>();
+        windowState.put("ExpiredEventChunk", window);
+        Map<String, Object> aggregationState = new HashMap<>();
+        aggregationState.put("GroupByStates", aggregates);
+
+        snapshot = new HashMap<>();
+        snapshot.put("query1", windowState);
+        snapshot.put("query1-sum", aggregationState);
+        serializedSnapshot = stateSerializer.serialize(snapshot);
+        System.out.println("Serialized snapshot size with " + serializer + " serializer: " +
+                serializedSnapshot.length + " bytes");
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return stateSerializer.serialize(snapshot);
+    }
+
+    @Benchmark
+    public Object deserialize() throws Exception {
+        return stateSerializer.deserialize(serializedSnapshot);
+    }
+}
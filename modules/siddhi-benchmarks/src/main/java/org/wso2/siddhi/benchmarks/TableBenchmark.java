@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.wso2.siddhi.core.SiddhiAppRuntime;
+import org.wso2.siddhi.core.SiddhiManager;
+import org.wso2.siddhi.core.event.Event;
+import org.wso2.siddhi.core.stream.input.InputHandler;
+import org.wso2.siddhi.core.stream.output.StreamCallback;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of finding, updating, and inserting and deleting rows of an in-memory table holding ten
+ * thousand rows, with no index, with a secondary index and with a primary key on the attribute the rows are
+ * matched on.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TableBenchmark {
+
+    private static final int KEYS = 10000;
+
+    @Param({"none", "index", "primaryKey"})
+    public String index;
+
+    private SiddhiManager siddhiManager;
+    private SiddhiAppRuntime siddhiAppRuntime;
+    private InputHandler insertStream;
+    private InputHandler findStream;
+    private InputHandler updateStream;
+    private InputHandler deleteStream;
+    private String[] symbols;
+    private int eventCount = 0;
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder().include(TableBenchmark.class.getSimpleName()).build();
+        new Runner(options).run();
+    }
+
+    @Setup
+    public void setup(Blackhole blackhole) throws InterruptedException {
+        String annotation = "";
+        if ("index".equals(index)) {
+            annotation = "@Index('symbol') ";
+        } else if ("primaryKey".equals(index)) {
+            annotation = "@PrimaryKey('symbol') ";
+        }
+        String siddhiApp = "" +
+                "define stream InsertStream (symbol string, price float, volume long); " +
+                "define stream FindStream (symbol string); " +
+                "define stream UpdateStream (symbol string, price float); " +
+                "define stream DeleteStream (symbol string); " +
+                annotation +
+                "define table StockTable (symbol string, price float, volume long); " +
+                "" +
+                "from InsertStream " +
+                "insert into StockTable; " +
+                "" +
+                "from FindStream join StockTable " +
+                "   on FindStream.symbol == StockTable.symbol " +
+                "select StockTable.symbol, StockTable.price, StockTable.volume " +
+                "insert into OutputStream; " +
+                "" +
+                "from UpdateStream " +
+                "update StockTable " +
+                "   set StockTable.price = price " +
+                "   on StockTable.symbol == symbol; " +
+                "" +
+                "from DeleteStream " +
+                "delete StockTable " +
+                "   on StockTable.symbol == symbol;";
+
+        siddhiManager = new SiddhiManager();
+        siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("OutputStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                blackhole.consume(events);
+            }
+        });
+        insertStream = siddhiAppRuntime.getInputHandler("InsertStream");
+        findStream = siddhiAppRuntime.getInputHandler("FindStream");
+        updateStream = siddhiAppRuntime.getInputHandler("UpdateStream");
+        deleteStream = siddhiAppRuntime.getInputHandler("DeleteStream");
+        siddhiAppRuntime.start();
+
+        symbols = new String[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            symbols[i] = "S" + i;
+            insertStream.send(new Object[]{symbols[i], 50f, (long) i});
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        siddhiAppRuntime.shutdown();
+        siddhiManager.shutdown();
+    }
+
+    @Benchmark
+    public void find() throws InterruptedException {
+        findStream.send(new Object[]{symbols[nextKey()]});
+    }
+
+    @Benchmark
+    public void update() throws InterruptedException {
+        int i = nextKey();
+        updateStream.send(new Object[]{symbols[i], 50f + (i % 100)});
+    }
+
+    @Benchmark
+    public void insertAndDelete() throws InterruptedException {
+        int i = nextKey();
+        insertStream.send(new Object[]{"N" + i, 50f, (long) i});
+        deleteStream.send(new Object[]{"N" + i});
+    }
+
+    private int nextKey() {
+        eventCount = (eventCount + 7) & Integer.MAX_VALUE;
+        return eventCount % KEYS;
+    }
+}
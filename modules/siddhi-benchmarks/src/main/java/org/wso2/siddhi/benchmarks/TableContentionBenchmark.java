@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.wso2.siddhi.core.SiddhiAppRuntime;
+import org.wso2.siddhi.core.SiddhiManager;
+import org.wso2.siddhi.core.event.Event;
+import org.wso2.siddhi.core.stream.input.InputHandler;
+import org.wso2.siddhi.core.stream.output.StreamCallback;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of an in-memory table concurrently updated by two writer threads and queried by six
+ * reader threads through joins and {@code in} conditions, for the default read write lock and for the
+ * {@code @Concurrency(type='optimistic')} mode.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TableContentionBenchmark {
+
+    private static final int KEYS = 10000;
+
+    @Param({"lock", "optimistic"})
+    public String concurrency;
+
+    private SiddhiManager siddhiManager;
+    private SiddhiAppRuntime siddhiAppRuntime;
+    private InputHandler stockStream;
+    private InputHandler checkStockStream;
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder().include(TableContentionBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+
+    @Setup
+    public void setup(Blackhole blackhole) throws InterruptedException {
+        String siddhiApp = "" +
+                "define stream StockStream (symbol string, price float, volume long); " +
+                "define stream CheckStockStream (symbol string); " +
+                "" +
+                "@Concurrency(type='" + concurrency + "') " +
+                "@PrimaryKey('symbol') " +
+                "define table StockTable (symbol string, price float, volume long); " +
+                "" +
+                "from StockStream " +
+                "update or insert into StockTable " +
+                "   set StockTable.price = price, StockTable.volume = volume " +
+                "   on StockTable.symbol == symbol ;" +
+                "" +
+                "from CheckStockStream join StockTable " +
+                "   on CheckStockStream.symbol == StockTable.symbol " +
+                "select CheckStockStream.symbol, StockTable.price " +
+                "insert into OutputStream ;" +
+                "" +
+                "from CheckStockStream[(symbol == StockTable.symbol) in StockTable] " +
+                "insert into ContainsStream ;";
+
+        siddhiManager = new SiddhiManager();
+        siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("OutputStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                blackhole.consume(events);
+            }
+        });
+        siddhiAppRuntime.addCallback("ContainsStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                blackhole.consume(events);
+            }
+        });
+        stockStream = siddhiAppRuntime.getInputHandler("StockStream");
+        checkStockStream = siddhiAppRuntime.getInputHandler("CheckStockStream");
+        siddhiAppRuntime.start();
+        for (int i = 0; i < KEYS; i++) {
+            stockStream.send(new Object[]{"S" + i, 50f, (long) i});
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        siddhiAppRuntime.shutdown();
+        siddhiManager.shutdown();
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(2)
+    public void write(Sequence sequence) throws InterruptedException {
+        int i = sequence.next();
+        stockStream.send(new Object[]{"S" + (i % KEYS), 50f + (i % 100), (long) i});
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(6)
+    public void read(Sequence sequence) throws InterruptedException {
+        checkStockStream.send(new Object[]{"S" + (sequence.next() % KEYS)});
+    }
+
+    /**
+     * Per thread sequence of the keys being written and read.
+     */
+    @State(Scope.Thread)
+    public static class Sequence {
+        private int value = (int) (Math.random() * KEYS);
+
+        int next() {
+            value = (value + 7) & Integer.MAX_VALUE;
+            return value;
+        }
+    }
+}
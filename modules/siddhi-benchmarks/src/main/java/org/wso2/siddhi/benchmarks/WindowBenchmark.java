@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.wso2.siddhi.core.SiddhiAppRuntime;
+import org.wso2.siddhi.core.SiddhiManager;
+import org.wso2.siddhi.core.event.Event;
+import org.wso2.siddhi.core.stream.input.InputHandler;
+import org.wso2.siddhi.core.stream.output.StreamCallback;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of a query through each of the windows of siddhi-core, emitting both the current and the
+ * expired events. The event time of the external time windows advances by a millisecond per event.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WindowBenchmark {
+
+    private static final Map<String, String> WINDOWS = new HashMap<>();
+
+    static {
+        WINDOWS.put("length", "length(1000)");
+        WINDOWS.put("lengthBatch", "lengthBatch(1000)");
+        WINDOWS.put("time", "time(1 sec)");
+        WINDOWS.put("timeBatch", "timeBatch(1 sec)");
+        WINDOWS.put("timeLength", "timeLength(1 sec, 1000)");
+        WINDOWS.put("externalTime", "externalTime(timestamp, 1 sec)");
+        WINDOWS.put("externalTimeBatch", "externalTimeBatch(timestamp, 1 sec)");
+        WINDOWS.put("sort", "sort(1000, price, 'asc')");
+        WINDOWS.put("frequent", "frequent(3, symbol)");
+        WINDOWS.put("lossyFrequent", "lossyFrequent(0.1, 0.01, symbol)");
+        WINDOWS.put("cron", "cron('*/1 * * * * ?')");
+        WINDOWS.put("batch", "batch()");
+    }
+
+    @Param({"length", "lengthBatch", "time", "timeBatch", "timeLength", "externalTime", "externalTimeBatch", "sort",
+            "frequent", "lossyFrequent", "cron", "batch"})
+    public String window;
+
+    private SiddhiManager siddhiManager;
+    private SiddhiAppRuntime siddhiAppRuntime;
+    private InputHandler inputHandler;
+    private String[] symbols;
+    private long eventCount = 0;
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder().include(WindowBenchmark.class.getSimpleName()).build();
+        new Runner(options).run();
+    }
+
+    @Setup
+    public void setup(Blackhole blackhole) {
+        String siddhiApp = "" +
+                "define stream StockStream (symbol string, price float, volume long, timestamp long); " +
+                "" +
+                "from StockStream#window." + WINDOWS.get(window) + " " +
+                "select symbol, price, volume " +
+                "insert all events into OutputStream;";
+
+        siddhiManager = new SiddhiManager();
+        siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("OutputStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                blackhole.consume(events);
+            }
+        });
+        inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+
+        symbols = new String[100];
+        for (int i = 0; i < symbols.length; i++) {
+            symbols[i] = "S" + i;
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        siddhiAppRuntime.shutdown();
+        siddhiManager.shutdown();
+    }
+
+    @Benchmark
+    public void send() throws InterruptedException {
+        long i = eventCount++;
+        inputHandler.send(new Object[]{symbols[(int) (i % symbols.length)], 50f + (i % 100), i, i});
+    }
+}
@@ -28,9 +28,13 @@ import org.wso2.siddhi.core.exception.CannotRestoreSiddhiAppStateException;
 import org.wso2.siddhi.core.exception.DefinitionNotExistException;
 import org.wso2.siddhi.core.exception.QueryNotExistException;
 import org.wso2.siddhi.core.exception.StoreQueryCreationException;
+import org.wso2.siddhi.core.partition.PartitionLaneScheduler;
 import org.wso2.siddhi.core.partition.PartitionRuntime;
 import org.wso2.siddhi.core.query.QueryRuntime;
+import org.wso2.siddhi.core.query.PreparedStoreQuery;
+import org.wso2.siddhi.core.query.StoreQueryIterator;
 import org.wso2.siddhi.core.query.StoreQueryRuntime;
+import org.wso2.siddhi.core.query.StoreQueryRuntimeCache;
 import org.wso2.siddhi.core.query.input.stream.StreamRuntime;
 import org.wso2.siddhi.core.query.input.stream.single.SingleStreamRuntime;
 import org.wso2.siddhi.core.query.output.callback.OutputCallback;
@@ -39,6 +43,7 @@ import org.wso2.siddhi.core.stream.StreamJunction;
 import org.wso2.siddhi.core.stream.input.InputHandler;
 import org.wso2.siddhi.core.stream.input.InputManager;
 import org.wso2.siddhi.core.stream.input.source.Source;
+import org.wso2.siddhi.core.stream.input.source.SourceFlowController;
 import org.wso2.siddhi.core.stream.input.source.SourceHandlerManager;
 import org.wso2.siddhi.core.stream.output.StreamCallback;
 import org.wso2.siddhi.core.stream.output.sink.Sink;
@@ -68,6 +73,7 @@ import org.wso2.siddhi.query.api.definition.WindowDefinition;
 import org.wso2.siddhi.query.api.exception.SiddhiAppContextException;
 import org.wso2.siddhi.query.api.execution.query.StoreQuery;
 import org.wso2.siddhi.query.compiler.SiddhiCompiler;
+import org.wso2.siddhi.query.compiler.exception.SiddhiParserException;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -87,6 +93,7 @@ import java.util.stream.Collectors;
  */
 public class SiddhiAppRuntime {
     private static final Logger log = Logger.getLogger(SiddhiAppRuntime.class);
+    private static final int STORE_QUERY_CACHE_SIZE = 100;
     private final Map<String, Window> windowMap;
     private final Map<String, List<Source>> sourceMap;
     private final Map<String, List<Sink>> sinkMap;
@@ -111,8 +118,9 @@ public class SiddhiAppRuntime {
     private Map<String, Table> tableMap = new ConcurrentHashMap<String, Table>(); // Contains event tables.
     private Map<String, PartitionRuntime> partitionMap =
             new ConcurrentHashMap<String, PartitionRuntime>(); // Contains partitions.
-    private Map<StoreQuery, StoreQueryRuntime> storeQueryRuntimeMap =
-            new ConcurrentHashMap<>(); // Contains partitions.
+    private StoreQueryRuntimeCache<StoreQuery, StoreQueryRuntime> parsedStoreQueryRuntimeCache;
+    private StoreQueryRuntimeCache<String, StoreQueryRuntime> storeQueryRuntimeCache;
+    private StoreQueryRuntimeCache<String, PreparedStoreQuery> preparedStoreQueryCache;
     private SiddhiAppContext siddhiAppContext;
     private Map<String, SiddhiAppRuntime> siddhiAppRuntimeMap;
     private MemoryUsageTracker memoryUsageTracker;
@@ -152,6 +160,12 @@ public class SiddhiAppRuntime {
         this.partitionMap = partitionMap;
         this.siddhiAppContext = siddhiAppContext;
         this.siddhiAppRuntimeMap = siddhiAppRuntimeMap;
+        this.parsedStoreQueryRuntimeCache = new StoreQueryRuntimeCache<>("parsedQueryCache", STORE_QUERY_CACHE_SIZE,
+                siddhiAppContext);
+        this.storeQueryRuntimeCache = new StoreQueryRuntimeCache<>("queryCache", STORE_QUERY_CACHE_SIZE,
+                siddhiAppContext);
+        this.preparedStoreQueryCache = new StoreQueryRuntimeCache<>("preparedQueryCache", STORE_QUERY_CACHE_SIZE,
+                siddhiAppContext);
         if (siddhiAppContext.getStatisticsManager() != null) {
             monitorQueryMemoryUsage();
             monitorBufferedEvents();
@@ -169,12 +183,25 @@ public class SiddhiAppRuntime {
                 source.getMapper().setInputHandler(inputHandler);
             }
         }
+        if (siddhiAppContext.getSourceFlowController() != null) {
+            registerForFlowControl(siddhiAppContext.getSourceFlowController());
+        }
     }
 
     public String getName() {
         return siddhiAppContext.getName();
     }
 
+    /**
+     * Get the flow controller pausing the sources on backpressure, configured through the
+     * {@code @app:backpressure} annotation.
+     *
+     * @return the flow controller, or null if backpressure is not enabled
+     */
+    public SourceFlowController getSourceFlowController() {
+        return siddhiAppContext.getSourceFlowController();
+    }
+
     /**
      * Get the stream definition map.
      *
@@ -262,7 +289,7 @@ public class SiddhiAppRuntime {
     }
 
     public Event[] query(String storeQuery) {
-        return query(SiddhiCompiler.parseStoreQuery(storeQuery), storeQuery);
+        return query(null, storeQuery);
     }
 
     public Event[] query(StoreQuery storeQuery) {
@@ -274,23 +301,64 @@ public class SiddhiAppRuntime {
             if (siddhiAppContext.isStatsEnabled() && storeQueryLatencyTracker != null) {
                 storeQueryLatencyTracker.markIn();
             }
-            StoreQueryRuntime storeQueryRuntime = storeQueryRuntimeMap.get(storeQuery);
-            if (storeQueryRuntime == null) {
-                storeQueryRuntime = StoreQueryParser.parse(storeQuery, siddhiAppContext, tableMap, windowMap,
-                        aggregationMap);
-                storeQueryRuntimeMap.put(storeQuery, storeQueryRuntime);
-            } else {
-                storeQueryRuntime.reset();
+            return getStoreQueryRuntime(storeQuery, storeQueryString).execute();
+        } catch (SiddhiParserException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw toStoreQueryCreationException(e, storeQueryString);
+        } finally {
+            if (siddhiAppContext.isStatsEnabled() && storeQueryLatencyTracker != null) {
+                storeQueryLatencyTracker.markOut();
             }
+        }
+    }
 
-            return storeQueryRuntime.execute();
-        } catch (RuntimeException e) {
-            if (e instanceof SiddhiAppContextException) {
-                throw new StoreQueryCreationException(((SiddhiAppContextException) e).getMessageWithOutContext(), e,
-                        ((SiddhiAppContextException) e).getQueryContextStartIndex(),
-                        ((SiddhiAppContextException) e).getQueryContextEndIndex(), null, storeQueryString);
+    /**
+     * Execute the store query, pulling the results from the store page by page as they are iterated.
+     *
+     * @param storeQuery the store query
+     * @param fetchSize  maximum number of events in a page
+     * @return iterator of pages of the resulting events, which should be closed if not iterated until the end
+     */
+    public StoreQueryIterator queryAsIterator(String storeQuery, int fetchSize) {
+        return queryAsIterator(storeQuery, 0, SiddhiConstants.UNKNOWN_STATE, fetchSize);
+    }
+
+    /**
+     * Execute the store query, pulling the results from the store page by page as they are iterated. Only the
+     * results from the given offset up to the given limit are returned, and the store is released as soon as the
+     * limit is reached.
+     *
+     * @param storeQuery the store query
+     * @param offset     number of resulting events to skip
+     * @param limit      maximum number of resulting events to return, or -1 to return all the events
+     * @param fetchSize  maximum number of events in a page
+     * @return iterator of pages of the resulting events, which should be closed if not iterated until the end
+     */
+    public StoreQueryIterator queryAsIterator(String storeQuery, long offset, long limit, int fetchSize) {
+        return queryAsIterator(null, storeQuery, offset, limit, fetchSize);
+    }
+
+    public StoreQueryIterator queryAsIterator(StoreQuery storeQuery, long offset, long limit, int fetchSize) {
+        return queryAsIterator(storeQuery, null, offset, limit, fetchSize);
+    }
+
+    private StoreQueryIterator queryAsIterator(StoreQuery storeQuery, String storeQueryString, long offset,
+                                               long limit, int fetchSize) {
+        if (fetchSize <= 0 || offset < 0 || limit < SiddhiConstants.UNKNOWN_STATE) {
+            throw new StoreQueryCreationException("Invalid fetch size " + fetchSize + ", offset " + offset +
+                    " or limit " + limit + " for store query, fetch size should be positive, offset should not be " +
+                    "negative and limit should be -1 or not negative");
+        }
+        try {
+            if (siddhiAppContext.isStatsEnabled() && storeQueryLatencyTracker != null) {
+                storeQueryLatencyTracker.markIn();
             }
-            throw new StoreQueryCreationException(e.getMessage(), e);
+            return getStoreQueryRuntime(storeQuery, storeQueryString).executeAsIterator(offset, limit, fetchSize);
+        } catch (SiddhiParserException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw toStoreQueryCreationException(e, storeQueryString);
         } finally {
             if (siddhiAppContext.isStatsEnabled() && storeQueryLatencyTracker != null) {
                 storeQueryLatencyTracker.markOut();
@@ -298,8 +366,90 @@ public class SiddhiAppRuntime {
         }
     }
 
+    /**
+     * Get the runtime of the store query, which is given either parsed or as a string. Runtimes of store query
+     * strings are cached by the string, so that a cached store query is not parsed again, and the runtimes of parsed
+     * store queries are cached by the parsed store query. Both caches are bounded.
+     *
+     * @param storeQuery       the parsed store query, or null if only the store query string is given
+     * @param storeQueryString the store query string, or null if only the parsed store query is given
+     * @return runtime of the store query
+     */
+    private StoreQueryRuntime getStoreQueryRuntime(StoreQuery storeQuery, String storeQueryString) {
+        StoreQueryRuntime storeQueryRuntime;
+        if (storeQueryString != null) {
+            storeQueryRuntime = storeQueryRuntimeCache.get(storeQueryString);
+            if (storeQueryRuntime == null) {
+                if (storeQuery == null) {
+                    storeQuery = SiddhiCompiler.parseStoreQuery(storeQueryString);
+                }
+                storeQueryRuntime = StoreQueryParser.parse(storeQuery, siddhiAppContext, tableMap, windowMap,
+                        aggregationMap);
+                storeQueryRuntimeCache.put(storeQueryString, storeQueryRuntime);
+                return storeQueryRuntime;
+            }
+        } else {
+            storeQueryRuntime = parsedStoreQueryRuntimeCache.get(storeQuery);
+            if (storeQueryRuntime == null) {
+                storeQueryRuntime = StoreQueryParser.parse(storeQuery, siddhiAppContext, tableMap, windowMap,
+                        aggregationMap);
+                parsedStoreQueryRuntimeCache.put(storeQuery, storeQueryRuntime);
+                return storeQueryRuntime;
+            }
+        }
+        storeQueryRuntime.reset();
+        return storeQueryRuntime;
+    }
+
+    /**
+     * Prepare a store query having '?' placeholders in its 'on' condition, such as
+     * "from StockTable on symbol == ? select *". The returned store query is parsed only once, and can be executed
+     * repeatedly binding different values to its placeholders.
+     *
+     * @param storeQuery the store query having placeholders
+     * @return the prepared store query
+     */
+    public PreparedStoreQuery prepareQuery(String storeQuery) {
+        PreparedStoreQuery preparedStoreQuery = preparedStoreQueryCache.get(storeQuery);
+        if (preparedStoreQuery == null) {
+            preparedStoreQuery = new PreparedStoreQuery(storeQuery, (parsedStoreQuery, parameterDefinition) -> {
+                try {
+                    return StoreQueryParser.parse(parsedStoreQuery, siddhiAppContext, tableMap, windowMap,
+                            aggregationMap, parameterDefinition);
+                } catch (RuntimeException e) {
+                    throw toStoreQueryCreationException(e, storeQuery);
+                }
+            });
+            preparedStoreQueryCache.put(storeQuery, preparedStoreQuery);
+        }
+        return preparedStoreQuery;
+    }
+
+    /**
+     * @return number of store queries executed or prepared by their strings, whose runtimes were found cached
+     */
+    public long getStoreQueryCacheHitCount() {
+        return storeQueryRuntimeCache.getHitCount() + preparedStoreQueryCache.getHitCount();
+    }
+
+    /**
+     * @return number of store queries executed or prepared by their strings, whose runtimes had to be created
+     */
+    public long getStoreQueryCacheMissCount() {
+        return storeQueryRuntimeCache.getMissCount() + preparedStoreQueryCache.getMissCount();
+    }
+
+    private StoreQueryCreationException toStoreQueryCreationException(RuntimeException e, String storeQueryString) {
+        if (e instanceof SiddhiAppContextException) {
+            return new StoreQueryCreationException(((SiddhiAppContextException) e).getMessageWithOutContext(), e,
+                    ((SiddhiAppContextException) e).getQueryContextStartIndex(),
+                    ((SiddhiAppContextException) e).getQueryContextEndIndex(), null, storeQueryString);
+        }
+        return new StoreQueryCreationException(e.getMessage(), e);
+    }
+
     public Attribute[] getStoreQueryOutputAttributes(String storeQuery) {
-        return getStoreQueryOutputAttributes(SiddhiCompiler.parseStoreQuery(storeQuery), storeQuery);
+        return getStoreQueryOutputAttributes(null, storeQuery);
     }
 
     public Attribute[] getStoreQueryOutputAttributes(StoreQuery storeQuery) {
@@ -316,13 +466,9 @@ public class SiddhiAppRuntime {
      */
     private Attribute[] getStoreQueryOutputAttributes(StoreQuery storeQuery, String storeQueryString) {
         try {
-            StoreQueryRuntime storeQueryRuntime = storeQueryRuntimeMap.get(storeQuery);
-            if (storeQueryRuntime == null) {
-                storeQueryRuntime = StoreQueryParser.parse(storeQuery, siddhiAppContext, tableMap, windowMap,
-                        aggregationMap);
-                storeQueryRuntimeMap.put(storeQuery, storeQueryRuntime);
-            }
-            return storeQueryRuntime.getStoreQueryOutputAttributes();
+            return getStoreQueryRuntime(storeQuery, storeQueryString).getStoreQueryOutputAttributes();
+        } catch (SiddhiParserException e) {
+            throw e;
         } catch (RuntimeException e) {
             if (e instanceof SiddhiAppContextException) {
                 throw new StoreQueryCreationException(((SiddhiAppContextException) e).getMessageWithOutContext(), e,
@@ -376,6 +522,9 @@ public class SiddhiAppRuntime {
                     source.connectWithRetry();
                 }
             }
+            if (siddhiAppContext.getSourceFlowController() != null) {
+                siddhiAppContext.getSourceFlowController().start();
+            }
 
             for (AggregationRuntime aggregationRuntime : aggregationMap.values()) {
                 aggregationRuntime.getRecreateInMemoryData().recreateInMemoryData();
@@ -394,6 +543,9 @@ public class SiddhiAppRuntime {
     }
 
     public synchronized void shutdown() {
+        if (siddhiAppContext.getSourceFlowController() != null) {
+            siddhiAppContext.getSourceFlowController().stop();
+        }
         SourceHandlerManager sourceHandlerManager = siddhiAppContext.getSiddhiContext().getSourceHandlerManager();
         for (List<Source> sources : sourceMap.values()) {
             for (Source source : sources) {
@@ -530,9 +682,13 @@ public class SiddhiAppRuntime {
     public PersistenceReference persist() {
         try {
             // first, pause all the event sources
-            sourceMap.values().forEach(list -> list.forEach(Source::pause));
+            sourceMap.values().forEach(list -> list.forEach(Source::requestFlowControlPause));
             // take snapshots of execution units
             if (siddhiAppContext.getSiddhiContext().getPersistenceStore() != null) {
+                if (siddhiAppContext.getSnapshotService().isNonBlockingSnapshot()) {
+                    return PersistenceHelper.persist(siddhiAppContext.getSnapshotService().captureFullSnapshot(),
+                            siddhiAppContext);
+                }
                 return PersistenceHelper.persist(siddhiAppContext.getSnapshotService().fullSnapshot(),
                         siddhiAppContext);
             } else {
@@ -541,43 +697,43 @@ public class SiddhiAppRuntime {
             }
         } finally {
             // at the end, resume the event sources
-            sourceMap.values().forEach(list -> list.forEach(Source::resume));
+            sourceMap.values().forEach(list -> list.forEach(Source::releaseFlowControlPause));
         }
     }
 
     public byte[] snapshot() {
         try {
             // first, pause all the event sources
-            sourceMap.values().forEach(list -> list.forEach(Source::pause));
+            sourceMap.values().forEach(list -> list.forEach(Source::requestFlowControlPause));
             // take snapshots of execution units
             return siddhiAppContext.getSnapshotService().fullSnapshot();
         } finally {
             // at the end, resume the event sources
-            sourceMap.values().forEach(list -> list.forEach(Source::resume));
+            sourceMap.values().forEach(list -> list.forEach(Source::releaseFlowControlPause));
         }
     }
 
     public void restore(byte[] snapshot) throws CannotRestoreSiddhiAppStateException {
         try {
             // first, pause all the event sources
-            sourceMap.values().forEach(list -> list.forEach(Source::pause));
+            sourceMap.values().forEach(list -> list.forEach(Source::requestFlowControlPause));
             // start the restoring process
             siddhiAppContext.getSnapshotService().restore(snapshot);
         } finally {
             // at the end, resume the event sources
-            sourceMap.values().forEach(list -> list.forEach(Source::resume));
+            sourceMap.values().forEach(list -> list.forEach(Source::releaseFlowControlPause));
         }
     }
 
     public void restoreRevision(String revision) throws CannotRestoreSiddhiAppStateException {
         try {
             // first, pause all the event sources
-            sourceMap.values().forEach(list -> list.forEach(Source::pause));
+            sourceMap.values().forEach(list -> list.forEach(Source::requestFlowControlPause));
             // start the restoring process
             siddhiAppContext.getSnapshotService().restoreRevision(revision);
         } finally {
             // at the end, resume the event sources
-            sourceMap.values().forEach(list -> list.forEach(Source::resume));
+            sourceMap.values().forEach(list -> list.forEach(Source::releaseFlowControlPause));
         }
     }
 
@@ -585,16 +741,37 @@ public class SiddhiAppRuntime {
         String revision;
         try {
             // first, pause all the event sources
-            sourceMap.values().forEach(list -> list.forEach(Source::pause));
+            sourceMap.values().forEach(list -> list.forEach(Source::requestFlowControlPause));
             // start the restoring process
             revision = siddhiAppContext.getSnapshotService().restoreLastRevision();
         } finally {
             // at the end, resume the event sources
-            sourceMap.values().forEach(list -> list.forEach(Source::resume));
+            sourceMap.values().forEach(list -> list.forEach(Source::releaseFlowControlPause));
         }
         return revision;
     }
 
+    private void registerForFlowControl(SourceFlowController sourceFlowController) {
+        for (Map.Entry<String, StreamJunction> entry : streamJunctionMap.entrySet()) {
+            if (entry.getValue().containsBufferedEvents()) {
+                sourceFlowController.addBuffer(entry.getKey(), entry.getValue(), entry.getValue().getBufferSize());
+            }
+        }
+        for (Map.Entry<String, List<Sink>> entry : sinkMap.entrySet()) {
+            for (Sink sink : entry.getValue()) {
+                if (sink.getAsyncSinkPublisher() != null) {
+                    sourceFlowController.addBuffer(entry.getKey() + " sink '" + sink.getType() + "'",
+                            sink.getAsyncSinkPublisher(), sink.getAsyncSinkPublisher().getBufferSize());
+                }
+            }
+        }
+        for (List<Source> sources : sourceMap.values()) {
+            for (Source source : sources) {
+                sourceFlowController.addSource(source);
+            }
+        }
+    }
+
     private void monitorQueryMemoryUsage() {
         memoryUsageTracker = siddhiAppContext
                 .getSiddhiContext()
@@ -637,17 +814,65 @@ public class SiddhiAppRuntime {
             for (Map.Entry<String, StreamJunction> streamJunctionEntry : streamJunctionMap.entrySet()) {
                 registerForBufferedEvents(streamJunctionEntry);
             }
+            PartitionLaneScheduler partitionLaneScheduler = ((PartitionRuntime) entry.getValue())
+                    .getPartitionLaneScheduler();
+            if (partitionLaneScheduler != null) {
+                registerForBufferedEvents(((PartitionRuntime) entry.getValue()).getPartitionId(),
+                        partitionLaneScheduler);
+            }
+        }
+        for (Map.Entry<String, List<Sink>> entry : sinkMap.entrySet()) {
+            for (Sink sink : entry.getValue()) {
+                if (sink.getAsyncSinkPublisher() != null) {
+                    registerForBufferedEvents(entry.getKey(), sink);
+                }
+            }
+        }
+    }
+
+    private void registerForBufferedEvents(String streamId, Sink sink) {
+        String metricName = siddhiAppContext.getSiddhiContext().getStatisticsConfiguration().getMetricPrefix() +
+                SiddhiConstants.METRIC_DELIMITER + SiddhiConstants.METRIC_INFIX_SIDDHI_APPS +
+                SiddhiConstants.METRIC_DELIMITER + getName() + SiddhiConstants.METRIC_DELIMITER +
+                SiddhiConstants.METRIC_INFIX_SIDDHI + SiddhiConstants.METRIC_DELIMITER +
+                SiddhiConstants.METRIC_INFIX_SINKS + SiddhiConstants.METRIC_DELIMITER + streamId +
+                SiddhiConstants.METRIC_DELIMITER + sink.getType() + SiddhiConstants.METRIC_DELIMITER +
+                sink.getElementId() + SiddhiConstants.METRIC_DELIMITER + "size";
+        for (String regex : siddhiAppContext.getIncludedMetrics()) {
+            if (metricName.matches(regex)) {
+                bufferedEventsTracker.registerEventBufferHolder(sink.getAsyncSinkPublisher(), metricName);
+                break;
+            }
+        }
+    }
+
+    private void registerForBufferedEvents(String partitionId, PartitionLaneScheduler partitionLaneScheduler) {
+        String partitionMetricName = siddhiAppContext.getSiddhiContext().getStatisticsConfiguration()
+                .getMetricPrefix() + SiddhiConstants.METRIC_DELIMITER + SiddhiConstants.METRIC_INFIX_SIDDHI_APPS +
+                SiddhiConstants.METRIC_DELIMITER + getName() + SiddhiConstants.METRIC_DELIMITER +
+                SiddhiConstants.METRIC_INFIX_SIDDHI + SiddhiConstants.METRIC_DELIMITER +
+                SiddhiConstants.METRIC_INFIX_PARTITIONS + SiddhiConstants.METRIC_DELIMITER + partitionId +
+                SiddhiConstants.METRIC_DELIMITER;
+        for (int i = 0; i < partitionLaneScheduler.getWorkers(); i++) {
+            String metricName = partitionMetricName + "lane" + i + SiddhiConstants.METRIC_DELIMITER + "size";
+            for (String regex : siddhiAppContext.getIncludedMetrics()) {
+                if (metricName.matches(regex)) {
+                    bufferedEventsTracker.registerEventBufferHolder(partitionLaneScheduler.getLane(i), metricName);
+                    break;
+                }
+            }
         }
     }
 
     private void registerForBufferedEvents(Map.Entry<String, StreamJunction> entry) {
         if (entry.getValue().containsBufferedEvents()) {
-            String metricName = siddhiAppContext.getSiddhiContext().getStatisticsConfiguration().getMetricPrefix() +
-                    SiddhiConstants.METRIC_DELIMITER + SiddhiConstants.METRIC_INFIX_SIDDHI_APPS +
+            String streamMetricName = siddhiAppContext.getSiddhiContext().getStatisticsConfiguration()
+                    .getMetricPrefix() + SiddhiConstants.METRIC_DELIMITER + SiddhiConstants.METRIC_INFIX_SIDDHI_APPS +
                     SiddhiConstants.METRIC_DELIMITER + getName() + SiddhiConstants.METRIC_DELIMITER +
                     SiddhiConstants.METRIC_INFIX_SIDDHI + SiddhiConstants.METRIC_DELIMITER +
                     SiddhiConstants.METRIC_INFIX_STREAMS + SiddhiConstants.METRIC_DELIMITER +
-                    entry.getKey() + SiddhiConstants.METRIC_DELIMITER + "size";
+                    entry.getKey() + SiddhiConstants.METRIC_DELIMITER;
+            String metricName = streamMetricName + "size";
             boolean matchExist = false;
             for (String regex : siddhiAppContext.getIncludedMetrics()) {
                 if (metricName.matches(regex)) {
@@ -657,6 +882,10 @@ public class SiddhiAppRuntime {
             }
             if (matchExist) {
                 bufferedEventsTracker.registerEventBufferHolder(entry.getValue(), metricName);
+                siddhiAppContext.getStatisticsManager().reportConfiguration(streamMetricName +
+                        SiddhiConstants.ANNOTATION_ELEMENT_WAIT_STRATEGY, entry.getValue().getWaitStrategy());
+                siddhiAppContext.getStatisticsManager().reportConfiguration(streamMetricName +
+                        SiddhiConstants.ANNOTATION_ELEMENT_PRODUCER, entry.getValue().getProducerType());
             }
         }
     }
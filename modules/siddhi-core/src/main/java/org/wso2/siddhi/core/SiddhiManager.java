@@ -29,6 +29,7 @@ import org.wso2.siddhi.core.util.config.ConfigManager;
 import org.wso2.siddhi.core.util.parser.SiddhiAppParser;
 import org.wso2.siddhi.core.util.persistence.IncrementalPersistenceStore;
 import org.wso2.siddhi.core.util.persistence.PersistenceStore;
+import org.wso2.siddhi.core.util.snapshot.serializer.StateSerializer;
 import org.wso2.siddhi.query.api.SiddhiApp;
 import org.wso2.siddhi.query.compiler.SiddhiCompiler;
 
@@ -110,6 +111,17 @@ public class SiddhiManager {
         this.siddhiContext.setPersistenceStore(persistenceStore);
     }
 
+    /**
+     * Method to set the serializer used to convert the snapshot states to bytes when persisting.
+     * {@link org.wso2.siddhi.core.util.snapshot.serializer.JavaStateSerializer} is the default serializer, and
+     * {@link org.wso2.siddhi.core.util.snapshot.serializer.BinaryStateSerializer} offers a compact binary format.
+     *
+     * @param stateSerializer State Serializer implementation to be used.
+     */
+    public void setStateSerializer(StateSerializer stateSerializer) {
+        this.siddhiContext.setStateSerializer(stateSerializer);
+    }
+
     /**
      * Method to set sink handler manager that would create sink handlers for each sink
      *
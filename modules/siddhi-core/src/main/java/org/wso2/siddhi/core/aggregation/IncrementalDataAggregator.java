@@ -24,13 +24,16 @@ import org.wso2.siddhi.core.event.stream.MetaStreamEvent;
 import org.wso2.siddhi.core.event.stream.StreamEvent;
 import org.wso2.siddhi.core.event.stream.StreamEventPool;
 import org.wso2.siddhi.core.executor.ExpressionExecutor;
+import org.wso2.siddhi.core.query.selector.GroupByKeyGenerator;
 import org.wso2.siddhi.core.util.IncrementalTimeConverterUtil;
 import org.wso2.siddhi.query.api.aggregation.TimePeriod;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 
 /**
  * This class implements the logic to aggregate data that is in-memory or in tables, in incremental data processing.
@@ -46,7 +49,7 @@ public class IncrementalDataAggregator {
     private final BaseIncrementalValueStore baseIncrementalValueStore;
 
     private final Map<Long, BaseIncrementalValueStore> baseIncrementalValueStoreMap;
-    private final Map<Long, Map<String, BaseIncrementalValueStore>> baseIncrementalValueGroupByStoreMap;
+    private final Map<Long, Map<Object, BaseIncrementalValueStore>> baseIncrementalValueGroupByStoreMap;
 
     public IncrementalDataAggregator(List<TimePeriod.Duration> incrementalDurations,
                                      TimePeriod.Duration aggregateForDuration, List<ExpressionExecutor> baseExecutors,
@@ -58,8 +61,8 @@ public class IncrementalDataAggregator {
         StreamEventPool streamEventPool = new StreamEventPool(metaStreamEvent, 10);
         this.baseIncrementalValueStore = new BaseIncrementalValueStore(-1, baseExecutors, streamEventPool,
                 siddhiAppContext, null);
-        this.baseIncrementalValueStoreMap = new HashMap<>();
-        this.baseIncrementalValueGroupByStoreMap = new HashMap<>();
+        this.baseIncrementalValueStoreMap = new TreeMap<>();
+        this.baseIncrementalValueGroupByStoreMap = new TreeMap<>();
     }
 
     public ComplexEventChunk<StreamEvent> aggregateInMemoryData(
@@ -67,18 +70,18 @@ public class IncrementalDataAggregator {
         for (TimePeriod.Duration duration : incrementalDurations) {
             IncrementalExecutor incrementalExecutor = incrementalExecutorMap.get(duration);
 
-            ArrayList<HashMap<String, BaseIncrementalValueStore>> baseIncrementalValueGroupByStoreList =
+            ArrayList<HashMap<Object, BaseIncrementalValueStore>> baseIncrementalValueGroupByStoreList =
                     incrementalExecutor.getBaseIncrementalValueGroupByStoreList();
-            Map<String, BaseIncrementalValueStore> baseIncrementalValueStoreMap = incrementalExecutor
+            Map<Object, BaseIncrementalValueStore> baseIncrementalValueStoreMap = incrementalExecutor
                     .getBaseIncrementalValueStoreMap();
             ArrayList<BaseIncrementalValueStore> baseIncrementalValueStoreList = incrementalExecutor
                     .getBaseIncrementalValueStoreList();
             BaseIncrementalValueStore baseIncrementalValueStore = incrementalExecutor.getBaseIncrementalValueStore();
 
             if (baseIncrementalValueGroupByStoreList != null) {
-                for (HashMap<String, BaseIncrementalValueStore> aBaseIncrementalValueGroupByStoreList :
+                for (HashMap<Object, BaseIncrementalValueStore> aBaseIncrementalValueGroupByStoreList :
                         baseIncrementalValueGroupByStoreList) {
-                    for (Map.Entry<String, BaseIncrementalValueStore> entry : aBaseIncrementalValueGroupByStoreList
+                    for (Map.Entry<Object, BaseIncrementalValueStore> entry : aBaseIncrementalValueGroupByStoreList
                             .entrySet()) {
                         BaseIncrementalValueStore aBaseIncrementalValueStore = entry.getValue();
                         if (aBaseIncrementalValueStore.isProcessed()) {
@@ -88,7 +91,7 @@ public class IncrementalDataAggregator {
                     }
                 }
             } else if (baseIncrementalValueStoreMap != null) {
-                for (Map.Entry<String, BaseIncrementalValueStore> entry : baseIncrementalValueStoreMap.entrySet()) {
+                for (Map.Entry<Object, BaseIncrementalValueStore> entry : baseIncrementalValueStoreMap.entrySet()) {
                     BaseIncrementalValueStore aBaseIncrementalValueStore = entry.getValue();
                     if (aBaseIncrementalValueStore.isProcessed()) {
                         processInMemoryAggregates(aBaseIncrementalValueStore.createStreamEvent(),
@@ -115,20 +118,21 @@ public class IncrementalDataAggregator {
         return createEventChunkFromAggregatedData();
     }
 
-    private void processInMemoryAggregates(StreamEvent streamEvent, long timestamp, String groupByKey) {
+    private void processInMemoryAggregates(StreamEvent streamEvent, long timestamp, Object groupByKey) {
         long startTimeOfAggregates = IncrementalTimeConverterUtil.getStartTimeOfAggregates(timestamp,
                 aggregateForDuration);
         synchronized (this) {
             if (groupByKey != null) {
-                Map<String, BaseIncrementalValueStore> aBaseIncrementalValueStoreGroupBy =
+                Map<Object, BaseIncrementalValueStore> aBaseIncrementalValueStoreGroupBy =
                         baseIncrementalValueGroupByStoreMap.get(startTimeOfAggregates);
                 if (aBaseIncrementalValueStoreGroupBy == null) {
-                    aBaseIncrementalValueStoreGroupBy = new HashMap<>();
+                    aBaseIncrementalValueStoreGroupBy = new LinkedHashMap<>();
                     baseIncrementalValueGroupByStoreMap.put(startTimeOfAggregates, aBaseIncrementalValueStoreGroupBy);
                 }
                 BaseIncrementalValueStore aBaseIncrementalValueStore = aBaseIncrementalValueStoreGroupBy
                         .computeIfAbsent(groupByKey,
-                                k -> baseIncrementalValueStore.cloneStore(k, startTimeOfAggregates));
+                                k -> baseIncrementalValueStore.cloneStore(GroupByKeyGenerator.keyToString(k),
+                                        startTimeOfAggregates));
                 process(streamEvent, aBaseIncrementalValueStore);
             } else {
                 BaseIncrementalValueStore aBaseIncrementalValueStore = baseIncrementalValueStoreMap
@@ -159,9 +163,9 @@ public class IncrementalDataAggregator {
                 processedInMemoryEventChunk.add(entryAgainstTime.getValue().createStreamEvent());
             }
         } else {
-            for (Map.Entry<Long, Map<String, BaseIncrementalValueStore>> entryAgainstTime :
+            for (Map.Entry<Long, Map<Object, BaseIncrementalValueStore>> entryAgainstTime :
                     baseIncrementalValueGroupByStoreMap.entrySet()) {
-                for (Map.Entry<String, BaseIncrementalValueStore> entryAgainstKey : entryAgainstTime.getValue()
+                for (Map.Entry<Object, BaseIncrementalValueStore> entryAgainstKey : entryAgainstTime.getValue()
                         .entrySet()) {
                     processedInMemoryEventChunk.add(entryAgainstKey.getValue().createStreamEvent());
                 }
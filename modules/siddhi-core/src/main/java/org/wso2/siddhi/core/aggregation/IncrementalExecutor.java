@@ -74,9 +74,9 @@ public class IncrementalExecutor implements Executor, Snapshotable {
     private String elementId;
 
     private BaseIncrementalValueStore baseIncrementalValueStore = null;
-    private Map<String, BaseIncrementalValueStore> baseIncrementalValueStoreMap = null;
+    private Map<Object, BaseIncrementalValueStore> baseIncrementalValueStoreMap = null;
     private ArrayList<BaseIncrementalValueStore> baseIncrementalValueStoreList = null;
-    private ArrayList<HashMap<String, BaseIncrementalValueStore>> baseIncrementalValueGroupByStoreList = null;
+    private ArrayList<HashMap<Object, BaseIncrementalValueStore>> baseIncrementalValueGroupByStoreList = null;
 
     public IncrementalExecutor(TimePeriod.Duration duration, List<ExpressionExecutor> processExpressionExecutors,
                                GroupByKeyGenerator groupByKeyGenerator, MetaStreamEvent metaStreamEvent, int bufferSize,
@@ -249,19 +249,21 @@ public class IncrementalExecutor implements Executor, Snapshotable {
         synchronized (this) {
             if (isGroupBy) {
                 try {
-                    String groupedByKey = groupByKeyGenerator.constructEventKey(streamEvent);
+                    Object groupedByKey = groupByKeyGenerator.constructEventKey(streamEvent);
                     GroupByAggregationAttributeExecutor.getKeyThreadLocal().set(groupedByKey);
                     if (baseIncrementalValueGroupByStoreList != null) {
-                        Map<String, BaseIncrementalValueStore> baseIncrementalValueGroupByStore =
+                        Map<Object, BaseIncrementalValueStore> baseIncrementalValueGroupByStore =
                                 baseIncrementalValueGroupByStoreList.get(currentBufferIndex);
                         BaseIncrementalValueStore aBaseIncrementalValueStore = baseIncrementalValueGroupByStore
                                 .computeIfAbsent(groupedByKey,
-                                        k -> baseIncrementalValueStore.cloneStore(k, startTimeOfAggregates));
+                                        k -> baseIncrementalValueStore.cloneStore(GroupByKeyGenerator.keyToString(k),
+                                                startTimeOfAggregates));
                         process(streamEvent, aBaseIncrementalValueStore);
                     } else {
                         BaseIncrementalValueStore aBaseIncrementalValueStore = baseIncrementalValueStoreMap
                                 .computeIfAbsent(groupedByKey,
-                                        k -> baseIncrementalValueStore.cloneStore(k, startTimeOfAggregates));
+                                        k -> baseIncrementalValueStore.cloneStore(GroupByKeyGenerator.keyToString(k),
+                                                startTimeOfAggregates));
                         process(streamEvent, aBaseIncrementalValueStore);
                     }
                 } finally {
@@ -333,7 +335,7 @@ public class IncrementalExecutor implements Executor, Snapshotable {
                 }
                 if (isGroupBy) {
                     while (true) {
-                        Map<String, BaseIncrementalValueStore> baseIncrementalValueGroupByStore =
+                        Map<Object, BaseIncrementalValueStore> baseIncrementalValueGroupByStore =
                                 baseIncrementalValueGroupByStoreList.get(minTimestampIndex);
                         if (baseIncrementalValueGroupByStore.size() > 0) {
                             dispatchEvents(baseIncrementalValueGroupByStore);
@@ -415,7 +417,7 @@ public class IncrementalExecutor implements Executor, Snapshotable {
         cleanBaseIncrementalValueStore(startTimeOfNewAggregates, aBaseIncrementalValueStore);
     }
 
-    private void dispatchEvents(Map<String, BaseIncrementalValueStore> baseIncrementalValueGroupByStore) {
+    private void dispatchEvents(Map<Object, BaseIncrementalValueStore> baseIncrementalValueGroupByStore) {
         int noOfEvents = baseIncrementalValueGroupByStore.size();
         if (noOfEvents > 0) {
             ComplexEventChunk<StreamEvent> eventChunk = new ComplexEventChunk<>(true);
@@ -442,11 +444,11 @@ public class IncrementalExecutor implements Executor, Snapshotable {
         }
     }
 
-    ArrayList<HashMap<String, BaseIncrementalValueStore>> getBaseIncrementalValueGroupByStoreList() {
+    ArrayList<HashMap<Object, BaseIncrementalValueStore>> getBaseIncrementalValueGroupByStoreList() {
         return baseIncrementalValueGroupByStoreList;
     }
 
-    Map<String, BaseIncrementalValueStore> getBaseIncrementalValueStoreMap() {
+    Map<Object, BaseIncrementalValueStore> getBaseIncrementalValueStoreMap() {
         return baseIncrementalValueStoreMap;
     }
 
@@ -25,19 +25,26 @@ import org.wso2.siddhi.core.event.stream.StreamEventPool;
 import org.wso2.siddhi.core.executor.ExpressionExecutor;
 import org.wso2.siddhi.core.query.selector.GroupByKeyGenerator;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
 /**
  * This class implements logic to process aggregates(after retrieval from tables) that were aggregated
- * using external timestamp.
+ * using external timestamp. The retrieved aggregates are processed in the order of their event timestamps, and the
+ * resulting aggregates are emitted in the order their groups were first seen, irrespective of the order in which the
+ * aggregates were retrieved.
  */
 public class IncrementalExternalTimestampDataAggregator {
 
+    // AGG_EVENT_TIMESTAMP is kept right after AGG_TIMESTAMP when aggregating on external timestamp
+    private static final int EVENT_TIMESTAMP_POSITION = 1;
+
     private final GroupByKeyGenerator groupByKeyGenerator;
     private final BaseIncrementalValueStore baseIncrementalValueStore;
-    private final Map<String, BaseIncrementalValueStore> baseIncrementalValueGroupByStore;
+    private final Map<Object, BaseIncrementalValueStore> baseIncrementalValueGroupByStore;
 
     public IncrementalExternalTimestampDataAggregator(List<ExpressionExecutor> baseExecutors,
                                      GroupByKeyGenerator groupByKeyGenerator,
@@ -47,18 +54,24 @@ public class IncrementalExternalTimestampDataAggregator {
         List<ExpressionExecutor> expressionExecutorsWithoutTime = baseExecutors.subList(1, baseExecutors.size());
         this.baseIncrementalValueStore = new BaseIncrementalValueStore(-1,
                 expressionExecutorsWithoutTime, streamEventPool, siddhiAppContext, null);
-        this.baseIncrementalValueGroupByStore = new HashMap<>();
+        this.baseIncrementalValueGroupByStore = new LinkedHashMap<>();
         this.groupByKeyGenerator = groupByKeyGenerator;
     }
 
     public ComplexEventChunk<StreamEvent> aggregateData(ComplexEventChunk<StreamEvent> retrievedData) {
-
+        List<StreamEvent> retrievedEvents = new ArrayList<>();
         while (retrievedData.hasNext()) {
-            StreamEvent streamEvent = retrievedData.next();
-            String groupByKey = groupByKeyGenerator.constructEventKey(streamEvent);
+            retrievedEvents.add(retrievedData.next());
+        }
+        retrievedEvents.sort(Comparator.comparingLong(
+                streamEvent -> (Long) streamEvent.getOutputData()[EVENT_TIMESTAMP_POSITION]));
+
+        for (StreamEvent streamEvent : retrievedEvents) {
+            Object groupByKey = groupByKeyGenerator.constructEventKey(streamEvent);
             BaseIncrementalValueStore baseIncrementalValueStore = baseIncrementalValueGroupByStore
                     .computeIfAbsent(
-                            groupByKey, k -> this.baseIncrementalValueStore.cloneStore(k, -1)
+                            groupByKey, k -> this.baseIncrementalValueStore.cloneStore(
+                                    GroupByKeyGenerator.keyToString(k), -1)
                     );
             process(streamEvent, baseIncrementalValueStore);
         }
@@ -75,7 +88,7 @@ public class IncrementalExternalTimestampDataAggregator {
 
     private ComplexEventChunk<StreamEvent> createEventChunkFromAggregatedData() {
         ComplexEventChunk<StreamEvent> processedInMemoryEventChunk = new ComplexEventChunk<>(true);
-        for (Map.Entry<String, BaseIncrementalValueStore> entryAgainstTime :
+        for (Map.Entry<Object, BaseIncrementalValueStore> entryAgainstTime :
                 baseIncrementalValueGroupByStore.entrySet()) {
             processedInMemoryEventChunk.add(entryAgainstTime.getValue().createStreamEvent());
         }
@@ -19,9 +19,12 @@
 package org.wso2.siddhi.core.config;
 
 import com.lmax.disruptor.ExceptionHandler;
+import org.wso2.siddhi.core.executor.compile.ExpressionCompiler;
 import org.wso2.siddhi.core.function.Script;
+import org.wso2.siddhi.core.stream.input.source.SourceFlowController;
 import org.wso2.siddhi.core.util.ElementIdGenerator;
 import org.wso2.siddhi.core.util.ThreadBarrier;
+import org.wso2.siddhi.core.util.TimingWheel;
 import org.wso2.siddhi.core.util.extension.holder.EternalReferencedHolder;
 import org.wso2.siddhi.core.util.snapshot.SnapshotService;
 import org.wso2.siddhi.core.util.statistics.StatisticsManager;
@@ -62,6 +65,9 @@ public class SiddhiAppContext {
     private String siddhiAppString;
     private List<String> includedMetrics;
     private boolean transportChannelCreationEnabled;
+    private ExpressionCompiler expressionCompiler = null;
+    private SourceFlowController sourceFlowController = null;
+    private TimingWheel timingWheel = null;
 
     public SiddhiAppContext() {
         this.eternalReferencedHolders = Collections.synchronizedList(new LinkedList<>());
@@ -124,10 +130,22 @@ public class SiddhiAppContext {
         this.scheduledExecutorService = scheduledExecutorService;
     }
 
+    public TimingWheel getTimingWheel() {
+        return timingWheel;
+    }
+
+    public void setTimingWheel(TimingWheel timingWheel) {
+        this.timingWheel = timingWheel;
+    }
+
     public synchronized void addEternalReferencedHolder(EternalReferencedHolder eternalReferencedHolder) {
         eternalReferencedHolders.add(eternalReferencedHolder);
     }
 
+    public synchronized void removeEternalReferencedHolder(EternalReferencedHolder eternalReferencedHolder) {
+        eternalReferencedHolders.remove(eternalReferencedHolder);
+    }
+
     public List<EternalReferencedHolder> getEternalReferencedHolders() {
         return Collections.unmodifiableList(new ArrayList<>(eternalReferencedHolders));
     }
@@ -227,4 +245,20 @@ public class SiddhiAppContext {
     public void setTransportChannelCreationEnabled(boolean transportChannelCreationEnabled) {
         this.transportChannelCreationEnabled = transportChannelCreationEnabled;
     }
+
+    public ExpressionCompiler getExpressionCompiler() {
+        return expressionCompiler;
+    }
+
+    public void setExpressionCompiler(ExpressionCompiler expressionCompiler) {
+        this.expressionCompiler = expressionCompiler;
+    }
+
+    public SourceFlowController getSourceFlowController() {
+        return sourceFlowController;
+    }
+
+    public void setSourceFlowController(SourceFlowController sourceFlowController) {
+        this.sourceFlowController = sourceFlowController;
+    }
 }
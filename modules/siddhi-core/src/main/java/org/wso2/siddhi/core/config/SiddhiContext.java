@@ -30,6 +30,8 @@ import org.wso2.siddhi.core.util.config.InMemoryConfigManager;
 import org.wso2.siddhi.core.util.extension.holder.AbstractExtensionHolder;
 import org.wso2.siddhi.core.util.persistence.IncrementalPersistenceStore;
 import org.wso2.siddhi.core.util.persistence.PersistenceStore;
+import org.wso2.siddhi.core.util.snapshot.serializer.JavaStateSerializer;
+import org.wso2.siddhi.core.util.snapshot.serializer.StateSerializer;
 import org.wso2.siddhi.core.util.statistics.metrics.SiddhiMetricsFactory;
 
 import java.util.HashMap;
@@ -48,6 +50,7 @@ public class SiddhiContext {
     private Map<String, Class> siddhiExtensions = new HashMap<>();
     private PersistenceStore persistenceStore = null;
     private IncrementalPersistenceStore incrementalPersistenceStore = null;
+    private StateSerializer stateSerializer = new JavaStateSerializer();
     private ConcurrentHashMap<String, DataSource> siddhiDataSources;
     private StatisticsConfiguration statisticsConfiguration;
     private ConcurrentHashMap<Class, AbstractExtensionHolder> extensionHolderMap;
@@ -110,6 +113,14 @@ public class SiddhiContext {
         this.incrementalPersistenceStore = incrementalPersistenceStore;
     }
 
+    public synchronized StateSerializer getStateSerializer() {
+        return stateSerializer;
+    }
+
+    public synchronized void setStateSerializer(StateSerializer stateSerializer) {
+        this.stateSerializer = stateSerializer;
+    }
+
     public void setConfigManager(ConfigManager configManager) {
         this.configManager = configManager;
     }
@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.siddhi.core.event;
+
+import org.wso2.siddhi.core.event.stream.StreamEvent;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Flyweight cursor over a batch of events delivered to a callback, which exposes the events without copying them.
+ * The view and the data returned by it are only valid during the callback they are passed to, as the underlying
+ * events get reused afterwards. Use {@link #toEvent()} to retain an event beyond the callback.
+ * <p>
+ * Events are read by moving the cursor with {@link #next()}:
+ * <pre>
+ *     while (events.next()) {
+ *         Object symbol = events.getData(0);
+ *     }
+ * </pre>
+ */
+public final class EventView {
+
+    private ComplexEvent first;
+    private ComplexEvent.Type type;
+    private ComplexEvent current;
+    private Event[] events;
+    private List<Event> eventList;
+    private int size;
+    private int index;
+    private Event currentEvent;
+    private final Event[] singleEvent = new Event[1];
+    private boolean active;
+
+    /**
+     * Points the view to a chain of complex events.
+     *
+     * @param first the first event of the chain, or null when there are no events
+     * @param type  the type of the events exposed by the view, or null to expose events of all types
+     */
+    public void reset(ComplexEvent first, ComplexEvent.Type type) {
+        clear();
+        this.first = first;
+        this.type = type;
+        this.active = true;
+    }
+
+    public void reset(Event[] events) {
+        clear();
+        if (events != null) {
+            this.events = events;
+            this.size = events.length;
+        }
+        this.active = true;
+    }
+
+    public void reset(Event event) {
+        singleEvent[0] = event;
+        reset(singleEvent);
+    }
+
+    public void reset(List<Event> eventList) {
+        clear();
+        this.eventList = eventList;
+        this.size = eventList.size();
+        this.active = true;
+    }
+
+    /**
+     * Releases the references of the view to the events.
+     */
+    public void clear() {
+        first = null;
+        type = null;
+        current = null;
+        events = null;
+        eventList = null;
+        singleEvent[0] = null;
+        currentEvent = null;
+        size = 0;
+        index = -1;
+        active = false;
+    }
+
+    /**
+     * @return whether the view is currently in use by a callback
+     */
+    public boolean isActive() {
+        return active;
+    }
+
+    /**
+     * Moves the cursor to the next event.
+     *
+     * @return false if there are no more events
+     */
+    public boolean next() {
+        if (first != null) {
+            ComplexEvent event = current == null ? first : current.getNext();
+            while (event != null && type != null && event.getType() != type) {
+                event = event.getNext();
+            }
+            if (event == null) {
+                // Stay at the last event, such that later calls also return false
+                return false;
+            }
+            current = event;
+            return true;
+        }
+        if (index + 1 < size) {
+            index++;
+            currentEvent = events != null ? events[index] : eventList.get(index);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Moves the cursor back to the position before the first event.
+     */
+    public void rewind() {
+        current = null;
+        currentEvent = null;
+        index = -1;
+    }
+
+    /**
+     * @return whether the view has no events
+     */
+    public boolean isEmpty() {
+        if (first != null) {
+            for (ComplexEvent event = first; event != null; event = event.getNext()) {
+                if (type == null || event.getType() == type) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return size == 0;
+    }
+
+    public long getTimestamp() {
+        if (currentEvent != null) {
+            return currentEvent.getTimestamp();
+        }
+        return getCurrent().getTimestamp();
+    }
+
+    /**
+     * @return the attribute values of the current event, which should not be modified
+     */
+    public Object[] getData() {
+        if (currentEvent != null) {
+            return currentEvent.getData();
+        }
+        return getCurrent().getOutputData();
+    }
+
+    public Object getData(int i) {
+        return getData()[i];
+    }
+
+    public boolean isExpired() {
+        if (currentEvent != null) {
+            return currentEvent.isExpired();
+        }
+        return getCurrent().getType() == StreamEvent.Type.EXPIRED;
+    }
+
+    /**
+     * @return a copy of the current event, which can be retained beyond the callback
+     */
+    public Event toEvent() {
+        if (currentEvent != null) {
+            return new Event(currentEvent.getData().length).copyFrom(currentEvent);
+        }
+        ComplexEvent complexEvent = getCurrent();
+        return new Event(complexEvent.getOutputData().length).copyFrom(complexEvent);
+    }
+
+    private ComplexEvent getCurrent() {
+        if (current == null) {
+            throw new NoSuchElementException("EventView is not positioned at an event, call next() to move to " +
+                    "the next event.");
+        }
+        return current;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder stringBuilder = new StringBuilder("EventView{");
+        ComplexEvent savedCurrent = current;
+        Event savedCurrentEvent = currentEvent;
+        int savedIndex = index;
+        rewind();
+        boolean firstEvent = true;
+        while (next()) {
+            if (!firstEvent) {
+                stringBuilder.append(", ");
+            }
+            stringBuilder.append(toEvent());
+            firstEvent = false;
+        }
+        current = savedCurrent;
+        currentEvent = savedCurrentEvent;
+        index = savedIndex;
+        return stringBuilder.append('}').toString();
+    }
+}
@@ -174,7 +174,7 @@ public class StreamEvent implements ComplexEvent {
         if (this == o) {
             return true;
         }
-        if (!(o instanceof StreamEvent)) {
+        if (o == null || getClass() != o.getClass()) {
             return false;
         }
 
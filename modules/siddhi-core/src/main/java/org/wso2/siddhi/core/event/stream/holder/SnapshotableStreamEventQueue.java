@@ -23,10 +23,12 @@ import org.wso2.siddhi.core.event.stream.StreamEvent;
 import org.wso2.siddhi.core.util.snapshot.SnapshotRequest;
 import org.wso2.siddhi.core.util.snapshot.state.SnapshotState;
 import org.wso2.siddhi.core.util.snapshot.state.SnapshotStateList;
+import org.wso2.siddhi.core.util.statistics.memory.ElementCountable;
 
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.TreeMap;
@@ -34,7 +36,7 @@ import java.util.TreeMap;
 /**
  * The class to hold stream events in a queue and by managing its snapshots
  */
-public class SnapshotableStreamEventQueue implements Iterator<StreamEvent>, Serializable {
+public class SnapshotableStreamEventQueue implements Iterator<StreamEvent>, ElementCountable, Serializable {
     private static final long serialVersionUID = 3185987841726255019L;
     protected StreamEvent first;
     protected StreamEvent previousToLastReturned;
@@ -47,6 +49,8 @@ public class SnapshotableStreamEventQueue implements Iterator<StreamEvent>, Seri
     private boolean forceFullSnapshot = true;
     private boolean isOperationLogEnabled = true;
     private int eventIndex = -1;
+    private int size = 0;
+    private transient List<StreamEventIndex> streamEventIndexes;
 
     public SnapshotableStreamEventQueue(StreamEventClonerHolder eventClonerHolder) {
         this(eventClonerHolder, Integer.MAX_VALUE);
@@ -76,6 +80,14 @@ public class SnapshotableStreamEventQueue implements Iterator<StreamEvent>, Seri
             last.setNext(events);
         }
         last = getLastEvent(events);
+        for (StreamEvent event = events; event != null; event = event.getNext()) {
+            size++;
+        }
+        if (streamEventIndexes != null) {
+            for (StreamEvent event = events; event != null; event = event.getNext()) {
+                addToIndexes(event);
+            }
+        }
     }
 
     /**
@@ -105,6 +117,10 @@ public class SnapshotableStreamEventQueue implements Iterator<StreamEvent>, Seri
             }
         }
         lastReturned.setNext(null);
+        size--;
+        if (streamEventIndexes != null) {
+            removeFromIndexes(lastReturned);
+        }
         lastReturned = null;
         if (!isFullSnapshot()) {
             if (isOperationLogEnabled) {
@@ -178,6 +194,12 @@ public class SnapshotableStreamEventQueue implements Iterator<StreamEvent>, Seri
         first = null;
         last = null;
         eventIndex = -1;
+        size = 0;
+        if (streamEventIndexes != null) {
+            for (StreamEventIndex streamEventIndex : streamEventIndexes) {
+                streamEventIndex.clear();
+            }
+        }
     }
 
     public void reset() {
@@ -194,12 +216,26 @@ public class SnapshotableStreamEventQueue implements Iterator<StreamEvent>, Seri
         return last;
     }
 
+    /**
+     * Returns the number of events held, which is maintained as the events are added and removed.
+     *
+     * @return number of events
+     */
+    @Override
+    public long getElementCount() {
+        return size;
+    }
+
     public StreamEvent poll() {
         reset();
         if (first != null) {
             StreamEvent firstEvent = first;
             first = first.getNext();
             firstEvent.setNext(null);
+            size--;
+            if (streamEventIndexes != null) {
+                removeFromIndexes(firstEvent);
+            }
 
             if (!isFullSnapshot()) {
                 if (isOperationLogEnabled) {
@@ -381,6 +417,47 @@ public class SnapshotableStreamEventQueue implements Iterator<StreamEvent>, Seri
         } else {
             last = streamEvent;
         }
+        if (streamEventIndexes != null) {
+            removeFromIndexes(lastReturned);
+            addToIndexes(streamEvent);
+        }
         lastReturned = streamEvent;
     }
+
+    /**
+     * Returns the hash index of the given attribute, building it over the events currently held if it does not
+     * exist. Once built, the index is kept in sync on every modification of the queue.
+     *
+     * @param attributePosition position of the indexed attribute in the held events
+     * @return the index of the attribute
+     */
+    public StreamEventIndex getIndex(int[] attributePosition) {
+        if (streamEventIndexes == null) {
+            streamEventIndexes = new ArrayList<>(1);
+        } else {
+            for (StreamEventIndex streamEventIndex : streamEventIndexes) {
+                if (streamEventIndex.isIndexOf(attributePosition)) {
+                    return streamEventIndex;
+                }
+            }
+        }
+        StreamEventIndex streamEventIndex = new StreamEventIndex(attributePosition);
+        for (StreamEvent event = first; event != null; event = event.getNext()) {
+            streamEventIndex.add(event);
+        }
+        streamEventIndexes.add(streamEventIndex);
+        return streamEventIndex;
+    }
+
+    private void addToIndexes(StreamEvent streamEvent) {
+        for (StreamEventIndex streamEventIndex : streamEventIndexes) {
+            streamEventIndex.add(streamEvent);
+        }
+    }
+
+    private void removeFromIndexes(StreamEvent streamEvent) {
+        for (StreamEventIndex streamEventIndex : streamEventIndexes) {
+            streamEventIndex.remove(streamEvent);
+        }
+    }
 }
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.event.stream.holder;
+
+import org.wso2.siddhi.core.event.stream.StreamEvent;
+
+import java.util.AbstractCollection;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.TreeMap;
+
+/**
+ * Holder keeping stream events ordered by a given {@link Comparator} as they are added.
+ * Events comparing equal are kept in their insertion order, hence iterating the holder gives the same order as
+ * stable sorting the events in their arrival order. Adding an event and removing the last event are O(log n).
+ */
+public class SortedStreamEventHolder extends AbstractCollection<StreamEvent> {
+
+    private final TreeMap<StreamEvent, ArrayDeque<StreamEvent>> sortedEvents;
+    private int size = 0;
+
+    public SortedStreamEventHolder(Comparator<StreamEvent> eventComparator) {
+        this.sortedEvents = new TreeMap<StreamEvent, ArrayDeque<StreamEvent>>(eventComparator);
+    }
+
+    @Override
+    public boolean add(StreamEvent streamEvent) {
+        ArrayDeque<StreamEvent> equalEvents = sortedEvents.get(streamEvent);
+        if (equalEvents == null) {
+            equalEvents = new ArrayDeque<StreamEvent>(1);
+            sortedEvents.put(streamEvent, equalEvents);
+        }
+        equalEvents.addLast(streamEvent);
+        size++;
+        return true;
+    }
+
+    /**
+     * Removes the greatest event as per the comparator, where the most recently added one is chosen among the events
+     * that compare equal.
+     *
+     * @return the removed event, or null if the holder is empty
+     */
+    public StreamEvent pollLast() {
+        Map.Entry<StreamEvent, ArrayDeque<StreamEvent>> lastEntry = sortedEvents.lastEntry();
+        if (lastEntry == null) {
+            return null;
+        }
+        StreamEvent streamEvent = lastEntry.getValue().pollLast();
+        if (lastEntry.getValue().isEmpty()) {
+            sortedEvents.remove(lastEntry.getKey());
+        }
+        size--;
+        return streamEvent;
+    }
+
+    /**
+     * @return a list of the held events in the sorted order
+     */
+    public List<StreamEvent> toList() {
+        List<StreamEvent> streamEvents = new ArrayList<StreamEvent>(size);
+        for (ArrayDeque<StreamEvent> equalEvents : sortedEvents.values()) {
+            streamEvents.addAll(equalEvents);
+        }
+        return streamEvents;
+    }
+
+    @Override
+    public void clear() {
+        sortedEvents.clear();
+        size = 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Iterator<StreamEvent> iterator() {
+        return new SortedStreamEventIterator();
+    }
+
+    private class SortedStreamEventIterator implements Iterator<StreamEvent> {
+        private final Iterator<ArrayDeque<StreamEvent>> bucketIterator = sortedEvents.values().iterator();
+        private ArrayDeque<StreamEvent> currentBucket;
+        private Iterator<StreamEvent> eventIterator;
+
+        @Override
+        public boolean hasNext() {
+            return (eventIterator != null && eventIterator.hasNext()) || bucketIterator.hasNext();
+        }
+
+        @Override
+        public StreamEvent next() {
+            if (eventIterator == null || !eventIterator.hasNext()) {
+                if (!bucketIterator.hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                currentBucket = bucketIterator.next();
+                eventIterator = currentBucket.iterator();
+            }
+            return eventIterator.next();
+        }
+
+        @Override
+        public void remove() {
+            if (eventIterator == null) {
+                throw new IllegalStateException();
+            }
+            eventIterator.remove();
+            size--;
+            if (currentBucket.isEmpty()) {
+                bucketIterator.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.event.stream.holder;
+
+import org.wso2.siddhi.core.event.stream.StreamEvent;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import static org.wso2.siddhi.core.util.SiddhiConstants.STREAM_ATTRIBUTE_INDEX_IN_TYPE;
+import static org.wso2.siddhi.core.util.SiddhiConstants.STREAM_ATTRIBUTE_TYPE_INDEX;
+
+/**
+ * Hash index over a single attribute of the events held in a {@link SnapshotableStreamEventQueue}. Events of the
+ * same attribute value are kept in their insertion order, hence the events are expected not to be modified while
+ * they are held by the queue.
+ */
+public class StreamEventIndex {
+
+    private final int[] attributePosition;
+    private final Map<Object, ArrayDeque<StreamEvent>> indexData = new HashMap<>();
+
+    StreamEventIndex(int[] attributePosition) {
+        this.attributePosition = attributePosition;
+    }
+
+    boolean isIndexOf(int[] attributePosition) {
+        return this.attributePosition[STREAM_ATTRIBUTE_TYPE_INDEX] == attributePosition[STREAM_ATTRIBUTE_TYPE_INDEX] &&
+                this.attributePosition[STREAM_ATTRIBUTE_INDEX_IN_TYPE] ==
+                        attributePosition[STREAM_ATTRIBUTE_INDEX_IN_TYPE];
+    }
+
+    public Collection<StreamEvent> find(Object value) {
+        ArrayDeque<StreamEvent> streamEvents = indexData.get(value);
+        if (streamEvents == null) {
+            return Collections.emptyList();
+        }
+        return streamEvents;
+    }
+
+    void add(StreamEvent streamEvent) {
+        Object value = streamEvent.getAttribute(attributePosition);
+        ArrayDeque<StreamEvent> streamEvents = indexData.get(value);
+        if (streamEvents == null) {
+            streamEvents = new ArrayDeque<>(2);
+            indexData.put(value, streamEvents);
+        }
+        streamEvents.add(streamEvent);
+    }
+
+    void remove(StreamEvent streamEvent) {
+        Object value = streamEvent.getAttribute(attributePosition);
+        ArrayDeque<StreamEvent> streamEvents = indexData.get(value);
+        if (streamEvents != null) {
+            // Events mostly expire in their arrival order, hence the removed event is usually at the head
+            Iterator<StreamEvent> iterator = streamEvents.iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next() == streamEvent) {
+                    iterator.remove();
+                    break;
+                }
+            }
+            if (streamEvents.isEmpty()) {
+                indexData.remove(value);
+            }
+        }
+    }
+
+    void clear() {
+        indexData.clear();
+    }
+
+    public int size() {
+        return indexData.size();
+    }
+}
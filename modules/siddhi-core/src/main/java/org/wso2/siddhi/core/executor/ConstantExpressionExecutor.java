@@ -38,6 +38,41 @@ public class ConstantExpressionExecutor implements ExpressionExecutor {
         return value;
     }
 
+    @Override
+    public boolean isPrimitiveExecutable() {
+        return true;
+    }
+
+    @Override
+    public boolean isNull(ComplexEvent event) {
+        return value == null;
+    }
+
+    @Override
+    public int executeAsInt(ComplexEvent event) {
+        return ((Number) value).intValue();
+    }
+
+    @Override
+    public long executeAsLong(ComplexEvent event) {
+        return ((Number) value).longValue();
+    }
+
+    @Override
+    public float executeAsFloat(ComplexEvent event) {
+        return ((Number) value).floatValue();
+    }
+
+    @Override
+    public double executeAsDouble(ComplexEvent event) {
+        return ((Number) value).doubleValue();
+    }
+
+    @Override
+    public boolean executeAsBoolean(ComplexEvent event) {
+        return value != null && (Boolean) value;
+    }
+
     public Attribute.Type getReturnType() {
         return type;
     }
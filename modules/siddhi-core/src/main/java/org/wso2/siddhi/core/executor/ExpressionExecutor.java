@@ -23,6 +23,10 @@ import org.wso2.siddhi.query.api.definition.Attribute;
 
 /**
  * Parent interface for all Expression Executors classes.
+ * <p>
+ * Executors whose result can be computed without boxing override the primitive execute methods along with
+ * {@link #isPrimitiveExecutable()} and {@link #isNull(ComplexEvent)}. The numeric primitive execute methods are only
+ * valid when {@link #isNull(ComplexEvent)} returns false for the same event.
  */
 public interface ExpressionExecutor {
 
@@ -32,4 +36,43 @@ public interface ExpressionExecutor {
 
     ExpressionExecutor cloneExecutor(String key);
 
+    /**
+     * @return true if the executor and all its child executors evaluate the primitive execute methods without
+     * boxing, and can check for null results without evaluating the expression with side effects
+     */
+    default boolean isPrimitiveExecutable() {
+        return false;
+    }
+
+    default boolean isNull(ComplexEvent event) {
+        return execute(event) == null;
+    }
+
+    default int executeAsInt(ComplexEvent event) {
+        return ((Number) execute(event)).intValue();
+    }
+
+    default long executeAsLong(ComplexEvent event) {
+        return ((Number) execute(event)).longValue();
+    }
+
+    default float executeAsFloat(ComplexEvent event) {
+        return ((Number) execute(event)).floatValue();
+    }
+
+    default double executeAsDouble(ComplexEvent event) {
+        return ((Number) execute(event)).doubleValue();
+    }
+
+    /**
+     * Executes a condition returning false when the result is null.
+     *
+     * @param event the event to be evaluated
+     * @return true only if the result is true
+     */
+    default boolean executeAsBoolean(ComplexEvent event) {
+        Object result = execute(event);
+        return result != null && (Boolean) result;
+    }
+
 }
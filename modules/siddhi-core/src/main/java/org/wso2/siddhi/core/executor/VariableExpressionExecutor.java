@@ -46,6 +46,42 @@ public class VariableExpressionExecutor implements ExpressionExecutor {
         return event.getAttribute(position);
     }
 
+    @Override
+    public boolean isPrimitiveExecutable() {
+        return true;
+    }
+
+    @Override
+    public boolean isNull(ComplexEvent event) {
+        return event.getAttribute(position) == null;
+    }
+
+    @Override
+    public int executeAsInt(ComplexEvent event) {
+        return ((Number) event.getAttribute(position)).intValue();
+    }
+
+    @Override
+    public long executeAsLong(ComplexEvent event) {
+        return ((Number) event.getAttribute(position)).longValue();
+    }
+
+    @Override
+    public float executeAsFloat(ComplexEvent event) {
+        return ((Number) event.getAttribute(position)).floatValue();
+    }
+
+    @Override
+    public double executeAsDouble(ComplexEvent event) {
+        return ((Number) event.getAttribute(position)).doubleValue();
+    }
+
+    @Override
+    public boolean executeAsBoolean(ComplexEvent event) {
+        Object result = event.getAttribute(position);
+        return result != null && (Boolean) result;
+    }
+
 
     public Attribute.Type getReturnType() {
         return attribute.getType();
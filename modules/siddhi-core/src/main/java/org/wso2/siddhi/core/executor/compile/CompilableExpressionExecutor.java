@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.executor.compile;
+
+import org.wso2.siddhi.core.event.ComplexEvent;
+import org.wso2.siddhi.core.executor.ExpressionExecutor;
+import org.wso2.siddhi.query.api.definition.Attribute;
+
+/**
+ * Executor wrapping an expression to be compiled by the {@link ExpressionCompiler}. The expression is interpreted
+ * until it gets compiled, as the variable positions of the expression are only known once the query is parsed.
+ */
+public class CompilableExpressionExecutor implements ExpressionExecutor {
+
+    private final ExpressionExecutor interpretedExecutor;
+    private ExpressionExecutor executor;
+
+    public CompilableExpressionExecutor(ExpressionExecutor interpretedExecutor) {
+        this.interpretedExecutor = interpretedExecutor;
+        this.executor = interpretedExecutor;
+    }
+
+    @Override
+    public Object execute(ComplexEvent event) {
+        return executor.execute(event);
+    }
+
+    @Override
+    public boolean executeAsBoolean(ComplexEvent event) {
+        return executor.executeAsBoolean(event);
+    }
+
+    @Override
+    public Attribute.Type getReturnType() {
+        return interpretedExecutor.getReturnType();
+    }
+
+    @Override
+    public ExpressionExecutor cloneExecutor(String key) {
+        return executor.cloneExecutor(key);
+    }
+
+    public ExpressionExecutor getInterpretedExecutor() {
+        return interpretedExecutor;
+    }
+
+    public ExpressionExecutor getExecutor() {
+        return executor;
+    }
+
+    void setCompiledExecutor(CompiledExpressionExecutor compiledExecutor) {
+        this.executor = compiledExecutor;
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.executor.compile;
+
+import org.wso2.siddhi.core.event.ComplexEvent;
+import org.wso2.siddhi.core.event.stream.StreamEvent;
+import org.wso2.siddhi.core.executor.ExpressionExecutor;
+import org.wso2.siddhi.query.api.definition.Attribute;
+
+/**
+ * Parent class of the executors generated by the {@link ExpressionCompiler}. Generated executors evaluate
+ * {@link StreamEvent}s with the generated byte code, and all the other events with the interpreted executor they are
+ * generated from.
+ */
+public abstract class CompiledExpressionExecutor implements ExpressionExecutor {
+
+    protected final ExpressionExecutor interpretedExecutor;
+    protected final ExpressionExecutor[] fallbackExecutors;
+
+    protected CompiledExpressionExecutor(ExpressionExecutor interpretedExecutor,
+                                         ExpressionExecutor[] fallbackExecutors) {
+        this.interpretedExecutor = interpretedExecutor;
+        this.fallbackExecutors = fallbackExecutors;
+    }
+
+    @Override
+    public Object execute(ComplexEvent event) {
+        if (event instanceof StreamEvent) {
+            return evaluate((StreamEvent) event);
+        }
+        return interpretedExecutor.execute(event);
+    }
+
+    @Override
+    public boolean executeAsBoolean(ComplexEvent event) {
+        if (event instanceof StreamEvent) {
+            return evaluateCondition((StreamEvent) event);
+        }
+        return interpretedExecutor.executeAsBoolean(event);
+    }
+
+    /**
+     * Generated executors override either this or {@link #evaluateCondition(StreamEvent)}.
+     *
+     * @param event the event to be evaluated
+     * @return result of the expression
+     */
+    protected Object evaluate(StreamEvent event) {
+        return evaluateCondition(event);
+    }
+
+    protected boolean evaluateCondition(StreamEvent event) {
+        Object result = evaluate(event);
+        return result != null && (Boolean) result;
+    }
+
+    protected abstract CompiledExpressionExecutor newInstance(ExpressionExecutor interpretedExecutor,
+                                                              ExpressionExecutor[] fallbackExecutors);
+
+    @Override
+    public Attribute.Type getReturnType() {
+        return interpretedExecutor.getReturnType();
+    }
+
+    @Override
+    public ExpressionExecutor cloneExecutor(String key) {
+        ExpressionExecutor clonedExecutor = interpretedExecutor.cloneExecutor(key);
+        return newInstance(clonedExecutor, ExpressionClassGenerator.collectFallbackExecutors(clonedExecutor));
+    }
+
+    public ExpressionExecutor getInterpretedExecutor() {
+        return interpretedExecutor;
+    }
+}
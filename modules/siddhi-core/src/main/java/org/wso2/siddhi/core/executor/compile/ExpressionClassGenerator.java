@@ -0,0 +1,697 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.executor.compile;
+
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import org.wso2.siddhi.core.event.ComplexEvent;
+import org.wso2.siddhi.core.event.stream.StreamEvent;
+import org.wso2.siddhi.core.executor.ConstantExpressionExecutor;
+import org.wso2.siddhi.core.executor.ExpressionExecutor;
+import org.wso2.siddhi.core.executor.VariableExpressionExecutor;
+import org.wso2.siddhi.core.executor.condition.AndConditionExpressionExecutor;
+import org.wso2.siddhi.core.executor.condition.BoolConditionExpressionExecutor;
+import org.wso2.siddhi.core.executor.condition.NotConditionExpressionExecutor;
+import org.wso2.siddhi.core.executor.condition.OrConditionExpressionExecutor;
+import org.wso2.siddhi.core.executor.condition.compare.CompareConditionExpressionExecutor;
+import org.wso2.siddhi.core.executor.condition.compare.equal.EqualCompareConditionExpressionExecutor;
+import org.wso2.siddhi.core.executor.condition.compare.greaterthan.GreaterThanCompareConditionExpressionExecutor;
+import org.wso2.siddhi.core.executor.condition.compare.greaterthanequal
+        .GreaterThanEqualCompareConditionExpressionExecutor;
+import org.wso2.siddhi.core.executor.condition.compare.lessthan.LessThanCompareConditionExpressionExecutor;
+import org.wso2.siddhi.core.executor.condition.compare.lessthanequal.LessThanEqualCompareConditionExpressionExecutor;
+import org.wso2.siddhi.core.executor.condition.compare.notequal.NotEqualCompareConditionExpressionExecutor;
+import org.wso2.siddhi.core.executor.math.MathExpressionExecutor;
+import org.wso2.siddhi.core.executor.math.add.AddExpressionExecutorDouble;
+import org.wso2.siddhi.core.executor.math.add.AddExpressionExecutorFloat;
+import org.wso2.siddhi.core.executor.math.add.AddExpressionExecutorInt;
+import org.wso2.siddhi.core.executor.math.add.AddExpressionExecutorLong;
+import org.wso2.siddhi.core.executor.math.divide.DivideExpressionExecutorDouble;
+import org.wso2.siddhi.core.executor.math.divide.DivideExpressionExecutorFloat;
+import org.wso2.siddhi.core.executor.math.divide.DivideExpressionExecutorInt;
+import org.wso2.siddhi.core.executor.math.divide.DivideExpressionExecutorLong;
+import org.wso2.siddhi.core.executor.math.mod.ModExpressionExecutorDouble;
+import org.wso2.siddhi.core.executor.math.mod.ModExpressionExecutorFloat;
+import org.wso2.siddhi.core.executor.math.mod.ModExpressionExecutorInt;
+import org.wso2.siddhi.core.executor.math.mod.ModExpressionExecutorLong;
+import org.wso2.siddhi.core.executor.math.multiply.MultiplyExpressionExecutorDouble;
+import org.wso2.siddhi.core.executor.math.multiply.MultiplyExpressionExecutorFloat;
+import org.wso2.siddhi.core.executor.math.multiply.MultiplyExpressionExecutorInt;
+import org.wso2.siddhi.core.executor.math.multiply.MultiplyExpressionExecutorLong;
+import org.wso2.siddhi.core.executor.math.subtract.SubtractExpressionExecutorDouble;
+import org.wso2.siddhi.core.executor.math.subtract.SubtractExpressionExecutorFloat;
+import org.wso2.siddhi.core.executor.math.subtract.SubtractExpressionExecutorInt;
+import org.wso2.siddhi.core.executor.math.subtract.SubtractExpressionExecutorLong;
+import org.wso2.siddhi.query.api.definition.Attribute;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.wso2.siddhi.core.util.SiddhiConstants.BEFORE_WINDOW_DATA_INDEX;
+import static org.wso2.siddhi.core.util.SiddhiConstants.ON_AFTER_WINDOW_DATA_INDEX;
+import static org.wso2.siddhi.core.util.SiddhiConstants.OUTPUT_DATA_INDEX;
+import static org.wso2.siddhi.core.util.SiddhiConstants.STREAM_ATTRIBUTE_INDEX_IN_TYPE;
+import static org.wso2.siddhi.core.util.SiddhiConstants.STREAM_ATTRIBUTE_TYPE_INDEX;
+
+/**
+ * Generates the byte code of a {@link CompiledExpressionExecutor} for an executor tree. Variables, constants, math
+ * operations, compare conditions and logical conditions are inlined, reading attributes directly from the data
+ * arrays of the {@link StreamEvent}, while all the other executors are called through the fallback executors.
+ * <p>
+ * Operands are evaluated in the same order as the interpreted executors, hence each fallback executor is executed
+ * the same number of times as in the interpreted tree.
+ */
+final class ExpressionClassGenerator implements Opcodes {
+
+    private static final String OBJECT = Type.getInternalName(Object.class);
+    private static final String EVENT = Type.getInternalName(StreamEvent.class);
+    private static final String EXECUTOR = Type.getInternalName(ExpressionExecutor.class);
+    private static final String EXECUTOR_DESCRIPTOR = Type.getDescriptor(ExpressionExecutor.class);
+    private static final String EXECUTORS_DESCRIPTOR = Type.getDescriptor(ExpressionExecutor[].class);
+    private static final String COMPILED_EXECUTOR = Type.getInternalName(CompiledExpressionExecutor.class);
+    private static final String COMPLEX_EVENT_DESCRIPTOR = Type.getDescriptor(ComplexEvent.class);
+    private static final int THIS_LOCAL = 0;
+    private static final int EVENT_LOCAL = 1;
+    private static final Map<Class<?>, Integer> MATH_OPERATIONS = new HashMap<>();
+
+    static {
+        MATH_OPERATIONS.put(AddExpressionExecutorInt.class, IADD);
+        MATH_OPERATIONS.put(AddExpressionExecutorLong.class, IADD);
+        MATH_OPERATIONS.put(AddExpressionExecutorFloat.class, IADD);
+        MATH_OPERATIONS.put(AddExpressionExecutorDouble.class, IADD);
+        MATH_OPERATIONS.put(SubtractExpressionExecutorInt.class, ISUB);
+        MATH_OPERATIONS.put(SubtractExpressionExecutorLong.class, ISUB);
+        MATH_OPERATIONS.put(SubtractExpressionExecutorFloat.class, ISUB);
+        MATH_OPERATIONS.put(SubtractExpressionExecutorDouble.class, ISUB);
+        MATH_OPERATIONS.put(MultiplyExpressionExecutorInt.class, IMUL);
+        MATH_OPERATIONS.put(MultiplyExpressionExecutorLong.class, IMUL);
+        MATH_OPERATIONS.put(MultiplyExpressionExecutorFloat.class, IMUL);
+        MATH_OPERATIONS.put(MultiplyExpressionExecutorDouble.class, IMUL);
+        MATH_OPERATIONS.put(DivideExpressionExecutorInt.class, IDIV);
+        MATH_OPERATIONS.put(DivideExpressionExecutorLong.class, IDIV);
+        MATH_OPERATIONS.put(DivideExpressionExecutorFloat.class, IDIV);
+        MATH_OPERATIONS.put(DivideExpressionExecutorDouble.class, IDIV);
+        MATH_OPERATIONS.put(ModExpressionExecutorInt.class, IREM);
+        MATH_OPERATIONS.put(ModExpressionExecutorLong.class, IREM);
+        MATH_OPERATIONS.put(ModExpressionExecutorFloat.class, IREM);
+        MATH_OPERATIONS.put(ModExpressionExecutorDouble.class, IREM);
+    }
+
+    private final MethodVisitor mv;
+    private final List<ExpressionExecutor> fallbackExecutors = new ArrayList<>();
+    private int nextLocal = EVENT_LOCAL + 1;
+
+    private ExpressionClassGenerator(MethodVisitor mv) {
+        this.mv = mv;
+    }
+
+    /**
+     * Checks whether the given executor is worth compiling, i.e. its root is inlined by the generated code.
+     *
+     * @param executor root of the executor tree
+     * @return true if the executor tree can be compiled
+     */
+    static boolean isCompilable(ExpressionExecutor executor) {
+        return isInlinedCondition(executor) || isInlinedMath(executor);
+    }
+
+    /**
+     * Generates the class of the given executor tree. The variable positions of the tree should be already updated.
+     *
+     * @param className internal name of the class to be generated
+     * @param executor  root of the executor tree
+     * @return byte code of the generated class
+     */
+    static byte[] generate(String className, ExpressionExecutor executor) {
+        ClassWriter classWriter = new ClassWriter(ClassWriter.COMPUTE_FRAMES) {
+            @Override
+            protected String getCommonSuperClass(String type1, String type2) {
+                // Only the Object references read from the events are merged, hence no class loading is needed
+                return OBJECT;
+            }
+        };
+        classWriter.visit(V1_8, ACC_PUBLIC | ACC_FINAL | ACC_SUPER, className, null, COMPILED_EXECUTOR, null);
+
+        String constructorDescriptor = "(" + EXECUTOR_DESCRIPTOR + EXECUTORS_DESCRIPTOR + ")V";
+        MethodVisitor constructor = classWriter.visitMethod(ACC_PUBLIC, "<init>", constructorDescriptor, null, null);
+        constructor.visitCode();
+        constructor.visitVarInsn(ALOAD, 0);
+        constructor.visitVarInsn(ALOAD, 1);
+        constructor.visitVarInsn(ALOAD, 2);
+        constructor.visitMethodInsn(INVOKESPECIAL, COMPILED_EXECUTOR, "<init>", constructorDescriptor, false);
+        constructor.visitInsn(RETURN);
+        constructor.visitMaxs(0, 0);
+        constructor.visitEnd();
+
+        MethodVisitor newInstance = classWriter.visitMethod(ACC_PROTECTED, "newInstance",
+                "(" + EXECUTOR_DESCRIPTOR + EXECUTORS_DESCRIPTOR + ")L" + COMPILED_EXECUTOR + ";", null, null);
+        newInstance.visitCode();
+        newInstance.visitTypeInsn(NEW, className);
+        newInstance.visitInsn(DUP);
+        newInstance.visitVarInsn(ALOAD, 1);
+        newInstance.visitVarInsn(ALOAD, 2);
+        newInstance.visitMethodInsn(INVOKESPECIAL, className, "<init>", constructorDescriptor, false);
+        newInstance.visitInsn(ARETURN);
+        newInstance.visitMaxs(0, 0);
+        newInstance.visitEnd();
+
+        MethodVisitor evaluate;
+        if (isInlinedCondition(executor)) {
+            evaluate = classWriter.visitMethod(ACC_PROTECTED, "evaluateCondition", "(L" + EVENT + ";)Z", null, null);
+        } else {
+            evaluate = classWriter.visitMethod(ACC_PROTECTED, "evaluate", "(L" + EVENT + ";)L" + OBJECT + ";", null,
+                    null);
+        }
+        evaluate.visitCode();
+        new ExpressionClassGenerator(evaluate).generateEvaluation(executor);
+        evaluate.visitMaxs(0, 0);
+        evaluate.visitEnd();
+
+        classWriter.visitEnd();
+        return classWriter.toByteArray();
+    }
+
+    /**
+     * Collects the executors that are not inlined by the generated code, in the order they are referred by it.
+     *
+     * @param executor root of the executor tree
+     * @return fallback executors of the tree
+     */
+    static ExpressionExecutor[] collectFallbackExecutors(ExpressionExecutor executor) {
+        ExpressionClassGenerator generator = new ExpressionClassGenerator(new MethodVisitor(ASM5) {
+        });
+        generator.generateEvaluation(executor);
+        return generator.fallbackExecutors.toArray(new ExpressionExecutor[generator.fallbackExecutors.size()]);
+    }
+
+    private static boolean isInlinedCondition(ExpressionExecutor executor) {
+        return executor instanceof AndConditionExpressionExecutor ||
+                executor instanceof OrConditionExpressionExecutor ||
+                executor instanceof NotConditionExpressionExecutor ||
+                executor instanceof BoolConditionExpressionExecutor ||
+                (executor instanceof CompareConditionExpressionExecutor &&
+                        compareKind((CompareConditionExpressionExecutor) executor) != null);
+    }
+
+    private static boolean isInlinedMath(ExpressionExecutor executor) {
+        return MATH_OPERATIONS.containsKey(executor.getClass()) &&
+                Kind.of(executor.getReturnType()).isNumeric() &&
+                Kind.of(((MathExpressionExecutor) executor).getLeftExpressionExecutor().getReturnType()).isNumeric() &&
+                Kind.of(((MathExpressionExecutor) executor).getRightExpressionExecutor().getReturnType()).isNumeric();
+    }
+
+    private void generateEvaluation(ExpressionExecutor executor) {
+        if (isInlinedCondition(executor)) {
+            condition(executor);
+            mv.visitInsn(IRETURN);
+        } else {
+            Kind kind = Kind.of(executor.getReturnType());
+            Slot slot = value(executor, kind);
+            Label present = new Label();
+            mv.visitVarInsn(ILOAD, slot.nullLocal);
+            mv.visitJumpInsn(IFEQ, present);
+            mv.visitInsn(ACONST_NULL);
+            mv.visitInsn(ARETURN);
+            mv.visitLabel(present);
+            load(slot);
+            box(kind);
+            mv.visitInsn(ARETURN);
+        }
+    }
+
+    /**
+     * Evaluates the executor as a condition leaving its int result on the stack.
+     */
+    private void condition(ExpressionExecutor executor) {
+        if (executor instanceof AndConditionExpressionExecutor) {
+            AndConditionExpressionExecutor andExecutor = (AndConditionExpressionExecutor) executor;
+            Label falseLabel = new Label();
+            Label end = new Label();
+            condition(andExecutor.getLeftConditionExecutor());
+            mv.visitJumpInsn(IFEQ, falseLabel);
+            condition(andExecutor.getRightConditionExecutor());
+            mv.visitJumpInsn(GOTO, end);
+            mv.visitLabel(falseLabel);
+            mv.visitInsn(ICONST_0);
+            mv.visitLabel(end);
+        } else if (executor instanceof OrConditionExpressionExecutor) {
+            OrConditionExpressionExecutor orExecutor = (OrConditionExpressionExecutor) executor;
+            Label trueLabel = new Label();
+            Label end = new Label();
+            condition(orExecutor.getLeftConditionExecutor());
+            mv.visitJumpInsn(IFNE, trueLabel);
+            condition(orExecutor.getRightConditionExecutor());
+            mv.visitJumpInsn(GOTO, end);
+            mv.visitLabel(trueLabel);
+            mv.visitInsn(ICONST_1);
+            mv.visitLabel(end);
+        } else if (executor instanceof NotConditionExpressionExecutor) {
+            condition(((NotConditionExpressionExecutor) executor).getConditionExecutor());
+            mv.visitInsn(ICONST_1);
+            mv.visitInsn(IXOR);
+        } else if (executor instanceof BoolConditionExpressionExecutor) {
+            Slot slot = value(((BoolConditionExpressionExecutor) executor).getConditionExecutor(), Kind.BOOL);
+            valueOrFalse(slot);
+        } else if (executor instanceof CompareConditionExpressionExecutor &&
+                compareKind((CompareConditionExpressionExecutor) executor) != null) {
+            compare((CompareConditionExpressionExecutor) executor);
+        } else {
+            fallback(executor);
+            mv.visitVarInsn(ALOAD, EVENT_LOCAL);
+            mv.visitMethodInsn(INVOKEINTERFACE, EXECUTOR, "executeAsBoolean",
+                    "(" + COMPLEX_EVENT_DESCRIPTOR + ")Z", true);
+        }
+    }
+
+    private void compare(CompareConditionExpressionExecutor executor) {
+        Kind kind = compareKind(executor);
+        Slot left = value(executor.getLeftExpressionExecutor(), kind);
+        Slot right = value(executor.getRightExpressionExecutor(), kind);
+        Label falseLabel = new Label();
+        Label end = new Label();
+        mv.visitVarInsn(ILOAD, left.nullLocal);
+        mv.visitVarInsn(ILOAD, right.nullLocal);
+        mv.visitInsn(IOR);
+        mv.visitJumpInsn(IFNE, falseLabel);
+        load(left);
+        load(right);
+        int jumpIfFalse = jumpIfFalse(executor);
+        switch (kind) {
+            case INT:
+            case BOOL:
+                mv.visitJumpInsn(jumpIfFalse + (IF_ICMPEQ - IFEQ), falseLabel);
+                break;
+            case LONG:
+                mv.visitInsn(LCMP);
+                mv.visitJumpInsn(jumpIfFalse, falseLabel);
+                break;
+            case FLOAT:
+                // Same as javac, NaN operands are compared such that the condition becomes false
+                mv.visitInsn(jumpIfFalse == IFGE || jumpIfFalse == IFGT ? FCMPG : FCMPL);
+                mv.visitJumpInsn(jumpIfFalse, falseLabel);
+                break;
+            case DOUBLE:
+                mv.visitInsn(jumpIfFalse == IFGE || jumpIfFalse == IFGT ? DCMPG : DCMPL);
+                mv.visitJumpInsn(jumpIfFalse, falseLabel);
+                break;
+            default:
+                mv.visitMethodInsn(INVOKEVIRTUAL, OBJECT, "equals", "(L" + OBJECT + ";)Z", false);
+                mv.visitJumpInsn(jumpIfFalse == IFNE ? IFEQ : IFNE, falseLabel);
+                break;
+        }
+        mv.visitInsn(ICONST_1);
+        mv.visitJumpInsn(GOTO, end);
+        mv.visitLabel(falseLabel);
+        mv.visitInsn(ICONST_0);
+        mv.visitLabel(end);
+    }
+
+    /**
+     * Evaluates the executor into a new slot of the given kind.
+     */
+    private Slot value(ExpressionExecutor executor, Kind kind) {
+        if (executor instanceof VariableExpressionExecutor) {
+            String dataGetter = dataGetter(((VariableExpressionExecutor) executor).getPosition());
+            if (dataGetter != null) {
+                mv.visitVarInsn(ALOAD, EVENT_LOCAL);
+                mv.visitMethodInsn(INVOKEVIRTUAL, EVENT, dataGetter, "()[L" + OBJECT + ";", false);
+                push(((VariableExpressionExecutor) executor).getPosition()[STREAM_ATTRIBUTE_INDEX_IN_TYPE]);
+                mv.visitInsn(AALOAD);
+                return unbox(kind);
+            }
+        } else if (executor instanceof ConstantExpressionExecutor) {
+            Object constant = ((ConstantExpressionExecutor) executor).getValue();
+            if (constant == null || kind != Kind.OBJECT || constant instanceof String) {
+                return constant(constant, kind);
+            }
+        } else if (kind.isNumeric() && isInlinedMath(executor)) {
+            return convert(math((MathExpressionExecutor) executor), kind);
+        } else if (kind == Kind.BOOL && isInlinedCondition(executor)) {
+            condition(executor);
+            Slot slot = newSlot(Kind.BOOL);
+            mv.visitVarInsn(ISTORE, slot.valueLocal);
+            mv.visitInsn(ICONST_0);
+            mv.visitVarInsn(ISTORE, slot.nullLocal);
+            return slot;
+        }
+        fallback(executor);
+        mv.visitVarInsn(ALOAD, EVENT_LOCAL);
+        mv.visitMethodInsn(INVOKEINTERFACE, EXECUTOR, "execute",
+                "(" + COMPLEX_EVENT_DESCRIPTOR + ")L" + OBJECT + ";", true);
+        return unbox(kind);
+    }
+
+    private Slot math(MathExpressionExecutor executor) {
+        int operation = MATH_OPERATIONS.get(executor.getClass());
+        Kind kind = Kind.of(executor.getReturnType());
+        // Operands are read as the type of the operation, same as the interpreted executors
+        Slot left = value(executor.getLeftExpressionExecutor(), kind);
+        Slot right = value(executor.getRightExpressionExecutor(), kind);
+        Slot result = newSlot(kind);
+        Label nullLabel = new Label();
+        Label end = new Label();
+        mv.visitVarInsn(ILOAD, left.nullLocal);
+        mv.visitVarInsn(ILOAD, right.nullLocal);
+        mv.visitInsn(IOR);
+        mv.visitJumpInsn(IFNE, nullLabel);
+        if (operation == IDIV || operation == IREM) {
+            load(right);
+            zeroCompare(kind);
+            mv.visitJumpInsn(IFEQ, nullLabel);
+        }
+        load(left);
+        load(right);
+        mv.visitInsn(kind.type.getOpcode(operation));
+        mv.visitVarInsn(kind.type.getOpcode(ISTORE), result.valueLocal);
+        mv.visitInsn(ICONST_0);
+        mv.visitVarInsn(ISTORE, result.nullLocal);
+        mv.visitJumpInsn(GOTO, end);
+        mv.visitLabel(nullLabel);
+        setNull(result);
+        mv.visitLabel(end);
+        return result;
+    }
+
+    private Slot constant(Object constant, Kind kind) {
+        Slot slot = newSlot(kind);
+        if (constant == null) {
+            setNull(slot);
+            return slot;
+        }
+        switch (kind) {
+            case INT:
+                push(((Number) constant).intValue());
+                break;
+            case LONG:
+                mv.visitLdcInsn(((Number) constant).longValue());
+                break;
+            case FLOAT:
+                mv.visitLdcInsn(((Number) constant).floatValue());
+                break;
+            case DOUBLE:
+                mv.visitLdcInsn(((Number) constant).doubleValue());
+                break;
+            case BOOL:
+                mv.visitInsn((Boolean) constant ? ICONST_1 : ICONST_0);
+                break;
+            default:
+                mv.visitLdcInsn(constant);
+                break;
+        }
+        mv.visitVarInsn(kind.type.getOpcode(ISTORE), slot.valueLocal);
+        mv.visitInsn(ICONST_0);
+        mv.visitVarInsn(ISTORE, slot.nullLocal);
+        return slot;
+    }
+
+    /**
+     * Stores the Object on the stack into a new slot of the given kind.
+     */
+    private Slot unbox(Kind kind) {
+        int objectLocal = newLocal(1);
+        mv.visitVarInsn(ASTORE, objectLocal);
+        Slot slot = newSlot(kind);
+        Label present = new Label();
+        Label end = new Label();
+        mv.visitVarInsn(ALOAD, objectLocal);
+        mv.visitJumpInsn(IFNONNULL, present);
+        setNull(slot);
+        mv.visitJumpInsn(GOTO, end);
+        mv.visitLabel(present);
+        mv.visitVarInsn(ALOAD, objectLocal);
+        if (kind != Kind.OBJECT) {
+            String boxType = kind == Kind.BOOL ? Type.getInternalName(Boolean.class) :
+                    Type.getInternalName(Number.class);
+            mv.visitTypeInsn(CHECKCAST, boxType);
+            mv.visitMethodInsn(INVOKEVIRTUAL, boxType, kind.unboxMethod, "()" + kind.type.getDescriptor(), false);
+        }
+        mv.visitVarInsn(kind.type.getOpcode(ISTORE), slot.valueLocal);
+        mv.visitInsn(ICONST_0);
+        mv.visitVarInsn(ISTORE, slot.nullLocal);
+        mv.visitLabel(end);
+        return slot;
+    }
+
+    private Slot convert(Slot slot, Kind kind) {
+        if (slot.kind == kind) {
+            return slot;
+        }
+        Slot converted = newSlot(kind);
+        load(slot);
+        mv.visitInsn(conversion(slot.kind, kind));
+        mv.visitVarInsn(kind.type.getOpcode(ISTORE), converted.valueLocal);
+        mv.visitVarInsn(ILOAD, slot.nullLocal);
+        mv.visitVarInsn(ISTORE, converted.nullLocal);
+        return converted;
+    }
+
+    private void fallback(ExpressionExecutor executor) {
+        mv.visitVarInsn(ALOAD, THIS_LOCAL);
+        mv.visitFieldInsn(GETFIELD, COMPILED_EXECUTOR, "fallbackExecutors", EXECUTORS_DESCRIPTOR);
+        push(fallbackExecutors.size());
+        mv.visitInsn(AALOAD);
+        fallbackExecutors.add(executor);
+    }
+
+    private void valueOrFalse(Slot slot) {
+        Label falseLabel = new Label();
+        Label end = new Label();
+        mv.visitVarInsn(ILOAD, slot.nullLocal);
+        mv.visitJumpInsn(IFNE, falseLabel);
+        load(slot);
+        mv.visitJumpInsn(GOTO, end);
+        mv.visitLabel(falseLabel);
+        mv.visitInsn(ICONST_0);
+        mv.visitLabel(end);
+    }
+
+    private void setNull(Slot slot) {
+        mv.visitInsn(ICONST_1);
+        mv.visitVarInsn(ISTORE, slot.nullLocal);
+        // Value is also assigned so that the slot is initialized in all the paths
+        switch (slot.kind) {
+            case LONG:
+                mv.visitInsn(LCONST_0);
+                break;
+            case FLOAT:
+                mv.visitInsn(FCONST_0);
+                break;
+            case DOUBLE:
+                mv.visitInsn(DCONST_0);
+                break;
+            case OBJECT:
+                mv.visitInsn(ACONST_NULL);
+                break;
+            default:
+                mv.visitInsn(ICONST_0);
+                break;
+        }
+        mv.visitVarInsn(slot.kind.type.getOpcode(ISTORE), slot.valueLocal);
+    }
+
+    private void zeroCompare(Kind kind) {
+        switch (kind) {
+            case LONG:
+                mv.visitInsn(LCONST_0);
+                mv.visitInsn(LCMP);
+                break;
+            case FLOAT:
+                mv.visitInsn(FCONST_0);
+                mv.visitInsn(FCMPL);
+                break;
+            case DOUBLE:
+                mv.visitInsn(DCONST_0);
+                mv.visitInsn(DCMPL);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void box(Kind kind) {
+        if (kind != Kind.OBJECT) {
+            String boxType = Type.getInternalName(kind.boxClass);
+            mv.visitMethodInsn(INVOKESTATIC, boxType, "valueOf", "(" + kind.type.getDescriptor() + ")L" + boxType +
+                    ";", false);
+        }
+    }
+
+    private void load(Slot slot) {
+        mv.visitVarInsn(slot.kind.type.getOpcode(ILOAD), slot.valueLocal);
+    }
+
+    private void push(int value) {
+        if (value >= -1 && value <= 5) {
+            mv.visitInsn(ICONST_0 + value);
+        } else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+            mv.visitIntInsn(BIPUSH, value);
+        } else if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+            mv.visitIntInsn(SIPUSH, value);
+        } else {
+            mv.visitLdcInsn(value);
+        }
+    }
+
+    private Slot newSlot(Kind kind) {
+        return new Slot(kind, newLocal(kind.type.getSize()), newLocal(1));
+    }
+
+    private int newLocal(int size) {
+        int local = nextLocal;
+        nextLocal += size;
+        return local;
+    }
+
+    private static String dataGetter(int[] position) {
+        switch (position[STREAM_ATTRIBUTE_TYPE_INDEX]) {
+            case BEFORE_WINDOW_DATA_INDEX:
+                return "getBeforeWindowData";
+            case ON_AFTER_WINDOW_DATA_INDEX:
+                return "getOnAfterWindowData";
+            case OUTPUT_DATA_INDEX:
+                return "getOutputData";
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * @return kind both the operands are compared as, or null if the compare executor is not inlined
+     */
+    private static Kind compareKind(CompareConditionExpressionExecutor executor) {
+        Kind left = Kind.of(executor.getLeftExpressionExecutor().getReturnType());
+        Kind right = Kind.of(executor.getRightExpressionExecutor().getReturnType());
+        int jumpIfFalse = jumpIfFalse(executor);
+        boolean equality = jumpIfFalse == IFNE || jumpIfFalse == IFEQ;
+        if (jumpIfFalse == -1) {
+            return null;
+        } else if (left.isNumeric() && right.isNumeric()) {
+            if (equality && ((left == Kind.FLOAT && right == Kind.LONG) ||
+                    (left == Kind.LONG && right == Kind.FLOAT))) {
+                // Float and long values are checked for equality as doubles by the interpreted executors
+                return Kind.DOUBLE;
+            }
+            return left.ordinal() > right.ordinal() ? left : right;
+        } else if (equality && left == right && (left == Kind.BOOL || (left == Kind.OBJECT &&
+                executor.getLeftExpressionExecutor().getReturnType() == Attribute.Type.STRING &&
+                executor.getRightExpressionExecutor().getReturnType() == Attribute.Type.STRING))) {
+            return left;
+        }
+        return null;
+    }
+
+    /**
+     * @return the single operand jump instruction which jumps when the compare condition is false
+     */
+    private static int jumpIfFalse(CompareConditionExpressionExecutor executor) {
+        if (executor instanceof EqualCompareConditionExpressionExecutor) {
+            return IFNE;
+        } else if (executor instanceof NotEqualCompareConditionExpressionExecutor) {
+            return IFEQ;
+        } else if (executor instanceof GreaterThanCompareConditionExpressionExecutor) {
+            return IFLE;
+        } else if (executor instanceof GreaterThanEqualCompareConditionExpressionExecutor) {
+            return IFLT;
+        } else if (executor instanceof LessThanCompareConditionExpressionExecutor) {
+            return IFGE;
+        } else if (executor instanceof LessThanEqualCompareConditionExpressionExecutor) {
+            return IFGT;
+        }
+        return -1;
+    }
+
+    private static int conversion(Kind from, Kind to) {
+        switch (from) {
+            case INT:
+                return to == Kind.LONG ? I2L : to == Kind.FLOAT ? I2F : I2D;
+            case LONG:
+                return to == Kind.INT ? L2I : to == Kind.FLOAT ? L2F : L2D;
+            case FLOAT:
+                return to == Kind.INT ? F2I : to == Kind.LONG ? F2L : F2D;
+            case DOUBLE:
+                return to == Kind.INT ? D2I : to == Kind.LONG ? D2L : D2F;
+            default:
+                throw new IllegalStateException("Cannot convert " + from + " to " + to);
+        }
+    }
+
+    /**
+     * Kinds of values held in the local variables of the generated method. Numeric kinds are declared in the order
+     * of their widening.
+     */
+    private enum Kind {
+        INT(Type.INT_TYPE, Integer.class, "intValue"),
+        LONG(Type.LONG_TYPE, Long.class, "longValue"),
+        FLOAT(Type.FLOAT_TYPE, Float.class, "floatValue"),
+        DOUBLE(Type.DOUBLE_TYPE, Double.class, "doubleValue"),
+        BOOL(Type.BOOLEAN_TYPE, Boolean.class, "booleanValue"),
+        OBJECT(Type.getType(Object.class), null, null);
+
+        private final Type type;
+        private final Class<?> boxClass;
+        private final String unboxMethod;
+
+        Kind(Type type, Class<?> boxClass, String unboxMethod) {
+            this.type = type;
+            this.boxClass = boxClass;
+            this.unboxMethod = unboxMethod;
+        }
+
+        private static Kind of(Attribute.Type type) {
+            switch (type) {
+                case INT:
+                    return INT;
+                case LONG:
+                    return LONG;
+                case FLOAT:
+                    return FLOAT;
+                case DOUBLE:
+                    return DOUBLE;
+                case BOOL:
+                    return BOOL;
+                default:
+                    return OBJECT;
+            }
+        }
+
+        private boolean isNumeric() {
+            return ordinal() <= DOUBLE.ordinal();
+        }
+    }
+
+    /**
+     * Local variables holding the value of an evaluated executor and whether the value is null.
+     */
+    private static class Slot {
+        private final Kind kind;
+        private final int valueLocal;
+        private final int nullLocal;
+
+        private Slot(Kind kind, int valueLocal, int nullLocal) {
+            this.kind = kind;
+            this.valueLocal = valueLocal;
+            this.nullLocal = nullLocal;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.executor.compile;
+
+import org.apache.log4j.Logger;
+import org.wso2.siddhi.core.event.MetaComplexEvent;
+import org.wso2.siddhi.core.event.stream.MetaStreamEvent;
+import org.wso2.siddhi.core.executor.ExpressionExecutor;
+
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compiles filter and select expressions of a Siddhi app to byte code, when the app is annotated with
+ * {@code @app:compile('true')}. Expressions are wrapped while the queries are parsed and are compiled once all the
+ * queries of the app are parsed. Expressions failed to compile are kept being interpreted.
+ */
+public class ExpressionCompiler {
+
+    private static final Logger log = Logger.getLogger(ExpressionCompiler.class);
+    private static final String GENERATED_CLASS_NAME = ExpressionCompiler.class.getPackage().getName() +
+            ".GeneratedExpressionExecutor";
+
+    private final String siddhiAppName;
+    private final GeneratedClassLoader classLoader;
+    private List<CompilableExpressionExecutor> pendingExecutors = new ArrayList<>();
+    private int generatedClassCount = 0;
+
+    public ExpressionCompiler(String siddhiAppName) {
+        this.siddhiAppName = siddhiAppName;
+        this.classLoader = AccessController.doPrivileged((PrivilegedAction<GeneratedClassLoader>) () ->
+                new GeneratedClassLoader(ExpressionCompiler.class.getClassLoader()));
+    }
+
+    /**
+     * Wraps the executor to be compiled when the app is parsed. Only the expressions processing stream events, and
+     * having a root that gets inlined are compiled.
+     *
+     * @param expressionExecutor executor of the expression
+     * @param metaComplexEvent   meta event of the query the expression belongs to
+     * @return the wrapped executor, or the given executor if it is not compiled
+     */
+    public ExpressionExecutor wrap(ExpressionExecutor expressionExecutor, MetaComplexEvent metaComplexEvent) {
+        // Expressions of queries parsed after the app creation, such as store queries, are not compiled
+        if (pendingExecutors == null || !(metaComplexEvent instanceof MetaStreamEvent) ||
+                !ExpressionClassGenerator.isCompilable(expressionExecutor)) {
+            return expressionExecutor;
+        }
+        CompilableExpressionExecutor compilableExecutor = new CompilableExpressionExecutor(expressionExecutor);
+        pendingExecutors.add(compilableExecutor);
+        return compilableExecutor;
+    }
+
+    /**
+     * Compiles all the wrapped expressions, after which no more expressions are wrapped.
+     */
+    public void compilePendingExpressions() {
+        for (CompilableExpressionExecutor compilableExecutor : pendingExecutors) {
+            try {
+                compilableExecutor.setCompiledExecutor(compile(compilableExecutor.getInterpretedExecutor()));
+            } catch (RuntimeException | LinkageError e) {
+                log.warn("Expression '" + compilableExecutor.getInterpretedExecutor() + "' of Siddhi app '" +
+                        siddhiAppName + "' could not be compiled, hence it will be interpreted. " + e.getMessage(),
+                        e);
+            }
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Compiled " + generatedClassCount + " expressions of Siddhi app '" + siddhiAppName + "'.");
+        }
+        pendingExecutors = null;
+    }
+
+    private CompiledExpressionExecutor compile(ExpressionExecutor executor) {
+        String className = GENERATED_CLASS_NAME + generatedClassCount;
+        byte[] byteCode = ExpressionClassGenerator.generate(className.replace('.', '/'), executor);
+        Class<?> generatedClass = classLoader.define(className, byteCode);
+        generatedClassCount++;
+        try {
+            return (CompiledExpressionExecutor) generatedClass
+                    .getConstructor(ExpressionExecutor.class, ExpressionExecutor[].class)
+                    .newInstance(executor, ExpressionClassGenerator.collectFallbackExecutors(executor));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot instantiate " + className, e);
+        }
+    }
+
+    /**
+     * Class loader of the generated executors, such that the generated classes are unloaded with the app.
+     */
+    private static class GeneratedClassLoader extends ClassLoader {
+
+        private GeneratedClassLoader(ClassLoader parent) {
+            super(parent);
+        }
+
+        private Class<?> define(String name, byte[] byteCode) {
+            return defineClass(name, byteCode, 0, byteCode.length);
+        }
+    }
+}
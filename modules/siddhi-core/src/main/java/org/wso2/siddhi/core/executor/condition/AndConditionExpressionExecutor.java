@@ -64,14 +64,12 @@ public class AndConditionExpressionExecutor extends ConditionExpressionExecutor
     }
 
     public Boolean execute(ComplexEvent event) {
-        Object leftResult = leftConditionExecutor.execute(event);
-        if (leftResult != null && (Boolean) leftResult) {
-            Object rightResult = rightConditionExecutor.execute(event);
-            if (rightResult != null && (Boolean) rightResult) {
-                return Boolean.TRUE;
-            }
-        }
-        return Boolean.FALSE;
+        return executeAsBoolean(event);
+    }
+
+    @Override
+    public boolean executeAsBoolean(ComplexEvent event) {
+        return leftConditionExecutor.executeAsBoolean(event) && rightConditionExecutor.executeAsBoolean(event);
     }
 
     @Override
@@ -80,4 +78,11 @@ public class AndConditionExpressionExecutor extends ConditionExpressionExecutor
                 .cloneExecutor(key));
     }
 
+    public ExpressionExecutor getLeftConditionExecutor() {
+        return leftConditionExecutor;
+    }
+
+    public ExpressionExecutor getRightConditionExecutor() {
+        return rightConditionExecutor;
+    }
 }
@@ -41,12 +41,12 @@ public class BoolConditionExpressionExecutor extends ConditionExpressionExecutor
     }
 
     public Boolean execute(ComplexEvent event) {
-        Object result = conditionExecutor.execute(event);
-        if (result == null) {
-            return Boolean.FALSE;
-        } else {
-            return (Boolean) result;
-        }
+        return executeAsBoolean(event);
+    }
+
+    @Override
+    public boolean executeAsBoolean(ComplexEvent event) {
+        return conditionExecutor.executeAsBoolean(event);
     }
 
     @Override
@@ -54,5 +54,7 @@ public class BoolConditionExpressionExecutor extends ConditionExpressionExecutor
         return new BoolConditionExpressionExecutor(conditionExecutor.cloneExecutor(key));
     }
 
-
+    public ExpressionExecutor getConditionExecutor() {
+        return conditionExecutor;
+    }
 }
@@ -41,12 +41,12 @@ public class NotConditionExpressionExecutor extends ConditionExpressionExecutor
     }
 
     public Boolean execute(ComplexEvent event) {
-        Boolean result = (Boolean) conditionExecutor.execute(event);
-        if (result == Boolean.TRUE) {
-            return Boolean.FALSE;
-        } else {
-            return Boolean.TRUE;
-        }
+        return executeAsBoolean(event);
+    }
+
+    @Override
+    public boolean executeAsBoolean(ComplexEvent event) {
+        return !conditionExecutor.executeAsBoolean(event);
     }
 
     @Override
@@ -54,5 +54,7 @@ public class NotConditionExpressionExecutor extends ConditionExpressionExecutor
         return new NotConditionExpressionExecutor(conditionExecutor.cloneExecutor(key));
     }
 
-
+    public ExpressionExecutor getConditionExecutor() {
+        return conditionExecutor;
+    }
 }
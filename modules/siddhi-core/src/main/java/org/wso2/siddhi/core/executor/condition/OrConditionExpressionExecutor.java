@@ -63,16 +63,12 @@ public class OrConditionExpressionExecutor extends ConditionExpressionExecutor {
     }
 
     public Boolean execute(ComplexEvent event) {
-        Object leftResult = leftConditionExecutor.execute(event);
-        if (leftResult != null && (Boolean) leftResult) {
-            return Boolean.TRUE;
-        } else {
-            Object rightResult = rightConditionExecutor.execute(event);
-            if (rightResult != null && (Boolean) rightResult) {
-                return Boolean.TRUE;
-            }
-        }
-        return Boolean.FALSE;
+        return executeAsBoolean(event);
+    }
+
+    @Override
+    public boolean executeAsBoolean(ComplexEvent event) {
+        return leftConditionExecutor.executeAsBoolean(event) || rightConditionExecutor.executeAsBoolean(event);
     }
 
     @Override
@@ -81,5 +77,11 @@ public class OrConditionExpressionExecutor extends ConditionExpressionExecutor {
                 .cloneExecutor(key));
     }
 
+    public ExpressionExecutor getLeftConditionExecutor() {
+        return leftConditionExecutor;
+    }
 
+    public ExpressionExecutor getRightConditionExecutor() {
+        return rightConditionExecutor;
+    }
 }
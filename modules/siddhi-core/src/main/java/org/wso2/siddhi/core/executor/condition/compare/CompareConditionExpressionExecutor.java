@@ -18,7 +18,9 @@
 package org.wso2.siddhi.core.executor.condition.compare;
 
 import org.wso2.siddhi.core.event.ComplexEvent;
+import org.wso2.siddhi.core.executor.ConstantExpressionExecutor;
 import org.wso2.siddhi.core.executor.ExpressionExecutor;
+import org.wso2.siddhi.core.executor.VariableExpressionExecutor;
 import org.wso2.siddhi.core.executor.condition.ConditionExpressionExecutor;
 
 /**
@@ -28,20 +30,67 @@ public abstract class CompareConditionExpressionExecutor extends ConditionExpres
 
     protected ExpressionExecutor leftExpressionExecutor;
     protected ExpressionExecutor rightExpressionExecutor;
+    private final boolean primitiveExecutable;
 
     public CompareConditionExpressionExecutor(ExpressionExecutor leftExpressionExecutor,
                                               ExpressionExecutor rightExpressionExecutor) {
         this.leftExpressionExecutor = leftExpressionExecutor;
         this.rightExpressionExecutor = rightExpressionExecutor;
+        // Operands read directly from the event are already boxed, hence the primitive path only pays off when an
+        // operand computes its value
+        this.primitiveExecutable = leftExpressionExecutor.isPrimitiveExecutable() &&
+                rightExpressionExecutor.isPrimitiveExecutable() &&
+                !(isEventValue(leftExpressionExecutor) && isEventValue(rightExpressionExecutor));
     }
 
 
     public Boolean execute(ComplexEvent event) {
+        return executeAsBoolean(event);
+    }
+
+    @Override
+    public boolean executeAsBoolean(ComplexEvent event) {
+        if (primitiveExecutable) {
+            return !(leftExpressionExecutor.isNull(event) || rightExpressionExecutor.isNull(event)) &&
+                    executePrimitive(event);
+        }
         Object left = leftExpressionExecutor.execute(event);
         Object right = rightExpressionExecutor.execute(event);
         return !(left == null || right == null) && execute(left, right);
     }
 
+    @Override
+    public boolean isPrimitiveExecutable() {
+        return leftExpressionExecutor.isPrimitiveExecutable() && rightExpressionExecutor.isPrimitiveExecutable();
+    }
+
+    @Override
+    public boolean isNull(ComplexEvent event) {
+        return false;
+    }
+
     protected abstract Boolean execute(Object left, Object right);
 
+    /**
+     * Compares the operands through their primitive execute methods. Only called when both operands are not null.
+     *
+     * @param event the event to be evaluated
+     * @return the result of the comparison
+     */
+    protected boolean executePrimitive(ComplexEvent event) {
+        return execute(leftExpressionExecutor.execute(event), rightExpressionExecutor.execute(event));
+    }
+
+    private static boolean isEventValue(ExpressionExecutor expressionExecutor) {
+        return expressionExecutor instanceof VariableExpressionExecutor ||
+                expressionExecutor instanceof ConstantExpressionExecutor;
+    }
+
+    public ExpressionExecutor getLeftExpressionExecutor() {
+        return leftExpressionExecutor;
+    }
+
+    public ExpressionExecutor getRightExpressionExecutor() {
+        return rightExpressionExecutor;
+    }
 }
@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.executor.math;
+
+import org.wso2.siddhi.core.event.ComplexEvent;
+import org.wso2.siddhi.core.executor.ConstantExpressionExecutor;
+import org.wso2.siddhi.core.executor.ExpressionExecutor;
+
+/**
+ * Parent Executor class for divide and mod operations. Their result is null when the divisor is zero, hence a null
+ * check needs the divisor value. The primitive path is only offered when the divisor is a non zero constant, so that
+ * the null check stays independent of the operand values; other divisors are evaluated once through execute.
+ */
+public abstract class DivisionExpressionExecutor extends MathExpressionExecutor {
+
+    private final boolean constantDivisor;
+
+    public DivisionExpressionExecutor(ExpressionExecutor leftExpressionExecutor,
+                                      ExpressionExecutor rightExpressionExecutor) {
+        super(leftExpressionExecutor, rightExpressionExecutor);
+        this.constantDivisor = isNonZeroConstant(rightExpressionExecutor);
+    }
+
+    @Override
+    public boolean isPrimitiveExecutable() {
+        return constantDivisor && super.isPrimitiveExecutable();
+    }
+
+    @Override
+    public boolean isNull(ComplexEvent event) {
+        if (constantDivisor) {
+            return super.isNull(event);
+        }
+        return execute(event) == null;
+    }
+
+    private static boolean isNonZeroConstant(ExpressionExecutor expressionExecutor) {
+        if (!(expressionExecutor instanceof ConstantExpressionExecutor)) {
+            return false;
+        }
+        Object value = ((ConstantExpressionExecutor) expressionExecutor).getValue();
+        return value instanceof Number && ((Number) value).doubleValue() != 0.0;
+    }
+}
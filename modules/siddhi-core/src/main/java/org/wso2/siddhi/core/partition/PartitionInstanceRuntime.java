@@ -18,8 +18,10 @@
 package org.wso2.siddhi.core.partition;
 
 import org.wso2.siddhi.core.query.QueryRuntime;
+import org.wso2.siddhi.core.util.snapshot.Snapshotable;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * Class to represent each partition key instance. These will be created dynamically and will contain
@@ -28,10 +30,15 @@ import java.util.List;
 public class PartitionInstanceRuntime {
     private String key;
     private List<QueryRuntime> queryRuntimeList;
+    private Map<String, List<Snapshotable>> snapshotables;
+    private volatile long lastEventTime;
 
-    public PartitionInstanceRuntime(String key, List<QueryRuntime> queryRuntimeList) {
+    public PartitionInstanceRuntime(String key, List<QueryRuntime> queryRuntimeList,
+                                    Map<String, List<Snapshotable>> snapshotables) {
         this.key = key;
         this.queryRuntimeList = queryRuntimeList;
+        this.snapshotables = snapshotables;
+        this.lastEventTime = System.currentTimeMillis();
     }
 
     public List<QueryRuntime> getQueryRuntimeList() {
@@ -42,6 +49,18 @@ public class PartitionInstanceRuntime {
         return key;
     }
 
-}
+    /**
+     * @return snapshotables created for this partition instance, by their query name
+     */
+    public Map<String, List<Snapshotable>> getSnapshotables() {
+        return snapshotables;
+    }
 
+    public long getLastEventTime() {
+        return lastEventTime;
+    }
 
+    public void setLastEventTime(long lastEventTime) {
+        this.lastEventTime = lastEventTime;
+    }
+}
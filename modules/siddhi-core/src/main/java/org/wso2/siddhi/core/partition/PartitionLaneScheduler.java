@@ -0,0 +1,262 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.partition;
+
+import org.apache.log4j.Logger;
+import org.wso2.siddhi.core.config.SiddhiAppContext;
+import org.wso2.siddhi.core.event.ComplexEvent;
+import org.wso2.siddhi.core.stream.StreamJunction;
+import org.wso2.siddhi.core.util.ThreadBarrier;
+import org.wso2.siddhi.core.util.extension.holder.EternalReferencedHolder;
+import org.wso2.siddhi.core.util.statistics.EventBufferHolder;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Schedules the events of a partition to a fixed number of worker lanes, based on the partition key. Events of a
+ * partition key are always processed by the same lane in their arrival order, while the events of different keys
+ * get processed in parallel by the lanes. Each lane has a bounded queue consumed by a single worker thread, and the
+ * senders get blocked when the queue of the lane is full, until the scheduler is stopped. Lane workers are never
+ * blocked by a full lane, as lanes feeding each other would otherwise wait on each other forever.
+ * <p>
+ * The lane workers are consumers of the {@link ThreadBarrier}, hence locking the barrier for a snapshot or a restore
+ * waits until the events queued in the lanes are processed.
+ */
+public class PartitionLaneScheduler implements EternalReferencedHolder {
+    private static final Logger log = Logger.getLogger(PartitionLaneScheduler.class);
+    private static final long POLL_TIMEOUT_MILLIS = 100;
+
+    private final String partitionId;
+    private final SiddhiAppContext siddhiAppContext;
+    private final int batchSize;
+    private final ThreadBarrier threadBarrier;
+    private final Lane[] lanes;
+    private volatile boolean running = false;
+
+    public PartitionLaneScheduler(String partitionId, int workers, int bufferSize, int batchSize,
+                                  SiddhiAppContext siddhiAppContext) {
+        this.partitionId = partitionId;
+        this.siddhiAppContext = siddhiAppContext;
+        this.batchSize = batchSize;
+        this.threadBarrier = siddhiAppContext.getThreadBarrier();
+        this.lanes = new Lane[workers];
+        for (int i = 0; i < workers; i++) {
+            lanes[i] = new Lane(bufferSize);
+        }
+    }
+
+    /**
+     * Send the events of the given partition key to the stream junction of that key, via the lane of the key.
+     *
+     * @param key            partition key
+     * @param streamJunction stream junction of the partition instance of the key
+     * @param events         events handed over to the lane, which are not modified or reused hereafter
+     */
+    public void send(String key, StreamJunction streamJunction, ComplexEvent events) {
+        laneOf(key).send(key, streamJunction, events);
+    }
+
+    /**
+     * Discard the events of the given partition key, which are still queued in its lane. Used when the partition
+     * instance of the key is purged, as its stream junctions are no longer in use.
+     *
+     * @param key partition key
+     */
+    public void discard(String key) {
+        laneOf(key).discard(key);
+    }
+
+    private Lane laneOf(String key) {
+        int hash = key.hashCode();
+        hash ^= (hash >>> 16);
+        return lanes[(hash & Integer.MAX_VALUE) % lanes.length];
+    }
+
+    public int getWorkers() {
+        return lanes.length;
+    }
+
+    public EventBufferHolder getLane(int index) {
+        return lanes[index];
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        for (Lane lane : lanes) {
+            threadBarrier.registerBufferConsumer();
+            siddhiAppContext.getExecutorService().execute(lane);
+        }
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        for (Lane lane : lanes) {
+            Thread worker = lane.worker;
+            if (worker != null) {
+                worker.interrupt();
+            }
+        }
+    }
+
+    /**
+     * Lane having a bounded queue of events, which is consumed by a single worker thread. The bound only applies to
+     * senders that are not lane workers.
+     */
+    private class Lane implements Runnable, EventBufferHolder {
+        private final BlockingQueue<LaneEvent> queue = new LinkedBlockingQueue<>();
+        private final Semaphore capacity;
+        private volatile Thread worker;
+
+        Lane(int bufferSize) {
+            this.capacity = new Semaphore(bufferSize);
+        }
+
+        void send(String key, StreamJunction streamJunction, ComplexEvent events) {
+            if (Thread.currentThread() == worker) {
+                // Events fed back to the partition by its own lane get processed in place, as waiting on the full
+                // queue of the lane would never end
+                streamJunction.sendEvent(events);
+                return;
+            }
+            boolean bounded = !threadBarrier.isBufferConsumer();
+            try {
+                // Senders waiting on a full queue give up once the scheduler is stopped, as the worker is gone
+                while (bounded && !capacity.tryAcquire(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                    if (!running) {
+                        log.error("Partition '" + partitionId + "' of SiddhiApp '" + siddhiAppContext.getName() +
+                                "' is stopped, hence the events sent to it are dropped.");
+                        return;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.error("Interrupted while sending events to partition '" + partitionId + "' of SiddhiApp '" +
+                        siddhiAppContext.getName() + "', hence the events are dropped.", e);
+                return;
+            }
+            threadBarrier.addBufferedEvents(1);
+            queue.add(new LaneEvent(key, streamJunction, events, bounded));
+        }
+
+        void discard(String key) {
+            List<LaneEvent> discardedEvents = new ArrayList<>();
+            for (Iterator<LaneEvent> iterator = queue.iterator(); iterator.hasNext(); ) {
+                LaneEvent laneEvent = iterator.next();
+                if (laneEvent.key.equals(key)) {
+                    iterator.remove();
+                    discardedEvents.add(laneEvent);
+                }
+            }
+            if (!discardedEvents.isEmpty()) {
+                releaseCapacity(discardedEvents);
+                threadBarrier.removeBufferedEvents(discardedEvents.size());
+                log.warn("Partition key '" + key + "' of partition '" + partitionId + "' of SiddhiApp '" +
+                        siddhiAppContext.getName() + "' is purged, hence " + discardedEvents.size() +
+                        " pending event batches of the key are dropped.");
+            }
+        }
+
+        @Override
+        public void run() {
+            worker = Thread.currentThread();
+            threadBarrier.setBufferConsumer(true);
+            List<LaneEvent> laneEvents = new ArrayList<>(batchSize);
+            try {
+                while (running || !queue.isEmpty()) {
+                    LaneEvent laneEvent = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                    if (laneEvent == null) {
+                        continue;
+                    }
+                    laneEvents.add(laneEvent);
+                    queue.drainTo(laneEvents, batchSize - 1);
+                    releaseCapacity(laneEvents);
+                    for (LaneEvent event : laneEvents) {
+                        try {
+                            event.streamJunction.sendEvent(event.events);
+                        } catch (Throwable t) {
+                            log.error("Error in SiddhiApp '" + siddhiAppContext.getName() + "' when processing " +
+                                    "events of partition '" + partitionId + "', " + t.getMessage(), t);
+                        }
+                    }
+                    threadBarrier.removeBufferedEvents(laneEvents.size());
+                    laneEvents.clear();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                worker = null;
+                threadBarrier.setBufferConsumer(false);
+                laneEvents.clear();
+                queue.drainTo(laneEvents);
+                if (!laneEvents.isEmpty()) {
+                    releaseCapacity(laneEvents);
+                    threadBarrier.removeBufferedEvents(laneEvents.size());
+                    log.warn("Partition '" + partitionId + "' of SiddhiApp '" + siddhiAppContext.getName() +
+                            "' is stopped, hence " + laneEvents.size() + " pending event batches are dropped.");
+                }
+                threadBarrier.unregisterBufferConsumer();
+            }
+        }
+
+        private void releaseCapacity(List<LaneEvent> laneEvents) {
+            int permits = 0;
+            for (LaneEvent laneEvent : laneEvents) {
+                if (laneEvent.bounded) {
+                    permits++;
+                }
+            }
+            capacity.release(permits);
+        }
+
+        @Override
+        public long getBufferedEvents() {
+            return queue.size();
+        }
+
+        @Override
+        public boolean containsBufferedEvents() {
+            return true;
+        }
+    }
+
+    /**
+     * Events of a partition key and the stream junction they need to be sent to.
+     */
+    private static class LaneEvent {
+        private final String key;
+        private final StreamJunction streamJunction;
+        private final ComplexEvent events;
+        private final boolean bounded;
+
+        LaneEvent(String key, StreamJunction streamJunction, ComplexEvent events, boolean bounded) {
+            this.key = key;
+            this.streamJunction = streamJunction;
+            this.events = events;
+            this.bounded = bounded;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.partition;
+
+import org.apache.log4j.Logger;
+import org.wso2.siddhi.core.config.SiddhiAppContext;
+import org.wso2.siddhi.core.util.extension.holder.EternalReferencedHolder;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically purges the partition instances of a {@link PartitionRuntime} that have not received events for the
+ * configured idle period.
+ */
+public class PartitionPurger implements EternalReferencedHolder, Runnable {
+    private static final Logger log = Logger.getLogger(PartitionPurger.class);
+
+    private final PartitionRuntime partitionRuntime;
+    private final long purgeInterval;
+    private final long idlePeriod;
+    private final SiddhiAppContext siddhiAppContext;
+    private ScheduledFuture scheduledFuture;
+
+    public PartitionPurger(PartitionRuntime partitionRuntime, long purgeInterval, long idlePeriod,
+                           SiddhiAppContext siddhiAppContext) {
+        this.partitionRuntime = partitionRuntime;
+        this.purgeInterval = purgeInterval;
+        this.idlePeriod = idlePeriod;
+        this.siddhiAppContext = siddhiAppContext;
+    }
+
+    @Override
+    public synchronized void start() {
+        if (scheduledFuture == null) {
+            scheduledFuture = siddhiAppContext.getScheduledExecutorService().scheduleWithFixedDelay(this,
+                    purgeInterval, purgeInterval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (scheduledFuture != null) {
+            scheduledFuture.cancel(false);
+            scheduledFuture = null;
+        }
+    }
+
+    @Override
+    public void run() {
+        try {
+            partitionRuntime.purgeIdlePartitionInstances(System.currentTimeMillis() - idlePeriod);
+        } catch (Throwable t) {
+            log.error("Error in SiddhiApp '" + siddhiAppContext.getName() + "' when purging idle instances of " +
+                    "partition '" + partitionRuntime.getPartitionId() + "', " + t.getMessage(), t);
+        }
+    }
+}
@@ -17,6 +17,7 @@
  */
 package org.wso2.siddhi.core.partition;
 
+import org.apache.log4j.Logger;
 import org.wso2.siddhi.core.config.SiddhiAppContext;
 import org.wso2.siddhi.core.event.state.MetaStateEvent;
 import org.wso2.siddhi.core.event.stream.MetaStreamEvent;
@@ -30,11 +31,18 @@ import org.wso2.siddhi.core.query.input.stream.state.StateStreamRuntime;
 import org.wso2.siddhi.core.query.output.callback.InsertIntoStreamCallback;
 import org.wso2.siddhi.core.query.output.callback.InsertIntoWindowCallback;
 import org.wso2.siddhi.core.stream.StreamJunction;
+import org.wso2.siddhi.core.util.Scheduler;
 import org.wso2.siddhi.core.util.SiddhiConstants;
+import org.wso2.siddhi.core.util.ThreadBarrier;
+import org.wso2.siddhi.core.util.extension.holder.EternalReferencedHolder;
 import org.wso2.siddhi.core.util.parser.helper.DefinitionParserHelper;
 import org.wso2.siddhi.core.util.parser.helper.QueryParserHelper;
+import org.wso2.siddhi.core.util.persistence.PersistenceStore;
+import org.wso2.siddhi.core.util.snapshot.ByteSerializer;
+import org.wso2.siddhi.core.util.snapshot.SnapshotService;
 import org.wso2.siddhi.core.util.snapshot.Snapshotable;
 import org.wso2.siddhi.core.util.statistics.MemoryUsageTracker;
+import org.wso2.siddhi.query.api.annotation.Annotation;
 import org.wso2.siddhi.query.api.annotation.Element;
 import org.wso2.siddhi.query.api.definition.AbstractDefinition;
 import org.wso2.siddhi.query.api.definition.StreamDefinition;
@@ -52,11 +60,16 @@ import org.wso2.siddhi.query.api.execution.query.input.stream.SingleInputStream;
 import org.wso2.siddhi.query.api.execution.query.input.stream.StateInputStream;
 import org.wso2.siddhi.query.api.execution.query.output.stream.InsertIntoStream;
 import org.wso2.siddhi.query.api.util.AnnotationHelper;
+import org.wso2.siddhi.query.compiler.SiddhiCompiler;
+import org.wso2.siddhi.query.compiler.exception.SiddhiParserException;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -66,6 +79,8 @@ import java.util.concurrent.ConcurrentMap;
  * partition dynamically during runtime.
  */
 public class PartitionRuntime implements Snapshotable {
+    private static final Logger log = Logger.getLogger(PartitionRuntime.class);
+    private static final String SPILLED_STATE_REVISION = "spilled";
 
 
     private String partitionId;
@@ -85,6 +100,10 @@ public class PartitionRuntime implements Snapshotable {
             PartitionStreamReceiver>();
     private SiddhiAppContext siddhiAppContext;
     private MemoryUsageTracker memoryUsageTracker;
+    private PartitionLaneScheduler partitionLaneScheduler;
+    private PartitionPurger partitionPurger;
+    private boolean spillState = false;
+    private Set<String> spilledPartitionKeys = ConcurrentHashMap.newKeySet();
 
     public PartitionRuntime(ConcurrentMap<String, AbstractDefinition> streamDefinitionMap,
                             ConcurrentMap<String, AbstractDefinition> windowDefinitionMap,
@@ -108,6 +127,24 @@ public class PartitionRuntime implements Snapshotable {
         if (partitionId == null) {
             this.partitionId = UUID.randomUUID().toString();
         }
+        try {
+            Annotation annotation = AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_ASYNC,
+                    partition.getAnnotations());
+            if (annotation != null) {
+                this.partitionLaneScheduler = createPartitionLaneScheduler(annotation);
+                siddhiAppContext.addEternalReferencedHolder(partitionLaneScheduler);
+            }
+            annotation = AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_PURGE, partition.getAnnotations());
+            if (annotation != null && !"false".equalsIgnoreCase(
+                    annotation.getElement(SiddhiConstants.ANNOTATION_ELEMENT_ENABLE))) {
+                this.partitionPurger = createPartitionPurger(annotation);
+                siddhiAppContext.addEternalReferencedHolder(partitionPurger);
+            }
+        } catch (DuplicateAnnotationException e) {
+            throw new DuplicateAnnotationException(e.getMessageWithOutContext() + " for the same Partition " +
+                    partitionId, e, e.getQueryContextStartIndex(), e.getQueryContextEndIndex(),
+                    siddhiAppContext.getName(), siddhiAppContext.getSiddhiAppString());
+        }
         elementId = "PartitionRuntime-" + siddhiAppContext.getElementIdGenerator().createNewId();
         this.partition = partition;
         this.streamDefinitionMap = streamDefinitionMap;
@@ -115,6 +152,78 @@ public class PartitionRuntime implements Snapshotable {
         this.streamJunctionMap = streamJunctionMap;
     }
 
+    private PartitionLaneScheduler createPartitionLaneScheduler(Annotation annotation) {
+        int workers = Runtime.getRuntime().availableProcessors();
+        int bufferSize = SiddhiConstants.DEFAULT_EVENT_BUFFER_SIZE;
+        String workersString = annotation.getElement(SiddhiConstants.ANNOTATION_ELEMENT_WORKERS);
+        if (workersString != null) {
+            workers = parsePositiveElement(annotation, SiddhiConstants.ANNOTATION_ELEMENT_WORKERS, workersString);
+        }
+        String bufferSizeString = annotation.getElement(SiddhiConstants.ANNOTATION_ELEMENT_BUFFER_SIZE);
+        if (bufferSizeString != null) {
+            bufferSize = parsePositiveElement(annotation, SiddhiConstants.ANNOTATION_ELEMENT_BUFFER_SIZE,
+                    bufferSizeString);
+        }
+        int batchSize = bufferSize;
+        String batchSizeString = annotation.getElement(SiddhiConstants.ANNOTATION_ELEMENT_MAX_BATCH_SIZE);
+        if (batchSizeString != null) {
+            batchSize = parsePositiveElement(annotation, SiddhiConstants.ANNOTATION_ELEMENT_MAX_BATCH_SIZE,
+                    batchSizeString);
+        }
+        return new PartitionLaneScheduler(partitionId, workers, bufferSize, batchSize, siddhiAppContext);
+    }
+
+    private PartitionPurger createPartitionPurger(Annotation annotation) {
+        long purgeInterval = parseTimeElement(annotation, SiddhiConstants.ANNOTATION_ELEMENT_INTERVAL);
+        long idlePeriod = parseTimeElement(annotation, SiddhiConstants.ANNOTATION_ELEMENT_IDLE_PERIOD);
+        spillState = Boolean.parseBoolean(annotation.getElement(SiddhiConstants.ANNOTATION_ELEMENT_SPILL_STATE));
+        if (spillState && siddhiAppContext.getSiddhiContext().getPersistenceStore() == null) {
+            throw new SiddhiAppCreationException("Annotation element '" +
+                    SiddhiConstants.ANNOTATION_ELEMENT_SPILL_STATE + "' of partition '" + partitionId + "' " +
+                    "requires a persistence store, but no persistence store is configured.",
+                    annotation.getQueryContextStartIndex(), annotation.getQueryContextEndIndex(),
+                    siddhiAppContext.getName(), siddhiAppContext.getSiddhiAppString());
+        }
+        return new PartitionPurger(this, purgeInterval, idlePeriod, siddhiAppContext);
+    }
+
+    private long parseTimeElement(Annotation annotation, String elementName) {
+        String elementValue = annotation.getElement(elementName);
+        if (elementValue == null) {
+            throw new SiddhiAppCreationException("Annotation element '" + elementName + "' is required for " +
+                    "purging partition '" + partitionId + "', but not found.", annotation.getQueryContextStartIndex(),
+                    annotation.getQueryContextEndIndex(), siddhiAppContext.getName(),
+                    siddhiAppContext.getSiddhiAppString());
+        }
+        long value;
+        try {
+            value = SiddhiCompiler.parseTimeConstantDefinition(elementValue).value();
+        } catch (SiddhiParserException e) {
+            throw new SiddhiAppCreationException("Annotation element '" + elementName + "' of partition '" +
+                    partitionId + "' should be a time constant such as '1 min', but found, '" + elementValue + "'.",
+                    e, annotation.getQueryContextStartIndex(), annotation.getQueryContextEndIndex(),
+                    siddhiAppContext.getName(), siddhiAppContext.getSiddhiAppString());
+        }
+        if (value <= 0) {
+            throw new SiddhiAppCreationException("Annotation element '" + elementName + "' cannot be negative " +
+                    "or zero, but found, '" + elementValue + "'.", annotation.getQueryContextStartIndex(),
+                    annotation.getQueryContextEndIndex(), siddhiAppContext.getName(),
+                    siddhiAppContext.getSiddhiAppString());
+        }
+        return value;
+    }
+
+    private int parsePositiveElement(Annotation annotation, String elementName, String elementValue) {
+        int value = Integer.parseInt(elementValue);
+        if (value <= 0) {
+            throw new SiddhiAppCreationException("Annotation element '" + elementName + "' cannot be negative " +
+                    "or zero, but found, '" + value + "'.", annotation.getQueryContextStartIndex(),
+                    annotation.getQueryContextEndIndex(), siddhiAppContext.getName(),
+                    siddhiAppContext.getSiddhiAppString());
+        }
+        return value;
+    }
+
     public QueryRuntime addQuery(QueryRuntime metaQueryRuntime) {
         Query query = metaQueryRuntime.getQuery();
 
@@ -254,58 +363,194 @@ public class PartitionRuntime implements Snapshotable {
      * @param key partition key
      */
     public void cloneIfNotExist(String key) {
-        if (!partitionInstanceRuntimeMap.containsKey(key)) {
-            clonePartition(key);
+        PartitionInstanceRuntime partitionInstance = partitionInstanceRuntimeMap.get(key);
+        if (partitionInstance == null) {
+            partitionInstance = clonePartition(key);
+        }
+        if (partitionPurger != null) {
+            partitionInstance.setLastEventTime(System.currentTimeMillis());
         }
     }
 
-    private synchronized void clonePartition(String key) {
+    private synchronized PartitionInstanceRuntime clonePartition(String key) {
         PartitionInstanceRuntime partitionInstance = this.partitionInstanceRuntimeMap.get(key);
 
         if (partitionInstance == null) {
             List<QueryRuntime> queryRuntimeList = new ArrayList<QueryRuntime>();
             List<QueryRuntime> partitionedQueryRuntimeList = new ArrayList<QueryRuntime>();
-
-            for (QueryRuntime queryRuntime : metaQueryRuntimeMap.values()) {
-
-                QueryRuntime clonedQueryRuntime = queryRuntime.clone(key, localStreamJunctionMap);
-                queryRuntimeList.add(clonedQueryRuntime);
-
-                QueryParserHelper.registerMemoryUsageTracking(clonedQueryRuntime.getQueryId(), queryRuntime,
-                        SiddhiConstants.METRIC_INFIX_QUERIES, siddhiAppContext, memoryUsageTracker);
-
-                if (queryRuntime.isFromLocalStream()) {
-                    for (int i = 0; i < clonedQueryRuntime.getStreamRuntime().getSingleStreamRuntimes().size(); i++) {
-                        String streamId = queryRuntime.getStreamRuntime().getSingleStreamRuntimes().get(i)
-                                .getProcessStreamReceiver().getStreamId();
-                        StreamDefinition streamDefinition = null;
-                        if (streamId.startsWith("#")) {
-                            streamDefinition = (StreamDefinition) localStreamDefinitionMap.get(streamId);
-                        } else {
-                            streamDefinition = (StreamDefinition) streamDefinitionMap.get(streamId);
-                            if (streamDefinition == null) {
-                                streamDefinition = (StreamDefinition) windowDefinitionMap.get(streamId);
+            Map<String, List<Snapshotable>> snapshotables = null;
+            if (partitionPurger != null) {
+                // Elements of the partition instance are recorded such that they can be released when purged
+                snapshotables = new HashMap<>();
+                SnapshotService.getRecordSnapshotableThreadLocal().set(snapshotables);
+            }
+            try {
+                for (QueryRuntime queryRuntime : metaQueryRuntimeMap.values()) {
+
+                    QueryRuntime clonedQueryRuntime = queryRuntime.clone(key, localStreamJunctionMap);
+                    queryRuntimeList.add(clonedQueryRuntime);
+
+                    QueryParserHelper.registerMemoryUsageTracking(clonedQueryRuntime.getQueryId(), queryRuntime,
+                            SiddhiConstants.METRIC_INFIX_QUERIES, siddhiAppContext, memoryUsageTracker);
+
+                    if (queryRuntime.isFromLocalStream()) {
+                        for (int i = 0; i < clonedQueryRuntime.getStreamRuntime().getSingleStreamRuntimes().size();
+                             i++) {
+                            String streamId = queryRuntime.getStreamRuntime().getSingleStreamRuntimes().get(i)
+                                    .getProcessStreamReceiver().getStreamId();
+                            StreamDefinition streamDefinition = null;
+                            if (streamId.startsWith("#")) {
+                                streamDefinition = (StreamDefinition) localStreamDefinitionMap.get(streamId);
+                            } else {
+                                streamDefinition = (StreamDefinition) streamDefinitionMap.get(streamId);
+                                if (streamDefinition == null) {
+                                    streamDefinition = (StreamDefinition) windowDefinitionMap.get(streamId);
+                                }
                             }
+                            StreamJunction streamJunction = localStreamJunctionMap.get(streamId + key);
+                            if (streamJunction == null) {
+                                streamJunction = new StreamJunction(streamDefinition, siddhiAppContext
+                                        .getExecutorService(),
+                                        siddhiAppContext.getBufferSize(),
+                                        siddhiAppContext);
+                                localStreamJunctionMap.put(streamId + key, streamJunction);
+                            }
+                            streamJunction.subscribe(clonedQueryRuntime.getStreamRuntime().getSingleStreamRuntimes()
+                                    .get(i).getProcessStreamReceiver());
                         }
-                        StreamJunction streamJunction = localStreamJunctionMap.get(streamId + key);
-                        if (streamJunction == null) {
-                            streamJunction = new StreamJunction(streamDefinition, siddhiAppContext
-                                    .getExecutorService(),
-                                    siddhiAppContext.getBufferSize(),
-                                    siddhiAppContext);
-                            localStreamJunctionMap.put(streamId + key, streamJunction);
-                        }
-                        streamJunction.subscribe(clonedQueryRuntime.getStreamRuntime().getSingleStreamRuntimes().get
-                                (i).getProcessStreamReceiver());
+                    } else {
+                        partitionedQueryRuntimeList.add(clonedQueryRuntime);
                     }
-                } else {
-                    partitionedQueryRuntimeList.add(clonedQueryRuntime);
+                }
+            } finally {
+                if (partitionPurger != null) {
+                    SnapshotService.getRecordSnapshotableThreadLocal().set(null);
                 }
             }
-            partitionInstanceRuntimeMap.putIfAbsent(key, new PartitionInstanceRuntime(key, queryRuntimeList));
+            partitionInstance = new PartitionInstanceRuntime(key, queryRuntimeList, snapshotables);
+            if (spillState && spilledPartitionKeys.remove(key)) {
+                restoreSpilledState(partitionInstance);
+            }
+            partitionInstanceRuntimeMap.put(key, partitionInstance);
             updatePartitionStreamReceivers(key, partitionedQueryRuntimeList);
         }
+        return partitionInstance;
+    }
+
+    /**
+     * Purge the partition instances, which have not received events since the given time. The state of the purged
+     * instances are spilled to the persistence store when state spilling is enabled, such that the instances can be
+     * revived when their partition keys reappear.
+     *
+     * @param lastEventTimeLimit partition instances not having events since this time are purged
+     */
+    public void purgeIdlePartitionInstances(long lastEventTimeLimit) {
+        for (PartitionInstanceRuntime partitionInstance : partitionInstanceRuntimeMap.values()) {
+            if (partitionInstance.getLastEventTime() < lastEventTimeLimit) {
+                ThreadBarrier threadBarrier = siddhiAppContext.getThreadBarrier();
+                threadBarrier.lock();
+                try {
+                    synchronized (this) {
+                        if (partitionInstanceRuntimeMap.get(partitionInstance.getKey()) == partitionInstance &&
+                                partitionInstance.getLastEventTime() < lastEventTimeLimit) {
+                            purgePartitionInstance(partitionInstance);
+                        }
+                    }
+                } finally {
+                    threadBarrier.unlock();
+                }
+            }
+        }
+    }
+
+    private void purgePartitionInstance(PartitionInstanceRuntime partitionInstance) {
+        String key = partitionInstance.getKey();
+        if (spillState) {
+            spillState(partitionInstance);
+        }
+        partitionInstanceRuntimeMap.remove(key);
+        for (PartitionStreamReceiver partitionStreamReceiver : partitionStreamReceivers.values()) {
+            partitionStreamReceiver.removeStreamJunction(key);
+        }
+        for (QueryRuntime queryRuntime : metaQueryRuntimeMap.values()) {
+            for (SingleStreamRuntime singleStreamRuntime : queryRuntime.getStreamRuntime().getSingleStreamRuntimes()) {
+                localStreamJunctionMap.remove(singleStreamRuntime.getProcessStreamReceiver().getStreamId() + key);
+            }
+        }
+        for (String streamId : localStreamDefinitionMap.keySet()) {
+            localStreamJunctionMap.remove(streamId + key);
+        }
+        if (partitionLaneScheduler != null) {
+            partitionLaneScheduler.discard(key);
+        }
+        SnapshotService snapshotService = siddhiAppContext.getSnapshotService();
+        for (Map.Entry<String, List<Snapshotable>> entry : partitionInstance.getSnapshotables().entrySet()) {
+            for (Snapshotable snapshotable : entry.getValue()) {
+                snapshotService.removeSnapshotable(entry.getKey(), snapshotable);
+                if (snapshotable instanceof EternalReferencedHolder) {
+                    ((EternalReferencedHolder) snapshotable).stop();
+                    siddhiAppContext.removeEternalReferencedHolder((EternalReferencedHolder) snapshotable);
+                } else if (snapshotable instanceof Scheduler) {
+                    ((Scheduler) snapshotable).stop();
+                }
+            }
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Purged idle instance of partition key '" + key + "' of partition '" + partitionId +
+                    "' in SiddhiApp '" + siddhiAppContext.getName() + "'.");
+        }
+    }
 
+    private void spillState(PartitionInstanceRuntime partitionInstance) {
+        // Element ids of the cloned elements differ when the instance is recreated, but the elements are always
+        // recreated in the same order, hence their states are stored in the order of their creation
+        SnapshotService snapshotService = siddhiAppContext.getSnapshotService();
+        HashMap<String, List<Map<String, Object>>> state = new HashMap<>();
+        for (Map.Entry<String, List<Snapshotable>> entry : partitionInstance.getSnapshotables().entrySet()) {
+            List<Map<String, Object>> elementStates = new ArrayList<>(entry.getValue().size());
+            for (Snapshotable snapshotable : entry.getValue()) {
+                elementStates.add(snapshotService.fullState(snapshotable));
+            }
+            state.put(entry.getKey(), elementStates);
+        }
+        siddhiAppContext.getSiddhiContext().getPersistenceStore().save(getSpilledStateId(partitionInstance.getKey()),
+                SPILLED_STATE_REVISION, ByteSerializer.objectToByte(state, siddhiAppContext));
+        spilledPartitionKeys.add(partitionInstance.getKey());
+    }
+
+    private void restoreSpilledState(PartitionInstanceRuntime partitionInstance) {
+        PersistenceStore persistenceStore = siddhiAppContext.getSiddhiContext().getPersistenceStore();
+        String spilledStateId = getSpilledStateId(partitionInstance.getKey());
+        byte[] spilledState = persistenceStore.load(spilledStateId, SPILLED_STATE_REVISION);
+        if (spilledState == null) {
+            log.warn("Spilled state of partition key '" + partitionInstance.getKey() + "' of partition '" +
+                    partitionId + "' is not found in SiddhiApp '" + siddhiAppContext.getName() + "', hence " +
+                    "the partition instance is started with a fresh state.");
+            return;
+        }
+        persistenceStore.clearRevision(spilledStateId, SPILLED_STATE_REVISION);
+        Map<String, List<Map<String, Object>>> state = (Map<String, List<Map<String, Object>>>)
+                ByteSerializer.byteToObject(spilledState, siddhiAppContext);
+        SnapshotService snapshotService = siddhiAppContext.getSnapshotService();
+        for (Map.Entry<String, List<Snapshotable>> entry : partitionInstance.getSnapshotables().entrySet()) {
+            List<Map<String, Object>> elementStates = state.get(entry.getKey());
+            if (elementStates != null && elementStates.size() == entry.getValue().size()) {
+                for (int i = 0; i < elementStates.size(); i++) {
+                    if (elementStates.get(i) != null) {
+                        snapshotService.restoreFullState(entry.getValue().get(i), elementStates.get(i));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Each partition key is spilled under its own id, holding a single revision, as the persistence stores only keep
+     * the latest few revisions of an id.
+     */
+    private String getSpilledStateId(String key) {
+        return siddhiAppContext.getName() + "-" + elementId + "-" +
+                Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
     }
 
     private void updatePartitionStreamReceivers(String key, List<QueryRuntime> partitionedQueryRuntimeList) {
@@ -340,16 +585,28 @@ public class PartitionRuntime implements Snapshotable {
         return localStreamJunctionMap;
     }
 
+    public PartitionLaneScheduler getPartitionLaneScheduler() {
+        return partitionLaneScheduler;
+    }
+
     @Override
     public Map<String, Object> currentState() {
         Map<String, Object> state = new HashMap<>();
         List<String> partitionKeys = new ArrayList<>(partitionInstanceRuntimeMap.keySet());
         state.put("PartitionKeys", partitionKeys);
+        if (spillState) {
+            state.put("SpilledPartitionKeys", new ArrayList<>(spilledPartitionKeys));
+        }
         return state;
     }
 
     @Override
     public void restoreState(Map<String, Object> state) {
+        List<String> spilledKeys = (List<String>) state.get("SpilledPartitionKeys");
+        if (spillState && spilledKeys != null) {
+            spilledPartitionKeys.clear();
+            spilledPartitionKeys.addAll(spilledKeys);
+        }
         List<String> partitionKeys = (List<String>) state.get("PartitionKeys");
         for (String key : partitionKeys) {
             clonePartition(key);
@@ -51,6 +51,7 @@ public class PartitionStreamReceiver implements StreamJunction.Receiver {
     private PartitionRuntime partitionRuntime;
     private List<PartitionExecutor> partitionExecutors;
     private Map<String, StreamJunction> cachedStreamJunctionMap = new ConcurrentHashMap<String, StreamJunction>();
+    private PartitionLaneScheduler partitionLaneScheduler;
 
 
     public PartitionStreamReceiver(SiddhiAppContext siddhiAppContext, MetaStreamEvent metaStreamEvent,
@@ -64,7 +65,7 @@ public class PartitionStreamReceiver implements StreamJunction.Receiver {
         this.siddhiAppContext = siddhiAppContext;
         this.streamId = streamDefinition.getId();
         this.eventPool = new StreamEventPool(metaStreamEvent, 5);
-
+        this.partitionLaneScheduler = partitionRuntime.getPartitionLaneScheduler();
     }
 
     public void init() {
@@ -264,13 +265,29 @@ public class PartitionStreamReceiver implements StreamJunction.Receiver {
     private void send(String key, ComplexEvent event) {
         if (key != null) {
             partitionRuntime.cloneIfNotExist(key);
-            cachedStreamJunctionMap.get(streamId + key).sendEvent(event);
+            StreamJunction streamJunction = cachedStreamJunctionMap.get(streamId + key);
+            if (streamJunction == null) {
+                // The partition instance got purged in between, hence it is recreated
+                partitionRuntime.cloneIfNotExist(key);
+                streamJunction = cachedStreamJunctionMap.get(streamId + key);
+            }
+            if (partitionLaneScheduler != null) {
+                partitionLaneScheduler.send(key, streamJunction, event);
+            } else {
+                streamJunction.sendEvent(event);
+            }
         }
     }
 
     private void send(ComplexEvent event) {
-        for (StreamJunction streamJunction : cachedStreamJunctionMap.values()) {
-            streamJunction.sendEvent(event);
+        if (partitionLaneScheduler != null) {
+            for (Map.Entry<String, StreamJunction> entry : cachedStreamJunctionMap.entrySet()) {
+                partitionLaneScheduler.send(entry.getKey().substring(streamId.length()), entry.getValue(), event);
+            }
+        } else {
+            for (StreamJunction streamJunction : cachedStreamJunctionMap.values()) {
+                streamJunction.sendEvent(event);
+            }
         }
     }
 
@@ -303,6 +320,15 @@ public class PartitionStreamReceiver implements StreamJunction.Receiver {
         }
     }
 
+    /**
+     * remove the local streamJunction of a purged partition instance
+     *
+     * @param key partitioning key
+     */
+    public void removeStreamJunction(String key) {
+        cachedStreamJunctionMap.remove(streamId + key);
+    }
+
     private StreamJunction createStreamJunction() {
         return new StreamJunction(streamDefinition, siddhiAppContext.getExecutorService(),
                 siddhiAppContext.getBufferSize(), siddhiAppContext);
@@ -313,6 +339,10 @@ public class PartitionStreamReceiver implements StreamJunction.Receiver {
     }
 
     private synchronized void returnEvents(StreamEvent events) {
-        eventPool.returnEvents(events);
+        // Events sent through the partition lanes are processed later on, hence they are handed over to the lanes
+        // instead of being reused. The lanes may share them, as the stream junctions only read the received events.
+        if (partitionLaneScheduler == null) {
+            eventPool.returnEvents(events);
+        }
     }
 }
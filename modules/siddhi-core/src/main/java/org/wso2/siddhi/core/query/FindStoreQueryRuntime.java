@@ -26,10 +26,12 @@ import org.wso2.siddhi.core.event.stream.MetaStreamEvent;
 import org.wso2.siddhi.core.event.stream.StreamEvent;
 import org.wso2.siddhi.core.exception.StoreQueryRuntimeException;
 import org.wso2.siddhi.core.table.Table;
+import org.wso2.siddhi.core.table.record.AbstractRecordTable;
 import org.wso2.siddhi.core.util.collection.operator.CompiledCondition;
 import org.wso2.siddhi.core.window.Window;
 
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 
 /**
@@ -75,8 +77,13 @@ public class FindStoreQueryRuntime extends StoreQueryRuntime {
 
     @Override
     public Event[] execute() {
+        return execute(NO_PARAMETERS);
+    }
+
+    @Override
+    public Event[] execute(Object[] parameters) {
         try {
-            StateEvent stateEvent = new StateEvent(1, 0);
+            StateEvent stateEvent = createMatchingEvent(parameters);
             StreamEvent streamEvents = null;
             switch (eventType) {
                 case TABLE:
@@ -113,6 +120,53 @@ public class FindStoreQueryRuntime extends StoreQueryRuntime {
         }
     }
 
+    @Override
+    public StoreQueryIterator executeAsIterator(long offset, long limit, int fetchSize) {
+        return executeAsIterator(NO_PARAMETERS, offset, limit, fetchSize);
+    }
+
+    @Override
+    public StoreQueryIterator executeAsIterator(Object[] parameters, long offset, long limit, int fetchSize) {
+        if (selector != null && !selector.isStateless()) {
+            // The selector needs all the events at once
+            return super.executeAsIterator(parameters, offset, limit, fetchSize);
+        }
+        try {
+            StateEvent stateEvent = createMatchingEvent(parameters);
+            Iterator<StreamEvent> streamEvents;
+            int storeEventPosition = 0;
+            switch (eventType) {
+                case TABLE:
+                    if (table instanceof AbstractRecordTable) {
+                        streamEvents = ((AbstractRecordTable) table).findAsIterator(stateEvent, compiledCondition);
+                    } else {
+                        streamEvents = StoreQueryIterator.iterate(table.find(stateEvent, compiledCondition));
+                    }
+                    break;
+                case WINDOW:
+                    streamEvents = StoreQueryIterator.iterate(window.find(stateEvent, compiledCondition));
+                    break;
+                case AGGREGATE:
+                    stateEvent = new StateEvent(2, 0);
+                    StreamEvent streamEvent = new StreamEvent(0, 2, 0);
+                    stateEvent.addEvent(0, streamEvent);
+                    streamEvents = StoreQueryIterator.iterate(aggregation.find(stateEvent, compiledCondition));
+                    storeEventPosition = 1;
+                    break;
+                default:
+                    streamEvents = StoreQueryIterator.iterate(null);
+                    break;
+            }
+            if (selector == null) {
+                return new StoreQueryIterator(queryName, streamEvents, offset, limit, fetchSize);
+            }
+            return new StoreQueryIterator(queryName, streamEvents, selector, stateEventPool, storeEventPosition,
+                    offset, limit, fetchSize);
+        } catch (Throwable t) {
+            throw new StoreQueryRuntimeException("Error executing '" + queryName + "', " + t.getMessage(), t);
+        }
+    }
+
     @Override
     public void reset() {
         if (selector != null) {
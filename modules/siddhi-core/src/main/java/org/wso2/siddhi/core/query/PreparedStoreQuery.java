@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.query;
+
+import org.wso2.siddhi.core.event.Event;
+import org.wso2.siddhi.core.exception.StoreQueryCreationException;
+import org.wso2.siddhi.core.util.SiddhiConstants;
+import org.wso2.siddhi.query.api.definition.Attribute;
+import org.wso2.siddhi.query.api.definition.StreamDefinition;
+import org.wso2.siddhi.query.api.execution.query.StoreQuery;
+import org.wso2.siddhi.query.compiler.SiddhiCompiler;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+
+/**
+ * Store query having '?' placeholders in its 'on' condition, whose values are bound when the store query is
+ * executed. The store query is parsed only once, and it is compiled once for each combination of the types of the
+ * bound values, so that executing it again only costs evaluating the condition with the new values.
+ * <p>
+ * The placeholders are bound as the attributes of an implicit stream, hence the values are matched against the
+ * store in the same way as the attributes of a stream joined with the store, making use of its indexes.
+ */
+public class PreparedStoreQuery {
+
+    private final String storeQueryString;
+    private final StoreQuery storeQuery;
+    private final int parameterCount;
+    private final BiFunction<StoreQuery, StreamDefinition, StoreQueryRuntime> compiler;
+    private final Map<String, StoreQueryRuntime> storeQueryRuntimeMap = new ConcurrentHashMap<>();
+
+    /**
+     * @param storeQueryString store query having '?' placeholders
+     * @param compiler         function compiling the parsed store query for the given definition of the parameters
+     */
+    public PreparedStoreQuery(String storeQueryString,
+                              BiFunction<StoreQuery, StreamDefinition, StoreQueryRuntime> compiler) {
+        this.storeQueryString = storeQueryString;
+        this.compiler = compiler;
+        StringBuilder parameterizedQuery = new StringBuilder(storeQueryString.length() + 32);
+        int count = 0;
+        char quote = 0;
+        for (int i = 0; i < storeQueryString.length(); i++) {
+            char c = storeQueryString.charAt(i);
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '\'' || c == '"') {
+                quote = c;
+            } else if (c == '?') {
+                parameterizedQuery.append(SiddhiConstants.STORE_QUERY_PARAMETERS).append('.')
+                        .append(getParameterName(count++));
+                continue;
+            }
+            parameterizedQuery.append(c);
+        }
+        this.parameterCount = count;
+        this.storeQuery = SiddhiCompiler.parseStoreQuery(parameterizedQuery.toString());
+    }
+
+    /**
+     * @return the number of '?' placeholders of the store query
+     */
+    public int getParameterCount() {
+        return parameterCount;
+    }
+
+    /**
+     * Execute the store query binding the given values to its placeholders, in order.
+     *
+     * @param parameters values of the placeholders
+     * @return an array of Events, or null if there are no results
+     */
+    public Event[] execute(Object... parameters) {
+        return getStoreQueryRuntime(parameters).execute(parameters);
+    }
+
+    /**
+     * Execute the store query binding the given values to its placeholders, pulling the results from the store page
+     * by page as they are iterated.
+     *
+     * @param offset     number of resulting events to skip
+     * @param limit      maximum number of resulting events to return, or -1 to return all the events
+     * @param fetchSize  maximum number of events in a page
+     * @param parameters values of the placeholders
+     * @return iterator of pages of the resulting events, which should be closed if not iterated until the end
+     */
+    public StoreQueryIterator executeAsIterator(long offset, long limit, int fetchSize, Object... parameters) {
+        if (fetchSize <= 0 || offset < 0 || limit < SiddhiConstants.UNKNOWN_STATE) {
+            throw new StoreQueryCreationException("Invalid fetch size " + fetchSize + ", offset " + offset +
+                    " or limit " + limit + " for store query '" + storeQueryString + "', fetch size should be " +
+                    "positive, offset should not be negative and limit should be -1 or not negative");
+        }
+        return getStoreQueryRuntime(parameters).executeAsIterator(parameters, offset, limit, fetchSize);
+    }
+
+    private StoreQueryRuntime getStoreQueryRuntime(Object[] parameters) {
+        if (parameters.length != parameterCount) {
+            throw new StoreQueryCreationException("Store query '" + storeQueryString + "' expects " +
+                    parameterCount + " parameters, but found " + parameters.length);
+        }
+        StringBuilder signature = new StringBuilder();
+        Attribute.Type[] types = new Attribute.Type[parameterCount];
+        for (int i = 0; i < parameterCount; i++) {
+            types[i] = getType(parameters[i], i);
+            signature.append(types[i].ordinal()).append(',');
+        }
+        StoreQueryRuntime storeQueryRuntime = storeQueryRuntimeMap.get(signature.toString());
+        if (storeQueryRuntime == null) {
+            StreamDefinition parameterDefinition = StreamDefinition.id(SiddhiConstants.STORE_QUERY_PARAMETERS);
+            for (int i = 0; i < parameterCount; i++) {
+                parameterDefinition.attribute(getParameterName(i), types[i]);
+            }
+            storeQueryRuntime = compiler.apply(storeQuery, parameterDefinition);
+            storeQueryRuntimeMap.put(signature.toString(), storeQueryRuntime);
+        } else {
+            storeQueryRuntime.reset();
+        }
+        return storeQueryRuntime;
+    }
+
+    private Attribute.Type getType(Object parameter, int index) {
+        if (parameter instanceof String) {
+            return Attribute.Type.STRING;
+        } else if (parameter instanceof Integer) {
+            return Attribute.Type.INT;
+        } else if (parameter instanceof Long) {
+            return Attribute.Type.LONG;
+        } else if (parameter instanceof Float) {
+            return Attribute.Type.FLOAT;
+        } else if (parameter instanceof Double) {
+            return Attribute.Type.DOUBLE;
+        } else if (parameter instanceof Boolean) {
+            return Attribute.Type.BOOL;
+        } else if (parameter == null) {
+            throw new StoreQueryCreationException("Parameter " + index + " of store query '" + storeQueryString +
+                    "' is null, null values cannot be bound");
+        } else {
+            return Attribute.Type.OBJECT;
+        }
+    }
+
+    private static String getParameterName(int index) {
+        return "_p" + index;
+    }
+}
@@ -22,11 +22,13 @@ import org.wso2.siddhi.core.event.state.StateEvent;
 import org.wso2.siddhi.core.event.stream.StreamEvent;
 import org.wso2.siddhi.core.exception.StoreQueryRuntimeException;
 import org.wso2.siddhi.core.query.processor.stream.window.QueryableProcessor;
+import org.wso2.siddhi.core.table.record.AbstractQueryableRecordTable;
 import org.wso2.siddhi.core.util.collection.operator.CompiledCondition;
 import org.wso2.siddhi.core.util.collection.operator.CompiledSelection;
 import org.wso2.siddhi.query.api.definition.Attribute;
 
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 
 /**
@@ -50,8 +52,13 @@ public class SelectStoreQueryRuntime extends StoreQueryRuntime {
     }
 
     public Event[] execute() {
+        return execute(NO_PARAMETERS);
+    }
+
+    @Override
+    public Event[] execute(Object[] parameters) {
         try {
-            StateEvent stateEvent = new StateEvent(1, 0);
+            StateEvent stateEvent = createMatchingEvent(parameters);
             StreamEvent streamEvents = queryableProcessor.query(stateEvent, compiledCondition, compiledSelection);
             if (streamEvents == null) {
                 return null;
@@ -68,6 +75,29 @@ public class SelectStoreQueryRuntime extends StoreQueryRuntime {
         }
     }
 
+    @Override
+    public StoreQueryIterator executeAsIterator(long offset, long limit, int fetchSize) {
+        return executeAsIterator(NO_PARAMETERS, offset, limit, fetchSize);
+    }
+
+    @Override
+    public StoreQueryIterator executeAsIterator(Object[] parameters, long offset, long limit, int fetchSize) {
+        try {
+            StateEvent stateEvent = createMatchingEvent(parameters);
+            Iterator<StreamEvent> streamEvents;
+            if (queryableProcessor instanceof AbstractQueryableRecordTable) {
+                streamEvents = ((AbstractQueryableRecordTable) queryableProcessor).queryAsIterator(stateEvent,
+                        compiledCondition, compiledSelection);
+            } else {
+                streamEvents = StoreQueryIterator.iterate(queryableProcessor.query(stateEvent, compiledCondition,
+                        compiledSelection));
+            }
+            return new StoreQueryIterator(queryName, streamEvents, offset, limit, fetchSize);
+        } catch (Throwable t) {
+            throw new StoreQueryRuntimeException("Error executing '" + queryName + "', " + t.getMessage(), t);
+        }
+    }
+
     @Override
     public void reset() {
 
@@ -0,0 +1,269 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.query;
+
+import org.apache.log4j.Logger;
+import org.wso2.siddhi.core.event.ComplexEvent;
+import org.wso2.siddhi.core.event.ComplexEventChunk;
+import org.wso2.siddhi.core.event.Event;
+import org.wso2.siddhi.core.event.state.StateEvent;
+import org.wso2.siddhi.core.event.state.StateEventPool;
+import org.wso2.siddhi.core.event.stream.StreamEvent;
+import org.wso2.siddhi.core.exception.StoreQueryRuntimeException;
+import org.wso2.siddhi.core.query.selector.QuerySelector;
+import org.wso2.siddhi.core.util.SiddhiConstants;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterator returning the results of a store query page by page. Results are pulled from the store only when the
+ * next page is requested, and the store is released as soon as the last page is returned, the limit is reached or
+ * the iterator is closed.
+ */
+public class StoreQueryIterator implements Iterator<Event[]>, Closeable {
+
+    private static final Logger log = Logger.getLogger(StoreQueryIterator.class);
+
+    private final String queryName;
+    private final Event[] events;
+    private final Iterator<StreamEvent> streamEvents;
+    private final QuerySelector selector;
+    private final StateEventPool stateEventPool;
+    private final int storeEventPosition;
+    private final int fetchSize;
+    private long toSkip;
+    private long remaining;
+    private int eventIndex;
+    private ComplexEvent selectedEvents;
+    private Event[] nextPage;
+    private boolean closed;
+
+    /**
+     * Create an iterator over the results of an already executed store query.
+     *
+     * @param queryName name of the store query
+     * @param events    results of the store query, or null if there are none
+     * @param offset    number of events to skip
+     * @param limit     maximum number of events to return, or -1 to return all the events
+     * @param fetchSize maximum number of events in a page
+     */
+    StoreQueryIterator(String queryName, Event[] events, long offset, long limit, int fetchSize) {
+        this(queryName, events == null ? new Event[0] : events, Collections.<StreamEvent>emptyIterator(), null,
+                null, 0, offset, limit, fetchSize);
+    }
+
+    /**
+     * Create an iterator over already selected events.
+     *
+     * @param queryName    name of the store query
+     * @param streamEvents selected events, which are closed with the iterator when they are {@link Closeable}
+     * @param offset       number of events to skip
+     * @param limit        maximum number of events to return, or -1 to return all the events
+     * @param fetchSize    maximum number of events in a page
+     */
+    StoreQueryIterator(String queryName, Iterator<StreamEvent> streamEvents, long offset, long limit,
+                       int fetchSize) {
+        this(queryName, null, streamEvents, null, null, 0, offset, limit, fetchSize);
+    }
+
+    /**
+     * Create an iterator selecting the events found in the store, a page at a time.
+     *
+     * @param queryName          name of the store query
+     * @param streamEvents       found events, which are closed with the iterator when they are {@link Closeable}
+     * @param selector           stateless selector of the store query
+     * @param stateEventPool     pool of the state events passed to the selector
+     * @param storeEventPosition position of the found events in the state events
+     * @param offset             number of selected events to skip
+     * @param limit              maximum number of selected events to return, or -1 to return all the events
+     * @param fetchSize          maximum number of events in a page
+     */
+    StoreQueryIterator(String queryName, Iterator<StreamEvent> streamEvents, QuerySelector selector,
+                       StateEventPool stateEventPool, int storeEventPosition, long offset, long limit,
+                       int fetchSize) {
+        this(queryName, null, streamEvents, selector, stateEventPool, storeEventPosition, offset, limit, fetchSize);
+    }
+
+    private StoreQueryIterator(String queryName, Event[] events, Iterator<StreamEvent> streamEvents,
+                               QuerySelector selector, StateEventPool stateEventPool, int storeEventPosition,
+                               long offset, long limit, int fetchSize) {
+        this.queryName = queryName;
+        this.events = events;
+        this.streamEvents = streamEvents;
+        this.selector = selector;
+        this.stateEventPool = stateEventPool;
+        this.storeEventPosition = storeEventPosition;
+        this.toSkip = offset;
+        this.remaining = limit;
+        this.fetchSize = fetchSize;
+        if (remaining == 0) {
+            close();
+        }
+    }
+
+    /**
+     * Iterate through the linked stream events, detaching each of them from the rest.
+     *
+     * @param streamEvents first of the linked stream events, or null if there are none
+     * @return iterator of the stream events
+     */
+    static Iterator<StreamEvent> iterate(StreamEvent streamEvents) {
+        if (streamEvents == null) {
+            return Collections.emptyIterator();
+        }
+        return new LinkedStreamEventIterator(streamEvents);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (nextPage == null && !closed) {
+            try {
+                nextPage = fetchPage();
+            } catch (Throwable t) {
+                close();
+                throw new StoreQueryRuntimeException("Error executing '" + queryName + "', " + t.getMessage(), t);
+            }
+            if (nextPage == null || remaining == 0) {
+                close();
+            }
+        }
+        return nextPage != null;
+    }
+
+    @Override
+    public Event[] next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException("No more results for store query '" + queryName + "'");
+        }
+        Event[] page = nextPage;
+        nextPage = null;
+        return page;
+    }
+
+    /**
+     * Stop the iteration and release the resources held at the store. Calling this is only needed when the
+     * iteration is terminated before all the results are returned.
+     */
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            selectedEvents = null;
+            if (streamEvents instanceof Closeable) {
+                try {
+                    ((Closeable) streamEvents).close();
+                } catch (IOException e) {
+                    log.error("Error closing the results of store query '" + queryName + "', " + e.getMessage(), e);
+                }
+            }
+        }
+    }
+
+    private Event[] fetchPage() {
+        if (events == null && selector == null) {
+            // Skip the events without converting them
+            while (toSkip > 0 && streamEvents.hasNext()) {
+                streamEvents.next();
+                toSkip--;
+            }
+        }
+        int pageSize = remaining == SiddhiConstants.UNKNOWN_STATE ? fetchSize : (int) Math.min(fetchSize, remaining);
+        List<Event> page = new ArrayList<>(pageSize);
+        while (page.size() < pageSize) {
+            Event event = nextEvent();
+            if (event == null) {
+                break;
+            }
+            if (toSkip > 0) {
+                toSkip--;
+            } else {
+                page.add(event);
+            }
+        }
+        if (remaining != SiddhiConstants.UNKNOWN_STATE) {
+            remaining -= page.size();
+        }
+        return page.isEmpty() ? null : page.toArray(new Event[page.size()]);
+    }
+
+    private Event nextEvent() {
+        if (events != null) {
+            return eventIndex < events.length ? events[eventIndex++] : null;
+        }
+        if (selector == null) {
+            return streamEvents.hasNext() ? toEvent(streamEvents.next()) : null;
+        }
+        while (selectedEvents == null && streamEvents.hasNext()) {
+            ComplexEventChunk<StateEvent> complexEventChunk = new ComplexEventChunk<>(true);
+            for (int i = 0; i < fetchSize && streamEvents.hasNext(); i++) {
+                StateEvent stateEvent = stateEventPool.borrowEvent();
+                stateEvent.addEvent(storeEventPosition, streamEvents.next());
+                complexEventChunk.add(stateEvent);
+            }
+            ComplexEventChunk outputComplexEventChunk = selector.execute(complexEventChunk);
+            if (outputComplexEventChunk != null) {
+                selectedEvents = outputComplexEventChunk.getFirst();
+            }
+        }
+        ComplexEvent event = selectedEvents;
+        if (event == null) {
+            return null;
+        }
+        selectedEvents = event.getNext();
+        return toEvent(event);
+    }
+
+    private static Event toEvent(ComplexEvent complexEvent) {
+        return new Event(complexEvent.getTimestamp(), complexEvent.getOutputData());
+    }
+
+    /**
+     * Iterator of linked stream events.
+     */
+    private static class LinkedStreamEventIterator implements Iterator<StreamEvent> {
+
+        private StreamEvent streamEvents;
+
+        LinkedStreamEventIterator(StreamEvent streamEvents) {
+            this.streamEvents = streamEvents;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return streamEvents != null;
+        }
+
+        @Override
+        public StreamEvent next() {
+            if (streamEvents == null) {
+                throw new NoSuchElementException();
+            }
+            StreamEvent streamEvent = streamEvents;
+            streamEvents = streamEvent.getNext();
+            streamEvent.setNext(null);
+            return streamEvent;
+        }
+    }
+}
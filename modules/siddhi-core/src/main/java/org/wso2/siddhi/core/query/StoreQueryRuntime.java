@@ -34,6 +34,8 @@ import java.util.List;
  * Store Query Runtime Interface
  */
 public abstract class StoreQueryRuntime {
+    static final Object[] NO_PARAMETERS = new Object[0];
+
     String queryName;
     MetaStreamEvent.EventType eventType;
     QuerySelector selector;
@@ -67,6 +69,64 @@ public abstract class StoreQueryRuntime {
         }
     }
 
+    /**
+     * This method initiates the execution of store query, returning the resulting events page by page.
+     *
+     * @param offset    number of resulting events to skip
+     * @param limit     maximum number of resulting events to return, or -1 to return all the events
+     * @param fetchSize maximum number of events in a page
+     * @return an iterator of pages of Events.
+     */
+    public StoreQueryIterator executeAsIterator(long offset, long limit, int fetchSize) {
+        return new StoreQueryIterator(queryName, execute(), offset, limit, fetchSize);
+    }
+
+    /**
+     * This method initiates the execution of a store query having parameters.
+     *
+     * @param parameters values of the parameters of the store query, in order
+     * @return an array of Events.
+     */
+    public Event[] execute(Object[] parameters) {
+        if (parameters.length != 0) {
+            throw new StoreQueryRuntimeException("Error executing '" + queryName + "', parameters are only " +
+                    "supported by store queries finding events");
+        }
+        return execute();
+    }
+
+    /**
+     * This method initiates the execution of a store query having parameters, returning the resulting events page
+     * by page.
+     *
+     * @param parameters values of the parameters of the store query, in order
+     * @param offset     number of resulting events to skip
+     * @param limit      maximum number of resulting events to return, or -1 to return all the events
+     * @param fetchSize  maximum number of events in a page
+     * @return an iterator of pages of Events.
+     */
+    public StoreQueryIterator executeAsIterator(Object[] parameters, long offset, long limit, int fetchSize) {
+        return new StoreQueryIterator(queryName, execute(parameters), offset, limit, fetchSize);
+    }
+
+    /**
+     * Create the event matched against the store, carrying the values of the parameters of the store query as the
+     * output data of its second stream event.
+     *
+     * @param parameters values of the parameters of the store query
+     * @return the matching event
+     */
+    static StateEvent createMatchingEvent(Object[] parameters) {
+        if (parameters.length == 0) {
+            return new StateEvent(1, 0);
+        }
+        StateEvent stateEvent = new StateEvent(2, 0);
+        StreamEvent parameterEvent = new StreamEvent(0, 0, parameters.length);
+        parameterEvent.setOutputData(parameters);
+        stateEvent.addEvent(1, parameterEvent);
+        return stateEvent;
+    }
+
     /**
      * This method sets a state event pool for store query runtime.
      *
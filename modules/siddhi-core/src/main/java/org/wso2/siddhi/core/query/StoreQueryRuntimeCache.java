@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.query;
+
+import org.wso2.siddhi.core.config.SiddhiAppContext;
+import org.wso2.siddhi.core.util.SiddhiConstants;
+import org.wso2.siddhi.core.util.parser.helper.QueryParserHelper;
+import org.wso2.siddhi.core.util.statistics.ThroughputTracker;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Least recently used cache of compiled store queries, keyed either by the store query string, so that a cached store
+ * query can be executed again without parsing it, or by the parsed store query. The hits and misses of the cache are
+ * counted, and tracked as throughput metrics when statistics are enabled.
+ *
+ * @param <K> type of the store queries
+ * @param <V> type of the compiled store queries
+ */
+public class StoreQueryRuntimeCache<K, V> {
+
+    private final SiddhiAppContext siddhiAppContext;
+    private final LruMap<K, V> cache;
+    private final ThroughputTracker hitTracker;
+    private final ThroughputTracker missTracker;
+    private long hitCount;
+    private long missCount;
+
+    /**
+     * @param name             name of the cache, used to name its metrics
+     * @param maxSize          maximum number of store queries to keep in the cache
+     * @param siddhiAppContext context of the Siddhi app
+     */
+    public StoreQueryRuntimeCache(String name, int maxSize, SiddhiAppContext siddhiAppContext) {
+        this.siddhiAppContext = siddhiAppContext;
+        this.hitTracker = QueryParserHelper.createThroughputTracker(siddhiAppContext, name,
+                SiddhiConstants.METRIC_INFIX_STORE_QUERIES, "hits");
+        this.missTracker = QueryParserHelper.createThroughputTracker(siddhiAppContext, name,
+                SiddhiConstants.METRIC_INFIX_STORE_QUERIES, "misses");
+        this.cache = new LruMap<>(maxSize);
+    }
+
+    /**
+     * Get the compiled store query of the given store query, counting a hit if it is cached and a miss
+     * otherwise.
+     *
+     * @param storeQuery store query
+     * @return compiled store query, or null if it is not cached
+     */
+    public V get(K storeQuery) {
+        V value;
+        synchronized (this) {
+            value = cache.get(storeQuery);
+            if (value != null) {
+                hitCount++;
+            } else {
+                missCount++;
+            }
+        }
+        if (siddhiAppContext.isStatsEnabled()) {
+            ThroughputTracker tracker = value != null ? hitTracker : missTracker;
+            if (tracker != null) {
+                tracker.eventIn();
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Cache the compiled store query of the given store query, evicting the least recently used store query
+     * if the cache is full.
+     *
+     * @param storeQuery store query
+     * @param value      compiled store query
+     */
+    public synchronized void put(K storeQuery, V value) {
+        cache.put(storeQuery, value);
+    }
+
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    public synchronized int size() {
+        return cache.size();
+    }
+
+    public synchronized void clear() {
+        cache.clear();
+    }
+
+    /**
+     * Map evicting its least recently accessed entry when it grows beyond its maximum size.
+     *
+     * @param <K> type of the keys
+     * @param <V> type of the values
+     */
+    private static class LruMap<K, V> extends LinkedHashMap<K, V> {
+
+        private static final long serialVersionUID = 1L;
+        private final int maxSize;
+
+        LruMap(int maxSize) {
+            super(16, 0.75f, true);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+            return size() > maxSize;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.siddhi.core.query.output.callback;
+
+import org.apache.log4j.Logger;
+import org.wso2.siddhi.core.event.ComplexEvent;
+import org.wso2.siddhi.core.event.ComplexEventChunk;
+import org.wso2.siddhi.core.event.Event;
+import org.wso2.siddhi.core.event.EventView;
+
+/**
+ * {@link QueryCallback} receiving the output events of a query through {@link EventView}s, without the events being
+ * copied to {@link Event}s. The {@link EventView}s are reused across the calls and are only valid during the call of
+ * {@link #receive(long, EventView, EventView)}.
+ */
+public abstract class BatchedQueryCallback extends QueryCallback {
+
+    private static final Logger log = Logger.getLogger(BatchedQueryCallback.class);
+
+    private final ThreadLocal<EventView[]> eventViewsThreadLocal =
+            ThreadLocal.withInitial(() -> new EventView[]{new EventView(), new EventView()});
+
+    @Override
+    public void receiveStreamEvent(ComplexEventChunk complexEventChunk) {
+        ComplexEvent first = complexEventChunk.getFirst();
+        long timestamp = -1;
+        for (ComplexEvent complexEvent = first; complexEvent != null; complexEvent = complexEvent.getNext()) {
+            timestamp = complexEvent.getTimestamp();
+        }
+        EventView[] eventViews = getEventViews();
+        eventViews[0].reset(first, ComplexEvent.Type.CURRENT);
+        eventViews[1].reset(first, ComplexEvent.Type.EXPIRED);
+        send(timestamp, eventViews);
+    }
+
+    @Override
+    public final void receive(long timestamp, Event[] inEvents, Event[] removeEvents) {
+        EventView[] eventViews = getEventViews();
+        eventViews[0].reset(inEvents);
+        eventViews[1].reset(removeEvents);
+        send(timestamp, eventViews);
+    }
+
+    private EventView[] getEventViews() {
+        EventView[] eventViews = eventViewsThreadLocal.get();
+        if (eventViews[0].isActive()) {
+            // The callback is re-entered by the same thread while processing events
+            return new EventView[]{new EventView(), new EventView()};
+        }
+        return eventViews;
+    }
+
+    private void send(long timestamp, EventView[] eventViews) {
+        try {
+            receive(timestamp, eventViews[0], eventViews[1]);
+        } catch (RuntimeException e) {
+            log.error("Error on sending events " + eventViews[0] + ", " + eventViews[1], e);
+        } finally {
+            eventViews[0].clear();
+            eventViews[1].clear();
+        }
+    }
+
+    /**
+     * Called with the output events of the query.
+     *
+     * @param timestamp     timestamp of the last output event
+     * @param currentEvents view of the current events, which is empty when there are no current events
+     * @param expiredEvents view of the expired events, which is empty when there are no expired events
+     */
+    public abstract void receive(long timestamp, EventView currentEvents, EventView expiredEvents);
+}
@@ -34,7 +34,7 @@ import java.util.Map;
  */
 public class FirstGroupByPerEventOutputRateLimiter extends OutputRateLimiter {
     private final Integer value;
-    private List<String> groupByKeys = new ArrayList<String>();
+    private List<Object> groupByKeys = new ArrayList<Object>();
     private String id;
     private ComplexEventChunk<ComplexEvent> allComplexEventChunk;
     private volatile int counter = 0;
@@ -114,7 +114,7 @@ public class FirstGroupByPerEventOutputRateLimiter extends OutputRateLimiter {
     public void restoreState(Map<String, Object> state) {
         synchronized (this) {
             counter = (int) state.get("Counter");
-            groupByKeys = (List<String>) state.get("GroupByKeys");
+            groupByKeys = (List<Object>) state.get("GroupByKeys");
             allComplexEventChunk.clear();
             allComplexEventChunk.add((ComplexEvent) state.get("AllComplexEventChunk"));
         }
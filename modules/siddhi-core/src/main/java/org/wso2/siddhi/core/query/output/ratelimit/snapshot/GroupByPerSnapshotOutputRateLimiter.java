@@ -40,7 +40,7 @@ public class GroupByPerSnapshotOutputRateLimiter extends SnapshotOutputRateLimit
     private final Long value;
     private String id;
     private ScheduledExecutorService scheduledExecutorService;
-    private Map<String, ComplexEvent> groupByKeyEvents = new LinkedHashMap<String, ComplexEvent>();
+    private Map<Object, ComplexEvent> groupByKeyEvents = new LinkedHashMap<Object, ComplexEvent>();
     private Scheduler scheduler;
     private long scheduledTime;
     private String queryName;
@@ -121,7 +121,7 @@ public class GroupByPerSnapshotOutputRateLimiter extends SnapshotOutputRateLimit
 
     @Override
     public synchronized void restoreState(Map<String, Object> state) {
-        groupByKeyEvents = (Map<String, ComplexEvent>) state.get("groupByKeyEvents");
+        groupByKeyEvents = (Map<Object, ComplexEvent>) state.get("groupByKeyEvents");
     }
 
     @Override
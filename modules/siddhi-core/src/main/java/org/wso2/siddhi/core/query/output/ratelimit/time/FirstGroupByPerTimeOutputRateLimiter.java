@@ -42,7 +42,7 @@ public class FirstGroupByPerTimeOutputRateLimiter extends OutputRateLimiter impl
     private static final Logger log = Logger.getLogger(FirstGroupByPerTimeOutputRateLimiter.class);
     private final Long value;
     private String id;
-    private List<String> groupByKeys = new ArrayList<String>();
+    private List<Object> groupByKeys = new ArrayList<Object>();
     private ComplexEventChunk<ComplexEvent> allComplexEventChunk;
     private ScheduledExecutorService scheduledExecutorService;
     private Scheduler scheduler;
@@ -133,7 +133,7 @@ public class FirstGroupByPerTimeOutputRateLimiter extends OutputRateLimiter impl
     public synchronized void restoreState(Map<String, Object> state) {
         allComplexEventChunk.clear();
         allComplexEventChunk.add((ComplexEvent) state.get("AllComplexEventChunk"));
-        groupByKeys = (List<String>) state.get("GroupByKeys");
+        groupByKeys = (List<Object>) state.get("GroupByKeys");
     }
 
 }
@@ -27,6 +27,7 @@ import org.wso2.siddhi.core.event.ComplexEventChunk;
 import org.wso2.siddhi.core.event.state.StateEvent;
 import org.wso2.siddhi.core.event.stream.StreamEvent;
 import org.wso2.siddhi.core.event.stream.StreamEventCloner;
+import org.wso2.siddhi.core.event.stream.holder.SortedStreamEventHolder;
 import org.wso2.siddhi.core.executor.ConstantExpressionExecutor;
 import org.wso2.siddhi.core.executor.ExpressionExecutor;
 import org.wso2.siddhi.core.executor.VariableExpressionExecutor;
@@ -41,7 +42,6 @@ import org.wso2.siddhi.query.api.definition.Attribute;
 import org.wso2.siddhi.query.api.expression.Expression;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
@@ -96,7 +96,7 @@ public class SortWindowProcessor extends WindowProcessor implements FindableProc
     private static final String ASC = "asc";
     private static final String DESC = "desc";
     private int lengthToKeep;
-    private List<StreamEvent> sortedWindow = new ArrayList<StreamEvent>();
+    private SortedStreamEventHolder sortedWindow;
     private List<Object[]> parameterInfo;
     private EventComparator eventComparator;
 
@@ -138,7 +138,7 @@ public class SortWindowProcessor extends WindowProcessor implements FindableProc
                 parameterInfo.add(new Object[]{variableExpressionExecutor, order});
             }
         }
-
+        sortedWindow = new SortedStreamEventHolder(eventComparator);
     }
 
     @Override
@@ -160,8 +160,7 @@ public class SortWindowProcessor extends WindowProcessor implements FindableProc
 
                 sortedWindow.add(clonedEvent);
                 if (sortedWindow.size() > lengthToKeep) {
-                    Collections.sort(sortedWindow, eventComparator);
-                    StreamEvent expiredEvent = sortedWindow.remove(sortedWindow.size() - 1);
+                    StreamEvent expiredEvent = sortedWindow.pollLast();
                     expiredEvent.setTimestamp(currentTime);
                     streamEventChunk.add(expiredEvent);
                 }
@@ -186,7 +185,7 @@ public class SortWindowProcessor extends WindowProcessor implements FindableProc
     public Map<String, Object> currentState() {
         Map<String, Object> state = new HashMap<>();
         synchronized (this) {
-            state.put("SortedWindow", sortedWindow);
+            state.put("SortedWindow", sortedWindow.toList());
         }
         return state;
     }
@@ -194,7 +193,8 @@ public class SortWindowProcessor extends WindowProcessor implements FindableProc
 
     @Override
     public synchronized void restoreState(Map<String, Object> state) {
-        sortedWindow = (List<StreamEvent>) state.get("SortedWindow");
+        sortedWindow.clear();
+        sortedWindow.addAll((List<StreamEvent>) state.get("SortedWindow"));
     }
 
     @Override
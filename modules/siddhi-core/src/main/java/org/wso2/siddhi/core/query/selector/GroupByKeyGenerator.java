@@ -35,6 +35,7 @@ import java.util.Map;
  */
 public class GroupByKeyGenerator {
 
+    private static final GroupByKey NULL_KEY = new GroupByKey(new Object[]{null});
     private ExpressionExecutor[] groupByExecutors = null;
 
     public GroupByKeyGenerator(List<Expression> groupByList,
@@ -53,20 +54,42 @@ public class GroupByKeyGenerator {
     }
 
     /**
-     * generate groupBy key of a streamEvent
+     * generate groupBy key of a streamEvent. The key is the group by value itself when grouping by a single
+     * attribute, and a {@link GroupByKey} otherwise.
      *
      * @param event complexEvent
      * @return GroupByKey
      */
-    public String constructEventKey(ComplexEvent event) {
+    public Object constructEventKey(ComplexEvent event) {
         if (groupByExecutors != null) {
-            StringBuilder sb = new StringBuilder();
-            for (ExpressionExecutor executor : groupByExecutors) {
-                sb.append(executor.execute(event)).append(SiddhiConstants.KEY_DELIMITER);
+            if (groupByExecutors.length == 1) {
+                Object value = groupByExecutors[0].execute(event);
+                return value != null ? value : NULL_KEY;
             }
-            return sb.toString();
+            Object[] values = new Object[groupByExecutors.length];
+            for (int i = 0; i < groupByExecutors.length; i++) {
+                values[i] = groupByExecutors[i].execute(event);
+            }
+            return new GroupByKey(values);
         } else {
             return null;
         }
     }
+
+    /**
+     * Converts a key generated by {@link #constructEventKey(ComplexEvent)} to its String form, where the group by
+     * values are joined with {@link SiddhiConstants#KEY_DELIMITER}.
+     *
+     * @param key groupBy key
+     * @return String form of the key, or null if the key is null
+     */
+    public static String keyToString(Object key) {
+        if (key == null) {
+            return null;
+        } else if (key instanceof GroupByKey) {
+            return key.toString();
+        } else {
+            return key + SiddhiConstants.KEY_DELIMITER;
+        }
+    }
 }
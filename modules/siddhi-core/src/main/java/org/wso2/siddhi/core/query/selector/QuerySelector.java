@@ -178,7 +178,7 @@ public class QuerySelector implements Processor {
                     case CURRENT:
                     case EXPIRED:
                         eventPopulator.populateStateEvent(event);
-                        String groupedByKey = groupByKeyGenerator.constructEventKey(event);
+                        Object groupedByKey = groupByKeyGenerator.constructEventKey(event);
                         GroupByAggregationAttributeExecutor.getKeyThreadLocal().set(groupedByKey);
 
                         for (AttributeProcessor attributeProcessor : attributeProcessorList) {
@@ -267,7 +267,7 @@ public class QuerySelector implements Processor {
     }
 
     private ComplexEventChunk processInBatchGroupBy(ComplexEventChunk complexEventChunk) {
-        Map<String, ComplexEvent> groupedEvents = new LinkedHashMap<String, ComplexEvent>();
+        Map<Object, ComplexEvent> groupedEvents = new LinkedHashMap<Object, ComplexEvent>();
         complexEventChunk.reset();
 
         synchronized (this) {
@@ -278,7 +278,7 @@ public class QuerySelector implements Processor {
                     case CURRENT:
                     case EXPIRED:
                         eventPopulator.populateStateEvent(event);
-                        String groupByKey = groupByKeyGenerator.constructEventKey(event);
+                        Object groupByKey = groupByKeyGenerator.constructEventKey(event);
                         GroupByAggregationAttributeExecutor.getKeyThreadLocal().set(groupByKey);
 
                         for (AttributeProcessor attributeProcessor : attributeProcessorList) {
@@ -307,7 +307,7 @@ public class QuerySelector implements Processor {
 
         if (groupedEvents.size() != 0) {
             complexEventChunk.clear();
-            for (Map.Entry<String, ComplexEvent> groupedEventEntry : groupedEvents.entrySet()) {
+            for (Map.Entry<Object, ComplexEvent> groupedEventEntry : groupedEvents.entrySet()) {
                 complexEventChunk.add(new GroupedComplexEvent(groupedEventEntry.getKey(),
                         groupedEventEntry.getValue()));
             }
@@ -412,6 +412,14 @@ public class QuerySelector implements Processor {
         this.limit = limit;
     }
 
+    /**
+     * @return whether the output of each event only depends on that event, so that events can be selected in
+     * separate chunks giving the same output as selecting them at once.
+     */
+    public boolean isStateless() {
+        return !isGroupBy && !containsAggregator && !isOrderBy && limit == SiddhiConstants.UNKNOWN_STATE;
+    }
+
     private void orderEventChunk(ComplexEventChunk complexEventChunk) {
         ComplexEventChunk orderingComplexEventChunk = new ComplexEventChunk(complexEventChunk.isBatch());
         List<ComplexEvent> eventList = new ArrayList<>();
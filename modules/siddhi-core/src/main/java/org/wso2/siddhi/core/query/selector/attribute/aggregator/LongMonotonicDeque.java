@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.query.selector.attribute.aggregator;
+
+import java.util.Collection;
+
+/**
+ * Monotonic deque of primitive long values, where int values are held as longs, backed by a growable ring buffer,
+ * holding the candidates for the maximum (or minimum) of the values of a sliding window. The values are kept in the
+ * order of their arrival, and each value drops the values before it that are smaller (or greater) than it, as those
+ * can never be the maximum (or minimum) while it is in the window. Hence the first value is the maximum (or minimum).
+ */
+class LongMonotonicDeque {
+    private static final int INITIAL_CAPACITY = 8;
+
+    private final boolean max;
+    private long[] values = new long[INITIAL_CAPACITY];
+    private int head = 0;
+    private int size = 0;
+
+    /**
+     * @param max true to hold the candidates for the maximum, false to hold the candidates for the minimum
+     */
+    LongMonotonicDeque(boolean max) {
+        this.max = max;
+    }
+
+    void add(long value) {
+        int mask = values.length - 1;
+        while (size > 0) {
+            long last = values[(head + size - 1) & mask];
+            if (max ? last < value : last > value) {
+                size--;
+            } else {
+                break;
+            }
+        }
+        addLast(value);
+    }
+
+    private void addLast(long value) {
+        if (size == values.length) {
+            long[] newValues = new long[values.length << 1];
+            for (int i = 0; i < size; i++) {
+                newValues[i] = values[(head + i) & (values.length - 1)];
+            }
+            values = newValues;
+            head = 0;
+        }
+        values[(head + size) & (values.length - 1)] = value;
+        size++;
+    }
+
+    /**
+     * Removes the first occurrence of the value, compared by value. When the values leave the window in
+     * the order of their arrival, the value is either the first value or has already been dropped.
+     *
+     * @param value the value leaving the window
+     * @return the position of the removed value, or -1 if the value is not held
+     */
+    int removeFirstOccurrence(long value) {
+        int mask = values.length - 1;
+        for (int i = 0; i < size; i++) {
+            if (values[(head + i) & mask] == value) {
+                if (i == 0) {
+                    head = (head + 1) & mask;
+                } else {
+                    for (int j = i; j < size - 1; j++) {
+                        values[(head + j) & mask] = values[(head + j + 1) & mask];
+                    }
+                }
+                size--;
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    long peekFirst() {
+        return values[head];
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        if (values.length > INITIAL_CAPACITY) {
+            values = new long[INITIAL_CAPACITY];
+        }
+        head = 0;
+        size = 0;
+    }
+
+    long[] toArray() {
+        long[] array = new long[size];
+        for (int i = 0; i < size; i++) {
+            array[i] = values[(head + i) & (values.length - 1)];
+        }
+        return array;
+    }
+
+    /**
+     * Restores the values from their snapshot, which is either an array taken by {@link #toArray()} or a
+     * collection of boxed values taken before the values were held as primitives.
+     *
+     * @param state the snapshot of the values
+     */
+    void restore(Object state) {
+        clear();
+        if (state instanceof long[]) {
+            for (long value : (long[]) state) {
+                addLast(value);
+            }
+        } else if (state instanceof Collection) {
+            for (Object value : (Collection<?>) state) {
+                addLast(((Number) value).longValue());
+            }
+        }
+    }
+}
@@ -29,10 +29,7 @@ import org.wso2.siddhi.core.util.config.ConfigReader;
 import org.wso2.siddhi.query.api.definition.Attribute;
 
 import java.util.Arrays;
-import java.util.Deque;
 import java.util.HashMap;
-import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.Map;
 
 /**
@@ -154,7 +151,7 @@ public class MaxAttributeAggregator extends AttributeAggregator {
     class MaxAttributeAggregatorDouble extends MaxAttributeAggregator {
 
         private final Attribute.Type type = Attribute.Type.DOUBLE;
-        private Deque<Double> maxDeque = new LinkedList<Double>();
+        private DoubleMonotonicDeque maxDeque = new DoubleMonotonicDeque(true);
         private volatile Double maxValue = null;
 
         public Attribute.Type getReturnType() {
@@ -164,15 +161,8 @@ public class MaxAttributeAggregator extends AttributeAggregator {
         @Override
         public synchronized Object processAdd(Object data) {
             Double value = (Double) data;
-            for (Iterator<Double> iterator = maxDeque.descendingIterator(); iterator.hasNext(); ) {
-                if (iterator.next() < value) {
-                    iterator.remove();
-                } else {
-                    break;
-                }
-            }
-            maxDeque.addLast(value);
-            if (maxValue == null || maxValue < value) {
+            maxDeque.add(value);
+            if (maxDeque.size() == 1) {
                 maxValue = value;
             }
             return maxValue;
@@ -180,8 +170,9 @@ public class MaxAttributeAggregator extends AttributeAggregator {
 
         @Override
         public synchronized Object processRemove(Object data) {
-            maxDeque.removeFirstOccurrence(data);
-            maxValue = maxDeque.peekFirst();
+            if (maxDeque.removeFirstOccurrence((Double) data) == 0 || maxDeque.isEmpty()) {
+                maxValue = maxDeque.isEmpty() ? null : maxDeque.peekFirst();
+            }
             return maxValue;
         }
 
@@ -194,7 +185,7 @@ public class MaxAttributeAggregator extends AttributeAggregator {
 
         @Override
         public boolean canDestroy() {
-            return maxDeque.size() == 0 && maxValue == null;
+            return maxDeque.isEmpty() && maxValue == null;
         }
 
         @Override
@@ -202,7 +193,7 @@ public class MaxAttributeAggregator extends AttributeAggregator {
             Map<String, Object> state = new HashMap<>();
             synchronized (this) {
                 state.put("MaxValue", maxValue);
-                state.put("MaxDeque", maxDeque);
+                state.put("MaxDeque", maxDeque.toArray());
             }
             return state;
         }
@@ -210,7 +201,7 @@ public class MaxAttributeAggregator extends AttributeAggregator {
         @Override
         public synchronized void restoreState(Map<String, Object> state) {
             maxValue = (Double) state.get("MaxValue");
-            maxDeque = (Deque<Double>) state.get("MaxDeque");
+            maxDeque.restore(state.get("MaxDeque"));
         }
 
         protected Object currentValue() {
@@ -221,7 +212,7 @@ public class MaxAttributeAggregator extends AttributeAggregator {
     class MaxAttributeAggregatorFloat extends MaxAttributeAggregator {
 
         private final Attribute.Type type = Attribute.Type.FLOAT;
-        private Deque<Float> maxDeque = new LinkedList<Float>();
+        private DoubleMonotonicDeque maxDeque = new DoubleMonotonicDeque(true);
         private volatile Float maxValue = null;
 
         public Attribute.Type getReturnType() {
@@ -231,15 +222,8 @@ public class MaxAttributeAggregator extends AttributeAggregator {
         @Override
         public synchronized Object processAdd(Object data) {
             Float value = (Float) data;
-            for (Iterator<Float> iterator = maxDeque.descendingIterator(); iterator.hasNext(); ) {
-                if (iterator.next() < value) {
-                    iterator.remove();
-                } else {
-                    break;
-                }
-            }
-            maxDeque.addLast(value);
-            if (maxValue == null || maxValue < value) {
+            maxDeque.add(value);
+            if (maxDeque.size() == 1) {
                 maxValue = value;
             }
             return maxValue;
@@ -247,8 +231,9 @@ public class MaxAttributeAggregator extends AttributeAggregator {
 
         @Override
         public synchronized Object processRemove(Object data) {
-            maxDeque.removeFirstOccurrence(data);
-            maxValue = maxDeque.peekFirst();
+            if (maxDeque.removeFirstOccurrence((Float) data) == 0 || maxDeque.isEmpty()) {
+                maxValue = maxDeque.isEmpty() ? null : (float) maxDeque.peekFirst();
+            }
             return maxValue;
         }
 
@@ -261,7 +246,7 @@ public class MaxAttributeAggregator extends AttributeAggregator {
 
         @Override
         public boolean canDestroy() {
-            return maxDeque.size() == 0 && maxValue == null;
+            return maxDeque.isEmpty() && maxValue == null;
         }
 
         @Override
@@ -269,7 +254,7 @@ public class MaxAttributeAggregator extends AttributeAggregator {
             Map<String, Object> state = new HashMap<>();
             synchronized (this) {
                 state.put("MaxValue", maxValue);
-                state.put("MaxDeque", maxDeque);
+                state.put("MaxDeque", maxDeque.toArray());
             }
             return state;
         }
@@ -277,19 +262,18 @@ public class MaxAttributeAggregator extends AttributeAggregator {
         @Override
         public synchronized void restoreState(Map<String, Object> state) {
             maxValue = (Float) state.get("MaxValue");
-            maxDeque = (Deque<Float>) state.get("MaxDeque");
+            maxDeque.restore(state.get("MaxDeque"));
         }
 
         protected Object currentValue() {
             return maxValue;
         }
-
     }
 
     class MaxAttributeAggregatorInt extends MaxAttributeAggregator {
 
         private final Attribute.Type type = Attribute.Type.INT;
-        private Deque<Integer> maxDeque = new LinkedList<Integer>();
+        private LongMonotonicDeque maxDeque = new LongMonotonicDeque(true);
         private volatile Integer maxValue = null;
 
         public Attribute.Type getReturnType() {
@@ -299,15 +283,8 @@ public class MaxAttributeAggregator extends AttributeAggregator {
         @Override
         public synchronized Object processAdd(Object data) {
             Integer value = (Integer) data;
-            for (Iterator<Integer> iterator = maxDeque.descendingIterator(); iterator.hasNext(); ) {
-                if (iterator.next() < value) {
-                    iterator.remove();
-                } else {
-                    break;
-                }
-            }
-            maxDeque.addLast(value);
-            if (maxValue == null || maxValue < value) {
+            maxDeque.add(value);
+            if (maxDeque.size() == 1) {
                 maxValue = value;
             }
             return maxValue;
@@ -315,8 +292,9 @@ public class MaxAttributeAggregator extends AttributeAggregator {
 
         @Override
         public synchronized Object processRemove(Object data) {
-            maxDeque.removeFirstOccurrence(data);
-            maxValue = maxDeque.peekFirst();
+            if (maxDeque.removeFirstOccurrence((Integer) data) == 0 || maxDeque.isEmpty()) {
+                maxValue = maxDeque.isEmpty() ? null : (int) maxDeque.peekFirst();
+            }
             return maxValue;
         }
 
@@ -329,7 +307,7 @@ public class MaxAttributeAggregator extends AttributeAggregator {
 
         @Override
         public boolean canDestroy() {
-            return maxDeque.size() == 0 && maxValue == null;
+            return maxDeque.isEmpty() && maxValue == null;
         }
 
         @Override
@@ -337,7 +315,7 @@ public class MaxAttributeAggregator extends AttributeAggregator {
             Map<String, Object> state = new HashMap<>();
             synchronized (this) {
                 state.put("MaxValue", maxValue);
-                state.put("MaxDeque", maxDeque);
+                state.put("MaxDeque", maxDeque.toArray());
             }
             return state;
         }
@@ -345,19 +323,18 @@ public class MaxAttributeAggregator extends AttributeAggregator {
         @Override
         public synchronized void restoreState(Map<String, Object> state) {
             maxValue = (Integer) state.get("MaxValue");
-            maxDeque = (Deque<Integer>) state.get("MaxDeque");
+            maxDeque.restore(state.get("MaxDeque"));
         }
 
         protected Object currentValue() {
             return maxValue;
         }
-
     }
 
     class MaxAttributeAggregatorLong extends MaxAttributeAggregator {
 
         private final Attribute.Type type = Attribute.Type.LONG;
-        private Deque<Long> maxDeque = new LinkedList<Long>();
+        private LongMonotonicDeque maxDeque = new LongMonotonicDeque(true);
         private volatile Long maxValue = null;
 
         public Attribute.Type getReturnType() {
@@ -367,15 +344,8 @@ public class MaxAttributeAggregator extends AttributeAggregator {
         @Override
         public synchronized Object processAdd(Object data) {
             Long value = (Long) data;
-            for (Iterator<Long> iterator = maxDeque.descendingIterator(); iterator.hasNext(); ) {
-                if (iterator.next() < value) {
-                    iterator.remove();
-                } else {
-                    break;
-                }
-            }
-            maxDeque.addLast(value);
-            if (maxValue == null || maxValue < value) {
+            maxDeque.add(value);
+            if (maxDeque.size() == 1) {
                 maxValue = value;
             }
             return maxValue;
@@ -383,8 +353,9 @@ public class MaxAttributeAggregator extends AttributeAggregator {
 
         @Override
         public synchronized Object processRemove(Object data) {
-            maxDeque.removeFirstOccurrence(data);
-            maxValue = maxDeque.peekFirst();
+            if (maxDeque.removeFirstOccurrence((Long) data) == 0 || maxDeque.isEmpty()) {
+                maxValue = maxDeque.isEmpty() ? null : maxDeque.peekFirst();
+            }
             return maxValue;
         }
 
@@ -397,7 +368,7 @@ public class MaxAttributeAggregator extends AttributeAggregator {
 
         @Override
         public boolean canDestroy() {
-            return maxDeque.size() == 0 && maxValue == null;
+            return maxDeque.isEmpty() && maxValue == null;
         }
 
         @Override
@@ -405,7 +376,7 @@ public class MaxAttributeAggregator extends AttributeAggregator {
             Map<String, Object> state = new HashMap<>();
             synchronized (this) {
                 state.put("MaxValue", maxValue);
-                state.put("MaxDeque", maxDeque);
+                state.put("MaxDeque", maxDeque.toArray());
             }
             return state;
         }
@@ -413,13 +384,11 @@ public class MaxAttributeAggregator extends AttributeAggregator {
         @Override
         public synchronized void restoreState(Map<String, Object> state) {
             maxValue = (Long) state.get("MaxValue");
-            maxDeque = (Deque<Long>) state.get("MaxDeque");
+            maxDeque.restore(state.get("MaxDeque"));
         }
 
         protected Object currentValue() {
             return maxValue;
         }
-
     }
-
 }
@@ -29,10 +29,7 @@ import org.wso2.siddhi.core.util.config.ConfigReader;
 import org.wso2.siddhi.query.api.definition.Attribute;
 
 import java.util.Arrays;
-import java.util.Deque;
 import java.util.HashMap;
-import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.Map;
 
 /**
@@ -157,7 +154,7 @@ public class MinAttributeAggregator extends AttributeAggregator {
     class MinAttributeAggregatorDouble extends MinAttributeAggregator {
 
         private final Attribute.Type type = Attribute.Type.DOUBLE;
-        private Deque<Double> minDeque = new LinkedList<Double>();
+        private DoubleMonotonicDeque minDeque = new DoubleMonotonicDeque(false);
         private volatile Double minValue = null;
 
         public Attribute.Type getReturnType() {
@@ -167,15 +164,8 @@ public class MinAttributeAggregator extends AttributeAggregator {
         @Override
         public synchronized Object processAdd(Object data) {
             Double value = (Double) data;
-            for (Iterator<Double> iterator = minDeque.descendingIterator(); iterator.hasNext(); ) {
-                if (iterator.next() > value) {
-                    iterator.remove();
-                } else {
-                    break;
-                }
-            }
-            minDeque.addLast(value);
-            if (minValue == null || minValue > value) {
+            minDeque.add(value);
+            if (minDeque.size() == 1) {
                 minValue = value;
             }
             return minValue;
@@ -183,8 +173,9 @@ public class MinAttributeAggregator extends AttributeAggregator {
 
         @Override
         public synchronized Object processRemove(Object data) {
-            minDeque.removeFirstOccurrence(data);
-            minValue = minDeque.peekFirst();
+            if (minDeque.removeFirstOccurrence((Double) data) == 0 || minDeque.isEmpty()) {
+                minValue = minDeque.isEmpty() ? null : minDeque.peekFirst();
+            }
             return minValue;
         }
 
@@ -197,7 +188,7 @@ public class MinAttributeAggregator extends AttributeAggregator {
 
         @Override
         public boolean canDestroy() {
-            return minDeque.size() == 0 && minValue == null;
+            return minDeque.isEmpty() && minValue == null;
         }
 
         @Override
@@ -205,7 +196,7 @@ public class MinAttributeAggregator extends AttributeAggregator {
             Map<String, Object> state = new HashMap<>();
             synchronized (this) {
                 state.put("MinValue", minValue);
-                state.put("MinDeque", minDeque);
+                state.put("MinDeque", minDeque.toArray());
             }
             return state;
         }
@@ -213,19 +204,18 @@ public class MinAttributeAggregator extends AttributeAggregator {
         @Override
         public synchronized void restoreState(Map<String, Object> state) {
             minValue = (Double) state.get("MinValue");
-            minDeque = (Deque<Double>) state.get("MinDeque");
+            minDeque.restore(state.get("MinDeque"));
         }
 
         protected Object currentValue() {
             return minValue;
         }
-
     }
 
     class MinAttributeAggregatorFloat extends MinAttributeAggregator {
 
         private final Attribute.Type type = Attribute.Type.FLOAT;
-        private Deque<Float> minDeque = new LinkedList<Float>();
+        private DoubleMonotonicDeque minDeque = new DoubleMonotonicDeque(false);
         private volatile Float minValue = null;
 
         public Attribute.Type getReturnType() {
@@ -235,15 +225,8 @@ public class MinAttributeAggregator extends AttributeAggregator {
         @Override
         public synchronized Object processAdd(Object data) {
             Float value = (Float) data;
-            for (Iterator<Float> iterator = minDeque.descendingIterator(); iterator.hasNext(); ) {
-                if (iterator.next() > value) {
-                    iterator.remove();
-                } else {
-                    break;
-                }
-            }
-            minDeque.addLast(value);
-            if (minValue == null || minValue > value) {
+            minDeque.add(value);
+            if (minDeque.size() == 1) {
                 minValue = value;
             }
             return minValue;
@@ -251,8 +234,9 @@ public class MinAttributeAggregator extends AttributeAggregator {
 
         @Override
         public synchronized Object processRemove(Object data) {
-            minDeque.removeFirstOccurrence(data);
-            minValue = minDeque.peekFirst();
+            if (minDeque.removeFirstOccurrence((Float) data) == 0 || minDeque.isEmpty()) {
+                minValue = minDeque.isEmpty() ? null : (float) minDeque.peekFirst();
+            }
             return minValue;
         }
 
@@ -265,7 +249,7 @@ public class MinAttributeAggregator extends AttributeAggregator {
 
         @Override
         public boolean canDestroy() {
-            return minDeque.size() == 0 && minValue == null;
+            return minDeque.isEmpty() && minValue == null;
         }
 
         @Override
@@ -273,7 +257,7 @@ public class MinAttributeAggregator extends AttributeAggregator {
             Map<String, Object> state = new HashMap<>();
             synchronized (this) {
                 state.put("MinValue", minValue);
-                state.put("MinDeque", minDeque);
+                state.put("MinDeque", minDeque.toArray());
             }
             return state;
         }
@@ -281,7 +265,7 @@ public class MinAttributeAggregator extends AttributeAggregator {
         @Override
         public synchronized void restoreState(Map<String, Object> state) {
             minValue = (Float) state.get("MinValue");
-            minDeque = (Deque<Float>) state.get("MinDeque");
+            minDeque.restore(state.get("MinDeque"));
         }
 
         protected Object currentValue() {
@@ -292,7 +276,7 @@ public class MinAttributeAggregator extends AttributeAggregator {
     class MinAttributeAggregatorInt extends MinAttributeAggregator {
 
         private final Attribute.Type type = Attribute.Type.INT;
-        private Deque<Integer> minDeque = new LinkedList<Integer>();
+        private LongMonotonicDeque minDeque = new LongMonotonicDeque(false);
         private volatile Integer minValue = null;
 
         public Attribute.Type getReturnType() {
@@ -302,21 +286,21 @@ public class MinAttributeAggregator extends AttributeAggregator {
         @Override
         public synchronized Object processAdd(Object data) {
             Integer value = (Integer) data;
-            for (Iterator<Integer> iterator = minDeque.descendingIterator(); iterator.hasNext(); ) {
-
-                if (iterator.next() > value) {
-                    iterator.remove();
-                } else {
-                    break;
-                }
-            }
-            minDeque.addLast(value);
-            if (minValue == null || minValue > value) {
+            minDeque.add(value);
+            if (minDeque.size() == 1) {
                 minValue = value;
             }
             return minValue;
         }
 
+        @Override
+        public synchronized Object processRemove(Object data) {
+            if (minDeque.removeFirstOccurrence((Integer) data) == 0 || minDeque.isEmpty()) {
+                minValue = minDeque.isEmpty() ? null : (int) minDeque.peekFirst();
+            }
+            return minValue;
+        }
+
         @Override
         public synchronized Object reset() {
             minDeque.clear();
@@ -326,14 +310,7 @@ public class MinAttributeAggregator extends AttributeAggregator {
 
         @Override
         public boolean canDestroy() {
-            return minDeque.size() == 0 && minValue == null;
-        }
-
-        @Override
-        public synchronized Object processRemove(Object data) {
-            minDeque.removeFirstOccurrence(data);
-            minValue = minDeque.peekFirst();
-            return minValue;
+            return minDeque.isEmpty() && minValue == null;
         }
 
         @Override
@@ -341,7 +318,7 @@ public class MinAttributeAggregator extends AttributeAggregator {
             Map<String, Object> state = new HashMap<>();
             synchronized (this) {
                 state.put("MinValue", minValue);
-                state.put("MinDeque", minDeque);
+                state.put("MinDeque", minDeque.toArray());
             }
             return state;
         }
@@ -349,7 +326,7 @@ public class MinAttributeAggregator extends AttributeAggregator {
         @Override
         public synchronized void restoreState(Map<String, Object> state) {
             minValue = (Integer) state.get("MinValue");
-            minDeque = (Deque<Integer>) state.get("MinDeque");
+            minDeque.restore(state.get("MinDeque"));
         }
 
         protected Object currentValue() {
@@ -360,7 +337,7 @@ public class MinAttributeAggregator extends AttributeAggregator {
     class MinAttributeAggregatorLong extends MinAttributeAggregator {
 
         private final Attribute.Type type = Attribute.Type.LONG;
-        private Deque<Long> minDeque = new LinkedList<Long>();
+        private LongMonotonicDeque minDeque = new LongMonotonicDeque(false);
         private volatile Long minValue = null;
 
         public Attribute.Type getReturnType() {
@@ -370,20 +347,21 @@ public class MinAttributeAggregator extends AttributeAggregator {
         @Override
         public synchronized Object processAdd(Object data) {
             Long value = (Long) data;
-            for (Iterator<Long> iterator = minDeque.descendingIterator(); iterator.hasNext(); ) {
-                if (iterator.next() > value) {
-                    iterator.remove();
-                } else {
-                    break;
-                }
-            }
-            minDeque.addLast(value);
-            if (minValue == null || minValue > value) {
+            minDeque.add(value);
+            if (minDeque.size() == 1) {
                 minValue = value;
             }
             return minValue;
         }
 
+        @Override
+        public synchronized Object processRemove(Object data) {
+            if (minDeque.removeFirstOccurrence((Long) data) == 0 || minDeque.isEmpty()) {
+                minValue = minDeque.isEmpty() ? null : minDeque.peekFirst();
+            }
+            return minValue;
+        }
+
         @Override
         public synchronized Object reset() {
             minDeque.clear();
@@ -393,14 +371,7 @@ public class MinAttributeAggregator extends AttributeAggregator {
 
         @Override
         public boolean canDestroy() {
-            return minDeque.size() == 0 && minValue == null;
-        }
-
-        @Override
-        public synchronized Object processRemove(Object data) {
-            minDeque.removeFirstOccurrence(data);
-            minValue = minDeque.peekFirst();
-            return minValue;
+            return minDeque.isEmpty() && minValue == null;
         }
 
         @Override
@@ -408,7 +379,7 @@ public class MinAttributeAggregator extends AttributeAggregator {
             Map<String, Object> state = new HashMap<>();
             synchronized (this) {
                 state.put("MinValue", minValue);
-                state.put("MinDeque", minDeque);
+                state.put("MinDeque", minDeque.toArray());
             }
             return state;
         }
@@ -416,13 +387,11 @@ public class MinAttributeAggregator extends AttributeAggregator {
         @Override
         public synchronized void restoreState(Map<String, Object> state) {
             minValue = (Long) state.get("MinValue");
-            minDeque = (Deque<Long>) state.get("MinDeque");
+            minDeque.restore(state.get("MinDeque"));
         }
 
         protected Object currentValue() {
             return minValue;
         }
-
     }
-
 }
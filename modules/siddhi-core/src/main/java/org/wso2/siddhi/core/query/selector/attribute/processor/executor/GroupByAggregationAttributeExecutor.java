@@ -20,8 +20,10 @@ package org.wso2.siddhi.core.query.selector.attribute.processor.executor;
 import org.wso2.siddhi.core.config.SiddhiAppContext;
 import org.wso2.siddhi.core.event.ComplexEvent;
 import org.wso2.siddhi.core.executor.ExpressionExecutor;
+import org.wso2.siddhi.core.query.selector.GroupByKeyGenerator;
 import org.wso2.siddhi.core.query.selector.attribute.aggregator.AttributeAggregator;
 import org.wso2.siddhi.core.util.config.ConfigReader;
+import org.wso2.siddhi.core.util.statistics.memory.ElementCountable;
 import org.wso2.siddhi.core.util.timestamp.TimestampGenerator;
 
 import java.util.HashMap;
@@ -33,14 +35,16 @@ import java.util.Set;
 /**
  * Executor class for aggregations with group by configuration.
  */
-public class GroupByAggregationAttributeExecutor extends AbstractAggregationAttributeExecutor {
+public class GroupByAggregationAttributeExecutor extends AbstractAggregationAttributeExecutor
+        implements ElementCountable {
 
-    private static final ThreadLocal<String> keyThreadLocal = new ThreadLocal<String>();
+    private static final ThreadLocal<Object> keyThreadLocal = new ThreadLocal<Object>();
     private final ConfigReader configReader;
     private final TimestampGenerator timestampGenerator;
-    protected Map<String, AttributeAggregator> aggregatorMap = new HashMap<String, AttributeAggregator>();
-    protected Set<String> obsoleteAggregatorKeys = new HashSet<>();
+    protected Map<Object, AttributeAggregator> aggregatorMap = new HashMap<Object, AttributeAggregator>();
+    protected Set<Object> obsoleteAggregatorKeys = new HashSet<>();
     protected long lastCleanupTimestamp = 0;
+    protected int legacyKeyCount = 0;
 
     public GroupByAggregationAttributeExecutor(AttributeAggregator attributeAggregator,
                                                ExpressionExecutor[] attributeExpressionExecutors,
@@ -52,7 +56,7 @@ public class GroupByAggregationAttributeExecutor extends AbstractAggregationAttr
         lastCleanupTimestamp = timestampGenerator.currentTime();
     }
 
-    public static ThreadLocal<String> getKeyThreadLocal() {
+    public static ThreadLocal<Object> getKeyThreadLocal() {
         return keyThreadLocal;
     }
 
@@ -75,18 +79,29 @@ public class GroupByAggregationAttributeExecutor extends AbstractAggregationAttr
                 }
                 aggregatorMap.clear();
                 obsoleteAggregatorKeys.clear();
+                legacyKeyCount = 0;
             } else {
-                for (Map.Entry<String, AttributeAggregator> attributeAggregatorEntry : aggregatorMap.entrySet()) {
+                for (Map.Entry<Object, AttributeAggregator> attributeAggregatorEntry : aggregatorMap.entrySet()) {
                     aOutput = attributeAggregatorEntry.getValue().process(event);
                 }
             }
             return aOutput;
         }
 
-        String key = keyThreadLocal.get();
+        Object key = keyThreadLocal.get();
         AttributeAggregator currentAttributeAggregator = aggregatorMap.get(key);
         if (currentAttributeAggregator == null) {
-            currentAttributeAggregator = attributeAggregator.cloneAggregator(key);
+            String keyString = GroupByKeyGenerator.keyToString(key);
+            if (legacyKeyCount > 0) {
+                // aggregators restored from snapshots taken with String keys are moved to the typed key on first use
+                currentAttributeAggregator = aggregatorMap.remove(keyString);
+                if (currentAttributeAggregator != null) {
+                    legacyKeyCount--;
+                }
+            }
+            if (currentAttributeAggregator == null) {
+                currentAttributeAggregator = attributeAggregator.cloneAggregator(keyString);
+            }
             aggregatorMap.put(key, currentAttributeAggregator);
         }
         Object results = currentAttributeAggregator.process(event);
@@ -99,6 +114,16 @@ public class GroupByAggregationAttributeExecutor extends AbstractAggregationAttr
         return results;
     }
 
+    /**
+     * Returns the number of group by keys for which aggregators are held.
+     *
+     * @return number of aggregators
+     */
+    @Override
+    public long getElementCount() {
+        return aggregatorMap.size();
+    }
+
     public ExpressionExecutor cloneExecutor(String key) {
         return new GroupByAggregationAttributeExecutor(attributeAggregator.cloneAggregator(key),
                 attributeExpressionExecutors, configReader, siddhiAppContext,
@@ -107,25 +132,36 @@ public class GroupByAggregationAttributeExecutor extends AbstractAggregationAttr
 
     @Override
     public Map<String, Object> currentState() {
-        Map<String, Object> state = new HashMap<>();
-        for (Map.Entry<String, AttributeAggregator> entry : aggregatorMap.entrySet()) {
-            state.put(entry.getKey(), entry.getValue().currentState());
+        Map<Object, Map<String, Object>> aggregatorStates = new HashMap<>();
+        for (Map.Entry<Object, AttributeAggregator> entry : aggregatorMap.entrySet()) {
+            aggregatorStates.put(entry.getKey(), entry.getValue().currentState());
         }
+        Map<String, Object> state = new HashMap<>();
+        state.put("AggregatorStates", aggregatorStates);
         return state;
     }
 
     @Override
     public void restoreState(Map<String, Object> state) {
-        for (HashMap.Entry<String, Object> item: state.entrySet()) {
-            String key = item.getKey();
-            AttributeAggregator aAttributeAggregator = attributeAggregator.cloneAggregator(key);
-            aAttributeAggregator.restoreState((Map<String, Object>) item.getValue());
+        Map<Object, Map<String, Object>> aggregatorStates =
+                (Map<Object, Map<String, Object>>) state.get("AggregatorStates");
+        boolean isLegacyState = aggregatorStates == null;
+        if (isLegacyState) {
+            // snapshots taken with String keys hold the aggregator states against the keys
+            aggregatorStates = (Map) state;
+            legacyKeyCount = state.size();
+        }
+        for (Map.Entry<Object, Map<String, Object>> item : aggregatorStates.entrySet()) {
+            Object key = item.getKey();
+            AttributeAggregator aAttributeAggregator = attributeAggregator.cloneAggregator(
+                    isLegacyState ? (String) key : GroupByKeyGenerator.keyToString(key));
+            aAttributeAggregator.restoreState(item.getValue());
             aggregatorMap.put(key, aAttributeAggregator);
         }
     }
 
     private void destroyObsoleteAggregators() {
-        for (String obsoleteKey : obsoleteAggregatorKeys) {
+        for (Object obsoleteKey : obsoleteAggregatorKeys) {
             AttributeAggregator attributeAggregator = aggregatorMap.get(obsoleteKey);
             if (attributeAggregator != null && attributeAggregator.canDestroy()) {
                 aggregatorMap.remove(obsoleteKey);
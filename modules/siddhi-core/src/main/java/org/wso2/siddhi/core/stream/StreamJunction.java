@@ -19,7 +19,12 @@
 package org.wso2.siddhi.core.stream;
 
 import com.lmax.disruptor.BlockingWaitStrategy;
+import com.lmax.disruptor.BusySpinWaitStrategy;
+import com.lmax.disruptor.PhasedBackoffWaitStrategy;
 import com.lmax.disruptor.RingBuffer;
+import com.lmax.disruptor.SleepingWaitStrategy;
+import com.lmax.disruptor.WaitStrategy;
+import com.lmax.disruptor.YieldingWaitStrategy;
 import com.lmax.disruptor.dsl.Disruptor;
 import com.lmax.disruptor.dsl.ProducerType;
 import org.apache.log4j.Logger;
@@ -43,11 +48,15 @@ import org.wso2.siddhi.query.api.exception.DuplicateAnnotationException;
 import org.wso2.siddhi.query.api.util.AnnotationHelper;
 
 import java.lang.reflect.Constructor;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Locale;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Stream Junction is the place where streams are collected and distributed. There will be an Stream Junction per
@@ -57,11 +66,20 @@ import java.util.concurrent.ExecutorService;
  */
 public class StreamJunction implements EventBufferHolder {
     private static final Logger log = Logger.getLogger(StreamJunction.class);
+    private static final String WAIT_STRATEGY_BLOCKING = "blocking";
+    private static final String WAIT_STRATEGY_SLEEPING = "sleeping";
+    private static final String WAIT_STRATEGY_YIELDING = "yielding";
+    private static final String WAIT_STRATEGY_BUSY_SPIN = "busy-spin";
+    private static final String WAIT_STRATEGY_PHASED_BACKOFF = "phased-backoff";
+    private static final long PHASED_BACKOFF_SPIN_TIMEOUT_MICROS = 100;
+    private static final long PHASED_BACKOFF_YIELD_TIMEOUT_MICROS = 1000;
     private final SiddhiAppContext siddhiAppContext;
     private final StreamDefinition streamDefinition;
     private int batchSize;
     private int workers = -1;
     private int bufferSize;
+    private String waitStrategy = WAIT_STRATEGY_BLOCKING;
+    private ProducerType producerType = ProducerType.MULTI;
     private List<Receiver> receivers = new CopyOnWriteArrayList<Receiver>();
     private List<Publisher> publishers = Collections.synchronizedList(new LinkedList<>());
     private ExecutorService executorService;
@@ -114,6 +132,33 @@ public class StreamJunction implements EventBufferHolder {
                                 siddhiAppContext.getSiddhiAppString());
                     }
                 }
+                String waitStrategyString = annotation.getElement(SiddhiConstants.ANNOTATION_ELEMENT_WAIT_STRATEGY);
+                if (waitStrategyString != null) {
+                    this.waitStrategy = waitStrategyString.toLowerCase(Locale.ENGLISH);
+                    if (createWaitStrategy(waitStrategy) == null) {
+                        throw new SiddhiAppCreationException("Annotation element '" +
+                                SiddhiConstants.ANNOTATION_ELEMENT_WAIT_STRATEGY + "' should be one of '" +
+                                WAIT_STRATEGY_BLOCKING + "', '" + WAIT_STRATEGY_SLEEPING + "', '" +
+                                WAIT_STRATEGY_YIELDING + "', '" + WAIT_STRATEGY_BUSY_SPIN + "' or '" +
+                                WAIT_STRATEGY_PHASED_BACKOFF + "', but found, '" + waitStrategyString + "'.",
+                                annotation.getQueryContextStartIndex(), annotation.getQueryContextEndIndex(),
+                                siddhiAppContext.getName(), siddhiAppContext.getSiddhiAppString());
+                    }
+                }
+                String producerString = annotation.getElement(SiddhiConstants.ANNOTATION_ELEMENT_PRODUCER);
+                if (producerString != null) {
+                    if ("single".equalsIgnoreCase(producerString)) {
+                        this.producerType = ProducerType.SINGLE;
+                    } else if ("multi".equalsIgnoreCase(producerString)) {
+                        this.producerType = ProducerType.MULTI;
+                    } else {
+                        throw new SiddhiAppCreationException("Annotation element '" +
+                                SiddhiConstants.ANNOTATION_ELEMENT_PRODUCER + "' should be either 'single' or " +
+                                "'multi', but found, '" + producerString + "'.", annotation.getQueryContextStartIndex(),
+                                annotation.getQueryContextEndIndex(), siddhiAppContext.getName(),
+                                siddhiAppContext.getSiddhiAppString());
+                    }
+                }
             }
 
         } catch (DuplicateAnnotationException e) {
@@ -130,19 +175,30 @@ public class StreamJunction implements EventBufferHolder {
         }
         ComplexEvent complexEventList = complexEvent;
         if (disruptor != null) {
+            int eventCount = 0;
             while (complexEventList != null) {
-                if (throughputTracker != null && siddhiAppContext.isStatsEnabled()) {
-                    throughputTracker.eventIn();
-                }
-                long sequenceNo = ringBuffer.next();
+                eventCount++;
+                complexEventList = complexEventList.getNext();
+            }
+            if (throughputTracker != null && siddhiAppContext.isStatsEnabled()) {
+                throughputTracker.eventsIn(eventCount);
+            }
+            complexEventList = complexEvent;
+            while (eventCount > 0) {
+                int batchSize = Math.min(eventCount, ringBuffer.getBufferSize());
+                long hi = ringBuffer.next(batchSize);
+                long lo = hi - (batchSize - 1);
                 try {
-                    EventExchangeHolder eventExchangeHolder = ringBuffer.get(sequenceNo);
-                    eventExchangeHolder.getEvent().copyFrom(complexEventList);
-                    eventExchangeHolder.getAndSetIsProcessed(false);
+                    for (long sequenceNo = lo; sequenceNo <= hi; sequenceNo++) {
+                        EventExchangeHolder eventExchangeHolder = ringBuffer.get(sequenceNo);
+                        eventExchangeHolder.getEvent().copyFrom(complexEventList);
+                        eventExchangeHolder.getAndSetIsProcessed(false);
+                        complexEventList = complexEventList.getNext();
+                    }
                 } finally {
-                    ringBuffer.publish(sequenceNo);
+                    ringBuffer.publish(lo, hi);
                 }
-                complexEventList = complexEventList.getNext();
+                eventCount -= batchSize;
             }
         } else {
             if (throughputTracker != null && siddhiAppContext.isStatsEnabled()) {
@@ -190,16 +246,7 @@ public class StreamJunction implements EventBufferHolder {
             log.trace("Event is received by streamJunction " + this);
         }
         if (disruptor != null) {
-            for (Event event : events) {   // Todo : optimize for arrays
-                long sequenceNo = ringBuffer.next();
-                try {
-                    EventExchangeHolder eventExchangeHolder = ringBuffer.get(sequenceNo);
-                    eventExchangeHolder.getEvent().copyFrom(event);
-                    eventExchangeHolder.getAndSetIsProcessed(false);
-                } finally {
-                    ringBuffer.publish(sequenceNo);
-                }
-            }
+            publishEvents(Arrays.asList(events));
         } else {
             for (Receiver receiver : receivers) {
                 receiver.receive(events);
@@ -208,24 +255,45 @@ public class StreamJunction implements EventBufferHolder {
     }
 
     private void sendEvent(List<Event> events) {
+        if (throughputTracker != null && siddhiAppContext.isStatsEnabled()) {
+            throughputTracker.eventsIn(events.size());
+        }
         if (isTraceEnabled) {
             log.trace("Event is received by streamJunction " + this);
         }
         if (disruptor != null) {
-            for (Event event : events) {   // Todo : optimize for arrays
-                long sequenceNo = ringBuffer.next();
-                try {
+            publishEvents(events);
+        } else {
+            Event[] eventArray = events.toArray(new Event[events.size()]);
+            for (Receiver receiver : receivers) {
+                receiver.receive(eventArray);
+            }
+        }
+    }
+
+    /**
+     * Publish the events to the ring buffer claiming a range of sequences at once, instead of a sequence per event,
+     * such that the consumers are signalled once per range. Ranges are bounded by the size of the ring buffer.
+     *
+     * @param events events to be published
+     */
+    private void publishEvents(List<Event> events) {
+        Iterator<Event> iterator = events.iterator();
+        int remainingEvents = events.size();
+        while (remainingEvents > 0) {
+            int batchSize = Math.min(remainingEvents, ringBuffer.getBufferSize());
+            long hi = ringBuffer.next(batchSize);
+            long lo = hi - (batchSize - 1);
+            try {
+                for (long sequenceNo = lo; sequenceNo <= hi; sequenceNo++) {
                     EventExchangeHolder eventExchangeHolder = ringBuffer.get(sequenceNo);
-                    eventExchangeHolder.getEvent().copyFrom(event);
+                    eventExchangeHolder.getEvent().copyFrom(iterator.next());
                     eventExchangeHolder.getAndSetIsProcessed(false);
-                } finally {
-                    ringBuffer.publish(sequenceNo);
                 }
+            } finally {
+                ringBuffer.publish(lo, hi);
             }
-        } else {
-            for (Receiver receiver : receivers) {
-                receiver.receive(events.toArray(new Event[events.size()]));
-            }
+            remainingEvents -= batchSize;
         }
     }
 
@@ -263,11 +331,10 @@ public class StreamJunction implements EventBufferHolder {
         if (!receivers.isEmpty() && async) {
             for (Constructor constructor : Disruptor.class.getConstructors()) {
                 if (constructor.getParameterTypes().length == 5) {      // If new disruptor classes available
-                    ProducerType producerType = ProducerType.MULTI;
                     disruptor = new Disruptor<EventExchangeHolder>(
                             new EventExchangeHolderFactory(streamDefinition.getAttributeList().size()),
                             bufferSize, executorService, producerType,
-                            new BlockingWaitStrategy());
+                            createWaitStrategy(waitStrategy));
                     disruptor.handleExceptionsWith(siddhiAppContext.getDisruptorExceptionHandler());
                     break;
                 }
@@ -297,6 +364,32 @@ public class StreamJunction implements EventBufferHolder {
         }
     }
 
+    /**
+     * Create the ring buffer wait strategy by its name. Blocking and sleeping strategies spare the CPU when the
+     * stream is idle, while yielding and busy-spin strategies keep the worker threads running for lower latency.
+     * Phased-backoff spins and then yields for a short while before falling back to blocking.
+     *
+     * @param waitStrategy name of the wait strategy
+     * @return the wait strategy, or null if no such strategy exists
+     */
+    private static WaitStrategy createWaitStrategy(String waitStrategy) {
+        switch (waitStrategy) {
+            case WAIT_STRATEGY_BLOCKING:
+                return new BlockingWaitStrategy();
+            case WAIT_STRATEGY_SLEEPING:
+                return new SleepingWaitStrategy();
+            case WAIT_STRATEGY_YIELDING:
+                return new YieldingWaitStrategy();
+            case WAIT_STRATEGY_BUSY_SPIN:
+                return new BusySpinWaitStrategy();
+            case WAIT_STRATEGY_PHASED_BACKOFF:
+                return PhasedBackoffWaitStrategy.withLock(PHASED_BACKOFF_SPIN_TIMEOUT_MICROS,
+                        PHASED_BACKOFF_YIELD_TIMEOUT_MICROS, TimeUnit.MICROSECONDS);
+            default:
+                return null;
+        }
+    }
+
     public synchronized void stopProcessing() {
         if (disruptor != null) {
             disruptor.shutdown();
@@ -331,6 +424,18 @@ public class StreamJunction implements EventBufferHolder {
         return streamDefinition;
     }
 
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public String getWaitStrategy() {
+        return waitStrategy;
+    }
+
+    public String getProducerType() {
+        return producerType.name().toLowerCase(Locale.ENGLISH);
+    }
+
     @Override
     public long getBufferedEvents() {
         if (disruptor != null) {
@@ -66,6 +66,11 @@ public class InMemorySource extends Source {
                 sourceEventListener.onEvent(event, null);
             }
 
+            @Override
+            public void onMessages(Object[] events) {
+                sourceEventListener.onEvents(events, null);
+            }
+
             @Override
             public String getTopic() {
                 return topic;
@@ -69,10 +69,7 @@ public class InputEventHandler {
                 long currentTimestamp = timestampGenerator.currentTime();
                 event.setTimestamp(currentTimestamp);
             }
-            for (int i = 0; i < transportMapping.size(); i++) {
-                AttributeMapping attributeMapping = transportMapping.get(i);
-                event.getData()[attributeMapping.getPosition()] = transportProperties[i];
-            }
+            applyTransportProperties(event, transportProperties);
             inputEventHandlerCallback.sendEvent(event);
         } catch (RuntimeException e) {
             LOG.error(ExceptionUtil.getMessageWithContext(e, siddhiAppContext) +
@@ -95,10 +92,7 @@ public class InputEventHandler {
                 if (event.getTimestamp() == -1) {
                     event.setTimestamp(currentTimestamp);
                 }
-                for (int i = 0; i < transportMapping.size(); i++) {
-                    AttributeMapping attributeMapping = transportMapping.get(i);
-                    event.getData()[attributeMapping.getPosition()] = transportProperties[i];
-                }
+                applyTransportProperties(event, transportProperties);
             }
             inputEventHandlerCallback.sendEvents(events);
         } catch (RuntimeException e) {
@@ -109,4 +103,40 @@ public class InputEventHandler {
             trpProperties.remove();
         }
     }
+
+    /**
+     * Send the events mapped from a batch of source events, applying the given transport properties to each event
+     * instead of the ones of the source event being mapped. The current time is fetched once for the batch.
+     *
+     * @param events              events to send
+     * @param transportProperties transport properties of each event, or null if there are none
+     * @throws InterruptedException if interrupted while sending the events
+     */
+    public void sendEvents(Event[] events, String[][] transportProperties) throws InterruptedException {
+        try {
+            if (latencyTracker != null && siddhiAppContext.isStatsEnabled()) {
+                latencyTracker.markOut();
+            }
+            long currentTimestamp = timestampGenerator.currentTime();
+            for (int i = 0; i < events.length; i++) {
+                Event event = events[i];
+                if (event.getTimestamp() == -1) {
+                    event.setTimestamp(currentTimestamp);
+                }
+                applyTransportProperties(event, transportProperties != null ? transportProperties[i] : null);
+            }
+            inputEventHandlerCallback.sendEvents(events);
+        } catch (RuntimeException e) {
+            LOG.error(ExceptionUtil.getMessageWithContext(e, siddhiAppContext) +
+                    " Error in applying transport property mapping for '" + sourceType
+                    + "' source at '" + inputHandler.getStreamId() + "' stream.", e);
+        }
+    }
+
+    private void applyTransportProperties(Event event, String[] transportProperties) {
+        for (int i = 0; i < transportMapping.size(); i++) {
+            AttributeMapping attributeMapping = transportMapping.get(i);
+            event.getData()[attributeMapping.getPosition()] = transportProperties[i];
+        }
+    }
 }
@@ -28,6 +28,7 @@ import org.wso2.siddhi.core.util.config.ConfigReader;
 import org.wso2.siddhi.core.util.transport.OptionHolder;
 import org.wso2.siddhi.query.api.definition.StreamDefinition;
 
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -74,6 +75,47 @@ public class PassThroughSourceMapper extends SourceMapper {
         }
     }
 
+    @Override
+    protected void mapAndProcess(Object[] eventObjects, String[][] transportProperties,
+                                 InputEventHandler inputEventHandler) throws InterruptedException {
+        int eventCount = 0;
+        for (Object eventObject : eventObjects) {
+            if (eventObject instanceof Event[]) {
+                eventCount += ((Event[]) eventObject).length;
+            } else if (eventObject != null) {
+                eventCount++;
+            }
+        }
+        if (eventCount == 0) {
+            return;
+        }
+        Event[] events = new Event[eventCount];
+        String[][] eventTransportProperties = transportProperties != null ? new String[eventCount][] : null;
+        int index = 0;
+        for (int i = 0; i < eventObjects.length; i++) {
+            Object eventObject = eventObjects[i];
+            int from = index;
+            if (eventObject == null) {
+                continue;
+            } else if (eventObject instanceof Event[]) {
+                for (Event event : (Event[]) eventObject) {
+                    events[index++] = event;
+                }
+            } else if (eventObject instanceof Event) {
+                events[index++] = (Event) eventObject;
+            } else if (eventObject instanceof Object[]) {
+                events[index++] = new Event(-1, (Object[]) eventObject);
+            } else {
+                throw new SiddhiAppRuntimeException("Event object must be either Event[], Event or Object[] " +
+                        "but found " + eventObject.getClass().getCanonicalName());
+            }
+            if (eventTransportProperties != null) {
+                Arrays.fill(eventTransportProperties, from, index, transportProperties[i]);
+            }
+        }
+        inputEventHandler.sendEvents(events, eventTransportProperties);
+    }
+
     @Override protected boolean allowNullInTransportProperties() {
         return false;
     }
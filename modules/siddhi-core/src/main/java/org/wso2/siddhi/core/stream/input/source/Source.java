@@ -52,6 +52,8 @@ public abstract class Source implements Snapshotable {
     private AtomicBoolean isConnected = new AtomicBoolean(false);
     private ScheduledExecutorService scheduledExecutorService;
     private ConnectionCallback connectionCallback = new ConnectionCallback();
+    private final Object pauseLock = new Object();
+    private int pauseRequests = 0;
 
     public final void init(String sourceType, OptionHolder transportOptionHolder, SourceMapper sourceMapper,
                            String[] transportPropertyNames, ConfigReader configReader, String mapType,
@@ -152,6 +154,40 @@ public abstract class Source implements Snapshotable {
         }
     }
 
+    /**
+     * Pause event consumption on behalf of one of the parties requiring the source to be paused, such as snapshots
+     * and flow control. The source is paused on the first request and stays paused until all the requests are
+     * released through {@link #releaseFlowControlPause()}.
+     */
+    public void requestFlowControlPause() {
+        synchronized (pauseLock) {
+            if (pauseRequests++ == 0) {
+                pause();
+            }
+        }
+    }
+
+    /**
+     * Release a pause requested through {@link #requestFlowControlPause()}, resuming event consumption once no other
+     * pause requests are pending.
+     */
+    public void releaseFlowControlPause() {
+        synchronized (pauseLock) {
+            if (pauseRequests > 0 && --pauseRequests == 0) {
+                resume();
+            }
+        }
+    }
+
+    /**
+     * @return whether any pause requested through {@link #requestFlowControlPause()} is pending
+     */
+    public boolean isFlowControlPaused() {
+        synchronized (pauseLock) {
+            return pauseRequests > 0;
+        }
+    }
+
     public final SourceMapper getMapper() {
         return mapper;
     }
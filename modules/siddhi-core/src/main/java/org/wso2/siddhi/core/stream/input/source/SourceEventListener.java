@@ -29,4 +29,18 @@ public interface SourceEventListener {
     StreamDefinition getStreamDefinition();
 
     void onEvent(Object eventObject, String[] transportProperties);
+
+    /**
+     * Receive a batch of events consumed by the source together. Sources receiving events in batches should prefer
+     * this over calling {@link #onEvent(Object, String[])} per event, such that the batch is mapped and sent for
+     * processing together.
+     *
+     * @param eventObjects        events
+     * @param transportProperties transport properties of each event, or null if there are none
+     */
+    default void onEvents(Object[] eventObjects, String[][] transportProperties) {
+        for (int i = 0; i < eventObjects.length; i++) {
+            onEvent(eventObjects[i], transportProperties != null ? transportProperties[i] : null);
+        }
+    }
 }
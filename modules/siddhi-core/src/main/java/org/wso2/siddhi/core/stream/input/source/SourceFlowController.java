@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.stream.input.source;
+
+import org.apache.log4j.Logger;
+import org.wso2.siddhi.core.config.SiddhiAppContext;
+import org.wso2.siddhi.core.util.SiddhiConstants;
+import org.wso2.siddhi.core.util.parser.helper.QueryParserHelper;
+import org.wso2.siddhi.core.util.statistics.EventBufferHolder;
+import org.wso2.siddhi.core.util.statistics.ThroughputTracker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies backpressure to the {@link Source}s of a Siddhi app based on the occupancy of its event buffers, such as
+ * the ring buffers of async streams and the queues of async sinks. The buffers are checked periodically, and the
+ * sources are paused when any buffer fills above the high watermark, and resumed only when all the buffers drain
+ * below the low watermark, such that the sources do not flap around a single threshold.
+ */
+public class SourceFlowController {
+    private static final Logger log = Logger.getLogger(SourceFlowController.class);
+
+    private final double highWatermark;
+    private final double lowWatermark;
+    private final long checkInterval;
+    private final SiddhiAppContext siddhiAppContext;
+    private final List<MonitoredBuffer> buffers = new ArrayList<>();
+    private final List<Source> sources = new ArrayList<>();
+    private final ThroughputTracker pauseTracker;
+    private ScheduledFuture checkFuture;
+    private boolean paused = false;
+    private long pausedAt;
+    private long pauseCount = 0;
+    private long pausedTime = 0;
+
+    public SourceFlowController(double highWatermark, double lowWatermark, long checkInterval,
+                                SiddhiAppContext siddhiAppContext) {
+        this.highWatermark = highWatermark;
+        this.lowWatermark = lowWatermark;
+        this.checkInterval = checkInterval;
+        this.siddhiAppContext = siddhiAppContext;
+        this.pauseTracker = QueryParserHelper.createThroughputTracker(siddhiAppContext, "backpressure",
+                SiddhiConstants.METRIC_INFIX_SOURCES, "pauses");
+    }
+
+    /**
+     * Monitor the given event buffer.
+     *
+     * @param name              name of the buffer used when logging
+     * @param eventBufferHolder the buffer
+     * @param capacity          number of events the buffer can hold, against which the watermarks are applied
+     */
+    public synchronized void addBuffer(String name, EventBufferHolder eventBufferHolder, long capacity) {
+        if (capacity > 0) {
+            buffers.add(new MonitoredBuffer(name, eventBufferHolder, capacity));
+        }
+    }
+
+    public synchronized void addSource(Source source) {
+        sources.add(source);
+    }
+
+    public synchronized void start() {
+        if (checkFuture == null && !buffers.isEmpty() && !sources.isEmpty()) {
+            checkFuture = siddhiAppContext.getScheduledExecutorService().scheduleWithFixedDelay(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        check();
+                    } catch (Throwable t) {
+                        log.error("Error while checking the event buffers for backpressure on Siddhi App '" +
+                                siddhiAppContext.getName() + "'.", t);
+                    }
+                }
+            }, checkInterval, checkInterval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Stops checking the buffers, resuming the sources if they are paused by this flow controller.
+     */
+    public synchronized void stop() {
+        if (checkFuture != null) {
+            checkFuture.cancel(false);
+            checkFuture = null;
+        }
+        if (paused) {
+            resumeSources();
+        }
+    }
+
+    synchronized void check() {
+        if (checkFuture == null) {
+            return;
+        }
+        if (!paused) {
+            for (MonitoredBuffer buffer : buffers) {
+                double occupancy = buffer.getOccupancy();
+                if (occupancy >= highWatermark) {
+                    if (log.isDebugEnabled()) {
+                        log.debug("Pausing the sources of Siddhi App '" + siddhiAppContext.getName() + "' as the " +
+                                "buffer of '" + buffer.name + "' is " + Math.round(occupancy * 100) + "% full.");
+                    }
+                    pauseSources();
+                    return;
+                }
+            }
+        } else {
+            for (MonitoredBuffer buffer : buffers) {
+                if (buffer.getOccupancy() > lowWatermark) {
+                    return;
+                }
+            }
+            if (log.isDebugEnabled()) {
+                log.debug("Resuming the sources of Siddhi App '" + siddhiAppContext.getName() + "' as all the " +
+                        "buffers are below the low watermark.");
+            }
+            resumeSources();
+        }
+    }
+
+    private void pauseSources() {
+        for (Source source : sources) {
+            source.requestFlowControlPause();
+        }
+        paused = true;
+        pausedAt = System.currentTimeMillis();
+        pauseCount++;
+        if (pauseTracker != null && siddhiAppContext.isStatsEnabled()) {
+            pauseTracker.eventIn();
+        }
+    }
+
+    private void resumeSources() {
+        for (Source source : sources) {
+            source.releaseFlowControlPause();
+        }
+        paused = false;
+        pausedTime += System.currentTimeMillis() - pausedAt;
+    }
+
+    public synchronized boolean isPaused() {
+        return paused;
+    }
+
+    /**
+     * Get the number of times the sources were paused due to backpressure.
+     *
+     * @return number of pauses
+     */
+    public synchronized long getPauseCount() {
+        return pauseCount;
+    }
+
+    /**
+     * Get the total time the sources were paused due to backpressure, including the ongoing pause.
+     *
+     * @return paused time in milliseconds
+     */
+    public synchronized long getPausedTime() {
+        return paused ? pausedTime + System.currentTimeMillis() - pausedAt : pausedTime;
+    }
+
+    public double getHighWatermark() {
+        return highWatermark;
+    }
+
+    public double getLowWatermark() {
+        return lowWatermark;
+    }
+
+    private static class MonitoredBuffer {
+        private final String name;
+        private final EventBufferHolder eventBufferHolder;
+        private final long capacity;
+
+        MonitoredBuffer(String name, EventBufferHolder eventBufferHolder, long capacity) {
+            this.name = name;
+            this.eventBufferHolder = eventBufferHolder;
+            this.capacity = capacity;
+        }
+
+        double getOccupancy() {
+            return (double) eventBufferHolder.getBufferedEvents() / capacity;
+        }
+    }
+}
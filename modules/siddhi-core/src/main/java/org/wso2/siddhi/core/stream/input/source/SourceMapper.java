@@ -29,6 +29,7 @@ import org.wso2.siddhi.core.util.statistics.ThroughputTracker;
 import org.wso2.siddhi.core.util.transport.OptionHolder;
 import org.wso2.siddhi.query.api.definition.StreamDefinition;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -109,19 +110,8 @@ public abstract class SourceMapper implements SourceEventListener {
     public final void onEvent(Object eventObject, String[] transportProperties) {
         try {
             if (eventObject != null) {
-                if (!allowNullInTransportProperties() && transportProperties != null) {
-                    for (String property : transportProperties) {
-                        if (property == null) {
-                            log.error("Dropping event " + eventObject.toString() + " belonging to stream " +
-                                    sourceHandler.getInputHandler().getStreamId()
-                                    + " as it contains null transport properties and system "
-                                    + "is configured to not allow null transport properties. You can "
-                                    + "configure it via source mapper if the respective "
-                                    + "mapper type allows it. Refer mapper documentation to verify "
-                                    + "supportability");
-                            return;
-                        }
-                    }
+                if (isDroppedForNullTransportProperties(eventObject, transportProperties)) {
+                    return;
                 }
                 trpProperties.set(transportProperties);
                 try {
@@ -144,6 +134,69 @@ public abstract class SourceMapper implements SourceEventListener {
         }
     }
 
+    /**
+     * Map and process a batch of events consumed by the source together. Unlike calling
+     * {@link #onEvent(Object, String[])} per event, statistics are tracked once for the batch, and mappers
+     * overriding {@link #mapAndProcess(Object[], String[][], InputEventHandler)} send all the mapped events together.
+     *
+     * @param eventObjects        events
+     * @param transportProperties transport properties of each event, or null if there are none
+     */
+    @Override
+    public final void onEvents(Object[] eventObjects, String[][] transportProperties) {
+        if (eventObjects == null || eventObjects.length == 0) {
+            return;
+        }
+        try {
+            if (!allowNullInTransportProperties() && transportProperties != null) {
+                List<Object> acceptedEventObjects = new ArrayList<>(eventObjects.length);
+                List<String[]> acceptedTransportProperties = new ArrayList<>(eventObjects.length);
+                for (int i = 0; i < eventObjects.length; i++) {
+                    if (!isDroppedForNullTransportProperties(eventObjects[i], transportProperties[i])) {
+                        acceptedEventObjects.add(eventObjects[i]);
+                        acceptedTransportProperties.add(transportProperties[i]);
+                    }
+                }
+                if (acceptedEventObjects.size() < eventObjects.length) {
+                    eventObjects = acceptedEventObjects.toArray();
+                    transportProperties = acceptedTransportProperties.toArray(new String[0][]);
+                }
+            }
+            if (throughputTracker != null && siddhiAppContext.isStatsEnabled()) {
+                throughputTracker.eventsIn(eventObjects.length);
+                mapperLatencyTracker.markIn();
+            }
+            try {
+                mapAndProcess(eventObjects, transportProperties, inputEventHandler);
+            } finally {
+                if (throughputTracker != null && siddhiAppContext.isStatsEnabled()) {
+                    mapperLatencyTracker.markOut();
+                }
+            }
+        } catch (InterruptedException | RuntimeException e) {
+            log.error("Error while processing a batch of " + eventObjects.length + " events, for the input " +
+                    "Mapping '" + mapType + "' for the stream '" + streamDefinition.getId() + "'", e);
+        }
+    }
+
+    private boolean isDroppedForNullTransportProperties(Object eventObject, String[] transportProperties) {
+        if (eventObject != null && !allowNullInTransportProperties() && transportProperties != null) {
+            for (String property : transportProperties) {
+                if (property == null) {
+                    log.error("Dropping event " + eventObject.toString() + " belonging to stream " +
+                            streamDefinition.getId()
+                            + " as it contains null transport properties and system "
+                            + "is configured to not allow null transport properties. You can "
+                            + "configure it via source mapper if the respective "
+                            + "mapper type allows it. Refer mapper documentation to verify "
+                            + "supportability");
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
     public SourceHandler getHandler() {
         return this.sourceHandler;
     }
@@ -163,6 +216,34 @@ public abstract class SourceMapper implements SourceEventListener {
                                           InputEventHandler inputEventHandler)
             throws InterruptedException;
 
+    /**
+     * Method to map a batch of incoming events and pass them via inputEventHandler to process further. By default
+     * each event is mapped through {@link #mapAndProcess(Object, InputEventHandler)}, and mappers that can map the
+     * whole batch should override this to send the mapped events together through
+     * {@link InputEventHandler#sendEvents(org.wso2.siddhi.core.event.Event[], String[][])}.
+     *
+     * @param eventObjects        Incoming event Objects, which may contain nulls
+     * @param transportProperties Transport properties of each event Object, or null if there are none
+     * @param inputEventHandler   Handler to pass the converted Siddhi Events for processing
+     * @throws InterruptedException Throws InterruptedException
+     */
+    protected void mapAndProcess(Object[] eventObjects, String[][] transportProperties,
+                                 InputEventHandler inputEventHandler) throws InterruptedException {
+        for (int i = 0; i < eventObjects.length; i++) {
+            if (eventObjects[i] != null) {
+                trpProperties.set(transportProperties != null ? transportProperties[i] : null);
+                try {
+                    mapAndProcess(eventObjects[i], inputEventHandler);
+                } catch (RuntimeException e) {
+                    log.error("Error while processing '" + eventObjects[i] + "', for the input Mapping '" +
+                            mapType + "' for the stream '" + streamDefinition.getId() + "'");
+                } finally {
+                    trpProperties.remove();
+                }
+            }
+        }
+    }
+
     /**
      * Method used by {@link SourceMapper} to determine on how to handle transport properties with null values. If
      * this returns 'false' then {@link SourceMapper} will drop any event/s with null transport
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.siddhi.core.stream.output;
+
+import org.apache.log4j.Logger;
+import org.wso2.siddhi.core.event.ComplexEvent;
+import org.wso2.siddhi.core.event.Event;
+import org.wso2.siddhi.core.event.EventView;
+
+import java.util.List;
+
+/**
+ * {@link StreamCallback} receiving the events of a stream through an {@link EventView}, without the events being
+ * copied to {@link Event}s. The {@link EventView} is reused across the calls and is only valid during the call of
+ * {@link #receive(EventView)}.
+ */
+public abstract class BatchedStreamCallback extends StreamCallback {
+
+    private static final Logger log = Logger.getLogger(BatchedStreamCallback.class);
+
+    private final ThreadLocal<EventView> eventViewThreadLocal = ThreadLocal.withInitial(EventView::new);
+
+    @Override
+    public void receive(ComplexEvent complexEvent) {
+        EventView eventView = getEventView();
+        eventView.reset(complexEvent, null);
+        send(eventView);
+    }
+
+    @Override
+    public void receive(Event event) {
+        EventView eventView = getEventView();
+        eventView.reset(event);
+        send(eventView);
+    }
+
+    @Override
+    public void receive(List<Event> events) {
+        EventView eventView = getEventView();
+        eventView.reset(events);
+        send(eventView);
+    }
+
+    @Override
+    public final void receive(Event[] events) {
+        EventView eventView = getEventView();
+        eventView.reset(events);
+        send(eventView);
+    }
+
+    @Override
+    public void receiveEvents(Event[] events) {
+        receive(events);
+    }
+
+    private EventView getEventView() {
+        EventView eventView = eventViewThreadLocal.get();
+        if (eventView.isActive()) {
+            // The callback is re-entered by the same thread while processing events
+            return new EventView();
+        }
+        return eventView;
+    }
+
+    private void send(EventView eventView) {
+        try {
+            receive(eventView);
+        } catch (RuntimeException e) {
+            log.error("Error on sending events " + eventView + " of stream '" + getStreamId() + "'", e);
+        } finally {
+            eventView.clear();
+        }
+    }
+
+    /**
+     * Called with the events of the stream.
+     *
+     * @param events view of the events, only valid during this call
+     */
+    public abstract void receive(EventView events);
+}
@@ -24,7 +24,6 @@ import org.wso2.siddhi.core.event.Event;
 import org.wso2.siddhi.core.stream.StreamJunction;
 import org.wso2.siddhi.query.api.definition.AbstractDefinition;
 
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -63,16 +62,20 @@ public abstract class StreamCallback implements StreamJunction.Receiver {
 
     @Override
     public void receive(ComplexEvent complexEvent) {
-        List<Event> eventBuffer = new ArrayList<Event>();
-        while (complexEvent != null) {
-            eventBuffer.add(new Event(complexEvent.getOutputData().length).copyFrom(complexEvent));
-            complexEvent = complexEvent.getNext();
+        if (complexEvent != null && complexEvent.getNext() == null) {
+            receive(new Event(complexEvent.getOutputData().length).copyFrom(complexEvent));
+            return;
+        }
+        int size = 0;
+        for (ComplexEvent event = complexEvent; event != null; event = event.getNext()) {
+            size++;
         }
-        if (eventBuffer.size() == 1) {
-            receive(eventBuffer.get(0));
-        } else {
-            receiveEvents(eventBuffer.toArray(new Event[eventBuffer.size()]));
+        Event[] events = new Event[size];
+        for (int i = 0; i < size; i++) {
+            events[i] = new Event(complexEvent.getOutputData().length).copyFrom(complexEvent);
+            complexEvent = complexEvent.getNext();
         }
+        receiveEvents(events);
     }
 
     @Override
@@ -0,0 +1,353 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.siddhi.core.stream.output.sink;
+
+import org.apache.log4j.Logger;
+import org.wso2.siddhi.core.config.SiddhiAppContext;
+import org.wso2.siddhi.core.event.Event;
+import org.wso2.siddhi.core.exception.SiddhiAppRuntimeException;
+import org.wso2.siddhi.core.util.ExceptionUtil;
+import org.wso2.siddhi.core.util.extension.holder.EternalReferencedHolder;
+import org.wso2.siddhi.core.util.snapshot.ByteSerializer;
+import org.wso2.siddhi.core.util.statistics.EventBufferHolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes the events of a {@link Sink} asynchronously. Events are buffered in a bounded queue and are mapped and
+ * published in batches by dedicated worker threads, such that a slow or unavailable endpoint does not stall the
+ * queries sending events to the stream. When the buffer is full the configured {@link OverflowPolicy} is applied.
+ */
+public class AsyncSinkPublisher implements EternalReferencedHolder, EventBufferHolder {
+    private static final Logger log = Logger.getLogger(AsyncSinkPublisher.class);
+    private static final long POLL_INTERVAL_MILLIS = 100;
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 5000;
+
+    private final Sink sink;
+    private final int bufferSize;
+    private final int workers;
+    private final int batchSize;
+    private final long flushInterval;
+    private final OverflowPolicy overflowPolicy;
+    private final File spillDirectory;
+    private final SiddhiAppContext siddhiAppContext;
+    private final ArrayBlockingQueue<Event> eventQueue;
+    private final AtomicLong droppedEvents = new AtomicLong(0);
+    private final Object spillLock = new Object();
+    private volatile boolean running = false;
+    private final AtomicLong spilledEvents = new AtomicLong(0);
+    private volatile boolean overflowLogged = false;
+    private File spillFile;
+    private RandomAccessFile spillStore;
+    private long spillReadPosition = 0;
+    private CountDownLatch workersStopped;
+
+    public AsyncSinkPublisher(Sink sink, int bufferSize, int batchSize, long flushInterval, int workers,
+                              OverflowPolicy overflowPolicy, File spillDirectory, SiddhiAppContext siddhiAppContext) {
+        this.sink = sink;
+        this.bufferSize = bufferSize;
+        this.batchSize = batchSize;
+        this.flushInterval = flushInterval;
+        this.workers = workers;
+        this.overflowPolicy = overflowPolicy;
+        this.spillDirectory = spillDirectory;
+        this.siddhiAppContext = siddhiAppContext;
+        this.eventQueue = new ArrayBlockingQueue<>(bufferSize);
+    }
+
+    public void send(Event event) {
+        switch (overflowPolicy) {
+            case BLOCK:
+                try {
+                    // Senders waiting on a full buffer give up once the publisher is stopped, as the workers are gone
+                    while (!eventQueue.offer(event, POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS)) {
+                        if (!running) {
+                            droppedEvents.incrementAndGet();
+                            log.error("Sink '" + sink.getType() + "' at '" + sink.getStreamDefinition().getId() +
+                                    "' on Siddhi App '" + siddhiAppContext.getName() + "' is stopped, hence " +
+                                    "dropping event " + event + ".");
+                            return;
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new SiddhiAppRuntimeException("Interrupted while waiting to buffer event " + event +
+                            " at Sink '" + sink.getType() + "' at '" + sink.getStreamDefinition().getId() + "'.", e);
+                }
+                break;
+            case DROP_OLDEST:
+                while (!eventQueue.offer(event)) {
+                    Event droppedEvent = eventQueue.poll();
+                    if (droppedEvent != null) {
+                        onDrop(droppedEvent);
+                    }
+                }
+                break;
+            case SPILL:
+                synchronized (spillLock) {
+                    // Once events are spilled, later events are also spilled to preserve the order of events
+                    if (spilledEvents.get() > 0 || !eventQueue.offer(event)) {
+                        spill(event);
+                    }
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    public void send(Event[] events) {
+        for (Event event : events) {
+            send(event);
+        }
+    }
+
+    private void onDrop(Event event) {
+        long dropped = droppedEvents.incrementAndGet();
+        if (!overflowLogged) {
+            overflowLogged = true;
+            log.warn("Buffer of Sink '" + sink.getType() + "' at '" + sink.getStreamDefinition().getId() +
+                    "' on Siddhi App '" + siddhiAppContext.getName() + "' is full, hence dropping the oldest " +
+                    "events. Total of " + dropped + " events dropped so far.");
+        } else if (log.isDebugEnabled()) {
+            log.debug("Dropped event " + event + " at Sink '" + sink.getType() + "' at '" +
+                    sink.getStreamDefinition().getId() + "'.");
+        }
+    }
+
+    private void spill(Event event) {
+        try {
+            if (spillStore == null) {
+                spillFile = File.createTempFile("siddhi-" + siddhiAppContext.getName() + "-" +
+                        sink.getStreamDefinition().getId() + "-", ".spill", spillDirectory);
+                spillFile.deleteOnExit();
+                spillStore = new RandomAccessFile(spillFile, "rw");
+                spillReadPosition = 0;
+                log.warn("Buffer of Sink '" + sink.getType() + "' at '" + sink.getStreamDefinition().getId() +
+                        "' on Siddhi App '" + siddhiAppContext.getName() + "' is full, hence spilling events to '" +
+                        spillFile.getPath() + "'.");
+            }
+            byte[] data = ByteSerializer.objectToByte(event.getData(), siddhiAppContext);
+            spillStore.seek(spillStore.length());
+            spillStore.writeLong(event.getTimestamp());
+            spillStore.writeBoolean(event.isExpired());
+            spillStore.writeInt(data.length);
+            spillStore.write(data);
+            spilledEvents.incrementAndGet();
+        } catch (IOException | RuntimeException e) {
+            onDrop(event);
+            log.error(ExceptionUtil.getMessageWithContext(e, siddhiAppContext) + " Error while spilling event " +
+                    event + " at Sink '" + sink.getType() + "' at '" + sink.getStreamDefinition().getId() + "'.", e);
+        }
+    }
+
+    /**
+     * Moves the spilled events back to the buffer, as much as the buffer can hold.
+     */
+    private void unspill() {
+        synchronized (spillLock) {
+            try {
+                while (spilledEvents.get() > 0 && eventQueue.remainingCapacity() > 0) {
+                    spillStore.seek(spillReadPosition);
+                    long timestamp = spillStore.readLong();
+                    boolean isExpired = spillStore.readBoolean();
+                    byte[] data = new byte[spillStore.readInt()];
+                    spillStore.readFully(data);
+                    spillReadPosition = spillStore.getFilePointer();
+                    spilledEvents.decrementAndGet();
+                    Event event = new Event(timestamp, (Object[]) ByteSerializer.byteToObject(data,
+                            siddhiAppContext));
+                    event.setIsExpired(isExpired);
+                    eventQueue.add(event);
+                }
+            } catch (IOException | RuntimeException e) {
+                log.error(ExceptionUtil.getMessageWithContext(e, siddhiAppContext) + " Error while reading " +
+                        "spilled events at Sink '" + sink.getType() + "' at '" + sink.getStreamDefinition().getId() +
+                        "', dropping " + spilledEvents.get() + " spilled events.", e);
+                droppedEvents.addAndGet(spilledEvents.getAndSet(0));
+            }
+            if (spilledEvents.get() == 0) {
+                closeSpillStore();
+            }
+        }
+    }
+
+    private void closeSpillStore() {
+        if (spillStore != null) {
+            try {
+                spillStore.close();
+            } catch (IOException e) {
+                log.error("Error while closing spill file '" + spillFile.getPath() + "' of Sink '" +
+                        sink.getType() + "' at '" + sink.getStreamDefinition().getId() + "'.", e);
+            }
+            if (!spillFile.delete()) {
+                log.warn("Cannot delete spill file '" + spillFile.getPath() + "' of Sink '" + sink.getType() +
+                        "' at '" + sink.getStreamDefinition().getId() + "'.");
+            }
+            spillStore = null;
+            spillFile = null;
+        }
+    }
+
+    private void publish(List<Event> events) {
+        Event[] eventArray = events.toArray(new Event[events.size()]);
+        try {
+            if (sink.getHandler() != null) {
+                sink.getHandler().handle(eventArray);
+            } else {
+                sink.getMapper().mapAndSend(eventArray);
+            }
+        } catch (Throwable t) {
+            log.error(ExceptionUtil.getMessageWithContext(t, siddhiAppContext) + " Error while publishing " +
+                    events.size() + " events at Sink '" + sink.getType() + "' at '" +
+                    sink.getStreamDefinition().getId() + "'.", t);
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+        if (!running) {
+            running = true;
+            workersStopped = new CountDownLatch(workers);
+            for (int i = 0; i < workers; i++) {
+                siddhiAppContext.getExecutorService().execute(new Worker(workersStopped));
+            }
+        }
+    }
+
+    /**
+     * Stops accepting new work after the buffered events are published, waiting a bounded time for the workers.
+     */
+    @Override
+    public synchronized void stop() {
+        if (running) {
+            running = false;
+            try {
+                if (!workersStopped.await(SHUTDOWN_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                    log.warn("Workers of Sink '" + sink.getType() + "' at '" + sink.getStreamDefinition().getId() +
+                            "' on Siddhi App '" + siddhiAppContext.getName() + "' did not publish the " +
+                            getBufferedEvents() + " buffered events within " + SHUTDOWN_TIMEOUT_MILLIS + " ms.");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public long getBufferedEvents() {
+        return eventQueue.size() + spilledEvents.get();
+    }
+
+    @Override
+    public boolean containsBufferedEvents() {
+        return true;
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public long getDroppedEvents() {
+        return droppedEvents.get();
+    }
+
+    /**
+     * Overflow policies applied when the buffer of the {@link AsyncSinkPublisher} is full.
+     */
+    public enum OverflowPolicy {
+        BLOCK, DROP_OLDEST, SPILL;
+
+        public static OverflowPolicy fromName(String name) {
+            switch (name.toLowerCase(Locale.ENGLISH)) {
+                case "block":
+                    return BLOCK;
+                case "drop-oldest":
+                    return DROP_OLDEST;
+                case "spill":
+                    return SPILL;
+                default:
+                    return null;
+            }
+        }
+    }
+
+    /**
+     * Worker taking batches of events from the buffer and publishing them via the sink.
+     */
+    private class Worker implements Runnable {
+        private final CountDownLatch workersStopped;
+
+        Worker(CountDownLatch workersStopped) {
+            this.workersStopped = workersStopped;
+        }
+
+        @Override
+        public void run() {
+            List<Event> batch = new ArrayList<>(Math.min(batchSize, eventQueue.remainingCapacity()));
+            try {
+                while (running || !eventQueue.isEmpty() || spilledEvents.get() > 0) {
+                    if (spilledEvents.get() > 0) {
+                        unspill();
+                    }
+                    Event event = eventQueue.poll(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+                    if (event == null) {
+                        continue;
+                    }
+                    batch.add(event);
+                    eventQueue.drainTo(batch, batchSize - batch.size());
+                    if (flushInterval > 0) {
+                        // Wait for the batch to fill until the flush interval elapses, polling in short
+                        // intervals to notice the publisher getting stopped
+                        long flushTime = System.currentTimeMillis() + flushInterval;
+                        long waitTime = flushInterval;
+                        while (batch.size() < batchSize && waitTime > 0 && running) {
+                            event = eventQueue.poll(Math.min(waitTime, POLL_INTERVAL_MILLIS),
+                                    TimeUnit.MILLISECONDS);
+                            if (event != null) {
+                                batch.add(event);
+                                eventQueue.drainTo(batch, batchSize - batch.size());
+                            }
+                            waitTime = flushTime - System.currentTimeMillis();
+                        }
+                    }
+                    publish(batch);
+                    batch.clear();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.error("Worker of Sink '" + sink.getType() + "' at '" + sink.getStreamDefinition().getId() +
+                        "' on Siddhi App '" + siddhiAppContext.getName() + "' got interrupted, dropping " +
+                        (batch.size() + getBufferedEvents()) + " buffered events.", e);
+            } finally {
+                workersStopped.countDown();
+            }
+        }
+    }
+}
@@ -61,6 +61,7 @@ public abstract class Sink implements SinkListener, Snapshotable {
     private ScheduledExecutorService scheduledExecutorService;
     private ThroughputTracker throughputTracker;
     private LatencyTracker mapperLatencyTracker;
+    private AsyncSinkPublisher asyncSinkPublisher;
 
     public final void init(StreamDefinition streamDefinition, String type, OptionHolder transportOptionHolder,
                            ConfigReader sinkConfigReader, SinkMapper sinkMapper, String mapType,
@@ -193,6 +194,14 @@ public abstract class Sink implements SinkListener, Snapshotable {
         return handler;
     }
 
+    public final AsyncSinkPublisher getAsyncSinkPublisher() {
+        return asyncSinkPublisher;
+    }
+
+    public final void setAsyncSinkPublisher(AsyncSinkPublisher asyncSinkPublisher) {
+        this.asyncSinkPublisher = asyncSinkPublisher;
+    }
+
     public void connectWithRetry() {
         if (!isConnected.get()) {
             isTryingToConnect.set(true);
@@ -226,6 +235,9 @@ public abstract class Sink implements SinkListener, Snapshotable {
     }
 
     public void shutdown() {
+        if (asyncSinkPublisher != null) {
+            asyncSinkPublisher.stop();
+        }
         disconnect();
         destroy();
         isConnected.set(false);
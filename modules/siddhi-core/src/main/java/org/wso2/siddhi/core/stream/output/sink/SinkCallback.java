@@ -48,7 +48,9 @@ public class SinkCallback extends StreamCallback {
     public void receive(Event event) {
         if (event != null) {
             for (Sink sink : sinks) {
-                if (sink.getHandler() != null) {
+                if (sink.getAsyncSinkPublisher() != null) {
+                    sink.getAsyncSinkPublisher().send(event);
+                } else if (sink.getHandler() != null) {
                     sink.getHandler().handle(event);
                 } else {
                     sink.getMapper().mapAndSend(event);
@@ -61,7 +63,9 @@ public class SinkCallback extends StreamCallback {
     public void receive(Event[] events) {
         if (events != null) {
             for (Sink sink : sinks) {
-                if (sink.getHandler() != null) {
+                if (sink.getAsyncSinkPublisher() != null) {
+                    sink.getAsyncSinkPublisher().send(events);
+                } else if (sink.getHandler() != null) {
                     sink.getHandler().handle(events);
                 } else {
                     sink.getMapper().mapAndSend(events);
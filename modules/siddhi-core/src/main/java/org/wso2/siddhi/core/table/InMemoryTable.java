@@ -25,38 +25,54 @@ import org.wso2.siddhi.core.event.stream.StreamEvent;
 import org.wso2.siddhi.core.event.stream.StreamEventCloner;
 import org.wso2.siddhi.core.event.stream.StreamEventPool;
 import org.wso2.siddhi.core.exception.ConnectionUnavailableException;
+import org.wso2.siddhi.core.exception.SiddhiAppCreationException;
 import org.wso2.siddhi.core.executor.ExpressionExecutor;
 import org.wso2.siddhi.core.executor.VariableExpressionExecutor;
 import org.wso2.siddhi.core.table.holder.EventHolder;
 import org.wso2.siddhi.core.table.record.RecordTableHandler;
+import org.wso2.siddhi.core.util.SiddhiConstants;
 import org.wso2.siddhi.core.util.collection.AddingStreamEventExtractor;
 import org.wso2.siddhi.core.util.collection.operator.CompiledCondition;
 import org.wso2.siddhi.core.util.collection.operator.MatchingMetaInfoHolder;
 import org.wso2.siddhi.core.util.collection.operator.Operator;
+import org.wso2.siddhi.core.util.collection.operator.OverwriteTableIndexOperator;
 import org.wso2.siddhi.core.util.config.ConfigReader;
 import org.wso2.siddhi.core.util.parser.EventHolderPasser;
 import org.wso2.siddhi.core.util.parser.ExpressionParser;
 import org.wso2.siddhi.core.util.parser.OperatorParser;
 import org.wso2.siddhi.core.util.snapshot.Snapshotable;
 import org.wso2.siddhi.core.util.snapshot.state.SnapshotStateList;
+import org.wso2.siddhi.query.api.annotation.Annotation;
 import org.wso2.siddhi.query.api.definition.TableDefinition;
 import org.wso2.siddhi.query.api.execution.query.output.stream.UpdateSet;
 import org.wso2.siddhi.query.api.expression.Expression;
+import org.wso2.siddhi.query.api.util.AnnotationHelper;
 
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
 
 /**
  * In-memory event table implementation of SiddhiQL.
+ * <p>
+ * Table operations are guarded by a read write lock by default. When the table is annotated with
+ * {@code @Concurrency(type='optimistic')} the operations are guarded by a {@link StampedLock} instead, where
+ * {@link #find(CompiledCondition, StateEvent)} and {@link #contains(StateEvent, CompiledCondition)} on the primary key
+ * first run without acquiring the lock and only retry under the read lock when a write happened during the read.
+ * Other reads traverse the event holder structures, which are not safe to traverse while being modified, hence they
+ * always run under the read lock.
  */
 public class InMemoryTable extends Table implements Snapshotable {
 
     private TableDefinition tableDefinition;
     private StreamEventCloner tableStreamEventCloner;
     private ReadWriteLock readWriteLock = new ReentrantReadWriteLock();
+    private StampedLock stampedLock;
+    private volatile Thread writingThread;
     private EventHolder eventHolder;
     private String elementId;
 
@@ -68,7 +84,10 @@ public class InMemoryTable extends Table implements Snapshotable {
         this.tableDefinition = tableDefinition;
         this.tableStreamEventCloner = storeEventCloner;
 
-        eventHolder = EventHolderPasser.parse(tableDefinition, storeEventPool, siddhiAppContext);
+        eventHolder = createEventHolder(tableDefinition, storeEventPool, siddhiAppContext);
+        if (isOptimistic(tableDefinition, siddhiAppContext)) {
+            stampedLock = new StampedLock();
+        }
 
         if (elementId == null) {
             elementId = "InMemoryTable-" + siddhiAppContext.getElementIdGenerator().createNewId();
@@ -76,6 +95,28 @@ public class InMemoryTable extends Table implements Snapshotable {
         siddhiAppContext.getSnapshotService().addSnapshotable(tableDefinition.getId(), this);
     }
 
+    private static boolean isOptimistic(TableDefinition tableDefinition, SiddhiAppContext siddhiAppContext) {
+        Annotation annotation = AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_CONCURRENCY,
+                tableDefinition.getAnnotations());
+        if (annotation == null) {
+            return false;
+        }
+        String type = annotation.getElement(SiddhiConstants.ANNOTATION_ELEMENT_TYPE);
+        if (type == null || type.equalsIgnoreCase("lock")) {
+            return false;
+        } else if (type.equalsIgnoreCase("optimistic")) {
+            return true;
+        }
+        throw new SiddhiAppCreationException("Unsupported concurrency type '" + type + "' at table '" +
+                tableDefinition.getId() + "', supported types are 'lock' and 'optimistic'",
+                annotation, siddhiAppContext);
+    }
+
+    protected EventHolder createEventHolder(TableDefinition tableDefinition, StreamEventPool storeEventPool,
+                                            SiddhiAppContext siddhiAppContext) {
+        return EventHolderPasser.parse(tableDefinition, storeEventPool, siddhiAppContext);
+    }
+
     @Override
     public TableDefinition getTableDefinition() {
         return tableDefinition;
@@ -83,36 +124,19 @@ public class InMemoryTable extends Table implements Snapshotable {
 
     @Override
     public void add(ComplexEventChunk<StreamEvent> addingEventChunk) {
-        try {
-            readWriteLock.writeLock().lock();
-            eventHolder.add(addingEventChunk);
-        } finally {
-            readWriteLock.writeLock().unlock();
-        }
-
+        write(() -> eventHolder.add(addingEventChunk));
     }
 
     @Override
     public void delete(ComplexEventChunk<StateEvent> deletingEventChunk, CompiledCondition compiledCondition) {
-        try {
-            readWriteLock.writeLock().lock();
-            ((Operator) compiledCondition).delete(deletingEventChunk, eventHolder);
-        } finally {
-            readWriteLock.writeLock().unlock();
-        }
+        write(() -> ((Operator) compiledCondition).delete(deletingEventChunk, eventHolder));
     }
 
     @Override
     public void update(ComplexEventChunk<StateEvent> updatingEventChunk, CompiledCondition compiledCondition,
                        CompiledUpdateSet compiledUpdateSet) {
-        try {
-            readWriteLock.writeLock().lock();
-            ((Operator) compiledCondition).update(updatingEventChunk, eventHolder,
-                    (InMemoryCompiledUpdateSet) compiledUpdateSet);
-        } finally {
-            readWriteLock.writeLock().unlock();
-        }
-
+        write(() -> ((Operator) compiledCondition).update(updatingEventChunk, eventHolder,
+                (InMemoryCompiledUpdateSet) compiledUpdateSet));
     }
 
     @Override
@@ -120,8 +144,7 @@ public class InMemoryTable extends Table implements Snapshotable {
                             CompiledCondition compiledCondition,
                             CompiledUpdateSet compiledUpdateSet,
                             AddingStreamEventExtractor addingStreamEventExtractor) {
-        try {
-            readWriteLock.writeLock().lock();
+        write(() -> {
             ComplexEventChunk<StreamEvent> failedEvents = ((Operator) compiledCondition).tryUpdate(
                     updateOrAddingEventChunk,
                     eventHolder,
@@ -130,21 +153,13 @@ public class InMemoryTable extends Table implements Snapshotable {
             if (failedEvents != null) {
                 eventHolder.add(failedEvents);
             }
-        } finally {
-            readWriteLock.writeLock().unlock();
-        }
-
+        });
     }
 
     @Override
     public boolean contains(StateEvent matchingEvent, CompiledCondition compiledCondition) {
-        try {
-            readWriteLock.readLock().lock();
-            return ((Operator) compiledCondition).contains(matchingEvent, eventHolder);
-        } finally {
-            readWriteLock.readLock().unlock();
-        }
-
+        return read(() -> ((Operator) compiledCondition).contains(matchingEvent, eventHolder),
+                isPrimaryKeyLookup(compiledCondition));
     }
 
     @Override
@@ -164,11 +179,67 @@ public class InMemoryTable extends Table implements Snapshotable {
 
     @Override
     public StreamEvent find(CompiledCondition compiledCondition, StateEvent matchingEvent) {
+        return read(() -> ((Operator) compiledCondition).find(matchingEvent, eventHolder, tableStreamEventCloner),
+                isPrimaryKeyLookup(compiledCondition));
+    }
+
+    private void write(Runnable writer) {
+        if (stampedLock == null) {
+            try {
+                readWriteLock.writeLock().lock();
+                writer.run();
+            } finally {
+                readWriteLock.writeLock().unlock();
+            }
+        } else if (writingThread == Thread.currentThread()) {
+            // StampedLock is not reentrant
+            writer.run();
+        } else {
+            long stamp = stampedLock.writeLock();
+            try {
+                writingThread = Thread.currentThread();
+                writer.run();
+            } finally {
+                writingThread = null;
+                stampedLock.unlockWrite(stamp);
+            }
+        }
+    }
+
+    private static boolean isPrimaryKeyLookup(CompiledCondition compiledCondition) {
+        // Conditions matching all the primary key attributes by equality are compiled into overwriting operators
+        return compiledCondition instanceof OverwriteTableIndexOperator;
+    }
+
+    private <T> T read(Supplier<T> reader, boolean optimistic) {
+        if (stampedLock == null) {
+            try {
+                readWriteLock.readLock().lock();
+                return reader.get();
+            } finally {
+                readWriteLock.readLock().unlock();
+            }
+        }
+        if (writingThread == Thread.currentThread()) {
+            // Conditions of a write operation reading the same table
+            return reader.get();
+        }
+        long stamp = optimistic ? stampedLock.tryOptimisticRead() : 0;
+        if (stamp != 0) {
+            try {
+                T result = reader.get();
+                if (stampedLock.validate(stamp)) {
+                    return result;
+                }
+            } catch (RuntimeException e) {
+                // The primary key lookup saw a partially modified map, hence it is retried under the read lock
+            }
+        }
+        stamp = stampedLock.readLock();
         try {
-            readWriteLock.readLock().lock();
-            return ((Operator) compiledCondition).find(matchingEvent, eventHolder, tableStreamEventCloner);
+            return reader.get();
         } finally {
-            readWriteLock.readLock().unlock();
+            stampedLock.unlockRead(stamp);
         }
     }
 
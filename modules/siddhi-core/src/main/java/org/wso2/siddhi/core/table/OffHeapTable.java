@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.siddhi.core.table;
+
+import org.wso2.siddhi.annotation.Example;
+import org.wso2.siddhi.annotation.Extension;
+import org.wso2.siddhi.core.config.SiddhiAppContext;
+import org.wso2.siddhi.core.event.stream.StreamEventPool;
+import org.wso2.siddhi.core.table.holder.EventHolder;
+import org.wso2.siddhi.core.util.parser.EventHolderPasser;
+import org.wso2.siddhi.query.api.definition.TableDefinition;
+
+/**
+ * In-memory event table implementation which keeps its events outside the Java heap. Fixed width attributes are
+ * stored in off-heap columnar buffers and string attributes are stored as codes of a string dictionary, while
+ * primary keys and indexes are supported the same way as the default in-memory table.
+ */
+@Extension(
+        name = "offheap",
+        namespace = "store",
+        description = "In-memory table keeping its events in off-heap columnar buffers, to support holding a large " +
+                "number of events without increasing the heap usage and the garbage collection pauses. " +
+                "Attributes of type 'int', 'long', 'float', 'double' and 'bool' are stored off-heap, and " +
+                "attributes of type 'string' are stored off-heap as codes of a dictionary holding the distinct " +
+                "string values. Attributes of type 'object' are kept on heap. The table supports the same " +
+                "operations, @PrimaryKey and @Index annotations as the default in-memory table.",
+        examples = {
+                @Example(
+                        syntax = "@store(type='offheap')\n" +
+                                "@PrimaryKey('symbol')\n" +
+                                "define table StockTable (symbol string, price float, volume long);",
+                        description = "Defines an in-memory table holding its events off-heap, having 'symbol' " +
+                                "as its primary key."
+                )
+        }
+)
+public class OffHeapTable extends InMemoryTable {
+
+    @Override
+    protected EventHolder createEventHolder(TableDefinition tableDefinition, StreamEventPool storeEventPool,
+                                            SiddhiAppContext siddhiAppContext) {
+        return EventHolderPasser.parseOffHeap(tableDefinition, siddhiAppContext);
+    }
+}
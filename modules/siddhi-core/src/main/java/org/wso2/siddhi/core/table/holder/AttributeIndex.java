@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.siddhi.core.table.holder;
+
+import org.wso2.siddhi.core.event.stream.StreamEvent;
+import org.wso2.siddhi.core.exception.OperationNotSupportedException;
+import org.wso2.siddhi.query.api.definition.Attribute;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+
+/**
+ * Index of the events of an {@link IndexEventHolder} by the values of one of their attributes. Sorted indexes
+ * support both equality and range lookups, while hash indexes only support equality lookups in constant time.
+ */
+public abstract class AttributeIndex implements Serializable {
+
+    private static final long serialVersionUID = 2616411573458376208L;
+
+    /**
+     * Kinds of the indexes selectable through the type element of the @Index annotation.
+     */
+    public enum Type {
+        SORTED, HASH
+    }
+
+    /**
+     * Creates an empty index.
+     *
+     * @param type          kind of the index
+     * @param attributeType type of the indexed attribute
+     * @return the index
+     */
+    public static AttributeIndex create(Type type, Attribute.Type attributeType) {
+        if (type == Type.HASH) {
+            if (attributeType == Attribute.Type.INT || attributeType == Attribute.Type.LONG) {
+                return new PrimitiveHashAttributeIndex(attributeType);
+            }
+            return new HashAttributeIndex(attributeType);
+        }
+        return new SortedAttributeIndex(attributeType);
+    }
+
+    public abstract Type getType();
+
+    public abstract Attribute.Type getAttributeType();
+
+    public abstract Set<StreamEvent> get(Object key);
+
+    public abstract void put(Object key, Set<StreamEvent> events);
+
+    public abstract Set<StreamEvent> remove(Object key);
+
+    public abstract int size();
+
+    public abstract void clear();
+
+    public abstract Collection<Set<StreamEvent>> values();
+
+    /**
+     * Returns the content of the index as a map, for iterating over the keys and for serializing the index.
+     *
+     * @return map of events by their attribute values
+     */
+    public abstract Map<Object, Set<StreamEvent>> asMap();
+
+    public boolean isSorted() {
+        return false;
+    }
+
+    /**
+     * Returns the sorted view of the index used for range lookups.
+     *
+     * @return events by their attribute values in ascending order
+     */
+    public NavigableMap<Object, Set<StreamEvent>> getSortedData() {
+        throw new OperationNotSupportedException("Range lookups are not supported by the " +
+                getType().name().toLowerCase() + " index");
+    }
+
+    public void putAll(Map<Object, Set<StreamEvent>> events) {
+        for (Map.Entry<Object, Set<StreamEvent>> entry : events.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.table.holder;
+
+import org.wso2.siddhi.query.api.definition.Attribute;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.function.UnaryOperator;
+
+/**
+ * Snapshot of the rows of a {@link ColumnarRowStore}. The snapshot holds an off-heap copy of the store, and the rows
+ * are streamed from its columns when the snapshot is serialized, hence the rows are never copied onto the heap as a
+ * whole.
+ */
+public class ColumnarRowSnapshot implements Serializable {
+
+    private static final long serialVersionUID = 4409357716935452571L;
+    private transient ColumnarRowStore rowStore;
+
+    ColumnarRowSnapshot(ColumnarRowStore rowStore) {
+        this.rowStore = rowStore;
+    }
+
+    ColumnarRowStore getRowStore() {
+        return rowStore;
+    }
+
+    /**
+     * Creates a copy of the snapshot that does not share its rows with this snapshot.
+     *
+     * @param objectCopier copier applied to the values of the object attributes
+     * @return the copied snapshot
+     */
+    public ColumnarRowSnapshot copy(UnaryOperator<Object> objectCopier) {
+        return new ColumnarRowSnapshot(rowStore.copy(objectCopier));
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        out.writeObject(rowStore.getTypes());
+        rowStore.writeRows(out);
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        rowStore = new ColumnarRowStore((Attribute.Type[]) in.readObject());
+        rowStore.readRows(in);
+    }
+}
@@ -0,0 +1,511 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.table.holder;
+
+import org.wso2.siddhi.query.api.definition.Attribute;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+/**
+ * Columnar row store keeping the attribute values of its rows outside the Java heap. Each fixed width attribute is
+ * kept in its own direct buffer, string attributes are kept as codes of a reference counted dictionary, and only the
+ * attributes of type object are kept on heap. Rows are addressed by their row id and the ids of the removed rows are
+ * reused. Each row id carries a generation which is incremented when the row is removed, such that the holders of a
+ * stale row id can detect that the row is no longer theirs.
+ */
+public class ColumnarRowStore {
+
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int STRING_CODE_WIDTH = 4;
+
+    private final Attribute.Type[] types;
+    private final int[] widths;
+    private final ByteBuffer[] columns;
+    private final Object[][] objectColumns;
+    private final BitSet[] nullRows;
+    private final BitSet liveRows = new BitSet();
+    private final StringDictionary dictionary = new StringDictionary();
+    private ByteBuffer timestamps;
+    private ByteBuffer generations;
+    private int[] freeRows = new int[16];
+    private int freeRowCount = 0;
+    private int usedRows = 0;
+    private int capacity = 0;
+    private int size = 0;
+
+    public ColumnarRowStore(List<Attribute> attributes) {
+        this(typesOf(attributes));
+    }
+
+    ColumnarRowStore(Attribute.Type[] types) {
+        int attributeCount = types.length;
+        this.types = types.clone();
+        widths = new int[attributeCount];
+        columns = new ByteBuffer[attributeCount];
+        objectColumns = new Object[attributeCount][];
+        nullRows = new BitSet[attributeCount];
+        for (int i = 0; i < attributeCount; i++) {
+            widths[i] = widthOf(types[i]);
+            nullRows[i] = new BitSet();
+        }
+        allocate(INITIAL_CAPACITY);
+    }
+
+    private static Attribute.Type[] typesOf(List<Attribute> attributes) {
+        Attribute.Type[] types = new Attribute.Type[attributes.size()];
+        for (int i = 0; i < types.length; i++) {
+            types[i] = attributes.get(i).getType();
+        }
+        return types;
+    }
+
+    private static int widthOf(Attribute.Type type) {
+        switch (type) {
+            case BOOL:
+                return 1;
+            case INT:
+            case FLOAT:
+                return 4;
+            case LONG:
+            case DOUBLE:
+                return 8;
+            case STRING:
+                return STRING_CODE_WIDTH;
+            default:
+                return 0;
+        }
+    }
+
+    private void allocate(int newCapacity) {
+        for (int i = 0; i < types.length; i++) {
+            if (widths[i] == 0) {
+                objectColumns[i] = objectColumns[i] == null ? new Object[newCapacity] :
+                        Arrays.copyOf(objectColumns[i], newCapacity);
+            } else {
+                columns[i] = grow(columns[i], newCapacity * widths[i]);
+            }
+        }
+        timestamps = grow(timestamps, newCapacity * 8);
+        generations = grow(generations, newCapacity * 4);
+        capacity = newCapacity;
+    }
+
+    private static ByteBuffer grow(ByteBuffer buffer, int newSize) {
+        ByteBuffer newBuffer = ByteBuffer.allocateDirect(newSize);
+        if (buffer != null) {
+            buffer.clear();
+            newBuffer.put(buffer);
+            newBuffer.clear();
+        }
+        return newBuffer;
+    }
+
+    /**
+     * Adds a row to the store.
+     *
+     * @param timestamp timestamp of the row
+     * @param data      attribute values of the row, in the attribute order of the store
+     * @return the row id of the added row
+     */
+    public int add(long timestamp, Object[] data) {
+        int row;
+        if (freeRowCount > 0) {
+            row = freeRows[--freeRowCount];
+        } else {
+            if (usedRows == capacity) {
+                allocate(capacity * 2);
+            }
+            row = usedRows++;
+        }
+        timestamps.putLong(row * 8, timestamp);
+        for (int i = 0; i < types.length; i++) {
+            write(row, i, data[i]);
+        }
+        liveRows.set(row);
+        size++;
+        return row;
+    }
+
+    public boolean isLive(int row, int generation) {
+        return liveRows.get(row) && generations.getInt(row * 4) == generation;
+    }
+
+    public int getGeneration(int row) {
+        return generations.getInt(row * 4);
+    }
+
+    public long getTimestamp(int row) {
+        return timestamps.getLong(row * 8);
+    }
+
+    public Object get(int row, int attribute) {
+        if (nullRows[attribute].get(row)) {
+            return null;
+        }
+        int offset = row * widths[attribute];
+        switch (types[attribute]) {
+            case BOOL:
+                return columns[attribute].get(offset) != 0;
+            case INT:
+                return columns[attribute].getInt(offset);
+            case FLOAT:
+                return columns[attribute].getFloat(offset);
+            case LONG:
+                return columns[attribute].getLong(offset);
+            case DOUBLE:
+                return columns[attribute].getDouble(offset);
+            case STRING:
+                return dictionary.decode(columns[attribute].getInt(offset));
+            default:
+                return objectColumns[attribute][row];
+        }
+    }
+
+    public Object[] getRow(int row) {
+        Object[] data = new Object[types.length];
+        for (int i = 0; i < types.length; i++) {
+            data[i] = get(row, i);
+        }
+        return data;
+    }
+
+    /**
+     * Overwrites a single attribute value of a live row.
+     *
+     * @param row       row id
+     * @param attribute attribute position
+     * @param value     new value of the attribute
+     */
+    public void set(int row, int attribute, Object value) {
+        release(row, attribute);
+        write(row, attribute, value);
+    }
+
+    private void write(int row, int attribute, Object value) {
+        if (value == null) {
+            nullRows[attribute].set(row);
+            if (widths[attribute] == 0) {
+                objectColumns[attribute][row] = null;
+            }
+            return;
+        }
+        nullRows[attribute].clear(row);
+        int offset = row * widths[attribute];
+        switch (types[attribute]) {
+            case BOOL:
+                columns[attribute].put(offset, (byte) ((Boolean) value ? 1 : 0));
+                break;
+            case INT:
+                columns[attribute].putInt(offset, (Integer) value);
+                break;
+            case FLOAT:
+                columns[attribute].putFloat(offset, (Float) value);
+                break;
+            case LONG:
+                columns[attribute].putLong(offset, (Long) value);
+                break;
+            case DOUBLE:
+                columns[attribute].putDouble(offset, (Double) value);
+                break;
+            case STRING:
+                columns[attribute].putInt(offset, dictionary.encode((String) value));
+                break;
+            default:
+                objectColumns[attribute][row] = value;
+        }
+    }
+
+    private void release(int row, int attribute) {
+        if (types[attribute] == Attribute.Type.STRING && !nullRows[attribute].get(row)) {
+            dictionary.release(columns[attribute].getInt(row * STRING_CODE_WIDTH));
+        } else if (widths[attribute] == 0) {
+            objectColumns[attribute][row] = null;
+        }
+    }
+
+    /**
+     * Removes a live row, making its row id available for reuse.
+     *
+     * @param row row id
+     */
+    public void remove(int row) {
+        if (!liveRows.get(row)) {
+            return;
+        }
+        for (int i = 0; i < types.length; i++) {
+            release(row, i);
+            nullRows[i].clear(row);
+        }
+        liveRows.clear(row);
+        generations.putInt(row * 4, generations.getInt(row * 4) + 1);
+        if (freeRowCount == freeRows.length) {
+            freeRows = Arrays.copyOf(freeRows, freeRowCount * 2);
+        }
+        freeRows[freeRowCount++] = row;
+        size--;
+    }
+
+    /**
+     * Removes all the rows of the store while retaining its allocated capacity.
+     */
+    public void clear() {
+        for (int row = liveRows.nextSetBit(0); row >= 0; row = liveRows.nextSetBit(row + 1)) {
+            generations.putInt(row * 4, generations.getInt(row * 4) + 1);
+        }
+        for (int i = 0; i < types.length; i++) {
+            nullRows[i].clear();
+            if (objectColumns[i] != null) {
+                Arrays.fill(objectColumns[i], null);
+            }
+        }
+        liveRows.clear();
+        dictionary.clear();
+        freeRowCount = 0;
+        usedRows = 0;
+        size = 0;
+    }
+
+    /**
+     * Returns the id of the first live row at or after the given row id.
+     *
+     * @param fromRow row id to start from
+     * @return the next live row id, or -1 when there are no more live rows
+     */
+    public int nextLiveRow(int fromRow) {
+        return liveRows.nextSetBit(fromRow);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    Attribute.Type[] getTypes() {
+        return types.clone();
+    }
+
+    /**
+     * Creates a copy of the store with its own off-heap buffers, such that the copy is not affected by the later
+     * changes of this store.
+     *
+     * @param objectCopier copier applied to the values of the object attributes
+     * @return the copied store
+     */
+    public ColumnarRowStore copy(UnaryOperator<Object> objectCopier) {
+        ColumnarRowStore copy = new ColumnarRowStore(types);
+        if (copy.capacity < usedRows) {
+            copy.allocate(usedRows);
+        }
+        for (int i = 0; i < types.length; i++) {
+            if (widths[i] == 0) {
+                for (int row = liveRows.nextSetBit(0); row >= 0; row = liveRows.nextSetBit(row + 1)) {
+                    copy.objectColumns[i][row] = objectCopier.apply(objectColumns[i][row]);
+                }
+            } else {
+                copyBuffer(columns[i], copy.columns[i], usedRows * widths[i]);
+            }
+            copy.nullRows[i].or(nullRows[i]);
+        }
+        copyBuffer(timestamps, copy.timestamps, usedRows * 8);
+        copyBuffer(generations, copy.generations, usedRows * 4);
+        copy.liveRows.or(liveRows);
+        copy.dictionary.copyFrom(dictionary);
+        copy.freeRows = Arrays.copyOf(freeRows, freeRows.length);
+        copy.freeRowCount = freeRowCount;
+        copy.usedRows = usedRows;
+        copy.size = size;
+        return copy;
+    }
+
+    private static void copyBuffer(ByteBuffer source, ByteBuffer target, int length) {
+        ByteBuffer slice = source.duplicate();
+        slice.clear().limit(length);
+        target.clear();
+        target.put(slice);
+        target.clear();
+    }
+
+    /**
+     * Writes the live rows of the store, reading each attribute value straight from its column.
+     *
+     * @param out output to write the rows to
+     * @throws IOException if the rows cannot be written
+     */
+    void writeRows(ObjectOutput out) throws IOException {
+        out.writeInt(size);
+        for (int row = liveRows.nextSetBit(0); row >= 0; row = liveRows.nextSetBit(row + 1)) {
+            out.writeLong(timestamps.getLong(row * 8));
+            for (int i = 0; i < types.length; i++) {
+                boolean isNull = nullRows[i].get(row);
+                out.writeBoolean(isNull);
+                if (isNull) {
+                    continue;
+                }
+                int offset = row * widths[i];
+                switch (types[i]) {
+                    case BOOL:
+                        out.writeBoolean(columns[i].get(offset) != 0);
+                        break;
+                    case INT:
+                        out.writeInt(columns[i].getInt(offset));
+                        break;
+                    case FLOAT:
+                        out.writeFloat(columns[i].getFloat(offset));
+                        break;
+                    case LONG:
+                        out.writeLong(columns[i].getLong(offset));
+                        break;
+                    case DOUBLE:
+                        out.writeDouble(columns[i].getDouble(offset));
+                        break;
+                    case STRING:
+                        out.writeObject(dictionary.decode(columns[i].getInt(offset)));
+                        break;
+                    default:
+                        out.writeObject(objectColumns[i][row]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds the rows written by {@link #writeRows(ObjectOutput)} to the store.
+     *
+     * @param in input to read the rows from
+     * @throws IOException            if the rows cannot be read
+     * @throws ClassNotFoundException if the class of an object attribute value cannot be found
+     */
+    void readRows(ObjectInput in) throws IOException, ClassNotFoundException {
+        int rowCount = in.readInt();
+        Object[] data = new Object[types.length];
+        for (int i = 0; i < rowCount; i++) {
+            long timestamp = in.readLong();
+            for (int j = 0; j < types.length; j++) {
+                if (in.readBoolean()) {
+                    data[j] = null;
+                    continue;
+                }
+                switch (types[j]) {
+                    case BOOL:
+                        data[j] = in.readBoolean();
+                        break;
+                    case INT:
+                        data[j] = in.readInt();
+                        break;
+                    case FLOAT:
+                        data[j] = in.readFloat();
+                        break;
+                    case LONG:
+                        data[j] = in.readLong();
+                        break;
+                    case DOUBLE:
+                        data[j] = in.readDouble();
+                        break;
+                    default:
+                        data[j] = in.readObject();
+                }
+            }
+            add(timestamp, data);
+        }
+    }
+
+    /**
+     * Returns the number of bytes held outside the heap for the allocated row capacity.
+     *
+     * @return allocated off-heap bytes
+     */
+    public long getOffHeapBytes() {
+        long bytes = timestamps.capacity() + generations.capacity();
+        for (ByteBuffer column : columns) {
+            if (column != null) {
+                bytes += column.capacity();
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Reference counted dictionary encoding the distinct string values of the store into int codes.
+     */
+    private static class StringDictionary {
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+        private int[] referenceCounts = new int[16];
+        private int[] freeCodes = new int[16];
+        private int freeCodeCount = 0;
+
+        int encode(String value) {
+            Integer code = codes.get(value);
+            if (code == null) {
+                if (freeCodeCount > 0) {
+                    code = freeCodes[--freeCodeCount];
+                    values.set(code, value);
+                } else {
+                    code = values.size();
+                    values.add(value);
+                    if (code == referenceCounts.length) {
+                        referenceCounts = Arrays.copyOf(referenceCounts, code * 2);
+                    }
+                }
+                codes.put(value, code);
+            }
+            referenceCounts[code]++;
+            return code;
+        }
+
+        String decode(int code) {
+            return values.get(code);
+        }
+
+        void release(int code) {
+            if (--referenceCounts[code] == 0) {
+                codes.remove(values.get(code));
+                values.set(code, null);
+                if (freeCodeCount == freeCodes.length) {
+                    freeCodes = Arrays.copyOf(freeCodes, freeCodeCount * 2);
+                }
+                freeCodes[freeCodeCount++] = code;
+            }
+        }
+
+        void copyFrom(StringDictionary dictionary) {
+            codes.putAll(dictionary.codes);
+            values.addAll(dictionary.values);
+            referenceCounts = Arrays.copyOf(dictionary.referenceCounts, dictionary.referenceCounts.length);
+            freeCodes = Arrays.copyOf(dictionary.freeCodes, dictionary.freeCodes.length);
+            freeCodeCount = dictionary.freeCodeCount;
+        }
+
+        void clear() {
+            codes.clear();
+            values.clear();
+            Arrays.fill(referenceCounts, 0);
+            freeCodeCount = 0;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.siddhi.core.table.holder;
+
+import org.wso2.siddhi.core.event.stream.StreamEvent;
+import org.wso2.siddhi.query.api.definition.Attribute;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * {@link AttributeIndex} keeping the events in a {@link HashMap}, supporting only equality lookups.
+ */
+class HashAttributeIndex extends AttributeIndex {
+
+    private static final long serialVersionUID = 4658035926209426003L;
+    private final Attribute.Type attributeType;
+    private final HashMap<Object, Set<StreamEvent>> indexData = new HashMap<>();
+
+    HashAttributeIndex(Attribute.Type attributeType) {
+        this.attributeType = attributeType;
+    }
+
+    @Override
+    public Type getType() {
+        return Type.HASH;
+    }
+
+    @Override
+    public Attribute.Type getAttributeType() {
+        return attributeType;
+    }
+
+    @Override
+    public Set<StreamEvent> get(Object key) {
+        return indexData.get(key);
+    }
+
+    @Override
+    public void put(Object key, Set<StreamEvent> events) {
+        indexData.put(key, events);
+    }
+
+    @Override
+    public Set<StreamEvent> remove(Object key) {
+        return indexData.remove(key);
+    }
+
+    @Override
+    public int size() {
+        return indexData.size();
+    }
+
+    @Override
+    public void clear() {
+        indexData.clear();
+    }
+
+    @Override
+    public Collection<Set<StreamEvent>> values() {
+        return indexData.values();
+    }
+
+    @Override
+    public Map<Object, Set<StreamEvent>> asMap() {
+        return indexData;
+    }
+}
@@ -31,6 +31,7 @@ import org.wso2.siddhi.core.util.SiddhiConstants;
 import org.wso2.siddhi.core.util.snapshot.SnapshotRequest;
 import org.wso2.siddhi.core.util.snapshot.state.SnapshotState;
 import org.wso2.siddhi.core.util.snapshot.state.SnapshotStateList;
+import org.wso2.siddhi.core.util.statistics.memory.ElementCountable;
 import org.wso2.siddhi.query.api.definition.AbstractDefinition;
 import org.wso2.siddhi.query.api.expression.condition.Compare;
 
@@ -56,12 +57,12 @@ import static org.wso2.siddhi.core.event.stream.Operation.Operator.REMOVE;
  * EventHolder implementation where events will be indexed and stored. This will offer faster access compared to
  * other EventHolder implementations. User can only add unique events based on a given primary key.
  */
-public class IndexEventHolder implements IndexedEventHolder, Serializable {
+public class IndexEventHolder implements IndexedEventHolder, ElementCountable, Serializable {
 
     private static final Logger log = Logger.getLogger(IndexEventHolder.class);
     private static final long serialVersionUID = 1272291743721603253L;
     private final Map<Object, StreamEvent> primaryKeyData;
-    private final Map<String, TreeMap<Object, Set<StreamEvent>>> indexData;
+    private final Map<String, AttributeIndex> indexData;
     private final PrimaryKeyReferenceHolder[] primaryKeyReferenceHolders;
     private final String tableName;
     private final String siddhiAppName;
@@ -80,7 +81,8 @@ public class IndexEventHolder implements IndexedEventHolder, Serializable {
     public IndexEventHolder(StreamEventPool tableStreamEventPool, StreamEventConverter eventConverter,
                             PrimaryKeyReferenceHolder[] primaryKeyReferenceHolders,
                             boolean isPrimaryNumeric, Map<String, Integer> indexMetaData,
-                            AbstractDefinition tableDefinition, SiddhiAppContext siddhiAppContext) {
+                            Map<String, AttributeIndex.Type> indexTypes, AbstractDefinition tableDefinition,
+                            SiddhiAppContext siddhiAppContext) {
         this.tableStreamEventPool = tableStreamEventPool;
         this.eventConverter = eventConverter;
         this.primaryKeyReferenceHolders = primaryKeyReferenceHolders;
@@ -112,9 +114,10 @@ public class IndexEventHolder implements IndexedEventHolder, Serializable {
             primaryKeyData = null;
         }
         if (indexMetaData.size() > 0) {
-            indexData = new HashMap<String, TreeMap<Object, Set<StreamEvent>>>();
+            indexData = new HashMap<String, AttributeIndex>();
             for (String indexAttributeName : indexMetaData.keySet()) {
-                indexData.put(indexAttributeName, new TreeMap<Object, Set<StreamEvent>>());
+                indexData.put(indexAttributeName, AttributeIndex.create(indexTypes.get(indexAttributeName),
+                        tableDefinition.getAttributeType(indexAttributeName)));
             }
             allIndexMetaData.putAll(indexMetaData);
         } else {
@@ -123,6 +126,28 @@ public class IndexEventHolder implements IndexedEventHolder, Serializable {
 
     }
 
+    /**
+     * Creates an event holder only containing the indexed data, used when restoring the table snapshots.
+     *
+     * @param primaryKeyData events by their primary keys
+     * @param indexData      events by their index attribute values
+     */
+    public IndexEventHolder(Map<Object, StreamEvent> primaryKeyData, Map<String, AttributeIndex> indexData) {
+        this.primaryKeyData = primaryKeyData;
+        this.indexData = indexData;
+        this.primaryKeyReferenceHolders = null;
+        this.tableName = null;
+        this.siddhiAppName = null;
+    }
+
+    public Map<Object, StreamEvent> getPrimaryKeyData() {
+        return primaryKeyData;
+    }
+
+    public Map<String, AttributeIndex> getIndexData() {
+        return indexData;
+    }
+
     @Override
     public Set<Object> getAllPrimaryKeyValues() {
         if (primaryKeyData != null) {
@@ -152,6 +177,14 @@ public class IndexEventHolder implements IndexedEventHolder, Serializable {
         return allIndexMetaData.containsValue(position);
     }
 
+    @Override
+    public boolean isAttributeRangeIndexed(String attribute) {
+        if (primaryKeyData != null && attribute.equals(primaryKeyAttributes)) {
+            return primaryKeyData instanceof TreeMap;
+        }
+        return indexData != null && indexData.containsKey(attribute) && indexData.get(attribute).isSorted();
+    }
+
     @Override
     public void add(ComplexEventChunk<StreamEvent> addingEventChunk) {
         addingEventChunk.reset();
@@ -187,7 +220,7 @@ public class IndexEventHolder implements IndexedEventHolder, Serializable {
 
         if (indexData != null) {
             for (Map.Entry<String, Integer> indexEntry : indexMetaData.entrySet()) {
-                TreeMap<Object, Set<StreamEvent>> indexMap = indexData.get(indexEntry.getKey());
+                AttributeIndex indexMap = indexData.get(indexEntry.getKey());
                 Object key = streamEvent.getOutputData()[indexEntry.getValue()];
                 Set<StreamEvent> values = indexMap.get(key);
                 if (values == null) {
@@ -236,13 +269,16 @@ public class IndexEventHolder implements IndexedEventHolder, Serializable {
 
         if (indexData != null) {
             for (Map.Entry<String, Integer> indexEntry : indexMetaData.entrySet()) {
-                TreeMap<Object, Set<StreamEvent>> indexMap = indexData.get(indexEntry.getKey());
+                AttributeIndex indexMap = indexData.get(indexEntry.getKey());
                 Object key = streamEvent.getOutputData()[indexEntry.getValue()];
                 if (deletedEvent != null) {
-                    Set<StreamEvent> values = indexMap.get(key);
-                    values.remove(deletedEvent);
-                    if (values.size() == 0) {
-                        indexMap.remove(key);
+                    Object deletedKey = deletedEvent.getOutputData()[indexEntry.getValue()];
+                    Set<StreamEvent> values = indexMap.get(deletedKey);
+                    if (values != null) {
+                        values.remove(deletedEvent);
+                        if (values.size() == 0) {
+                            indexMap.remove(deletedKey);
+                        }
                     }
                 }
                 Set<StreamEvent> values = indexMap.get(key);
@@ -257,15 +293,34 @@ public class IndexEventHolder implements IndexedEventHolder, Serializable {
         }
     }
 
+    /**
+     * Returns the number of events held when there is a primary key, and the number of distinct values of an
+     * indexed attribute otherwise, as the events of the index buckets are not counted as they are modified.
+     *
+     * @return number of events or index buckets
+     */
+    @Override
+    public long getElementCount() {
+        if (primaryKeyData != null) {
+            return primaryKeyData.size();
+        } else if (indexData != null) {
+            Iterator<AttributeIndex> iterator = indexData.values().iterator();
+            if (iterator.hasNext()) {
+                return iterator.next().size();
+            }
+        }
+        return 0;
+    }
+
     @Override
     public Collection<StreamEvent> getAllEvents() {
         if (primaryKeyData != null) {
             return primaryKeyData.values();
         } else if (indexData != null) {
             HashSet<StreamEvent> resultEventSet = new HashSet<StreamEvent>();
-            Iterator<TreeMap<Object, Set<StreamEvent>>> iterator = indexData.values().iterator();
+            Iterator<AttributeIndex> iterator = indexData.values().iterator();
             if (iterator.hasNext()) {
-                TreeMap<Object, Set<StreamEvent>> aIndexData = iterator.next();
+                AttributeIndex aIndexData = iterator.next();
                 for (Set<StreamEvent> streamEvents : aIndexData.values()) {
                     resultEventSet.addAll(streamEvents);
                 }
@@ -313,27 +368,31 @@ public class IndexEventHolder implements IndexedEventHolder, Serializable {
             }
         } else {
             HashSet<StreamEvent> resultEventSet = new HashSet<StreamEvent>();
-            TreeMap<Object, Set<StreamEvent>> currentIndexedData = indexData.get(attribute);
+            AttributeIndex currentIndexedData = indexData.get(attribute);
 
             Set<StreamEvent> resultEvents;
             switch (operator) {
                 case LESS_THAN:
-                    for (Set<StreamEvent> eventSet : currentIndexedData.headMap(value, false).values()) {
+                    for (Set<StreamEvent> eventSet : currentIndexedData.getSortedData().headMap(value, false)
+                            .values()) {
                         resultEventSet.addAll(eventSet);
                     }
                     return resultEventSet;
                 case GREATER_THAN:
-                    for (Set<StreamEvent> eventSet : currentIndexedData.tailMap(value, false).values()) {
+                    for (Set<StreamEvent> eventSet : currentIndexedData.getSortedData().tailMap(value, false)
+                            .values()) {
                         resultEventSet.addAll(eventSet);
                     }
                     return resultEventSet;
                 case LESS_THAN_EQUAL:
-                    for (Set<StreamEvent> eventSet : currentIndexedData.headMap(value, true).values()) {
+                    for (Set<StreamEvent> eventSet : currentIndexedData.getSortedData().headMap(value, true)
+                            .values()) {
                         resultEventSet.addAll(eventSet);
                     }
                     return resultEventSet;
                 case GREATER_THAN_EQUAL:
-                    for (Set<StreamEvent> eventSet : currentIndexedData.tailMap(value, true).values()) {
+                    for (Set<StreamEvent> eventSet : currentIndexedData.getSortedData().tailMap(value, true)
+                            .values()) {
                         resultEventSet.addAll(eventSet);
                     }
                     return resultEventSet;
@@ -378,7 +437,7 @@ public class IndexEventHolder implements IndexedEventHolder, Serializable {
             primaryKeyData.clear();
         }
         if (indexData != null) {
-            for (TreeMap<Object, Set<StreamEvent>> aIndexedData : indexData.values()) {
+            for (AttributeIndex aIndexedData : indexData.values()) {
                 aIndexedData.clear();
             }
         }
@@ -483,7 +542,7 @@ public class IndexEventHolder implements IndexedEventHolder, Serializable {
             switch (operator) {
 
                 case LESS_THAN:
-                    for (Iterator<Set<StreamEvent>> iterator = indexData.get(attribute).
+                    for (Iterator<Set<StreamEvent>> iterator = indexData.get(attribute).getSortedData().
                             headMap(value, false).values().iterator();
                          iterator.hasNext(); ) {
                         Set<StreamEvent> deletedEventSet = iterator.next();
@@ -492,7 +551,7 @@ public class IndexEventHolder implements IndexedEventHolder, Serializable {
                     }
                     return;
                 case GREATER_THAN:
-                    for (Iterator<Set<StreamEvent>> iterator = indexData.get(attribute).
+                    for (Iterator<Set<StreamEvent>> iterator = indexData.get(attribute).getSortedData().
                             tailMap(value, false).values().iterator();
                          iterator.hasNext(); ) {
                         Set<StreamEvent> deletedEventSet = iterator.next();
@@ -501,7 +560,7 @@ public class IndexEventHolder implements IndexedEventHolder, Serializable {
                     }
                     return;
                 case LESS_THAN_EQUAL:
-                    for (Iterator<Set<StreamEvent>> iterator = indexData.get(attribute).
+                    for (Iterator<Set<StreamEvent>> iterator = indexData.get(attribute).getSortedData().
                             headMap(value, true).values().iterator();
                          iterator.hasNext(); ) {
                         Set<StreamEvent> deletedEventSet = iterator.next();
@@ -510,7 +569,7 @@ public class IndexEventHolder implements IndexedEventHolder, Serializable {
                     }
                     return;
                 case GREATER_THAN_EQUAL:
-                    for (Iterator<Set<StreamEvent>> iterator = indexData.get(attribute).
+                    for (Iterator<Set<StreamEvent>> iterator = indexData.get(attribute).getSortedData().
                             tailMap(value, true).values().iterator();
                          iterator.hasNext(); ) {
                         Set<StreamEvent> deletedEventSet = iterator.next();
@@ -527,8 +586,10 @@ public class IndexEventHolder implements IndexedEventHolder, Serializable {
                 case NOT_EQUAL:
                     Set<StreamEvent> matchingEventSet = indexData.get(attribute).get(value);
                     deleteAll();
-                    for (StreamEvent matchingEvent : matchingEventSet) {
-                        add(matchingEvent);
+                    if (matchingEventSet != null) {
+                        for (StreamEvent matchingEvent : matchingEventSet) {
+                            add(matchingEvent);
+                        }
                     }
                     return;
             }
@@ -546,27 +607,27 @@ public class IndexEventHolder implements IndexedEventHolder, Serializable {
                 case GREATER_THAN:
                     return ((TreeMap<Object, StreamEvent>) primaryKeyData).higherKey(value) != null;
                 case LESS_THAN_EQUAL:
-                    return ((TreeMap<Object, StreamEvent>) primaryKeyData).ceilingKey(value) != null;
-                case GREATER_THAN_EQUAL:
                     return ((TreeMap<Object, StreamEvent>) primaryKeyData).floorKey(value) != null;
+                case GREATER_THAN_EQUAL:
+                    return ((TreeMap<Object, StreamEvent>) primaryKeyData).ceilingKey(value) != null;
                 case EQUAL:
                     return primaryKeyData.get(value) != null;
                 case NOT_EQUAL:
                     return primaryKeyData.size() > 1;
             }
         } else {
-            TreeMap<Object, Set<StreamEvent>> currentIndexedData = indexData.get(attribute);
+            AttributeIndex currentIndexedData = indexData.get(attribute);
 
             switch (operator) {
 
                 case LESS_THAN:
-                    return currentIndexedData.lowerKey(value) != null;
+                    return currentIndexedData.getSortedData().lowerKey(value) != null;
                 case GREATER_THAN:
-                    return currentIndexedData.higherKey(value) != null;
+                    return currentIndexedData.getSortedData().higherKey(value) != null;
                 case LESS_THAN_EQUAL:
-                    return currentIndexedData.ceilingKey(value) != null;
+                    return currentIndexedData.getSortedData().floorKey(value) != null;
                 case GREATER_THAN_EQUAL:
-                    return currentIndexedData.floorKey(value) != null;
+                    return currentIndexedData.getSortedData().ceilingKey(value) != null;
                 case EQUAL:
                     return currentIndexedData.get(value) != null;
                 case NOT_EQUAL:
@@ -585,7 +646,7 @@ public class IndexEventHolder implements IndexedEventHolder, Serializable {
             }
             for (Map.Entry<String, Integer> indexEntry : indexMetaData.entrySet()) {
                 if (!currentAttribute.equals(indexEntry.getKey())) {
-                    TreeMap<Object, Set<StreamEvent>> indexMap = indexData.get(indexEntry.getKey());
+                    AttributeIndex indexMap = indexData.get(indexEntry.getKey());
                     Object key = deletedEvent.getOutputData()[indexEntry.getValue()];
                     Set<StreamEvent> values = indexMap.get(key);
                     values.remove(deletedEvent);
@@ -600,7 +661,7 @@ public class IndexEventHolder implements IndexedEventHolder, Serializable {
     private void deleteFromIndexes(StreamEvent toDeleteEvent) {
         if (indexMetaData != null) {
             for (Map.Entry<String, Integer> indexEntry : indexMetaData.entrySet()) {
-                TreeMap<Object, Set<StreamEvent>> indexMap = indexData.get(indexEntry.getKey());
+                AttributeIndex indexMap = indexData.get(indexEntry.getKey());
                 Object key = toDeleteEvent.getOutputData()[indexEntry.getValue()];
                 Set<StreamEvent> values = indexMap.get(key);
                 values.remove(toDeleteEvent);
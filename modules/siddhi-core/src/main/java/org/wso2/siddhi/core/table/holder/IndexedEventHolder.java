@@ -33,6 +33,14 @@ public interface IndexedEventHolder extends EventHolder {
 
     boolean isAttributeIndexed(int position);
 
+    /**
+     * Checks whether the events can be looked up by a range of values of the given indexed attribute.
+     *
+     * @param attribute name of the indexed attribute
+     * @return true if the attribute index is sorted
+     */
+    boolean isAttributeRangeIndexed(String attribute);
+
     Collection<StreamEvent> getAllEvents();
 
     Collection<StreamEvent> findEvents(String attribute, Compare.Operator operator, Object value);
@@ -0,0 +1,557 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.table.holder;
+
+import org.apache.log4j.Logger;
+import org.wso2.siddhi.core.config.SiddhiAppContext;
+import org.wso2.siddhi.core.event.ComplexEvent;
+import org.wso2.siddhi.core.event.ComplexEventChunk;
+import org.wso2.siddhi.core.event.stream.StreamEvent;
+import org.wso2.siddhi.core.exception.OperationNotSupportedException;
+import org.wso2.siddhi.core.util.SiddhiConstants;
+import org.wso2.siddhi.core.util.snapshot.state.SnapshotState;
+import org.wso2.siddhi.core.util.snapshot.state.SnapshotStateList;
+import org.wso2.siddhi.query.api.definition.AbstractDefinition;
+import org.wso2.siddhi.query.api.expression.condition.Compare;
+
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.UnaryOperator;
+
+/**
+ * Event holder of the off-heap table, keeping the table rows in a {@link ColumnarRowStore}. Primary keys and indexes
+ * are maintained the same way as {@link IndexEventHolder}, but they refer to row ids instead of events. Events
+ * handed out by this holder are materialized views of the rows, and the attribute values set on them are written
+ * back to the row while the row is alive, hence the existing table operators can work on this holder unchanged.
+ */
+public class OffHeapEventHolder implements IndexedEventHolder {
+
+    private static final Logger log = Logger.getLogger(OffHeapEventHolder.class);
+    private final ColumnarRowStore rowStore;
+    private final Map<Object, Integer> primaryKeyData;
+    private final Map<String, Map<Object, Set<Integer>>> indexData;
+    private final PrimaryKeyReferenceHolder[] primaryKeyReferenceHolders;
+    private final Map<String, Integer> indexMetaData;
+    private final Map<String, Integer> multiPrimaryKeyMetaData = new LinkedHashMap<>();
+    private final Map<String, Integer> allIndexMetaData = new HashMap<>();
+    private final boolean[] indexedPositions;
+    private final int attributeCount;
+    private final String tableName;
+    private final String siddhiAppName;
+    private String primaryKeyAttributes = null;
+
+    public OffHeapEventHolder(PrimaryKeyReferenceHolder[] primaryKeyReferenceHolders, boolean isPrimaryNumeric,
+                              Map<String, Integer> indexMetaData, Map<String, AttributeIndex.Type> indexTypes,
+                              AbstractDefinition tableDefinition, SiddhiAppContext siddhiAppContext) {
+        this.rowStore = new ColumnarRowStore(tableDefinition.getAttributeList());
+        this.primaryKeyReferenceHolders = primaryKeyReferenceHolders;
+        this.indexMetaData = indexMetaData;
+        this.attributeCount = tableDefinition.getAttributeList().size();
+        this.indexedPositions = new boolean[attributeCount];
+        this.tableName = tableDefinition.getId();
+        this.siddhiAppName = siddhiAppContext.getName();
+
+        if (primaryKeyReferenceHolders != null) {
+            if (isPrimaryNumeric) {
+                primaryKeyData = new TreeMap<>();
+            } else {
+                primaryKeyData = new HashMap<>();
+            }
+            if (primaryKeyReferenceHolders.length == 1) {
+                allIndexMetaData.put(primaryKeyReferenceHolders[0].getPrimaryKeyAttribute(),
+                        primaryKeyReferenceHolders[0].getPrimaryKeyPosition());
+                primaryKeyAttributes = primaryKeyReferenceHolders[0].getPrimaryKeyAttribute();
+            } else {
+                StringBuilder primaryKeyAttributesBuilder = new StringBuilder();
+                for (PrimaryKeyReferenceHolder primaryKeyReferenceHolder : primaryKeyReferenceHolders) {
+                    multiPrimaryKeyMetaData.put(primaryKeyReferenceHolder.getPrimaryKeyAttribute(),
+                            primaryKeyReferenceHolder.getPrimaryKeyPosition());
+                    primaryKeyAttributesBuilder.append(primaryKeyReferenceHolder.getPrimaryKeyAttribute())
+                            .append(SiddhiConstants.KEY_DELIMITER);
+                }
+                primaryKeyAttributes = primaryKeyAttributesBuilder.toString();
+            }
+            for (PrimaryKeyReferenceHolder primaryKeyReferenceHolder : primaryKeyReferenceHolders) {
+                indexedPositions[primaryKeyReferenceHolder.getPrimaryKeyPosition()] = true;
+            }
+        } else {
+            primaryKeyData = null;
+        }
+        if (indexMetaData.size() > 0) {
+            indexData = new HashMap<>();
+            for (Map.Entry<String, Integer> indexEntry : indexMetaData.entrySet()) {
+                if (indexTypes.get(indexEntry.getKey()) == AttributeIndex.Type.HASH) {
+                    indexData.put(indexEntry.getKey(), new HashMap<>());
+                } else {
+                    indexData.put(indexEntry.getKey(), new TreeMap<>());
+                }
+                indexedPositions[indexEntry.getValue()] = true;
+            }
+            allIndexMetaData.putAll(indexMetaData);
+        } else {
+            indexData = null;
+        }
+    }
+
+    public int size() {
+        return rowStore.size();
+    }
+
+    public long getOffHeapBytes() {
+        return rowStore.getOffHeapBytes();
+    }
+
+    @Override
+    public Set<Object> getAllPrimaryKeyValues() {
+        if (primaryKeyData != null) {
+            return primaryKeyData.keySet();
+        } else {
+            return null;
+        }
+    }
+
+    @Override
+    public PrimaryKeyReferenceHolder[] getPrimaryKeyReferenceHolders() {
+        return primaryKeyReferenceHolders;
+    }
+
+    @Override
+    public boolean isMultiPrimaryKeyAttribute(String attributeName) {
+        return multiPrimaryKeyMetaData.containsKey(attributeName);
+    }
+
+    @Override
+    public boolean isAttributeIndexed(String attribute) {
+        return allIndexMetaData.containsKey(attribute);
+    }
+
+    @Override
+    public boolean isAttributeIndexed(int position) {
+        return allIndexMetaData.containsValue(position);
+    }
+
+    @Override
+    public boolean isAttributeRangeIndexed(String attribute) {
+        if (primaryKeyData != null && attribute.equals(primaryKeyAttributes)) {
+            return primaryKeyData instanceof TreeMap;
+        }
+        return indexData != null && indexData.get(attribute) instanceof TreeMap;
+    }
+
+    @Override
+    public void add(ComplexEventChunk<StreamEvent> addingEventChunk) {
+        addingEventChunk.reset();
+        while (addingEventChunk.hasNext()) {
+            ComplexEvent complexEvent = addingEventChunk.next();
+            add(complexEvent.getTimestamp(), complexEvent.getOutputData());
+        }
+    }
+
+    private void add(long timestamp, Object[] data) {
+        if (primaryKeyData != null) {
+            Object primaryKey = constructPrimaryKey(data);
+            if (primaryKeyData.containsKey(primaryKey)) {
+                log.error("Siddhi App '" + siddhiAppName + "' table '" + tableName + "' dropping event : " +
+                        Arrays.toString(data) + ", as there is already an event stored with primary key '" +
+                        primaryKey + "'");
+                return;
+            }
+            int row = rowStore.add(timestamp, data);
+            primaryKeyData.put(primaryKey, row);
+            addToIndexes(row, data);
+        } else {
+            addToIndexes(rowStore.add(timestamp, data), data);
+        }
+    }
+
+    private void addToIndexes(int row, Object[] data) {
+        if (indexData != null) {
+            for (Map.Entry<String, Integer> indexEntry : indexMetaData.entrySet()) {
+                Map<Object, Set<Integer>> indexMap = indexData.get(indexEntry.getKey());
+                Object key = data[indexEntry.getValue()];
+                Set<Integer> rows = indexMap.get(key);
+                if (rows == null) {
+                    rows = new HashSet<>();
+                    indexMap.put(key, rows);
+                }
+                rows.add(row);
+            }
+        }
+    }
+
+    private Object constructPrimaryKey(Object[] data) {
+        if (primaryKeyReferenceHolders.length == 1) {
+            return data[primaryKeyReferenceHolders[0].getPrimaryKeyPosition()];
+        } else {
+            StringBuilder stringBuilder = new StringBuilder();
+            for (PrimaryKeyReferenceHolder primaryKeyReferenceHolder : primaryKeyReferenceHolders) {
+                stringBuilder.append(data[primaryKeyReferenceHolder.getPrimaryKeyPosition()])
+                        .append(SiddhiConstants.KEY_DELIMITER);
+            }
+            return stringBuilder.toString();
+        }
+    }
+
+    @Override
+    public void overwrite(StreamEvent streamEvent) {
+        Object[] data = streamEvent.getOutputData();
+        if (primaryKeyData != null) {
+            Integer row = primaryKeyData.get(constructPrimaryKey(data));
+            if (row != null) {
+                for (int i = 0; i < attributeCount; i++) {
+                    update(row, i, data[i]);
+                }
+                return;
+            }
+        }
+        add(streamEvent.getTimestamp(), data);
+    }
+
+    /**
+     * Writes an attribute value to a live row, moving the row between the primary key and index entries when an
+     * indexed attribute value changes.
+     */
+    private void update(int row, int position, Object value) {
+        if (indexedPositions[position]) {
+            Object[] data = rowStore.getRow(row);
+            if (value == null ? data[position] == null : value.equals(data[position])) {
+                return;
+            }
+            remove(row, data);
+            Object[] updatedData = data.clone();
+            updatedData[position] = value;
+            if (primaryKeyData != null) {
+                Object primaryKey = constructPrimaryKey(updatedData);
+                if (primaryKeyData.containsKey(primaryKey)) {
+                    log.error("Siddhi App '" + siddhiAppName + "' table '" + tableName + "' update failed for " +
+                            "event : " + Arrays.toString(data) + ", as there is already an event stored with " +
+                            "primary key '" + primaryKey + "'");
+                    primaryKeyData.put(constructPrimaryKey(data), row);
+                    addToIndexes(row, data);
+                    return;
+                }
+                primaryKeyData.put(primaryKey, row);
+            }
+            rowStore.set(row, position, value);
+            addToIndexes(row, updatedData);
+        } else {
+            rowStore.set(row, position, value);
+        }
+    }
+
+    private void remove(int row, Object[] data) {
+        if (primaryKeyData != null) {
+            primaryKeyData.remove(constructPrimaryKey(data));
+        }
+        if (indexData != null) {
+            for (Map.Entry<String, Integer> indexEntry : indexMetaData.entrySet()) {
+                Map<Object, Set<Integer>> indexMap = indexData.get(indexEntry.getKey());
+                Object key = data[indexEntry.getValue()];
+                Set<Integer> rows = indexMap.get(key);
+                if (rows != null) {
+                    rows.remove(row);
+                    if (rows.size() == 0) {
+                        indexMap.remove(key);
+                    }
+                }
+            }
+        }
+    }
+
+    private void delete(int row) {
+        remove(row, rowStore.getRow(row));
+        rowStore.remove(row);
+    }
+
+    @Override
+    public Collection<StreamEvent> getAllEvents() {
+        return new AbstractCollection<StreamEvent>() {
+            @Override
+            public Iterator<StreamEvent> iterator() {
+                return new Iterator<StreamEvent>() {
+                    private int nextRow = rowStore.nextLiveRow(0);
+
+                    @Override
+                    public boolean hasNext() {
+                        return nextRow >= 0;
+                    }
+
+                    @Override
+                    public StreamEvent next() {
+                        if (nextRow < 0) {
+                            throw new NoSuchElementException();
+                        }
+                        RowEvent rowEvent = new RowEvent(nextRow);
+                        nextRow = rowStore.nextLiveRow(nextRow + 1);
+                        return rowEvent;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return rowStore.size();
+            }
+        };
+    }
+
+    @Override
+    public Collection<StreamEvent> findEvents(String attribute, Compare.Operator operator, Object value) {
+        Collection<Integer> rows = findRows(attribute, operator, value);
+        List<StreamEvent> streamEvents = new ArrayList<>(rows.size());
+        for (Integer row : rows) {
+            streamEvents.add(new RowEvent(row));
+        }
+        return streamEvents;
+    }
+
+    private Collection<Integer> findRows(String attribute, Compare.Operator operator, Object value) {
+        if (primaryKeyData != null && attribute.equals(primaryKeyAttributes)) {
+            switch (operator) {
+                case LESS_THAN:
+                    return ((TreeMap<Object, Integer>) primaryKeyData).headMap(value, false).values();
+                case GREATER_THAN:
+                    return ((TreeMap<Object, Integer>) primaryKeyData).tailMap(value, false).values();
+                case LESS_THAN_EQUAL:
+                    return ((TreeMap<Object, Integer>) primaryKeyData).headMap(value, true).values();
+                case GREATER_THAN_EQUAL:
+                    return ((TreeMap<Object, Integer>) primaryKeyData).tailMap(value, true).values();
+                case EQUAL:
+                    Set<Integer> resultRowSet = new HashSet<>();
+                    Integer row = primaryKeyData.get(value);
+                    if (row != null) {
+                        resultRowSet.add(row);
+                    }
+                    return resultRowSet;
+                case NOT_EQUAL:
+                    resultRowSet = new HashSet<>(primaryKeyData.values());
+                    row = primaryKeyData.get(value);
+                    if (row != null) {
+                        resultRowSet.remove(row);
+                    }
+                    return resultRowSet;
+            }
+        } else {
+            Map<Object, Set<Integer>> currentIndexedData = indexData.get(attribute);
+            Collection<Set<Integer>> matchingRowSets;
+            switch (operator) {
+                case LESS_THAN:
+                    matchingRowSets = ((TreeMap<Object, Set<Integer>>) currentIndexedData).headMap(value, false)
+                            .values();
+                    break;
+                case GREATER_THAN:
+                    matchingRowSets = ((TreeMap<Object, Set<Integer>>) currentIndexedData).tailMap(value, false)
+                            .values();
+                    break;
+                case LESS_THAN_EQUAL:
+                    matchingRowSets = ((TreeMap<Object, Set<Integer>>) currentIndexedData).headMap(value, true)
+                            .values();
+                    break;
+                case GREATER_THAN_EQUAL:
+                    matchingRowSets = ((TreeMap<Object, Set<Integer>>) currentIndexedData).tailMap(value, true)
+                            .values();
+                    break;
+                case EQUAL:
+                    Set<Integer> rows = currentIndexedData.get(value);
+                    return rows != null ? new HashSet<>(rows) : new HashSet<>();
+                case NOT_EQUAL:
+                    Set<Integer> resultRowSet = new HashSet<>();
+                    for (Map.Entry<Object, Set<Integer>> entry : currentIndexedData.entrySet()) {
+                        if (entry.getKey() == null ? value != null : !entry.getKey().equals(value)) {
+                            resultRowSet.addAll(entry.getValue());
+                        }
+                    }
+                    return resultRowSet;
+                default:
+                    matchingRowSets = null;
+            }
+            if (matchingRowSets != null) {
+                Set<Integer> resultRowSet = new HashSet<>();
+                for (Set<Integer> rowSet : matchingRowSets) {
+                    resultRowSet.addAll(rowSet);
+                }
+                return resultRowSet;
+            }
+        }
+        throw new OperationNotSupportedException(operator + " not supported for '" + value + "' by " + getClass()
+                .getName());
+    }
+
+    @Override
+    public void deleteAll() {
+        rowStore.clear();
+        if (primaryKeyData != null) {
+            primaryKeyData.clear();
+        }
+        if (indexData != null) {
+            for (Map<Object, Set<Integer>> aIndexedData : indexData.values()) {
+                aIndexedData.clear();
+            }
+        }
+    }
+
+    @Override
+    public void deleteAll(Collection<StreamEvent> storeEventSet) {
+        for (StreamEvent streamEvent : storeEventSet) {
+            if (streamEvent instanceof RowEvent) {
+                RowEvent rowEvent = (RowEvent) streamEvent;
+                if (rowEvent.isLive()) {
+                    delete(rowEvent.row);
+                }
+            } else if (primaryKeyData != null) {
+                Integer row = primaryKeyData.get(constructPrimaryKey(streamEvent.getOutputData()));
+                if (row != null) {
+                    delete(row);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void delete(String attribute, Compare.Operator operator, Object value) {
+        for (Integer row : new ArrayList<>(findRows(attribute, operator, value))) {
+            delete(row);
+        }
+    }
+
+    @Override
+    public boolean containsEventSet(String attribute, Compare.Operator operator, Object value) {
+        if (primaryKeyData != null && attribute.equals(primaryKeyAttributes)) {
+            switch (operator) {
+                case LESS_THAN:
+                    return ((TreeMap<Object, Integer>) primaryKeyData).lowerKey(value) != null;
+                case GREATER_THAN:
+                    return ((TreeMap<Object, Integer>) primaryKeyData).higherKey(value) != null;
+                case LESS_THAN_EQUAL:
+                    return ((TreeMap<Object, Integer>) primaryKeyData).floorKey(value) != null;
+                case GREATER_THAN_EQUAL:
+                    return ((TreeMap<Object, Integer>) primaryKeyData).ceilingKey(value) != null;
+                case EQUAL:
+                    return primaryKeyData.get(value) != null;
+                case NOT_EQUAL:
+                    return primaryKeyData.size() > 1 ||
+                            (primaryKeyData.size() == 1 && !primaryKeyData.containsKey(value));
+            }
+        } else {
+            Map<Object, Set<Integer>> currentIndexedData = indexData.get(attribute);
+            switch (operator) {
+                case LESS_THAN:
+                    return ((TreeMap<Object, Set<Integer>>) currentIndexedData).lowerKey(value) != null;
+                case GREATER_THAN:
+                    return ((TreeMap<Object, Set<Integer>>) currentIndexedData).higherKey(value) != null;
+                case LESS_THAN_EQUAL:
+                    return ((TreeMap<Object, Set<Integer>>) currentIndexedData).floorKey(value) != null;
+                case GREATER_THAN_EQUAL:
+                    return ((TreeMap<Object, Set<Integer>>) currentIndexedData).ceilingKey(value) != null;
+                case EQUAL:
+                    return currentIndexedData.get(value) != null;
+                case NOT_EQUAL:
+                    return currentIndexedData.size() > 1 ||
+                            (currentIndexedData.size() == 1 && !currentIndexedData.containsKey(value));
+            }
+        }
+        throw new OperationNotSupportedException(operator + " not supported for '" + value + "' by " + getClass()
+                .getName());
+    }
+
+    @Override
+    public SnapshotState getSnapshot() {
+        return new SnapshotState(new ColumnarRowSnapshot(rowStore.copy(UnaryOperator.identity())), false);
+    }
+
+    @Override
+    public void restore(SnapshotStateList snapshotStatelist) {
+        for (SnapshotState snapshotState : snapshotStatelist.getSnapshotStates().values()) {
+            if (!snapshotState.isIncrementalSnapshot()) {
+                deleteAll();
+                ColumnarRowStore snapshotRows = ((ColumnarRowSnapshot) snapshotState.getState()).getRowStore();
+                for (int row = snapshotRows.nextLiveRow(0); row >= 0; row = snapshotRows.nextLiveRow(row + 1)) {
+                    add(snapshotRows.getTimestamp(row), snapshotRows.getRow(row));
+                }
+            }
+        }
+    }
+
+    /**
+     * Materialized view of a table row. Attribute values set on the event are written back to the row, as long as
+     * the row has not been removed since the view was created.
+     */
+    private class RowEvent extends StreamEvent {
+        private final int row;
+        private final int generation;
+
+        RowEvent(int row) {
+            super(0, 0, 0);
+            this.row = row;
+            this.generation = rowStore.getGeneration(row);
+            this.timestamp = rowStore.getTimestamp(row);
+            this.outputData = rowStore.getRow(row);
+        }
+
+        boolean isLive() {
+            return rowStore.isLive(row, generation);
+        }
+
+        @Override
+        public void setOutputData(Object object, int index) {
+            super.setOutputData(object, index);
+            if (isLive()) {
+                update(row, index, object);
+            }
+        }
+
+        @Override
+        public void setOutputData(Object[] outputData) {
+            super.setOutputData(outputData);
+            if (isLive()) {
+                for (int i = 0; i < attributeCount && isLive(); i++) {
+                    update(row, i, outputData[i]);
+                }
+            }
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            RowEvent rowEvent = (RowEvent) o;
+            return row == rowEvent.row && generation == rowEvent.generation;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * row + generation;
+        }
+    }
+}
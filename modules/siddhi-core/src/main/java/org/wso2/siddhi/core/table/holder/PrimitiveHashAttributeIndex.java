@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.siddhi.core.table.holder;
+
+import org.wso2.siddhi.core.event.stream.StreamEvent;
+import org.wso2.siddhi.query.api.definition.Attribute;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Hash {@link AttributeIndex} of int and long attributes. The attribute values are kept unboxed in an open
+ * addressing table with linear probing, hence lookups neither allocate nor compare boxed keys.
+ */
+class PrimitiveHashAttributeIndex extends AttributeIndex {
+
+    private static final long serialVersionUID = -1748376925180385316L;
+    private static final int INITIAL_CAPACITY = 16;
+    private final Attribute.Type attributeType;
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private Object[] values = new Object[INITIAL_CAPACITY];
+    private Set<StreamEvent> nullKeyEvents;
+    private int size = 0;
+
+    PrimitiveHashAttributeIndex(Attribute.Type attributeType) {
+        this.attributeType = attributeType;
+    }
+
+    private static int slot(long key, int mask) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private int indexOf(long key) {
+        int mask = keys.length - 1;
+        for (int i = slot(key, mask); values[i] != null; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public Type getType() {
+        return Type.HASH;
+    }
+
+    @Override
+    public Attribute.Type getAttributeType() {
+        return attributeType;
+    }
+
+    @Override
+    public Set<StreamEvent> get(Object key) {
+        if (key == null) {
+            return nullKeyEvents;
+        } else if (!(key instanceof Integer || key instanceof Long)) {
+            return null;
+        }
+        int index = indexOf(((Number) key).longValue());
+        return index < 0 ? null : (Set<StreamEvent>) values[index];
+    }
+
+    @Override
+    public void put(Object key, Set<StreamEvent> events) {
+        if (key == null) {
+            nullKeyEvents = events;
+            return;
+        }
+        long primitiveKey = ((Number) key).longValue();
+        int mask = keys.length - 1;
+        int i = slot(primitiveKey, mask);
+        while (values[i] != null) {
+            if (keys[i] == primitiveKey) {
+                values[i] = events;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = primitiveKey;
+        values[i] = events;
+        if (++size > keys.length >> 1) {
+            resize(keys.length << 1);
+        }
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new long[capacity];
+        values = new Object[capacity];
+        int mask = capacity - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldValues[j] != null) {
+                int i = slot(oldKeys[j], mask);
+                while (values[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = oldKeys[j];
+                values[i] = oldValues[j];
+            }
+        }
+    }
+
+    @Override
+    public Set<StreamEvent> remove(Object key) {
+        if (key == null) {
+            Set<StreamEvent> events = nullKeyEvents;
+            nullKeyEvents = null;
+            return events;
+        } else if (!(key instanceof Integer || key instanceof Long)) {
+            return null;
+        }
+        int hole = indexOf(((Number) key).longValue());
+        if (hole < 0) {
+            return null;
+        }
+        Set<StreamEvent> events = (Set<StreamEvent>) values[hole];
+        values[hole] = null;
+        size--;
+        // Shift back the entries of the probe sequence following the hole, that can no longer be reached
+        int mask = keys.length - 1;
+        for (int j = (hole + 1) & mask; values[j] != null; j = (j + 1) & mask) {
+            int home = slot(keys[j], mask);
+            if (j > hole ? (home <= hole || home > j) : (home <= hole && home > j)) {
+                keys[hole] = keys[j];
+                values[hole] = values[j];
+                values[j] = null;
+                hole = j;
+            }
+        }
+        return events;
+    }
+
+    @Override
+    public int size() {
+        return nullKeyEvents == null ? size : size + 1;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(values, null);
+        nullKeyEvents = null;
+        size = 0;
+    }
+
+    @Override
+    public Collection<Set<StreamEvent>> values() {
+        List<Set<StreamEvent>> eventSets = new ArrayList<>(size());
+        if (nullKeyEvents != null) {
+            eventSets.add(nullKeyEvents);
+        }
+        for (Object value : values) {
+            if (value != null) {
+                eventSets.add((Set<StreamEvent>) value);
+            }
+        }
+        return eventSets;
+    }
+
+    @Override
+    public Map<Object, Set<StreamEvent>> asMap() {
+        Map<Object, Set<StreamEvent>> indexData = new HashMap<>();
+        if (nullKeyEvents != null) {
+            indexData.put(null, nullKeyEvents);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (values[i] != null) {
+                Object key = attributeType == Attribute.Type.INT ? (Object) (int) keys[i] : (Object) keys[i];
+                indexData.put(key, (Set<StreamEvent>) values[i]);
+            }
+        }
+        return indexData;
+    }
+}
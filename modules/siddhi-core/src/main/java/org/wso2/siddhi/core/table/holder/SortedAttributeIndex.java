@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.siddhi.core.table.holder;
+
+import org.wso2.siddhi.core.event.stream.StreamEvent;
+import org.wso2.siddhi.query.api.definition.Attribute;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * {@link AttributeIndex} keeping the events in a {@link TreeMap}, supporting range lookups.
+ */
+class SortedAttributeIndex extends AttributeIndex {
+
+    private static final long serialVersionUID = -3297707377442389722L;
+    private final Attribute.Type attributeType;
+    private final TreeMap<Object, Set<StreamEvent>> indexData = new TreeMap<>();
+
+    SortedAttributeIndex(Attribute.Type attributeType) {
+        this.attributeType = attributeType;
+    }
+
+    @Override
+    public Type getType() {
+        return Type.SORTED;
+    }
+
+    @Override
+    public Attribute.Type getAttributeType() {
+        return attributeType;
+    }
+
+    @Override
+    public Set<StreamEvent> get(Object key) {
+        return indexData.get(key);
+    }
+
+    @Override
+    public void put(Object key, Set<StreamEvent> events) {
+        indexData.put(key, events);
+    }
+
+    @Override
+    public Set<StreamEvent> remove(Object key) {
+        return indexData.remove(key);
+    }
+
+    @Override
+    public int size() {
+        return indexData.size();
+    }
+
+    @Override
+    public void clear() {
+        indexData.clear();
+    }
+
+    @Override
+    public Collection<Set<StreamEvent>> values() {
+        return indexData.values();
+    }
+
+    @Override
+    public Map<Object, Set<StreamEvent>> asMap() {
+        return indexData;
+    }
+
+    @Override
+    public boolean isSorted() {
+        return true;
+    }
+
+    @Override
+    public NavigableMap<Object, Set<StreamEvent>> getSortedData() {
+        return indexData;
+    }
+}
@@ -59,7 +59,28 @@ public abstract class AbstractQueryableRecordTable extends AbstractRecordTable i
     @Override
     public StreamEvent query(StateEvent matchingEvent, CompiledCondition compiledCondition,
                              CompiledSelection compiledSelection) throws ConnectionUnavailableException {
+        RecordIterator<StreamEvent> streamEvents = queryAsIterator(matchingEvent, compiledCondition,
+                compiledSelection);
+        ComplexEventChunk<StreamEvent> streamEventComplexEventChunk = new ComplexEventChunk<>(true);
+        while (streamEvents.hasNext()) {
+            streamEventComplexEventChunk.add(streamEvents.next());
+        }
+        return streamEventComplexEventChunk.getFirst();
+    }
 
+    /**
+     * Query records matching the compiled condition and selection, where the records are only read from the store
+     * and converted to events as they are iterated.
+     *
+     * @param matchingEvent     the event to be matched with the records
+     * @param compiledCondition the compiledCondition against which records should be matched
+     * @param compiledSelection the compiledSelection that maps records based to requested format
+     * @return iterator of the selected events, which should be closed if not iterated until the end
+     * @throws ConnectionUnavailableException
+     */
+    public RecordIterator<StreamEvent> queryAsIterator(StateEvent matchingEvent, CompiledCondition compiledCondition,
+                                                       CompiledSelection compiledSelection)
+            throws ConnectionUnavailableException {
         RecordStoreCompiledSelection recordStoreCompiledSelection = ((RecordStoreCompiledSelection) compiledSelection);
         RecordStoreCompiledCondition recordStoreCompiledCondition = ((RecordStoreCompiledCondition) compiledCondition);
 
@@ -82,16 +103,7 @@ public abstract class AbstractQueryableRecordTable extends AbstractRecordTable i
             records = query(parameterMap, recordStoreCompiledCondition.compiledCondition,
                     recordStoreCompiledSelection.compiledSelection);
         }
-        ComplexEventChunk<StreamEvent> streamEventComplexEventChunk = new ComplexEventChunk<>(true);
-        if (records != null) {
-            while (records.hasNext()) {
-                Object[] record = records.next();
-                StreamEvent streamEvent = storeEventPool.borrowEvent();
-                System.arraycopy(record, 0, streamEvent.getOutputData(), 0, record.length);
-                streamEventComplexEventChunk.add(streamEvent);
-            }
-        }
-        return streamEventComplexEventChunk.getFirst();
+        return new RecordStreamEventIterator(records);
     }
 
     /**
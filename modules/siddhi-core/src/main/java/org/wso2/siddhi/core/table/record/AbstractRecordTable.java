@@ -39,11 +39,14 @@ import org.wso2.siddhi.query.api.definition.TableDefinition;
 import org.wso2.siddhi.query.api.execution.query.output.stream.UpdateSet;
 import org.wso2.siddhi.query.api.expression.Expression;
 
+import java.io.Closeable;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 
 /**
  * An abstract implementation of table. Abstract implementation will handle {@link ComplexEventChunk} so that
@@ -112,6 +115,25 @@ public abstract class AbstractRecordTable extends Table {
     @Override
     public StreamEvent find(CompiledCondition compiledCondition, StateEvent matchingEvent)
             throws ConnectionUnavailableException {
+        RecordIterator<StreamEvent> streamEvents = findAsIterator(matchingEvent, compiledCondition);
+        ComplexEventChunk<StreamEvent> streamEventComplexEventChunk = new ComplexEventChunk<>(true);
+        while (streamEvents.hasNext()) {
+            streamEventComplexEventChunk.add(streamEvents.next());
+        }
+        return streamEventComplexEventChunk.getFirst();
+    }
+
+    /**
+     * Find records matching the compiled condition, where the records are only read from the store and converted
+     * to events as they are iterated.
+     *
+     * @param matchingEvent     the event to be matched with the records
+     * @param compiledCondition the compiledCondition against which records should be matched
+     * @return iterator of the matching events, which should be closed if not iterated until the end
+     * @throws ConnectionUnavailableException
+     */
+    public RecordIterator<StreamEvent> findAsIterator(StateEvent matchingEvent, CompiledCondition compiledCondition)
+            throws ConnectionUnavailableException {
         RecordStoreCompiledCondition recordStoreCompiledCondition =
                 ((RecordStoreCompiledCondition) compiledCondition);
 
@@ -128,16 +150,7 @@ public abstract class AbstractRecordTable extends Table {
         } else {
             records = find(findConditionParameterMap, recordStoreCompiledCondition.compiledCondition);
         }
-        ComplexEventChunk<StreamEvent> streamEventComplexEventChunk = new ComplexEventChunk<>(true);
-        if (records != null) {
-            while (records.hasNext()) {
-                Object[] record = records.next();
-                StreamEvent streamEvent = storeEventPool.borrowEvent();
-                System.arraycopy(record, 0, streamEvent.getOutputData(), 0, record.length);
-                streamEventComplexEventChunk.add(streamEvent);
-            }
-        }
-        return streamEventComplexEventChunk.getFirst();
+        return new RecordStreamEventIterator(records);
     }
 
     /**
@@ -421,4 +434,39 @@ public abstract class AbstractRecordTable extends Table {
         }
     }
 
+
+    /**
+     * Iterator converting the records read from the store into stream events.
+     */
+    protected class RecordStreamEventIterator implements RecordIterator<StreamEvent> {
+
+        private final Iterator<Object[]> records;
+
+        public RecordStreamEventIterator(Iterator<Object[]> records) {
+            this.records = records;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return records != null && records.hasNext();
+        }
+
+        @Override
+        public StreamEvent next() {
+            if (records == null) {
+                throw new NoSuchElementException();
+            }
+            Object[] record = records.next();
+            StreamEvent streamEvent = storeEventPool.borrowEvent();
+            System.arraycopy(record, 0, streamEvent.getOutputData(), 0, record.length);
+            return streamEvent;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (records instanceof Closeable) {
+                ((Closeable) records).close();
+            }
+        }
+    }
 }
@@ -20,36 +20,20 @@ package org.wso2.siddhi.core.util;
 
 import org.wso2.siddhi.core.config.SiddhiAppContext;
 import org.wso2.siddhi.core.query.input.stream.single.EntryValveProcessor;
-import org.wso2.siddhi.core.util.timestamp.EventTimeBasedMillisTimestampGenerator;
 
 /**
- * Scheduler which operate based on event's timestamp
+ * Scheduler which operate based on event's timestamp. The notifications are delivered through the app's
+ * {@link TimingWheel}, which gets advanced as the event time changes.
  */
 public class EventTimeBasedScheduler extends Scheduler {
 
     public EventTimeBasedScheduler(Schedulable singleThreadEntryValve, SiddhiAppContext siddhiAppContext) {
         super(singleThreadEntryValve, siddhiAppContext);
-
-        if (siddhiAppContext.isPlayback()) {
-            ((EventTimeBasedMillisTimestampGenerator) siddhiAppContext.getTimestampGenerator())
-                    .addTimeChangeListener(new EventTimeBasedMillisTimestampGenerator.TimeChangeListener() {
-                        @Override
-                        public void onTimeChange(long currentTimestamp) {
-                            Long lastTime = toNotifyQueue.peek();
-                            if (lastTime != null && lastTime <= currentTimestamp) {
-                                // If executed in a separate thread, while it is processing,
-                                // the new event will come into the window. As the result of it,
-                                // the window will emit the new event as an existing current event.
-                                sendTimerEvents();
-                            }
-                        }
-                    });
-        }
     }
 
     @Override
     public void schedule(long time) {
-        // Do nothing
+        scheduleAtTimingWheel(time);
     }
 
     @Override
@@ -34,6 +34,7 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Scheduler implementation to take periodic snapshots
@@ -51,6 +52,9 @@ public abstract class Scheduler implements Snapshotable {
     private ComplexEventChunk<StreamEvent> streamEventChunk;
     private LatencyTracker latencyTracker;
     private LockWrapper lockWrapper;
+    private final AtomicBoolean waiting = new AtomicBoolean(false);
+    private volatile boolean stopped = false;
+    long timingWheelDeadline;
 
 
     public Scheduler(Schedulable singleThreadEntryValve, SiddhiAppContext siddhiAppContext) {
@@ -64,6 +68,9 @@ public abstract class Scheduler implements Snapshotable {
     public abstract Scheduler clone(String key, EntryValveProcessor entryValveProcessor);
 
     public void notifyAt(long time) {
+        if (stopped) {
+            return;
+        }
         try {
             // Insert the time into the queue
             toNotifyQueue.put(time);
@@ -73,6 +80,43 @@ public abstract class Scheduler implements Snapshotable {
         }
     }
 
+    /**
+     * Register the scheduler at the app's {@link TimingWheel} to get notified at the given time, unless the scheduler
+     * is already waiting for a notification.
+     *
+     * @param time the time to get notified
+     */
+    protected void scheduleAtTimingWheel(long time) {
+        if (waiting.compareAndSet(false, true)) {
+            siddhiAppContext.getTimingWheel().schedule(this, time);
+        }
+    }
+
+    /**
+     * Called by the {@link TimingWheel} when the notification time is reached.
+     */
+    void onTimeout() {
+        try {
+            sendTimerEvents();
+        } finally {
+            waiting.set(false);
+            Long toNotifyTime = toNotifyQueue.peek();
+            if (toNotifyTime != null && !stopped) {
+                schedule(toNotifyTime);
+            }
+        }
+    }
+
+    /**
+     * Stop the scheduler, such that it is removed from the app's {@link TimingWheel} and sends no more timer events.
+     * Used when the element owning the scheduler is discarded, as when its partition instance is purged.
+     */
+    public void stop() {
+        stopped = true;
+        siddhiAppContext.getTimingWheel().cancel(this);
+        toNotifyQueue.clear();
+    }
+
     public void setStreamEventPool(StreamEventPool streamEventPool) {
         this.streamEventPool = streamEventPool;
         streamEventChunk = new ConversionStreamEventChunk((StreamEventConverter) null, streamEventPool);
@@ -117,7 +161,7 @@ public abstract class Scheduler implements Snapshotable {
     protected void sendTimerEvents() {
         Long toNotifyTime = toNotifyQueue.peek();
         long currentTime = siddhiAppContext.getTimestampGenerator().currentTime();
-        while (toNotifyTime != null && toNotifyTime - currentTime <= 0) {
+        while (toNotifyTime != null && toNotifyTime - currentTime <= 0 && !stopped) {
             toNotifyQueue.poll();
 
             StreamEvent timerEvent = streamEventPool.borrowEvent();
@@ -140,11 +184,12 @@ public abstract class Scheduler implements Snapshotable {
                     singleThreadEntryValve.process(streamEventChunk);
                 }
             } finally {
+                // The timer event is cleared even when processing fails, as it would be sent again otherwise
+                streamEventChunk.clear();
                 if (lockWrapper != null) {
                     lockWrapper.unlock();
                 }
             }
-            streamEventChunk.clear();
 
             toNotifyTime = toNotifyQueue.peek();
             currentTime = siddhiAppContext.getTimestampGenerator().currentTime();
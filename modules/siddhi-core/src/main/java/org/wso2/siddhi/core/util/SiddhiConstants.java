@@ -61,20 +61,38 @@ public final class SiddhiConstants {
     public static final String ANNOTATION_DESTINATION = "Destination";
     public static final String ANNOTATION_ATTRIBUTES = "Attributes";
     public static final String ANNOTATION_PAYLOAD = "Payload";
+    public static final String ANNOTATION_SNAPSHOT = "Snapshot";
+    public static final String ANNOTATION_COMPILE = "Compile";
+    public static final String ANNOTATION_PURGE = "Purge";
+    public static final String ANNOTATION_CONCURRENCY = "Concurrency";
+    public static final String ANNOTATION_BACKPRESSURE = "Backpressure";
     public static final String ANNOTATION_ELEMENT_BUFFER_SIZE = "buffer.size";
     public static final String ANNOTATION_ELEMENT_WORKERS = "workers";
     public static final String ANNOTATION_ELEMENT_MAX_BATCH_SIZE = "batch.size.max";
+    public static final String ANNOTATION_ELEMENT_WAIT_STRATEGY = "wait.strategy";
+    public static final String ANNOTATION_ELEMENT_PRODUCER = "producer";
+    public static final String ANNOTATION_ELEMENT_INTERVAL = "interval";
+    public static final String ANNOTATION_ELEMENT_BATCH_SIZE = "batch.size";
+    public static final String ANNOTATION_ELEMENT_FLUSH_INTERVAL = "flush.interval";
+    public static final String ANNOTATION_ELEMENT_OVERFLOW = "overflow";
+    public static final String ANNOTATION_ELEMENT_SPILL_PATH = "spill.path";
+    public static final String ANNOTATION_ELEMENT_IDLE_PERIOD = "idle.period";
+    public static final String ANNOTATION_ELEMENT_SPILL_STATE = "spill.state";
     public static final String ANNOTATION_ELEMENT_IDLE_TIME = "idle.time";
     public static final String ANNOTATION_ELEMENT_INCREMENT = "increment";
     public static final String ANNOTATION_ELEMENT_TYPE = "type";
+    public static final String ANNOTATION_ELEMENT_HIGH_WATERMARK = "high.watermark";
+    public static final String ANNOTATION_ELEMENT_LOW_WATERMARK = "low.watermark";
     public static final String ANNOTATION_BUFFER_SIZE = "BufferSize";
     public static final String ANNOTATION_IGNORE_EVENTS_OLDER_THAN_BUFFER = "IgnoreEventsOlderThanBuffer";
     public static final String ANNOTATION_ELEMENT_REF = "ref";
     public static final String ANNOTATION_ELEMENT_ENABLE = "enable";
     public static final String ANNOTATION_ELEMENT_INCLUDE = "include";
+    public static final String ANNOTATION_ELEMENT_BLOCKING = "blocking";
 
     public static final String TRUE = "true";
     public static final String TRIGGER_START = "start";
+    public static final String STORE_QUERY_PARAMETERS = "_StoreQueryParameters";
     public static final int DEFAULT_EVENT_BUFFER_SIZE = 1024;
     public static final int HAVING_STATE = -2;
     public static final int UNKNOWN_STATE = -1;
@@ -92,12 +110,14 @@ public final class SiddhiConstants {
     public static final String METRIC_INFIX_TRIGGERS = "Trigger";
     public static final String METRIC_INFIX_SIDDHI = "Siddhi";
     public static final String METRIC_INFIX_QUERIES = "Queries";
+    public static final String METRIC_INFIX_PARTITIONS = "Partitions";
     public static final String METRIC_INFIX_AGGREGATIONS = "Aggregations";
     public static final String METRIC_INFIX_WINDOWS = "Windows";
     public static final String METRIC_INFIX_SOURCES = "Sources";
     public static final String METRIC_INFIX_SOURCE_MAPPERS = "SourceMappers";
     public static final String METRIC_INFIX_SINKS = "Sinks";
     public static final String METRIC_INFIX_SINK_MAPPERS = "SinkMappers";
+    public static final String METRIC_INFIX_SNAPSHOTS = "Snapshots";
     public static final String METRIC_TYPE_FIND = "find";
     public static final String METRIC_TYPE_INSERT = "insert";
     public static final String METRIC_TYPE_UPDATE = "update";
@@ -18,55 +18,26 @@
 
 package org.wso2.siddhi.core.util;
 
-import org.apache.log4j.Logger;
 import org.wso2.siddhi.core.config.SiddhiAppContext;
 import org.wso2.siddhi.core.query.input.stream.single.EntryValveProcessor;
 
 import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.Semaphore;
-import java.util.concurrent.TimeUnit;
 
 /**
- * Scheduler based on System time
+ * Scheduler based on System time. The notifications are delivered through the app's {@link TimingWheel}.
  */
 public class SystemTimeBasedScheduler extends Scheduler {
-    private static final Logger log = Logger.getLogger(SystemTimeBasedScheduler.class);
-    private EventCaller eventCaller;
-    private volatile boolean running = false;
     private ScheduledExecutorService scheduledExecutorService;
-    private final Semaphore mutex;
 
     public SystemTimeBasedScheduler(ScheduledExecutorService scheduledExecutorService, Schedulable
             singleThreadEntryValve, SiddhiAppContext siddhiAppContext) {
         super(singleThreadEntryValve, siddhiAppContext);
         this.scheduledExecutorService = scheduledExecutorService;
-        this.eventCaller = new EventCaller();
-        mutex = new Semaphore(1);
     }
 
     @Override
     public void schedule(long time) {
-        if (!running && toNotifyQueue.size() == 1) {
-            try {
-                mutex.acquire();
-                if (!running) {
-                    running = true;
-                    long timeDiff = time - siddhiAppContext.getTimestampGenerator().currentTime();
-                    if (timeDiff > 0) {
-                        scheduledExecutorService.schedule(eventCaller, timeDiff, TimeUnit.MILLISECONDS);
-                    } else {
-                        scheduledExecutorService.schedule(eventCaller, 0, TimeUnit.MILLISECONDS);
-                    }
-                }
-
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                log.error("Error when scheduling System Time Based Scheduler", e);
-            } finally {
-                mutex.release();
-            }
-        }
-
+        scheduleAtTimingWheel(time);
     }
 
     @Override
@@ -76,50 +47,4 @@ public class SystemTimeBasedScheduler extends Scheduler {
         scheduler.elementId = elementId + "-" + key;
         return scheduler;
     }
-
-    private class EventCaller implements Runnable {
-        /**
-         * When an object implementing interface <code>Runnable</code> is used
-         * to create a thread, starting the thread causes the object's
-         * <code>run</code> method to be called in that separately executing
-         * thread.
-         * <p>
-         * The general contract of the method <code>run</code> is that it may
-         * take any action whatsoever.
-         *
-         * @see Thread#run()
-         */
-        @Override
-        public void run() {
-            try {
-                sendTimerEvents();
-
-                Long toNotifyTime = toNotifyQueue.peek();
-                long currentTime = siddhiAppContext.getTimestampGenerator().currentTime();
-                if (!siddhiAppContext.isPlayback()) {
-                    if (toNotifyTime != null) {
-                        scheduledExecutorService.schedule(eventCaller, toNotifyTime - currentTime, TimeUnit
-                                .MILLISECONDS);
-                    } else {
-                        try {
-                            mutex.acquire();
-                            running = false;
-                            if (toNotifyQueue.peek() != null) {
-                                running = true;
-                                scheduledExecutorService.schedule(eventCaller, 0, TimeUnit.MILLISECONDS);
-                            }
-                        } catch (InterruptedException e) {
-                            Thread.currentThread().interrupt();
-                            log.error("Error when scheduling System Time Based Scheduler", e);
-                        } finally {
-                            mutex.release();
-                        }
-                    }
-                }
-            } catch (Throwable t) {
-                log.error(t);
-            }
-        }
-
-    }
 }
@@ -18,17 +18,25 @@
 
 package org.wso2.siddhi.core.util;
 
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.ReentrantLock;
 
 /**
- * Thread Barrier used to avoid concurrency issues during event processing
+ * Thread Barrier used to avoid concurrency issues during event processing.
+ * <p>
+ * Threads consuming buffered events, such as the partition lanes, are let through the barrier so that locking the
+ * barrier waits until the buffered events are processed, instead of leaving them out of the locked section.
  */
 public class ThreadBarrier {
 
     private ReentrantLock lock = new ReentrantLock();
+    private final ThreadLocal<Boolean> bufferConsumer = new ThreadLocal<Boolean>();
+    private final AtomicInteger bufferConsumers = new AtomicInteger();
+    private final AtomicInteger bufferedEvents = new AtomicInteger();
+    private final Object bufferedEventsMonitor = new Object();
 
     public void pass() {
-        if (lock.isLocked()) {
+        if (lock.isLocked() && !isBufferConsumer()) {
             lock.lock();
             lock.unlock();
         }
@@ -36,10 +44,87 @@ public class ThreadBarrier {
 
     public void lock() {
         lock.lock();
+        if (!isBufferConsumer()) {
+            // A buffer consumer can not wait for its own buffered events to be processed
+            awaitBufferedEvents();
+        }
     }
 
     public void unlock() {
         lock.unlock();
     }
 
+    /**
+     * Register a consumer of buffered events, which is about to start. Locking the barrier only waits for the
+     * buffered events while there are consumers to process them.
+     */
+    public void registerBufferConsumer() {
+        bufferConsumers.incrementAndGet();
+    }
+
+    /**
+     * Unregister a consumer of buffered events, which has stopped.
+     */
+    public void unregisterBufferConsumer() {
+        if (bufferConsumers.decrementAndGet() == 0) {
+            notifyBufferedEventWaiters();
+        }
+    }
+
+    /**
+     * Mark the current thread as a consumer of buffered events, which passes the barrier even when it is locked.
+     *
+     * @param consumer whether the current thread consumes buffered events
+     */
+    public void setBufferConsumer(boolean consumer) {
+        if (consumer) {
+            bufferConsumer.set(Boolean.TRUE);
+        } else {
+            bufferConsumer.remove();
+        }
+    }
+
+    public boolean isBufferConsumer() {
+        return bufferConsumer.get() != null;
+    }
+
+    /**
+     * Record events buffered for a buffer consumer. Events are recorded before they are buffered, such that locking
+     * the barrier does not miss them.
+     *
+     * @param count number of buffered events
+     */
+    public void addBufferedEvents(int count) {
+        bufferedEvents.addAndGet(count);
+    }
+
+    /**
+     * Record buffered events which got processed or dropped by a buffer consumer.
+     *
+     * @param count number of events removed from the buffers
+     */
+    public void removeBufferedEvents(int count) {
+        if (bufferedEvents.addAndGet(-count) == 0) {
+            notifyBufferedEventWaiters();
+        }
+    }
+
+    private void notifyBufferedEventWaiters() {
+        synchronized (bufferedEventsMonitor) {
+            bufferedEventsMonitor.notifyAll();
+        }
+    }
+
+    private void awaitBufferedEvents() {
+        synchronized (bufferedEventsMonitor) {
+            while (bufferedEvents.get() > 0 && bufferConsumers.get() > 0) {
+                try {
+                    bufferedEventsMonitor.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
 }
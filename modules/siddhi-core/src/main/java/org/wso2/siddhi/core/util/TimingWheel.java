@@ -0,0 +1,294 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.util;
+
+import org.apache.log4j.Logger;
+import org.wso2.siddhi.core.config.SiddhiAppContext;
+import org.wso2.siddhi.core.util.timestamp.EventTimeBasedMillisTimestampGenerator;
+import org.wso2.siddhi.core.util.timestamp.TimestampGenerator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hashed timing wheel shared by all the {@link Scheduler}s of a Siddhi app. Each scheduler waiting for a notification
+ * is kept in the bucket of its notification time, hence registering a scheduler takes constant time, and all the
+ * schedulers that are due at a given time are notified together.
+ * <p>
+ * In the default mode the wheel is advanced by a single task of the app's {@link ScheduledExecutorService}, which
+ * is scheduled for the earliest notification time, and re-scheduled after every run, as the task can run before the
+ * notification time when the system clock drifts from the executor's clock. The due schedulers are then notified on
+ * the app's {@link ExecutorService}, such that a scheduler blocked downstream does not delay the others. In playback
+ * mode the wheel is advanced whenever the event time of the {@link EventTimeBasedMillisTimestampGenerator} changes,
+ * and the due schedulers are notified in the calling thread.
+ */
+public class TimingWheel {
+
+    private static final Logger log = Logger.getLogger(TimingWheel.class);
+    private static final int WHEEL_SIZE = 512;
+    private static final int MASK = WHEEL_SIZE - 1;
+
+    private final List<Scheduler>[] buckets;
+    private final List<Scheduler> overdue = new ArrayList<>();
+    private final PriorityQueue<Long> bucketDeadlines = new PriorityQueue<>();
+    private final TimestampGenerator timestampGenerator;
+    private final ScheduledExecutorService scheduledExecutorService;
+    private final ExecutorService executorService;
+    private final Ticker ticker = new Ticker();
+    private long processedTime;
+    private long armedTime = Long.MAX_VALUE;
+    private ScheduledFuture armedFuture;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel(SiddhiAppContext siddhiAppContext) {
+        this.timestampGenerator = siddhiAppContext.getTimestampGenerator();
+        this.processedTime = timestampGenerator.currentTime();
+        this.buckets = new List[WHEEL_SIZE];
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            buckets[i] = new ArrayList<>(2);
+        }
+        if (siddhiAppContext.isPlayback()) {
+            this.scheduledExecutorService = null;
+            this.executorService = null;
+            ((EventTimeBasedMillisTimestampGenerator) timestampGenerator).addTimeChangeListener(this::advance);
+        } else {
+            this.scheduledExecutorService = siddhiAppContext.getScheduledExecutorService();
+            this.executorService = siddhiAppContext.getExecutorService();
+        }
+    }
+
+    /**
+     * Register the scheduler to be notified at the given time. A scheduler can only wait for one notification at a
+     * time.
+     *
+     * @param scheduler the scheduler to be notified
+     * @param time      the time of the notification
+     */
+    void schedule(Scheduler scheduler, long time) {
+        synchronized (this) {
+            scheduler.timingWheelDeadline = time;
+            if (time <= processedTime) {
+                overdue.add(scheduler);
+            } else {
+                List<Scheduler> bucket = buckets[(int) (time & MASK)];
+                if (!containsDeadline(bucket, time)) {
+                    bucketDeadlines.add(time);
+                }
+                bucket.add(scheduler);
+            }
+            size++;
+            if (scheduledExecutorService != null && time < armedTime) {
+                arm(time);
+            }
+        }
+    }
+
+    /**
+     * Remove the scheduler from the wheel, if it is waiting for a notification.
+     *
+     * @param scheduler the scheduler to be removed
+     */
+    void cancel(Scheduler scheduler) {
+        synchronized (this) {
+            if (overdue.remove(scheduler) || buckets[(int) (scheduler.timingWheelDeadline & MASK)].remove(scheduler)) {
+                size--;
+            }
+        }
+    }
+
+    /**
+     * Notify all the schedulers that are due at the given time.
+     *
+     * @param currentTime the current time
+     */
+    public void advance(long currentTime) {
+        List<Scheduler> dueSchedulers;
+        synchronized (this) {
+            dueSchedulers = collectDue(currentTime);
+        }
+        if (dueSchedulers != null) {
+            for (Scheduler scheduler : dueSchedulers) {
+                notifyScheduler(scheduler);
+            }
+        }
+    }
+
+    /**
+     * Advance the wheel to the current time, and schedule the next run of the {@link Ticker} for the earliest
+     * notification time, even when no scheduler was due at this run.
+     */
+    private void tick() {
+        List<Scheduler> dueSchedulers;
+        synchronized (this) {
+            dueSchedulers = collectDue(timestampGenerator.currentTime());
+            armedTime = Long.MAX_VALUE;
+            long nextDeadline = nextDeadline();
+            if (nextDeadline != Long.MAX_VALUE) {
+                arm(nextDeadline);
+            }
+        }
+        if (dueSchedulers != null) {
+            for (Scheduler scheduler : dueSchedulers) {
+                try {
+                    executorService.execute(new Notifier(scheduler));
+                } catch (RejectedExecutionException e) {
+                    if (log.isDebugEnabled()) {
+                        log.debug("Dropping the notification of scheduler '" + scheduler.getElementId() + "' as " +
+                                "the Siddhi App is shutting down.");
+                    }
+                }
+            }
+        }
+    }
+
+    private static void notifyScheduler(Scheduler scheduler) {
+        try {
+            scheduler.onTimeout();
+        } catch (Throwable t) {
+            log.error("Error when sending timer events of scheduler '" + scheduler.getElementId() + "'", t);
+        }
+    }
+
+    /**
+     * @return the number of schedulers waiting for a notification
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    private List<Scheduler> collectDue(long currentTime) {
+        List<Scheduler> dueSchedulers = null;
+        if (!overdue.isEmpty()) {
+            dueSchedulers = new ArrayList<>(overdue);
+            overdue.clear();
+        }
+        if (currentTime > processedTime) {
+            // Every bucket needs to be visited at most once, even when the time jumped by more than a rotation
+            long lastTime = Math.min(currentTime, processedTime + WHEEL_SIZE);
+            for (long time = processedTime + 1; time <= lastTime; time++) {
+                List<Scheduler> bucket = buckets[(int) (time & MASK)];
+                int retained = 0;
+                for (int i = 0, bucketSize = bucket.size(); i < bucketSize; i++) {
+                    Scheduler scheduler = bucket.get(i);
+                    if (scheduler.timingWheelDeadline <= currentTime) {
+                        if (dueSchedulers == null) {
+                            dueSchedulers = new ArrayList<>();
+                        }
+                        dueSchedulers.add(scheduler);
+                    } else {
+                        bucket.set(retained++, scheduler);
+                    }
+                }
+                for (int i = bucket.size() - 1; i >= retained; i--) {
+                    bucket.remove(i);
+                }
+            }
+            processedTime = currentTime;
+        }
+        if (dueSchedulers != null) {
+            size -= dueSchedulers.size();
+        }
+        return dueSchedulers;
+    }
+
+    private static boolean containsDeadline(List<Scheduler> bucket, long time) {
+        for (int i = 0, bucketSize = bucket.size(); i < bucketSize; i++) {
+            if (bucket.get(i).timingWheelDeadline == time) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Find the earliest notification time from the min-heap of bucket deadlines. Deadlines already processed are
+     * removed from the heap, while the deadlines of cancelled schedulers are left to cause a run without
+     * notifications, instead of being searched for on cancellation.
+     *
+     * @return the earliest notification time, or {@link Long#MAX_VALUE} if no scheduler is waiting
+     */
+    private long nextDeadline() {
+        if (!overdue.isEmpty()) {
+            return processedTime;
+        }
+        if (size == 0) {
+            bucketDeadlines.clear();
+            return Long.MAX_VALUE;
+        }
+        Long nextDeadline = bucketDeadlines.peek();
+        while (nextDeadline != null && nextDeadline <= processedTime) {
+            bucketDeadlines.poll();
+            nextDeadline = bucketDeadlines.peek();
+        }
+        return nextDeadline != null ? nextDeadline : Long.MAX_VALUE;
+    }
+
+    private void arm(long time) {
+        if (armedFuture != null) {
+            // Only the latest run of the ticker is kept, such that runs do not multiply when re-armed earlier
+            armedFuture.cancel(false);
+        }
+        armedTime = time;
+        long delay = time - timestampGenerator.currentTime();
+        try {
+            armedFuture = scheduledExecutorService.schedule(ticker, delay > 0 ? delay : 0, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            armedFuture = null;
+            armedTime = Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * Task advancing the wheel to the current system time.
+     */
+    private class Ticker implements Runnable {
+
+        @Override
+        public void run() {
+            try {
+                tick();
+            } catch (Throwable t) {
+                log.error("Error when advancing the timing wheel", t);
+            }
+        }
+    }
+
+    /**
+     * Task notifying a due scheduler on the app's executor.
+     */
+    private static class Notifier implements Runnable {
+        private final Scheduler scheduler;
+
+        Notifier(Scheduler scheduler) {
+            this.scheduler = scheduler;
+        }
+
+        @Override
+        public void run() {
+            notifyScheduler(scheduler);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.util.collection.operator;
+
+import org.wso2.siddhi.core.event.ComplexEventChunk;
+import org.wso2.siddhi.core.event.state.StateEvent;
+import org.wso2.siddhi.core.event.stream.StreamEvent;
+import org.wso2.siddhi.core.event.stream.StreamEventCloner;
+import org.wso2.siddhi.core.event.stream.holder.SnapshotableStreamEventQueue;
+import org.wso2.siddhi.core.executor.ExpressionExecutor;
+import org.wso2.siddhi.core.executor.VariableExpressionExecutor;
+
+/**
+ * Operator which is related to window operations having an equality condition on a window attribute. Candidate
+ * events are looked up from a hash index of the window attribute and then matched against the whole condition.
+ */
+public class SnapshotableEventQueueIndexOperator extends SnapshotableEventQueueOperator {
+    private final VariableExpressionExecutor indexedVariableExecutor;
+    private final ExpressionExecutor indexValueExecutor;
+
+    public SnapshotableEventQueueIndexOperator(ExpressionExecutor expressionExecutor, int storeEventPosition,
+                                               VariableExpressionExecutor indexedVariableExecutor,
+                                               ExpressionExecutor indexValueExecutor) {
+        super(expressionExecutor, storeEventPosition);
+        this.indexedVariableExecutor = indexedVariableExecutor;
+        this.indexValueExecutor = indexValueExecutor;
+    }
+
+    @Override
+    public CompiledCondition cloneCompilation(String key) {
+        return new SnapshotableEventQueueIndexOperator(expressionExecutor.cloneExecutor(key), storeEventPosition,
+                (VariableExpressionExecutor) indexedVariableExecutor.cloneExecutor(key),
+                indexValueExecutor.cloneExecutor(key));
+    }
+
+    @Override
+    public StreamEvent find(StateEvent matchingEvent, Object storeEvents, StreamEventCloner storeEventCloner) {
+        SnapshotableStreamEventQueue storeEventQueue = (SnapshotableStreamEventQueue) storeEvents;
+        ComplexEventChunk<StreamEvent> returnEventChunk = new ComplexEventChunk<StreamEvent>(false);
+
+        Object indexValue = indexValueExecutor.execute(matchingEvent);
+        for (StreamEvent storeEvent : storeEventQueue.getIndex(indexedVariableExecutor.getPosition())
+                .find(indexValue)) {
+            matchingEvent.setEvent(storeEventPosition, storeEvent);
+            if ((Boolean) expressionExecutor.execute(matchingEvent)) {
+                returnEventChunk.add(storeEventCloner.copyStreamEvent(storeEvent));
+            }
+            matchingEvent.setEvent(storeEventPosition, null);
+        }
+        return returnEventChunk.getFirst();
+    }
+
+    @Override
+    public boolean contains(StateEvent matchingEvent, Object storeEvents) {
+        SnapshotableStreamEventQueue storeEventQueue = (SnapshotableStreamEventQueue) storeEvents;
+        try {
+            Object indexValue = indexValueExecutor.execute(matchingEvent);
+            for (StreamEvent storeEvent : storeEventQueue.getIndex(indexedVariableExecutor.getPosition())
+                    .find(indexValue)) {
+                matchingEvent.setEvent(storeEventPosition, storeEvent);
+                if ((Boolean) expressionExecutor.execute(matchingEvent)) {
+                    return true;
+                }
+            }
+            return false;
+        } finally {
+            matchingEvent.setEvent(storeEventPosition, null);
+        }
+    }
+}
@@ -23,7 +23,7 @@ import org.apache.log4j.Logger;
 import org.wso2.siddhi.core.event.Event;
 import org.wso2.siddhi.core.stream.StreamJunction;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -35,7 +35,7 @@ public class StreamHandler implements EventHandler<EventExchangeHolder> {
     private int batchSize;
     private final String streamName;
     private final String siddhiAppName;
-    private List<Event> eventBuffer = new LinkedList<>();
+    private List<Event> eventBuffer = new ArrayList<>();
     private static final Logger log = Logger.getLogger(StreamHandler.class);
 
 
@@ -52,31 +52,27 @@ public class StreamHandler implements EventHandler<EventExchangeHolder> {
         if (!isProcessed) {
             eventBuffer.add(eventExchangeHolder.getEvent());
             if (eventBuffer.size() == batchSize || endOfBatch) {
-                for (StreamJunction.Receiver receiver : receivers) {
-                    try {
-                        receiver.receive(eventBuffer);
-                    } catch (Throwable t) {
-                        log.error("Error in SiddhiApp '" + siddhiAppName +
-                                "' after consuming events from Stream " +
-                                "'" + streamName + "', " + t.getMessage(), t);
-                    }
-                }
-                eventBuffer.clear();
-            }
-        } else if (endOfBatch) {
-            if (eventBuffer.size() != 0) {
-                for (StreamJunction.Receiver receiver : receivers) {
-                    try {
-                        receiver.receive(eventBuffer);
-                    } catch (Throwable t) {
-                        log.error("Error in SiddhiApp '" + siddhiAppName +
-                                "' after consuming events from Stream " +
-                                "'" + streamName + "', " + t.getMessage(), t);
-                    }
-                }
-                eventBuffer.clear();
+                sendEvents();
             }
+        } else if (endOfBatch && eventBuffer.size() != 0) {
+            sendEvents();
         }
+    }
 
+    /**
+     * Send the buffered events of the ring buffer to the receivers as a single batch. Events are passed by
+     * reference, as the ring buffer slots are not reused until this handler releases the sequences on return.
+     */
+    private void sendEvents() {
+        for (StreamJunction.Receiver receiver : receivers) {
+            try {
+                receiver.receive(eventBuffer);
+            } catch (Throwable t) {
+                log.error("Error in SiddhiApp '" + siddhiAppName +
+                        "' after consuming events from Stream " +
+                        "'" + streamName + "', " + t.getMessage(), t);
+            }
+        }
+        eventBuffer.clear();
     }
 }
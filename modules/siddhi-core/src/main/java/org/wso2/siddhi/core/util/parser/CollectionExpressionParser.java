@@ -217,6 +217,10 @@ public class CollectionExpressionParser {
                     leftCollectionExpression.getCollectionScope() == PRIMARY_KEY_ATTRIBUTE ||
                     leftCollectionExpression.getCollectionScope() == PARTIAL_PRIMARY_KEY_ATTRIBUTE) &&
                     rightCollectionExpression.getCollectionScope() == NON) {
+                if (!isIndexApplicable(leftCollectionExpression, ((Compare) expression).getOperator(),
+                        indexedEventHolder)) {
+                    return new BasicCollectionExpression(expression, EXHAUSTIVE);
+                }
                 switch (leftCollectionExpression.getCollectionScope()) {
                     case INDEXED_ATTRIBUTE:
                         return new CompareCollectionExpression((Compare) expression, INDEXED_RESULT_SET,
@@ -255,6 +259,9 @@ public class CollectionExpressionParser {
                     case NOT_EQUAL:
                         break;
                 }
+                if (!isIndexApplicable(rightCollectionExpression, operator, indexedEventHolder)) {
+                    return new BasicCollectionExpression(expression, EXHAUSTIVE);
+                }
                 switch (rightCollectionExpression.getCollectionScope()) {
                     case INDEXED_ATTRIBUTE:
                         return new CompareCollectionExpression((Compare) expression, INDEXED_RESULT_SET,
@@ -379,6 +386,19 @@ public class CollectionExpressionParser {
     }
 
 
+    /**
+     * Range compare operations can only use sorted indexes, hash indexes are only used for equality operations.
+     */
+    private static boolean isIndexApplicable(CollectionExpression attributeCollectionExpression,
+                                             Compare.Operator operator, IndexedEventHolder indexedEventHolder) {
+        if (attributeCollectionExpression.getCollectionScope() != INDEXED_ATTRIBUTE ||
+                operator == Compare.Operator.EQUAL || operator == Compare.Operator.NOT_EQUAL) {
+            return true;
+        }
+        return indexedEventHolder.isAttributeRangeIndexed(
+                ((AttributeCollectionExpression) attributeCollectionExpression).getAttribute());
+    }
+
     private static boolean isCollectionVariable(MatchingMetaInfoHolder matchingMetaInfoHolder, Variable variable) {
         if (variable.getStreamId() != null) {
             MetaStreamEvent collectionStreamEvent = matchingMetaInfoHolder.getMetaStateEvent().getMetaStreamEvent
@@ -398,7 +418,9 @@ public class CollectionExpressionParser {
                 matchingMetaInfoHolder.getMetaStateEvent().getMetaStreamEvents()
                         [matchingMetaInfoHolder.getStoreEventIndex()].getEventType()
                         != MetaStreamEvent.EventType.DEFAULT) {
-            return true;
+            // variables without a stream id refer to the event of the current state, when it is known
+            return matchingMetaInfoHolder.getCurrentState() < 0 ||
+                    matchingMetaInfoHolder.getCurrentState() == matchingMetaInfoHolder.getStoreEventIndex();
         }
         return false;
     }
@@ -37,6 +37,7 @@ import org.wso2.siddhi.query.api.exception.SiddhiAppValidationException;
 import org.wso2.siddhi.query.api.util.AnnotationHelper;
 
 import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
 
 /**
@@ -49,10 +50,36 @@ public class EventHolderPasser {
                                     SiddhiAppContext siddhiAppContext) {
         ZeroStreamEventConverter eventConverter = new ZeroStreamEventConverter();
 
-        PrimaryKeyReferenceHolder[] primaryKeyReferenceHolders = null;
+        PrimaryKeyReferenceHolder[] primaryKeyReferenceHolders = parsePrimaryKey(tableDefinition);
+        Map<String, AttributeIndex.Type> indexTypes = new HashMap<String, AttributeIndex.Type>();
+        Map<String, Integer> indexMetaData = parseIndexes(tableDefinition, indexTypes);
 
-        Map<String, Integer> indexMetaData = new HashMap<String, Integer>();
+        if (primaryKeyReferenceHolders != null || indexMetaData.size() > 0) {
+            return new IndexEventHolder(tableStreamEventPool, eventConverter, primaryKeyReferenceHolders,
+                    isNumericPrimaryKey(tableDefinition, primaryKeyReferenceHolders), indexMetaData, indexTypes,
+                    tableDefinition, siddhiAppContext);
+        } else {
+            MetaStreamEvent metaStreamEvent = new MetaStreamEvent();
+            for (Attribute attribute : tableDefinition.getAttributeList()) {
+                metaStreamEvent.addOutputData(attribute);
+            }
+            StreamEventCloner streamEventCloner = new StreamEventCloner(metaStreamEvent, tableStreamEventPool);
+            return new ListEventHolder(tableStreamEventPool, eventConverter,
+                    new StreamEventClonerHolder(streamEventCloner));
+        }
+    }
+
+    public static OffHeapEventHolder parseOffHeap(AbstractDefinition tableDefinition,
+                                                  SiddhiAppContext siddhiAppContext) {
+        PrimaryKeyReferenceHolder[] primaryKeyReferenceHolders = parsePrimaryKey(tableDefinition);
+        Map<String, AttributeIndex.Type> indexTypes = new HashMap<String, AttributeIndex.Type>();
+        Map<String, Integer> indexMetaData = parseIndexes(tableDefinition, indexTypes);
+        return new OffHeapEventHolder(primaryKeyReferenceHolders,
+                isNumericPrimaryKey(tableDefinition, primaryKeyReferenceHolders), indexMetaData, indexTypes,
+                tableDefinition, siddhiAppContext);
+    }
 
+    private static PrimaryKeyReferenceHolder[] parsePrimaryKey(AbstractDefinition tableDefinition) {
         // primaryKey.
         Annotation primaryKeyAnnotation = AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_PRIMARY_KEY,
                 tableDefinition.getAnnotations());
@@ -62,21 +89,38 @@ public class EventHolderPasser {
                         "contains " + primaryKeyAnnotation.getElements().size() + " element, at '" +
                         tableDefinition.getId() + "'");
             }
-            primaryKeyReferenceHolders = primaryKeyAnnotation.getElements().stream()
+            return primaryKeyAnnotation.getElements().stream()
                     .map(element -> element.getValue().trim())
                     .map(key -> new PrimaryKeyReferenceHolder(key, tableDefinition.getAttributePosition(key)))
                     .toArray(PrimaryKeyReferenceHolder[]::new);
         }
+        return null;
+    }
+
+    private static Map<String, Integer> parseIndexes(AbstractDefinition tableDefinition,
+                                                     Map<String, AttributeIndex.Type> indexTypes) {
+        Map<String, Integer> indexMetaData = new HashMap<String, Integer>();
 
         // indexes.
         Annotation indexAnnotation = AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_INDEX,
                 tableDefinition.getAnnotations());
         if (indexAnnotation != null) {
-            if (indexAnnotation.getElements().size() == 0) {
-                throw new SiddhiAppValidationException(SiddhiConstants.ANNOTATION_INDEX + " annotation contains "
-                        + indexAnnotation.getElements().size() + " element");
+            AttributeIndex.Type indexType = AttributeIndex.Type.SORTED;
+            String type = indexAnnotation.getElement(SiddhiConstants.ANNOTATION_ELEMENT_TYPE);
+            if (type != null) {
+                try {
+                    indexType = AttributeIndex.Type.valueOf(type.trim().toUpperCase(Locale.ENGLISH));
+                } catch (IllegalArgumentException e) {
+                    throw new SiddhiAppCreationException("Unsupported index type '" + type + "' defined in " +
+                            SiddhiConstants.ANNOTATION_INDEX + " annotation, at '" + tableDefinition.getId() +
+                            "', supported types are 'sorted' and 'hash'", e,
+                            indexAnnotation.getQueryContextStartIndex(), indexAnnotation.getQueryContextEndIndex());
+                }
             }
             for (Element element : indexAnnotation.getElements()) {
+                if (element.getKey() != null) {
+                    continue;
+                }
                 Integer previousValue = indexMetaData.put(element.getValue().trim(), tableDefinition
                         .getAttributePosition(element.getValue().trim()));
                 if (previousValue != null) {
@@ -85,6 +129,11 @@ public class EventHolderPasser {
                             tableDefinition.getId() + "'", indexAnnotation.getQueryContextStartIndex(),
                             indexAnnotation.getQueryContextEndIndex());
                 }
+                indexTypes.put(element.getValue().trim(), indexType);
+            }
+            if (indexMetaData.size() == 0) {
+                throw new SiddhiAppValidationException(SiddhiConstants.ANNOTATION_INDEX + " annotation contains "
+                        + indexMetaData.size() + " element");
             }
         }
 
@@ -96,32 +145,18 @@ public class EventHolderPasser {
                     "supported anymore, please use @PrimaryKey or @Index annotations instead," +
                     " at '" + tableDefinition.getId() + "'");
         }
+        return indexMetaData;
+    }
 
-        if (primaryKeyReferenceHolders != null || indexMetaData.size() > 0) {
-            boolean isNumeric = false;
-            if (primaryKeyReferenceHolders != null) {
-                if (primaryKeyReferenceHolders.length == 1) {
-                    Attribute.Type type = tableDefinition.getAttributeType(
-                            primaryKeyReferenceHolders[0].getPrimaryKeyAttribute());
-                    if (type == Attribute.Type.DOUBLE || type == Attribute.Type.FLOAT || type == Attribute.Type.INT ||
-                            type == Attribute.Type.LONG) {
-                        isNumeric = true;
-                    }
-                }
-
-            }
-            return new IndexEventHolder(tableStreamEventPool, eventConverter, primaryKeyReferenceHolders, isNumeric,
-                    indexMetaData, tableDefinition, siddhiAppContext);
-        } else {
-            MetaStreamEvent metaStreamEvent = new MetaStreamEvent();
-            for (Attribute attribute : tableDefinition.getAttributeList()) {
-                metaStreamEvent.addOutputData(attribute);
-            }
-            StreamEventCloner streamEventCloner = new StreamEventCloner(metaStreamEvent, tableStreamEventPool);
-            return new ListEventHolder(tableStreamEventPool, eventConverter,
-                    new StreamEventClonerHolder(streamEventCloner));
+    private static boolean isNumericPrimaryKey(AbstractDefinition tableDefinition,
+                                               PrimaryKeyReferenceHolder[] primaryKeyReferenceHolders) {
+        if (primaryKeyReferenceHolders != null && primaryKeyReferenceHolders.length == 1) {
+            Attribute.Type type = tableDefinition.getAttributeType(
+                    primaryKeyReferenceHolders[0].getPrimaryKeyAttribute());
+            return type == Attribute.Type.DOUBLE || type == Attribute.Type.FLOAT || type == Attribute.Type.INT ||
+                    type == Attribute.Type.LONG;
         }
+        return false;
     }
 
-
 }
@@ -214,6 +214,23 @@ import static org.wso2.siddhi.core.util.SiddhiConstants.UNKNOWN_STATE;
  */
 public class ExpressionParser {
 
+    /**
+     * Wrap the given executor to be compiled, if expression compilation is enabled for the Siddhi app.
+     *
+     * @param expressionExecutor Executor of the parsed expression
+     * @param metaEvent          Meta Event
+     * @param siddhiAppContext   SiddhiAppContext
+     * @return ExpressionExecutor to be used in place of the given executor
+     */
+    public static ExpressionExecutor compileExpression(ExpressionExecutor expressionExecutor,
+                                                       MetaComplexEvent metaEvent,
+                                                       SiddhiAppContext siddhiAppContext) {
+        if (siddhiAppContext.getExpressionCompiler() == null) {
+            return expressionExecutor;
+        }
+        return siddhiAppContext.getExpressionCompiler().wrap(expressionExecutor, metaEvent);
+    }
+
     /**
      * Parse the given expression and create the appropriate Executor by recursively traversing the expression
      *
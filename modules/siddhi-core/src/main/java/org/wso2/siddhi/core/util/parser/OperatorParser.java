@@ -27,6 +27,7 @@ import org.wso2.siddhi.core.exception.OperationNotSupportedException;
 import org.wso2.siddhi.core.executor.ExpressionExecutor;
 import org.wso2.siddhi.core.executor.VariableExpressionExecutor;
 import org.wso2.siddhi.core.table.Table;
+import org.wso2.siddhi.core.table.holder.EventHolder;
 import org.wso2.siddhi.core.table.holder.IndexedEventHolder;
 import org.wso2.siddhi.core.util.collection.executor.CollectionExecutor;
 import org.wso2.siddhi.core.util.collection.expression.AndMultiPrimaryKeyCollectionExpression;
@@ -39,10 +40,14 @@ import org.wso2.siddhi.core.util.collection.operator.IndexOperator;
 import org.wso2.siddhi.core.util.collection.operator.MapOperator;
 import org.wso2.siddhi.core.util.collection.operator.MatchingMetaInfoHolder;
 import org.wso2.siddhi.core.util.collection.operator.Operator;
+import org.wso2.siddhi.core.util.collection.operator.SnapshotableEventQueueIndexOperator;
 import org.wso2.siddhi.core.util.collection.operator.OverwriteTableIndexOperator;
+import org.wso2.siddhi.query.api.definition.Attribute;
 import org.wso2.siddhi.query.api.expression.Expression;
 import org.wso2.siddhi.query.api.expression.Variable;
+import org.wso2.siddhi.query.api.expression.condition.And;
 import org.wso2.siddhi.query.api.expression.condition.Compare;
+import org.wso2.siddhi.query.api.expression.constant.Constant;
 
 import java.util.Arrays;
 import java.util.Collection;
@@ -94,6 +99,28 @@ public class OperatorParser {
             ExpressionExecutor expressionExecutor = ExpressionParser.parseExpression(expression,
                     matchingMetaInfoHolder.getMetaStateEvent(), matchingMetaInfoHolder.getCurrentState(), tableMap,
                     variableExpressionExecutors, siddhiAppContext, false, 0, queryName);
+            if (!(storeEvents instanceof EventHolder)) {
+                // Window contents are not updated in place, hence they can be looked up through a hash index
+                Compare indexableCompare = findIndexableCompare(expression, matchingMetaInfoHolder);
+                if (indexableCompare != null) {
+                    boolean isLeftIndexed = isStoreVariable(matchingMetaInfoHolder,
+                            indexableCompare.getLeftExpression());
+                    ExpressionExecutor indexedVariableExecutor = ExpressionParser.parseExpression(isLeftIndexed ?
+                                    indexableCompare.getLeftExpression() : indexableCompare.getRightExpression(),
+                            matchingMetaInfoHolder.getMetaStateEvent(), matchingMetaInfoHolder.getCurrentState(),
+                            tableMap, variableExpressionExecutors, siddhiAppContext, false, 0, queryName);
+                    ExpressionExecutor indexValueExecutor = ExpressionParser.parseExpression(isLeftIndexed ?
+                                    indexableCompare.getRightExpression() : indexableCompare.getLeftExpression(),
+                            matchingMetaInfoHolder.getMetaStateEvent(), matchingMetaInfoHolder.getCurrentState(),
+                            tableMap, variableExpressionExecutors, siddhiAppContext, false, 0, queryName);
+                    if (indexedVariableExecutor.getReturnType() == indexValueExecutor.getReturnType() &&
+                            isHashIndexable(indexedVariableExecutor.getReturnType())) {
+                        return new SnapshotableEventQueueIndexOperator(expressionExecutor,
+                                matchingMetaInfoHolder.getStoreEventIndex(),
+                                (VariableExpressionExecutor) indexedVariableExecutor, indexValueExecutor);
+                    }
+                }
+            }
             return new SnapshotableEventQueueOperator(expressionExecutor, matchingMetaInfoHolder.getStoreEventIndex());
         } else if (storeEvents instanceof Map) {
             ExpressionExecutor expressionExecutor = ExpressionParser.parseExpression(expression,
@@ -110,6 +137,55 @@ public class OperatorParser {
         }
     }
 
+    /**
+     * Finds an equality comparison of the condition between a store attribute and a constant or an attribute of the
+     * matching event, that must hold for any store event matching the whole condition.
+     */
+    private static Compare findIndexableCompare(Expression expression,
+                                                MatchingMetaInfoHolder matchingMetaInfoHolder) {
+        if (expression instanceof And) {
+            Compare compare = findIndexableCompare(((And) expression).getLeftExpression(), matchingMetaInfoHolder);
+            if (compare == null) {
+                compare = findIndexableCompare(((And) expression).getRightExpression(), matchingMetaInfoHolder);
+            }
+            return compare;
+        } else if (expression instanceof Compare && ((Compare) expression).getOperator() == Compare.Operator.EQUAL) {
+            Expression leftExpression = ((Compare) expression).getLeftExpression();
+            Expression rightExpression = ((Compare) expression).getRightExpression();
+            if ((isStoreVariable(matchingMetaInfoHolder, leftExpression) &&
+                    isMatchingValue(matchingMetaInfoHolder, rightExpression)) ||
+                    (isStoreVariable(matchingMetaInfoHolder, rightExpression) &&
+                            isMatchingValue(matchingMetaInfoHolder, leftExpression))) {
+                return (Compare) expression;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isStoreVariable(MatchingMetaInfoHolder matchingMetaInfoHolder, Expression expression) {
+        if (expression instanceof Variable && ((Variable) expression).getStreamId() != null) {
+            String streamId = ((Variable) expression).getStreamId();
+            MetaStreamEvent storeStreamEvent = matchingMetaInfoHolder.getMetaStateEvent().getMetaStreamEvent
+                    (matchingMetaInfoHolder.getStoreEventIndex());
+            return storeStreamEvent != null && ((storeStreamEvent.getInputReferenceId() != null &&
+                    streamId.equals(storeStreamEvent.getInputReferenceId())) ||
+                    (storeStreamEvent.getLastInputDefinition() != null &&
+                            streamId.equals(storeStreamEvent.getLastInputDefinition().getId())));
+        }
+        return false;
+    }
+
+    private static boolean isMatchingValue(MatchingMetaInfoHolder matchingMetaInfoHolder, Expression expression) {
+        return expression instanceof Constant || (expression instanceof Variable &&
+                ((Variable) expression).getStreamId() != null && !isStoreVariable(matchingMetaInfoHolder, expression));
+    }
+
+    private static boolean isHashIndexable(Attribute.Type type) {
+        // Floating point values are excluded as their equality differs from the equality of their wrappers
+        return type == Attribute.Type.STRING || type == Attribute.Type.INT || type == Attribute.Type.LONG ||
+                type == Attribute.Type.BOOL;
+    }
+
     private static boolean isTableIndexVariable(MatchingMetaInfoHolder matchingMetaInfoHolder, Expression expression,
                                                 String indexAttribute) {
         if (expression instanceof Variable) {
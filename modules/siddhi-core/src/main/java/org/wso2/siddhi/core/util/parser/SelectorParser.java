@@ -205,7 +205,8 @@ public class SelectorParser {
                 } else {
                     ((MetaStreamEvent) metaComplexEvent).addOutputDataAllowingDuplicate(null);
                 }
-                AttributeProcessor attributeProcessor = new AttributeProcessor(expressionExecutor);
+                AttributeProcessor attributeProcessor = new AttributeProcessor(ExpressionParser.compileExpression(
+                        expressionExecutor, metaComplexEvent, siddhiAppContext));
                 attributeProcessor.setOutputPosition(i);
                 attributeProcessorList.add(attributeProcessor);
                 outputDefinition.attribute(outputAttribute.getRename(), attributeProcessor.getOutputType());
@@ -22,13 +22,16 @@ import org.apache.log4j.Logger;
 import org.wso2.siddhi.core.config.SiddhiAppContext;
 import org.wso2.siddhi.core.config.SiddhiContext;
 import org.wso2.siddhi.core.exception.SiddhiAppCreationException;
+import org.wso2.siddhi.core.executor.compile.ExpressionCompiler;
 import org.wso2.siddhi.core.partition.PartitionRuntime;
 import org.wso2.siddhi.core.query.QueryRuntime;
+import org.wso2.siddhi.core.stream.input.source.SourceFlowController;
 import org.wso2.siddhi.core.util.ElementIdGenerator;
 import org.wso2.siddhi.core.util.ExceptionUtil;
 import org.wso2.siddhi.core.util.SiddhiAppRuntimeBuilder;
 import org.wso2.siddhi.core.util.SiddhiConstants;
 import org.wso2.siddhi.core.util.ThreadBarrier;
+import org.wso2.siddhi.core.util.TimingWheel;
 import org.wso2.siddhi.core.util.snapshot.SnapshotService;
 import org.wso2.siddhi.core.util.timestamp.EventTimeBasedMillisTimestampGenerator;
 import org.wso2.siddhi.core.util.timestamp.SystemCurrentTimeMillisTimestampGenerator;
@@ -64,6 +67,9 @@ import static org.wso2.siddhi.core.util.parser.helper.AnnotationHelper.generateI
  */
 public class SiddhiAppParser {
     private static final Logger log = Logger.getLogger(SiddhiAppParser.class);
+    private static final double DEFAULT_HIGH_WATERMARK = 0.8;
+    private static final double DEFAULT_LOW_WATERMARK = 0.5;
+    private static final long DEFAULT_BACKPRESSURE_CHECK_INTERVAL = 100;
 
     /**
      * Parse an SiddhiApp returning SiddhiAppRuntime
@@ -210,7 +216,32 @@ public class SiddhiAppParser {
             } else {
                 siddhiAppContext.setTimestampGenerator(new SystemCurrentTimeMillisTimestampGenerator());
             }
-            siddhiAppContext.setSnapshotService(new SnapshotService(siddhiAppContext));
+            siddhiAppContext.setTimingWheel(new TimingWheel(siddhiAppContext));
+            SnapshotService snapshotService = new SnapshotService(siddhiAppContext);
+            Element snapshotBlockingElement = AnnotationHelper.getAnnotationElement(
+                    SiddhiConstants.ANNOTATION_SNAPSHOT, SiddhiConstants.ANNOTATION_ELEMENT_BLOCKING,
+                    siddhiApp.getAnnotations());
+            if (snapshotBlockingElement != null) {
+                snapshotService.setNonBlockingSnapshot(!Boolean.parseBoolean(snapshotBlockingElement.getValue()));
+            }
+            siddhiAppContext.setSnapshotService(snapshotService);
+
+            annotation = AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_COMPILE,
+                    siddhiApp.getAnnotations());
+            if (annotation != null) {
+                for (Element compileElement : annotation.getElements()) {
+                    if ((compileElement.getKey() == null ||
+                            compileElement.getKey().equalsIgnoreCase(SiddhiConstants.ANNOTATION_ELEMENT_ENABLE)) &&
+                            Boolean.parseBoolean(compileElement.getValue())) {
+                        siddhiAppContext.setExpressionCompiler(new ExpressionCompiler(siddhiAppContext.getName()));
+                    }
+                }
+            }
+            annotation = AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_BACKPRESSURE,
+                    siddhiApp.getAnnotations());
+            if (annotation != null) {
+                siddhiAppContext.setSourceFlowController(createSourceFlowController(annotation, siddhiAppContext));
+            }
             siddhiAppContext.setElementIdGenerator(new ElementIdGenerator(siddhiAppContext.getName()));
 
         } catch (DuplicateAnnotationException e) {
@@ -269,11 +300,60 @@ public class SiddhiAppParser {
                 }
             }
         }
+        if (siddhiAppContext.getExpressionCompiler() != null) {
+            siddhiAppContext.getExpressionCompiler().compilePendingExpressions();
+        }
         //Done last as they have to be started last
         defineTriggerDefinitions(siddhiAppRuntimeBuilder, siddhiApp.getTriggerDefinitionMap(), siddhiAppContext);
         return siddhiAppRuntimeBuilder;
     }
 
+    private static SourceFlowController createSourceFlowController(Annotation annotation,
+                                                                   SiddhiAppContext siddhiAppContext) {
+        double highWatermark = DEFAULT_HIGH_WATERMARK;
+        double lowWatermark = DEFAULT_LOW_WATERMARK;
+        long interval = DEFAULT_BACKPRESSURE_CHECK_INTERVAL;
+        for (Element element : annotation.getElements()) {
+            String value = element.getValue();
+            try {
+                if (SiddhiConstants.ANNOTATION_ELEMENT_HIGH_WATERMARK.equalsIgnoreCase(element.getKey())) {
+                    highWatermark = Double.parseDouble(value);
+                } else if (SiddhiConstants.ANNOTATION_ELEMENT_LOW_WATERMARK.equalsIgnoreCase(element.getKey())) {
+                    lowWatermark = Double.parseDouble(value);
+                } else if (SiddhiConstants.ANNOTATION_ELEMENT_INTERVAL.equalsIgnoreCase(element.getKey())) {
+                    interval = SiddhiCompiler.parseTimeConstantDefinition(value).value();
+                } else {
+                    throw new SiddhiAppCreationException("Backpressure annotation accepts only " +
+                            SiddhiConstants.ANNOTATION_ELEMENT_HIGH_WATERMARK + ", " +
+                            SiddhiConstants.ANNOTATION_ELEMENT_LOW_WATERMARK + " and " +
+                            SiddhiConstants.ANNOTATION_ELEMENT_INTERVAL + " but found '" + element.getKey() + "'.",
+                            annotation.getQueryContextStartIndex(), annotation.getQueryContextEndIndex(),
+                            siddhiAppContext.getName(), siddhiAppContext.getSiddhiAppString());
+                }
+            } catch (NumberFormatException | SiddhiParserException e) {
+                throw new SiddhiAppCreationException("Invalid value '" + value + "' for '" + element.getKey() +
+                        "' of backpressure annotation.", e, annotation.getQueryContextStartIndex(),
+                        annotation.getQueryContextEndIndex(), siddhiAppContext.getName(),
+                        siddhiAppContext.getSiddhiAppString());
+            }
+        }
+        if (!(lowWatermark >= 0 && lowWatermark < highWatermark && highWatermark <= 1)) {
+            throw new SiddhiAppCreationException("Backpressure annotation requires " +
+                    SiddhiConstants.ANNOTATION_ELEMENT_LOW_WATERMARK + " and " +
+                    SiddhiConstants.ANNOTATION_ELEMENT_HIGH_WATERMARK + " to satisfy 0 <= low < high <= 1, but " +
+                    "found low '" + lowWatermark + "' and high '" + highWatermark + "'.",
+                    annotation.getQueryContextStartIndex(), annotation.getQueryContextEndIndex(),
+                    siddhiAppContext.getName(), siddhiAppContext.getSiddhiAppString());
+        }
+        if (interval <= 0) {
+            throw new SiddhiAppCreationException("Backpressure annotation requires a positive " +
+                    SiddhiConstants.ANNOTATION_ELEMENT_INTERVAL + ", but found '" + interval + "' ms.",
+                    annotation.getQueryContextStartIndex(), annotation.getQueryContextEndIndex(),
+                    siddhiAppContext.getName(), siddhiAppContext.getSiddhiAppString());
+        }
+        return new SourceFlowController(highWatermark, lowWatermark, interval, siddhiAppContext);
+    }
+
     private static void defineTriggerDefinitions(SiddhiAppRuntimeBuilder siddhiAppRuntimeBuilder,
                                                  Map<String, TriggerDefinition> triggerDefinitionMap,
                                                  SiddhiAppContext siddhiAppContext) {
@@ -192,7 +192,8 @@ public class SingleInputStreamParser {
 
         ConfigReader configReader;
         if (streamHandler instanceof Filter) {
-            return new FilterProcessor(attributeExpressionExecutors[0]);
+            return new FilterProcessor(ExpressionParser.compileExpression(attributeExpressionExecutors[0], metaEvent,
+                    siddhiAppContext));
 
         } else if (streamHandler instanceof Window) {
             WindowProcessor windowProcessor = (WindowProcessor) SiddhiClassLoader.loadExtensionImplementation(
@@ -91,7 +91,31 @@ public class StoreQueryParser {
     public static StoreQueryRuntime parse(StoreQuery storeQuery, SiddhiAppContext siddhiAppContext,
                                           Map<String, Table> tableMap, Map<String, Window> windowMap,
                                           Map<String, AggregationRuntime> aggregationMap) {
+        return parse(storeQuery, siddhiAppContext, tableMap, windowMap, aggregationMap, null);
+    }
 
+    /**
+     * Parse a storeQuery whose 'on' condition refers to parameters, and return corresponding StoreQueryRuntime.
+     * The parameters are referred as the attributes of the given parameter definition, and their values are passed
+     * when executing the StoreQueryRuntime.
+     *
+     * @param storeQuery          storeQuery to be parsed.
+     * @param siddhiAppContext    associated Siddhi app context.
+     * @param tableMap            keyvalue containing tables.
+     * @param windowMap           keyvalue containing windows.
+     * @param aggregationMap      keyvalue containing aggregation runtimes.
+     * @param parameterDefinition definition of the parameters, or null if the storeQuery has no parameters.
+     * @return StoreQueryRuntime
+     */
+    public static StoreQueryRuntime parse(StoreQuery storeQuery, SiddhiAppContext siddhiAppContext,
+                                          Map<String, Table> tableMap, Map<String, Window> windowMap,
+                                          Map<String, AggregationRuntime> aggregationMap,
+                                          StreamDefinition parameterDefinition) {
+
+        if (parameterDefinition != null && storeQuery.getType() != StoreQuery.StoreQueryType.FIND) {
+            throw new StoreQueryCreationException("Parameters are only supported by store queries finding " +
+                    "events, but found a " + storeQuery.getType() + " store query");
+        }
         final LockWrapper lockWrapper = new LockWrapper("StoreQueryLock");
         lockWrapper.setLock(new ReentrantLock());
 
@@ -141,11 +165,15 @@ public class StoreQueryParser {
                     table = tableMap.get(inputStore.getStoreId());
                     if (table != null) {
                         return constructStoreQueryRuntime(table, storeQuery, siddhiAppContext, tableMap, windowMap,
-                                queryName,
-                                metaPosition, onCondition, metaStreamEvent, variableExpressionExecutors, lockWrapper);
+                                queryName, metaPosition, onCondition, metaStreamEvent, variableExpressionExecutors,
+                                lockWrapper, parameterDefinition);
                     } else {
                         AggregationRuntime aggregation = aggregationMap.get(inputStore.getStoreId());
                         if (aggregation != null) {
+                            if (parameterDefinition != null) {
+                                throw new StoreQueryCreationException("Parameters are not supported by store " +
+                                        "queries on aggregation \"" + inputStore.getStoreId() + "\"");
+                            }
                             return constructStoreQueryRuntime(aggregation, storeQuery, siddhiAppContext, tableMap,
                                     windowMap, queryName, within, per, onCondition, metaStreamEvent,
                                     variableExpressionExecutors, lockWrapper);
@@ -154,7 +182,7 @@ public class StoreQueryParser {
                             if (window != null) {
                                 return constructStoreQueryRuntime(window, storeQuery, siddhiAppContext,
                                         tableMap, windowMap, queryName, metaPosition, onCondition, metaStreamEvent,
-                                        variableExpressionExecutors, lockWrapper);
+                                        variableExpressionExecutors, lockWrapper, parameterDefinition);
                             } else {
                                 throw new StoreQueryCreationException(
                                         inputStore.getStoreId() + " is neither a table, aggregation or window");
@@ -210,7 +238,7 @@ public class StoreQueryParser {
             if (table != null) {
                 return constructStoreQueryRuntime(table, storeQuery, siddhiAppContext, tableMap, windowMap,
                         queryName, metaPosition, onCondition, metaStreamEvent,
-                        variableExpressionExecutors, lockWrapper);
+                        variableExpressionExecutors, lockWrapper, null);
             } else {
                 throw new StoreQueryCreationException(outputStream.getId() + " is not a table.");
             }
@@ -224,13 +252,19 @@ public class StoreQueryParser {
             Window window, StoreQuery storeQuery,
             SiddhiAppContext siddhiAppContext, Map<String, Table> tableMap, Map<String, Window> windowMap,
             String queryName, int metaPosition, Expression onCondition, MetaStreamEvent metaStreamEvent,
-            List<VariableExpressionExecutor> variableExpressionExecutors, LockWrapper lockWrapper) {
+            List<VariableExpressionExecutor> variableExpressionExecutors, LockWrapper lockWrapper,
+            StreamDefinition parameterDefinition) {
         metaStreamEvent.setEventType(EventType.WINDOW);
         initMetaStreamEvent(metaStreamEvent, window.getWindowDefinition());
-        MatchingMetaInfoHolder metaStreamInfoHolder = generateMatchingMetaInfoHolder(metaStreamEvent,
-                window.getWindowDefinition());
-        CompiledCondition compiledCondition = window.compileCondition(onCondition,
-                generateMatchingMetaInfoHolder(metaStreamEvent, window.getWindowDefinition()),
+        MatchingMetaInfoHolder metaStreamInfoHolder;
+        if (parameterDefinition != null) {
+            metaStreamInfoHolder = generateParameterizedMatchingMetaInfoHolder(metaStreamEvent,
+                    window.getWindowDefinition(), parameterDefinition);
+            metaPosition = 0;
+        } else {
+            metaStreamInfoHolder = generateMatchingMetaInfoHolder(metaStreamEvent, window.getWindowDefinition());
+        }
+        CompiledCondition compiledCondition = window.compileCondition(onCondition, metaStreamInfoHolder,
                 siddhiAppContext, variableExpressionExecutors, tableMap, queryName);
         FindStoreQueryRuntime findStoreQueryRuntime = new FindStoreQueryRuntime(window, compiledCondition,
                 queryName, metaStreamEvent);
@@ -281,15 +315,20 @@ public class StoreQueryParser {
                                                                 MetaStreamEvent metaStreamEvent,
                                                                 List<VariableExpressionExecutor>
                                                                         variableExpressionExecutors,
-                                                                LockWrapper lockWrapper) {
+                                                                LockWrapper lockWrapper,
+                                                                StreamDefinition parameterDefinition) {
         MatchingMetaInfoHolder matchingMetaInfoHolder;
         AbstractDefinition inputDefinition;
         QuerySelector querySelector;
         metaStreamEvent.setEventType(EventType.TABLE);
 
+        if (parameterDefinition != null) {
+            metaPosition = 0;
+        }
         if (table instanceof QueryableProcessor) {
             initMetaStreamEvent(metaStreamEvent, table.getTableDefinition());
-            matchingMetaInfoHolder = generateMatchingMetaInfoHolder(metaStreamEvent, table.getTableDefinition());
+            matchingMetaInfoHolder = generateParameterizedMatchingMetaInfoHolder(metaStreamEvent,
+                    table.getTableDefinition(), parameterDefinition);
             CompiledCondition compiledCondition = table.compileCondition(onCondition, matchingMetaInfoHolder,
                     siddhiAppContext, variableExpressionExecutors, tableMap, queryName);
             List<Attribute> expectedOutputAttributes = buildExpectedOutputAttributes(storeQuery, siddhiAppContext,
@@ -309,8 +348,8 @@ public class StoreQueryParser {
             switch (storeQuery.getType()) {
                 case FIND:
                     initMetaStreamEvent(metaStreamEvent, table.getTableDefinition());
-                    matchingMetaInfoHolder = generateMatchingMetaInfoHolder(metaStreamEvent,
-                            table.getTableDefinition());
+                    matchingMetaInfoHolder = generateParameterizedMatchingMetaInfoHolder(metaStreamEvent,
+                            table.getTableDefinition(), parameterDefinition);
                     CompiledCondition compiledCondition = table.compileCondition(onCondition, matchingMetaInfoHolder,
                             siddhiAppContext, variableExpressionExecutors, tableMap, queryName);
 
@@ -463,6 +502,23 @@ public class StoreQueryParser {
                 definition, 0);
     }
 
+    private static MatchingMetaInfoHolder generateParameterizedMatchingMetaInfoHolder(
+            MetaStreamEvent metaStreamEvent, AbstractDefinition storeDefinition,
+            StreamDefinition parameterDefinition) {
+        if (parameterDefinition == null) {
+            return generateMatchingMetaInfoHolder(metaStreamEvent, storeDefinition);
+        }
+        // The parameters are matched against the store as the output data of an implicit stream
+        MetaStreamEvent parameterMetaStreamEvent = new MetaStreamEvent();
+        parameterMetaStreamEvent.addInputDefinition(parameterDefinition);
+        parameterDefinition.getAttributeList().forEach(parameterMetaStreamEvent::addOutputData);
+        MetaStateEvent metaStateEvent = new MetaStateEvent(2);
+        metaStateEvent.addEvent(metaStreamEvent);
+        metaStateEvent.addEvent(parameterMetaStreamEvent);
+        return new MatchingMetaInfoHolder(metaStateEvent, 1, 0, parameterDefinition,
+                storeDefinition, 0);
+    }
+
     private static MatchingMetaInfoHolder generateMatchingMetaInfoHolder(MetaStreamEvent metaStreamEvent,
                                                                           AbstractDefinition streamDefinition,
                                                                           AbstractDefinition storeDefinition) {
@@ -30,6 +30,7 @@ import org.wso2.siddhi.core.stream.input.source.Source;
 import org.wso2.siddhi.core.stream.input.source.SourceHandler;
 import org.wso2.siddhi.core.stream.input.source.SourceHandlerManager;
 import org.wso2.siddhi.core.stream.input.source.SourceMapper;
+import org.wso2.siddhi.core.stream.output.sink.AsyncSinkPublisher;
 import org.wso2.siddhi.core.stream.output.sink.DynamicOptionGroupDeterminer;
 import org.wso2.siddhi.core.stream.output.sink.OutputGroupDeterminer;
 import org.wso2.siddhi.core.stream.output.sink.PartitionedGroupDeterminer;
@@ -77,7 +78,10 @@ import org.wso2.siddhi.query.api.exception.DuplicateDefinitionException;
 import org.wso2.siddhi.query.api.exception.SiddhiAppValidationException;
 import org.wso2.siddhi.query.api.extension.Extension;
 import org.wso2.siddhi.query.api.util.AnnotationHelper;
+import org.wso2.siddhi.query.compiler.SiddhiCompiler;
+import org.wso2.siddhi.query.compiler.exception.SiddhiParserException;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -569,6 +573,15 @@ public class DefinitionParserHelper {
 
                         siddhiAppContext.getSnapshotService().addSnapshotable(sink.getStreamDefinition().getId(), sink);
 
+                        Annotation asyncAnnotation = AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_ASYNC,
+                                sinkAnnotation.getAnnotations());
+                        if (asyncAnnotation != null) {
+                            AsyncSinkPublisher asyncSinkPublisher = createAsyncSinkPublisher(asyncAnnotation, sink,
+                                    siddhiAppContext);
+                            sink.setAsyncSinkPublisher(asyncSinkPublisher);
+                            siddhiAppContext.addEternalReferencedHolder(asyncSinkPublisher);
+                        }
+
                         List<Sink> eventSinks = eventSinkMap.get(streamDefinition.getId());
                         if (eventSinks == null) {
                             eventSinks = new ArrayList<>();
@@ -590,6 +603,68 @@ public class DefinitionParserHelper {
         }
     }
 
+    private static AsyncSinkPublisher createAsyncSinkPublisher(Annotation asyncAnnotation, Sink sink,
+                                                               SiddhiAppContext siddhiAppContext) {
+        int bufferSize = getPositiveIntElement(asyncAnnotation, SiddhiConstants.ANNOTATION_ELEMENT_BUFFER_SIZE,
+                SiddhiConstants.DEFAULT_EVENT_BUFFER_SIZE, siddhiAppContext);
+        int batchSize = getPositiveIntElement(asyncAnnotation, SiddhiConstants.ANNOTATION_ELEMENT_BATCH_SIZE,
+                bufferSize, siddhiAppContext);
+        int workers = getPositiveIntElement(asyncAnnotation, SiddhiConstants.ANNOTATION_ELEMENT_WORKERS, 1,
+                siddhiAppContext);
+        long flushInterval = 0;
+        String flushIntervalString = asyncAnnotation.getElement(SiddhiConstants.ANNOTATION_ELEMENT_FLUSH_INTERVAL);
+        if (flushIntervalString != null) {
+            try {
+                flushInterval = SiddhiCompiler.parseTimeConstantDefinition(flushIntervalString).value();
+            } catch (SiddhiParserException e) {
+                throw new SiddhiAppCreationException("Annotation element '" +
+                        SiddhiConstants.ANNOTATION_ELEMENT_FLUSH_INTERVAL + "' should be a time constant such as " +
+                        "'100 millisec', but found '" + flushIntervalString + "'.", asyncAnnotation,
+                        siddhiAppContext);
+            }
+        }
+        AsyncSinkPublisher.OverflowPolicy overflowPolicy = AsyncSinkPublisher.OverflowPolicy.BLOCK;
+        String overflowString = asyncAnnotation.getElement(SiddhiConstants.ANNOTATION_ELEMENT_OVERFLOW);
+        if (overflowString != null) {
+            overflowPolicy = AsyncSinkPublisher.OverflowPolicy.fromName(overflowString);
+            if (overflowPolicy == null) {
+                throw new SiddhiAppCreationException("Annotation element '" +
+                        SiddhiConstants.ANNOTATION_ELEMENT_OVERFLOW + "' should be one of 'block', 'drop-oldest' " +
+                        "or 'spill', but found '" + overflowString + "'.", asyncAnnotation, siddhiAppContext);
+            }
+        }
+        File spillDirectory = null;
+        String spillPath = asyncAnnotation.getElement(SiddhiConstants.ANNOTATION_ELEMENT_SPILL_PATH);
+        if (spillPath != null) {
+            spillDirectory = new File(spillPath);
+            if (!spillDirectory.isDirectory()) {
+                throw new SiddhiAppCreationException("Annotation element '" +
+                        SiddhiConstants.ANNOTATION_ELEMENT_SPILL_PATH + "' should be an existing directory, but " +
+                        "found '" + spillPath + "'.", asyncAnnotation, siddhiAppContext);
+            }
+        }
+        return new AsyncSinkPublisher(sink, bufferSize, batchSize, flushInterval, workers, overflowPolicy,
+                spillDirectory, siddhiAppContext);
+    }
+
+    private static int getPositiveIntElement(Annotation annotation, String elementName, int defaultValue,
+                                             SiddhiAppContext siddhiAppContext) {
+        String elementValue = annotation.getElement(elementName);
+        if (elementValue == null) {
+            return defaultValue;
+        }
+        try {
+            int value = Integer.parseInt(elementValue);
+            if (value > 0) {
+                return value;
+            }
+        } catch (NumberFormatException e) {
+            // Handled below, as for values that are not positive
+        }
+        throw new SiddhiAppCreationException("Annotation element '" + elementName + "' should be a positive " +
+                "integer, but found '" + elementValue + "'.", annotation, siddhiAppContext);
+    }
+
     private static void validateSinkMapperCompatibility(StreamDefinition streamDefinition, String sinkType,
                                                         String mapType, Sink sink, SinkMapper sinkMapper,
                                                         Annotation sinkAnnotation) {
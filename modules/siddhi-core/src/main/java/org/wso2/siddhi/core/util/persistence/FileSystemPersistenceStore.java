@@ -117,6 +117,20 @@ public class FileSystemPersistenceStore implements PersistenceStore {
         return lastRevision;
     }
 
+    @Override
+    public void clearRevision(String siddhiAppName, String revision) {
+        File file = new File(folder + File.separator + siddhiAppName + File.separator + revision);
+        if (file.exists() && !file.delete()) {
+            log.error("Error deleting the revision " + revision + " of SiddhiApp: " + siddhiAppName);
+            return;
+        }
+        File directory = file.getParentFile();
+        String[] fileNames = directory.list();
+        if (fileNames != null && fileNames.length == 0 && !directory.delete()) {
+            log.error("Error deleting the empty persistence folder of SiddhiApp: " + siddhiAppName);
+        }
+    }
+
     /**
      * Method to remove revisions that are older than the user specified amount
      *
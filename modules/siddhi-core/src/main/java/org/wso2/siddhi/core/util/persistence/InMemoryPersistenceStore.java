@@ -80,6 +80,24 @@ public class InMemoryPersistenceStore implements PersistenceStore {
         return null;
     }
 
+    @Override
+    public void clearRevision(String siddhiAppId, String revision) {
+        Map<String, byte[]> executionPersistenceMap = persistenceMap.get(siddhiAppId);
+        if (executionPersistenceMap != null) {
+            executionPersistenceMap.remove(revision);
+            if (executionPersistenceMap.isEmpty()) {
+                persistenceMap.remove(siddhiAppId);
+            }
+        }
+        List<String> revisionList = revisionMap.get(siddhiAppId);
+        if (revisionList != null) {
+            revisionList.remove(revision);
+            if (revisionList.isEmpty()) {
+                revisionMap.remove(siddhiAppId);
+            }
+        }
+    }
+
     @Override
     public void setProperties(Map properties) {
         //no properties to add
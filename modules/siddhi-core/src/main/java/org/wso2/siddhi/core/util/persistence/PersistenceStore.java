@@ -33,4 +33,13 @@ public interface PersistenceStore {
 
     String getLastRevision(String siddhiAppId);
 
+    /**
+     * Remove the given revision, which is no longer needed. Stores not supporting removal keep the revision.
+     *
+     * @param siddhiAppId id of the state
+     * @param revision    the revision to remove
+     */
+    default void clearRevision(String siddhiAppId, String revision) {
+    }
+
 }
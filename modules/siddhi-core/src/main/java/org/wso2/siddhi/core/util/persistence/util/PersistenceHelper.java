@@ -59,6 +59,17 @@ public final class PersistenceHelper {
         return new PersistenceReference(future, asyncSnapshotPersistor.getRevision());
     }
 
+    public static PersistenceReference persist(Map<String, Map<String, Object>> capturedSnapshot,
+                                               SiddhiAppContext siddhiAppContext) {
+        long revisionTime = System.currentTimeMillis();
+        // serialize and persist the captured snapshot asynchronously
+        AsyncSnapshotPersistor asyncSnapshotPersistor = new AsyncSnapshotPersistor(capturedSnapshot,
+                siddhiAppContext.getSnapshotService(), siddhiAppContext.getSiddhiContext().getPersistenceStore(),
+                siddhiAppContext.getName(), revisionTime);
+        Future future = siddhiAppContext.getExecutorService().submit(asyncSnapshotPersistor);
+        return new PersistenceReference(future, asyncSnapshotPersistor.getRevision());
+    }
+
     public static PersistenceReference persist(IncrementalSnapshot serializeObj, SiddhiAppContext siddhiAppContext) {
         long revisionTime = System.currentTimeMillis();
         List<Future> incrementalFutures = new ArrayList<>();
@@ -23,12 +23,16 @@ import org.wso2.siddhi.core.exception.NoPersistenceStoreException;
 import org.wso2.siddhi.core.util.persistence.PersistenceStore;
 import org.wso2.siddhi.core.util.persistence.util.PersistenceConstants;
 
+import java.util.Map;
+
 /**
  * {@link Runnable} which is responsible for persisting the snapshots that are taken
  */
 public class AsyncSnapshotPersistor implements Runnable {
     private static final Logger log = Logger.getLogger(AsyncSnapshotPersistor.class);
     private byte[] snapshots;
+    private Map<String, Map<String, Object>> capturedSnapshot;
+    private SnapshotService snapshotService;
     private PersistenceStore persistenceStore;
     private String siddhiAppName;
     private String revision;
@@ -47,6 +51,17 @@ public class AsyncSnapshotPersistor implements Runnable {
         this.revision = time + PersistenceConstants.REVISION_SEPARATOR + siddhiAppName;
     }
 
+    /**
+     * Creates a persistor which serializes the given captured snapshot before persisting it, such that the
+     * serialization does not happen while the event processing is paused.
+     */
+    public AsyncSnapshotPersistor(Map<String, Map<String, Object>> capturedSnapshot, SnapshotService snapshotService,
+                                  PersistenceStore persistenceStore, String siddhiAppName, long time) {
+        this(null, persistenceStore, siddhiAppName, time);
+        this.capturedSnapshot = capturedSnapshot;
+        this.snapshotService = snapshotService;
+    }
+
     public String getRevision() {
         return revision;
     }
@@ -57,6 +72,10 @@ public class AsyncSnapshotPersistor implements Runnable {
             if (log.isDebugEnabled()) {
                 log.debug("Persisting...");
             }
+            if (capturedSnapshot != null) {
+                snapshots = snapshotService.serializeFullSnapshot(capturedSnapshot);
+                capturedSnapshot = null;
+            }
             persistenceStore.save(siddhiAppName, revision, snapshots);
             if (log.isDebugEnabled()) {
                 log.debug("Persisted.");
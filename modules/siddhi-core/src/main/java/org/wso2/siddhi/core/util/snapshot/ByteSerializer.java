@@ -21,18 +21,18 @@ package org.wso2.siddhi.core.util.snapshot;
 import org.apache.log4j.Logger;
 import org.wso2.siddhi.core.config.SiddhiAppContext;
 import org.wso2.siddhi.core.util.ExceptionUtil;
+import org.wso2.siddhi.core.util.snapshot.serializer.JavaStateSerializer;
+import org.wso2.siddhi.core.util.snapshot.serializer.StateSerializer;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 
 /**
- * Serializer used by {@link SnapshotService} to do Object to Byte[] conversion and vise-versa
+ * Serializer used by {@link SnapshotService} to do Object to Byte[] conversion and vise-versa, using the
+ * {@link StateSerializer} configured in the {@link org.wso2.siddhi.core.config.SiddhiContext}
  */
 public class ByteSerializer {
     private static final Logger log = Logger.getLogger(ByteSerializer.class);
+    private static final StateSerializer DEFAULT_STATE_SERIALIZER = new JavaStateSerializer();
 
     private ByteSerializer() {
     }
@@ -42,10 +42,7 @@ public class ByteSerializer {
         byte[] out = null;
         if (obj != null) {
             try {
-                ByteArrayOutputStream baos = new ByteArrayOutputStream();
-                ObjectOutputStream oos = new ObjectOutputStream(baos);
-                oos.writeObject(obj);
-                out = baos.toByteArray();
+                out = getStateSerializer(siddhiAppContext).serialize(obj);
             } catch (IOException e) {
                 log.error(ExceptionUtil.getMessageWithContext(e, siddhiAppContext) +
                         " Error when writing byte array.", e);
@@ -64,9 +61,7 @@ public class ByteSerializer {
         Object out = null;
         if (bytes != null) {
             try {
-                ByteArrayInputStream bios = new ByteArrayInputStream(bytes);
-                ObjectInputStream ois = new ObjectInputStream(bios);
-                out = ois.readObject();
+                out = getStateSerializer(siddhiAppContext).deserialize(bytes);
             } catch (IOException e) {
                 log.error(ExceptionUtil.getMessageWithContext(e, siddhiAppContext) +
                         " Error when writing to object.", e);
@@ -83,4 +78,12 @@ public class ByteSerializer {
         }
         return out;
     }
+
+    private static StateSerializer getStateSerializer(SiddhiAppContext siddhiAppContext) {
+        if (siddhiAppContext != null && siddhiAppContext.getSiddhiContext() != null &&
+                siddhiAppContext.getSiddhiContext().getStateSerializer() != null) {
+            return siddhiAppContext.getSiddhiContext().getStateSerializer();
+        }
+        return DEFAULT_STATE_SERIALIZER;
+    }
 }
@@ -22,13 +22,16 @@ import org.wso2.siddhi.core.config.SiddhiAppContext;
 import org.wso2.siddhi.core.exception.CannotRestoreSiddhiAppStateException;
 import org.wso2.siddhi.core.exception.NoPersistenceStoreException;
 import org.wso2.siddhi.core.exception.PersistenceStoreException;
+import org.wso2.siddhi.core.util.SiddhiConstants;
 import org.wso2.siddhi.core.util.ThreadBarrier;
+import org.wso2.siddhi.core.util.parser.helper.QueryParserHelper;
 import org.wso2.siddhi.core.util.persistence.IncrementalPersistenceStore;
 import org.wso2.siddhi.core.util.persistence.PersistenceStore;
 import org.wso2.siddhi.core.util.persistence.util.IncrementalSnapshotInfo;
 import org.wso2.siddhi.core.util.persistence.util.PersistenceHelper;
 import org.wso2.siddhi.core.util.snapshot.state.SnapshotState;
 import org.wso2.siddhi.core.util.snapshot.state.SnapshotStateList;
+import org.wso2.siddhi.core.util.statistics.LatencyTracker;
 
 import java.util.ArrayList;
 import java.util.Comparator;
@@ -45,20 +48,39 @@ import java.util.concurrent.ConcurrentHashMap;
 public class SnapshotService {
     private static final Logger log = Logger.getLogger(SnapshotService.class);
     private static final ThreadLocal<Boolean> skipSnapshotableThreadLocal = new ThreadLocal<Boolean>();
+    private static final ThreadLocal<Map<String, List<Snapshotable>>> recordSnapshotableThreadLocal =
+            new ThreadLocal<Map<String, List<Snapshotable>>>();
 
     private final ThreadBarrier threadBarrier;
     private ConcurrentHashMap<String, List<Snapshotable>> snapshotableMap = new ConcurrentHashMap<>();
     private SiddhiAppContext siddhiAppContext;
+    private LatencyTracker snapshotPauseLatencyTracker;
+    private boolean nonBlockingSnapshot = false;
+    private volatile long lastSnapshotPauseTime = -1;
 
     public SnapshotService(SiddhiAppContext siddhiAppContext) {
         this.siddhiAppContext = siddhiAppContext;
         this.threadBarrier = siddhiAppContext.getThreadBarrier();
+        if (siddhiAppContext.getStatisticsManager() != null) {
+            this.snapshotPauseLatencyTracker = QueryParserHelper.createLatencyTracker(siddhiAppContext, "pause",
+                    SiddhiConstants.METRIC_INFIX_SNAPSHOTS, null);
+        }
     }
 
     public static ThreadLocal<Boolean> getSkipSnapshotableThreadLocal() {
         return skipSnapshotableThreadLocal;
     }
 
+    /**
+     * When a map is set to this thread local, the snapshotables added by the thread are also recorded in that map by
+     * their query name, such that the elements created for a purpose can be identified later.
+     *
+     * @return thread local holding the recorded snapshotables
+     */
+    public static ThreadLocal<Map<String, List<Snapshotable>>> getRecordSnapshotableThreadLocal() {
+        return recordSnapshotableThreadLocal;
+    }
+
     public ConcurrentHashMap<String, List<Snapshotable>> getSnapshotableMap() {
         return snapshotableMap;
     }
@@ -75,64 +97,88 @@ public class SnapshotService {
                 snapshotableMap.put(queryName, snapshotableList);
             } else {
                 // add if item is not already in list
-                if (!snapshotableList.contains(snapshotable)) {
-                    snapshotableList.add(snapshotable);
+                if (snapshotableList.contains(snapshotable)) {
+                    return;
                 }
+                snapshotableList.add(snapshotable);
+            }
+            Map<String, List<Snapshotable>> recordedSnapshotables = recordSnapshotableThreadLocal.get();
+            if (recordedSnapshotables != null) {
+                recordedSnapshotables.computeIfAbsent(queryName, k -> new ArrayList<>()).add(snapshotable);
+            }
+        }
+    }
+
+    public synchronized void removeSnapshotable(String queryName, Snapshotable snapshotable) {
+        List<Snapshotable> snapshotableList = snapshotableMap.get(queryName);
+        if (snapshotableList != null) {
+            snapshotableList.remove(snapshotable);
+            if (snapshotableList.isEmpty()) {
+                snapshotableMap.remove(queryName);
+            }
+        }
+    }
+
+    /**
+     * Take the full state of a single element, which can be restored later via
+     * {@link #restoreFullState(Snapshotable, Map)}.
+     *
+     * @param snapshotable element to take the state of
+     * @return full state of the element
+     */
+    public Map<String, Object> fullState(Snapshotable snapshotable) {
+        try {
+            SnapshotRequest.requestForFullSnapshot(true);
+            return snapshotable.currentState();
+        } finally {
+            SnapshotRequest.requestForFullSnapshot(false);
+        }
+    }
+
+    /**
+     * Restore the full state of a single element.
+     *
+     * @param snapshotable   element to be restored
+     * @param snapshotsByKey full state of the element
+     */
+    public void restoreFullState(Snapshotable snapshotable, Map<String, Object> snapshotsByKey) {
+        Map<String, Object> snapshotRestoresByKey = new HashMap<>();
+        for (Map.Entry<String, Object> snapshotsByKeyEntry : snapshotsByKey.entrySet()) {
+            if (snapshotsByKeyEntry.getValue() instanceof SnapshotState) {
+                SnapshotStateList snapshotStateList = new SnapshotStateList();
+                snapshotStateList.putSnapshotState(0L, (SnapshotState) snapshotsByKeyEntry.getValue());
+                snapshotRestoresByKey.put(snapshotsByKeyEntry.getKey(), snapshotStateList);
+            } else {
+                snapshotRestoresByKey.put(snapshotsByKeyEntry.getKey(), snapshotsByKeyEntry.getValue());
             }
         }
+        snapshotable.restoreState(snapshotRestoresByKey);
     }
 
     public byte[] fullSnapshot() {
         try {
             SnapshotRequest.requestForFullSnapshot(true);
-            Map<String, Map<String, Object>> elementSnapshotMapFull = new HashMap<>();
+            Map<String, Map<String, Object>> elementSnapshotMapFull;
             byte[] serializedFullState = null;
             if (log.isDebugEnabled()) {
                 log.debug("Taking snapshot ...");
             }
-            try {
-                threadBarrier.lock();
-                for (Map.Entry<String, List<Snapshotable>> entry : snapshotableMap.entrySet()) {
-                    Map<String, Object> elementWiseFullSnapshots = new HashMap<>();
-                    for (Snapshotable snapshotableObject : entry.getValue()) {
-                        Map<String, Object> currentState = snapshotableObject.currentState();
-                        if (currentState != null) {
-                            Map<String, Object> elementWiseSnapshots = new HashMap<>();
-                            for (Map.Entry<String, Object> item2 : currentState.entrySet()) {
-                                String key = item2.getKey();
-                                Object snapShot = item2.getValue();
-                                if (snapShot instanceof SnapshotState) {
-                                    if (((SnapshotState) snapShot).isIncrementalSnapshot()) {
-                                        throw new NoPersistenceStoreException("No incremental persistence store " +
-                                                "exist to store incremental snapshot of siddhiApp:'"
-                                                + siddhiAppContext.getName() + "' subElement:'" + entry.getKey()
-                                                + "' elementId:'" + snapshotableObject.getElementId()
-                                                + "' and key:'" + key + "'");
-                                    } else {
-                                        elementWiseSnapshots.put(key, snapShot);
-                                    }
-                                } else {
-                                    elementWiseSnapshots.put(key, snapShot);
-                                }
-                            }
-                            if (!elementWiseSnapshots.isEmpty()) {
-                                elementWiseFullSnapshots.put(snapshotableObject.getElementId(), elementWiseSnapshots);
-                            }
-                        }
-                    }
-                    if (!elementWiseFullSnapshots.isEmpty()) {
-                        elementSnapshotMapFull.put(entry.getKey(), elementWiseFullSnapshots);
+            if (nonBlockingSnapshot) {
+                elementSnapshotMapFull = captureFullSnapshot();
+                serializedFullState = serializeFullSnapshot(elementSnapshotMapFull);
+            } else {
+                try {
+                    threadBarrier.lock();
+                    long pauseStartTime = markPauseStart();
+                    try {
+                        elementSnapshotMapFull = collectFullSnapshot();
+                        serializedFullState = serializeFullSnapshot(elementSnapshotMapFull);
+                    } finally {
+                        markPauseEnd(pauseStartTime);
                     }
+                } finally {
+                    threadBarrier.unlock();
                 }
-                if (log.isDebugEnabled()) {
-                    log.debug("SnapshotState serialization started ...");
-                }
-                serializedFullState = ByteSerializer.objectToByte(elementSnapshotMapFull, siddhiAppContext);
-                if (log.isDebugEnabled()) {
-                    log.debug("SnapshotState serialization finished.");
-                }
-            } finally {
-                threadBarrier.unlock();
             }
             if (log.isDebugEnabled()) {
                 log.debug("SnapshotState taken for Siddhi app '" + siddhiAppContext.getName() + "'");
@@ -143,6 +189,110 @@ public class SnapshotService {
         }
     }
 
+    /**
+     * Captures a detached copy of the full state of all the registered {@link Snapshotable}s. The thread barrier is
+     * only held while the states are collected and copied, hence the returned snapshot can be serialized and
+     * persisted without blocking the event processing.
+     *
+     * @return full snapshot of the Siddhi app by query name and element id
+     */
+    public Map<String, Map<String, Object>> captureFullSnapshot() {
+        try {
+            SnapshotRequest.requestForFullSnapshot(true);
+            try {
+                threadBarrier.lock();
+                long pauseStartTime = markPauseStart();
+                try {
+                    return (Map<String, Map<String, Object>>) new SnapshotStateCopier(siddhiAppContext)
+                            .copy(collectFullSnapshot());
+                } finally {
+                    markPauseEnd(pauseStartTime);
+                }
+            } finally {
+                threadBarrier.unlock();
+            }
+        } finally {
+            SnapshotRequest.requestForFullSnapshot(false);
+        }
+    }
+
+    public byte[] serializeFullSnapshot(Map<String, Map<String, Object>> elementSnapshotMapFull) {
+        if (log.isDebugEnabled()) {
+            log.debug("SnapshotState serialization started ...");
+        }
+        byte[] serializedFullState = ByteSerializer.objectToByte(elementSnapshotMapFull, siddhiAppContext);
+        if (log.isDebugEnabled()) {
+            log.debug("SnapshotState serialization finished.");
+        }
+        return serializedFullState;
+    }
+
+    private Map<String, Map<String, Object>> collectFullSnapshot() {
+        Map<String, Map<String, Object>> elementSnapshotMapFull = new HashMap<>();
+        for (Map.Entry<String, List<Snapshotable>> entry : snapshotableMap.entrySet()) {
+            Map<String, Object> elementWiseFullSnapshots = new HashMap<>();
+            for (Snapshotable snapshotableObject : entry.getValue()) {
+                Map<String, Object> currentState = snapshotableObject.currentState();
+                if (currentState != null) {
+                    Map<String, Object> elementWiseSnapshots = new HashMap<>();
+                    for (Map.Entry<String, Object> item2 : currentState.entrySet()) {
+                        String key = item2.getKey();
+                        Object snapShot = item2.getValue();
+                        if (snapShot instanceof SnapshotState) {
+                            if (((SnapshotState) snapShot).isIncrementalSnapshot()) {
+                                throw new NoPersistenceStoreException("No incremental persistence store " +
+                                        "exist to store incremental snapshot of siddhiApp:'"
+                                        + siddhiAppContext.getName() + "' subElement:'" + entry.getKey()
+                                        + "' elementId:'" + snapshotableObject.getElementId()
+                                        + "' and key:'" + key + "'");
+                            } else {
+                                elementWiseSnapshots.put(key, snapShot);
+                            }
+                        } else {
+                            elementWiseSnapshots.put(key, snapShot);
+                        }
+                    }
+                    if (!elementWiseSnapshots.isEmpty()) {
+                        elementWiseFullSnapshots.put(snapshotableObject.getElementId(), elementWiseSnapshots);
+                    }
+                }
+            }
+            if (!elementWiseFullSnapshots.isEmpty()) {
+                elementSnapshotMapFull.put(entry.getKey(), elementWiseFullSnapshots);
+            }
+        }
+        return elementSnapshotMapFull;
+    }
+
+    private long markPauseStart() {
+        if (siddhiAppContext.isStatsEnabled() && snapshotPauseLatencyTracker != null) {
+            snapshotPauseLatencyTracker.markIn();
+        }
+        return System.nanoTime();
+    }
+
+    private void markPauseEnd(long pauseStartTime) {
+        lastSnapshotPauseTime = System.nanoTime() - pauseStartTime;
+        if (siddhiAppContext.isStatsEnabled() && snapshotPauseLatencyTracker != null) {
+            snapshotPauseLatencyTracker.markOut();
+        }
+    }
+
+    /**
+     * @return time in nanoseconds the event processing was paused for the last full snapshot
+     */
+    public long getLastSnapshotPauseTime() {
+        return lastSnapshotPauseTime;
+    }
+
+    public boolean isNonBlockingSnapshot() {
+        return nonBlockingSnapshot;
+    }
+
+    public void setNonBlockingSnapshot(boolean nonBlockingSnapshot) {
+        this.nonBlockingSnapshot = nonBlockingSnapshot;
+    }
+
     public IncrementalSnapshot incrementalSnapshot() {
         try {
             SnapshotRequest.requestForFullSnapshot(false);
@@ -296,19 +446,7 @@ public class SnapshotService {
                                 Map<String, Object> snapshotsByKey = snapshotsByElementId.get(
                                         snapshotable.getElementId());
                                 if (snapshotsByKey != null) {
-                                    Map<String, Object> snapshotRestoresByKey = new HashMap<>();
-                                    for (Map.Entry<String, Object> snapshotsByKeyEntry : snapshotsByKey.entrySet()) {
-                                        if (snapshotsByKeyEntry.getValue() instanceof SnapshotState) {
-                                            SnapshotStateList snapshotStateList = new SnapshotStateList();
-                                            snapshotStateList.putSnapshotState(0L,
-                                                    (SnapshotState) snapshotsByKeyEntry.getValue());
-                                            snapshotRestoresByKey.put(snapshotsByKeyEntry.getKey(), snapshotStateList);
-                                        } else {
-                                            snapshotRestoresByKey.put(snapshotsByKeyEntry.getKey(),
-                                                    snapshotsByKeyEntry.getValue());
-                                        }
-                                    }
-                                    snapshotable.restoreState(snapshotRestoresByKey);
+                                    restoreFullState(snapshotable, snapshotsByKey);
                                 }
                             }
                         }
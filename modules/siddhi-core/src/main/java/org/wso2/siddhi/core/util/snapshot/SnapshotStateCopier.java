@@ -0,0 +1,213 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.util.snapshot;
+
+import org.wso2.siddhi.core.config.SiddhiAppContext;
+import org.wso2.siddhi.core.event.state.StateEvent;
+import org.wso2.siddhi.core.event.stream.Operation;
+import org.wso2.siddhi.core.event.stream.StreamEvent;
+import org.wso2.siddhi.core.table.holder.AttributeIndex;
+import org.wso2.siddhi.core.table.holder.ColumnarRowSnapshot;
+import org.wso2.siddhi.core.table.holder.IndexEventHolder;
+import org.wso2.siddhi.core.util.snapshot.state.SnapshotState;
+import org.wso2.siddhi.core.util.snapshot.state.SnapshotStateList;
+
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Takes a detached copy of the states returned by {@link Snapshotable#currentState()} so that they can be serialized
+ * after releasing the {@link org.wso2.siddhi.core.util.ThreadBarrier}.
+ * Events, snapshot states, operation logs, the contents of {@link IndexEventHolder}s and the commonly used collections
+ * are copied structurally, immutable values are shared and any other object is copied through a serialization round
+ * trip. Shared references are preserved within a single copier.
+ */
+public class SnapshotStateCopier {
+
+    private final SiddhiAppContext siddhiAppContext;
+    private final Map<Object, Object> copiedObjects = new IdentityHashMap<>();
+
+    public SnapshotStateCopier(SiddhiAppContext siddhiAppContext) {
+        this.siddhiAppContext = siddhiAppContext;
+    }
+
+    public Object copy(Object state) {
+        if (state == null || isImmutable(state)) {
+            return state;
+        }
+        Object copiedState = copiedObjects.get(state);
+        if (copiedState != null) {
+            return copiedState;
+        }
+        Class<?> stateClass = state.getClass();
+        if (stateClass == StreamEvent.class) {
+            copiedState = copyStreamEvent((StreamEvent) state);
+        } else if (stateClass == StateEvent.class) {
+            copiedState = copyStateEvent((StateEvent) state);
+        } else if (stateClass == SnapshotState.class) {
+            SnapshotState snapshotState = (SnapshotState) state;
+            copiedState = new SnapshotState(copy(snapshotState.getState()), snapshotState.isIncrementalSnapshot());
+        } else if (stateClass == SnapshotStateList.class) {
+            copiedState = new SnapshotStateList((TreeMap<Long, SnapshotState>)
+                    copy(((SnapshotStateList) state).getSnapshotStates()));
+        } else if (stateClass == Operation.class) {
+            Operation operation = (Operation) state;
+            copiedState = new Operation(operation.operation, copy(operation.parameters));
+        } else if (stateClass == IndexEventHolder.class) {
+            IndexEventHolder indexEventHolder = (IndexEventHolder) state;
+            copiedState = new IndexEventHolder((Map<Object, StreamEvent>) copy(indexEventHolder.getPrimaryKeyData()),
+                    (Map<String, AttributeIndex>) copy(indexEventHolder.getIndexData()));
+        } else if (stateClass == ColumnarRowSnapshot.class) {
+            copiedState = ((ColumnarRowSnapshot) state).copy(this::copy);
+        } else if (state instanceof AttributeIndex) {
+            copiedState = copyAttributeIndex((AttributeIndex) state);
+        } else if (stateClass == Object[].class) {
+            copiedState = copyArray((Object[]) state);
+        } else if (stateClass.isArray() && stateClass.getComponentType().isPrimitive()) {
+            copiedState = copyPrimitiveArray(state);
+        } else if (stateClass == HashMap.class) {
+            copiedState = copyMap((Map<?, ?>) state, new HashMap<>());
+        } else if (stateClass == LinkedHashMap.class) {
+            copiedState = copyMap((Map<?, ?>) state, new LinkedHashMap<>());
+        } else if (stateClass == ConcurrentHashMap.class) {
+            copiedState = copyMap((Map<?, ?>) state, new ConcurrentHashMap<>());
+        } else if (stateClass == TreeMap.class) {
+            copiedState = copyMap((Map<?, ?>) state, new TreeMap<>(((TreeMap) state).comparator()));
+        } else if (stateClass == ArrayList.class) {
+            copiedState = copyCollection((Collection<?>) state, new ArrayList<>(((Collection) state).size()));
+        } else if (stateClass == LinkedList.class) {
+            copiedState = copyCollection((Collection<?>) state, new LinkedList<>());
+        } else if (stateClass == ArrayDeque.class) {
+            copiedState = copyCollection((Collection<?>) state, new ArrayDeque<>());
+        } else if (stateClass == HashSet.class) {
+            copiedState = copyCollection((Collection<?>) state, new HashSet<>());
+        } else if (stateClass == LinkedHashSet.class) {
+            copiedState = copyCollection((Collection<?>) state, new LinkedHashSet<>());
+        } else if (stateClass == TreeSet.class) {
+            copiedState = copyCollection((Collection<?>) state, new TreeSet<>(((TreeSet) state).comparator()));
+        } else {
+            copiedState = ByteSerializer.byteToObject(ByteSerializer.objectToByte(state, siddhiAppContext),
+                    siddhiAppContext);
+        }
+        copiedObjects.put(state, copiedState);
+        return copiedState;
+    }
+
+    private boolean isImmutable(Object state) {
+        return state instanceof String || state instanceof Long || state instanceof Integer ||
+                state instanceof Double || state instanceof Float || state instanceof Boolean ||
+                state instanceof Short || state instanceof Byte || state instanceof Character ||
+                state instanceof BigInteger || state instanceof BigDecimal || state instanceof Enum;
+    }
+
+    private StreamEvent copyStreamEvent(StreamEvent streamEvent) {
+        // Similar to its serialization, events chained to a stream event are copied by value
+        StreamEvent firstCopy = null;
+        StreamEvent previousCopy = null;
+        for (StreamEvent event = streamEvent; event != null; event = event.getNext()) {
+            StreamEvent eventCopy = new StreamEvent(0, 0, 0);
+            eventCopy.setBeforeWindowData(copyArray(event.getBeforeWindowData()));
+            eventCopy.setOnAfterWindowData(copyArray(event.getOnAfterWindowData()));
+            eventCopy.setOutputData(copyArray(event.getOutputData()));
+            eventCopy.setType(event.getType());
+            eventCopy.setTimestamp(event.getTimestamp());
+            if (previousCopy == null) {
+                firstCopy = eventCopy;
+            } else {
+                previousCopy.setNext(eventCopy);
+            }
+            previousCopy = eventCopy;
+        }
+        return firstCopy;
+    }
+
+    private StateEvent copyStateEvent(StateEvent stateEvent) {
+        StreamEvent[] streamEvents = stateEvent.getStreamEvents();
+        Object[] outputData = stateEvent.getOutputData();
+        StateEvent stateEventCopy = new StateEvent(streamEvents.length, outputData.length);
+        copiedObjects.put(stateEvent, stateEventCopy);
+        for (int i = 0; i < streamEvents.length; i++) {
+            stateEventCopy.setEvent(i, (StreamEvent) copy(streamEvents[i]));
+        }
+        for (int i = 0; i < outputData.length; i++) {
+            stateEventCopy.setOutputData(copy(outputData[i]), i);
+        }
+        stateEventCopy.setTimestamp(stateEvent.getTimestamp());
+        stateEventCopy.setType(stateEvent.getType());
+        stateEventCopy.setId(stateEvent.getId());
+        stateEventCopy.setNext((StateEvent) copy(stateEvent.getNext()));
+        return stateEventCopy;
+    }
+
+    private Object[] copyArray(Object[] array) {
+        if (array == null) {
+            return null;
+        }
+        Object[] arrayCopy = array.clone();
+        for (int i = 0; i < arrayCopy.length; i++) {
+            arrayCopy[i] = copy(arrayCopy[i]);
+        }
+        return arrayCopy;
+    }
+
+    private Object copyPrimitiveArray(Object array) {
+        int length = Array.getLength(array);
+        Object arrayCopy = Array.newInstance(array.getClass().getComponentType(), length);
+        System.arraycopy(array, 0, arrayCopy, 0, length);
+        return arrayCopy;
+    }
+
+    private Map<Object, Object> copyMap(Map<?, ?> map, Map<Object, Object> mapCopy) {
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            mapCopy.put(copy(entry.getKey()), copy(entry.getValue()));
+        }
+        return mapCopy;
+    }
+
+    private AttributeIndex copyAttributeIndex(AttributeIndex attributeIndex) {
+        AttributeIndex attributeIndexCopy = AttributeIndex.create(attributeIndex.getType(),
+                attributeIndex.getAttributeType());
+        for (Map.Entry<Object, Set<StreamEvent>> entry : attributeIndex.asMap().entrySet()) {
+            attributeIndexCopy.put(copy(entry.getKey()), (Set<StreamEvent>) copy(entry.getValue()));
+        }
+        return attributeIndexCopy;
+    }
+
+    private Collection<Object> copyCollection(Collection<?> collection, Collection<Object> collectionCopy) {
+        for (Object item : collection) {
+            collectionCopy.add(copy(item));
+        }
+        return collectionCopy;
+    }
+}
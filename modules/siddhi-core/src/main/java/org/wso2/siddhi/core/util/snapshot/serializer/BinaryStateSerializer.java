@@ -0,0 +1,705 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.util.snapshot.serializer;
+
+import org.wso2.siddhi.core.event.ComplexEvent;
+import org.wso2.siddhi.core.event.state.StateEvent;
+import org.wso2.siddhi.core.event.stream.Operation;
+import org.wso2.siddhi.core.event.stream.StreamEvent;
+import org.wso2.siddhi.core.table.holder.AttributeIndex;
+import org.wso2.siddhi.core.table.holder.IndexEventHolder;
+import org.wso2.siddhi.core.util.snapshot.state.SnapshotState;
+import org.wso2.siddhi.core.util.snapshot.state.SnapshotStateList;
+import org.wso2.siddhi.query.api.definition.Attribute;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.Serializable;
+import java.io.StreamCorruptedException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Compact binary {@link StateSerializer} which is aware of the state types used by Siddhi, such as
+ * {@link StreamEvent} chains, {@link StateEvent}s, {@link SnapshotState}s, {@link SnapshotStateList}s,
+ * {@link Operation} logs, {@link IndexEventHolder} contents and the commonly used collections. Numbers are written as
+ * variable length integers and equal strings are written only once. Any other {@link Serializable} object is
+ * written using Java serialization.
+ * <p>
+ * Snapshots taken by the {@link JavaStateSerializer} can also be restored using this serializer.
+ */
+public class BinaryStateSerializer implements StateSerializer {
+
+    private static final byte MAGIC_HEADER_1 = 'S';
+    private static final byte MAGIC_HEADER_2 = 'B';
+    private static final byte VERSION = 1;
+    private static final byte JAVA_MAGIC_HEADER_1 = (byte) 0xAC;
+    private static final byte JAVA_MAGIC_HEADER_2 = (byte) 0xED;
+
+    private static final byte NULL = 0;
+    private static final byte REFERENCE = 1;
+    private static final byte STRING = 2;
+    private static final byte STRING_REFERENCE = 3;
+    private static final byte INTEGER = 4;
+    private static final byte LONG = 5;
+    private static final byte DOUBLE = 6;
+    private static final byte FLOAT = 7;
+    private static final byte BOOLEAN_TRUE = 8;
+    private static final byte BOOLEAN_FALSE = 9;
+    private static final byte SHORT = 10;
+    private static final byte BYTE = 11;
+    private static final byte CHARACTER = 12;
+    private static final byte ENUM = 13;
+    private static final byte OBJECT_ARRAY = 14;
+    private static final byte BYTE_ARRAY = 15;
+    private static final byte HASH_MAP = 16;
+    private static final byte LINKED_HASH_MAP = 17;
+    private static final byte TREE_MAP = 18;
+    private static final byte CONCURRENT_HASH_MAP = 19;
+    private static final byte ARRAY_LIST = 20;
+    private static final byte LINKED_LIST = 21;
+    private static final byte HASH_SET = 22;
+    private static final byte LINKED_HASH_SET = 23;
+    private static final byte TREE_SET = 24;
+    private static final byte ARRAY_DEQUE = 25;
+    private static final byte LINKED_BLOCKING_QUEUE = 26;
+    private static final byte STREAM_EVENT = 27;
+    private static final byte STATE_EVENT = 28;
+    private static final byte SNAPSHOT_STATE = 29;
+    private static final byte SNAPSHOT_STATE_LIST = 30;
+    private static final byte OPERATION = 31;
+    private static final byte INDEX_EVENT_HOLDER = 32;
+    private static final byte SERIALIZABLE = 33;
+    private static final byte ATTRIBUTE_INDEX = 34;
+
+    private static final ComplexEvent.Type[] EVENT_TYPES = ComplexEvent.Type.values();
+    private static final Operation.Operator[] OPERATORS = Operation.Operator.values();
+
+    private final JavaStateSerializer javaStateSerializer = new JavaStateSerializer();
+
+    @Override
+    public byte[] serialize(Object state) throws IOException {
+        StateWriter stateWriter = new StateWriter();
+        stateWriter.writeByte(MAGIC_HEADER_1);
+        stateWriter.writeByte(MAGIC_HEADER_2);
+        stateWriter.writeByte(VERSION);
+        stateWriter.writeValue(state);
+        return stateWriter.toByteArray();
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws IOException, ClassNotFoundException {
+        if (bytes.length >= 2 && bytes[0] == JAVA_MAGIC_HEADER_1 && bytes[1] == JAVA_MAGIC_HEADER_2) {
+            return javaStateSerializer.deserialize(bytes);
+        }
+        if (bytes.length < 3 || bytes[0] != MAGIC_HEADER_1 || bytes[1] != MAGIC_HEADER_2) {
+            throw new StreamCorruptedException("Invalid header found when deserializing state");
+        }
+        if (bytes[2] != VERSION) {
+            throw new StreamCorruptedException("Unsupported state serialization version " + bytes[2]);
+        }
+        return new StateReader(bytes, 3).readValue();
+    }
+
+    /**
+     * Writes the objects in to the binary format, by tracking the already written objects and strings.
+     */
+    private class StateWriter {
+        private final Output output = new Output();
+        private final Map<Object, Integer> objectHandles = new IdentityHashMap<>();
+        private final Map<String, Integer> stringHandles = new HashMap<>();
+        private final Map<Class, Integer> classHandles = new HashMap<>();
+
+        void writeByte(byte value) {
+            output.write(value);
+        }
+
+        byte[] toByteArray() {
+            return output.toByteArray();
+        }
+
+        void writeValue(Object value) throws IOException {
+            if (value == null) {
+                output.write(NULL);
+                return;
+            }
+            Class<?> valueClass = value.getClass();
+            if (valueClass == String.class) {
+                writeString((String) value);
+            } else if (valueClass == Integer.class) {
+                output.write(INTEGER);
+                output.writeVarLong((Integer) value);
+            } else if (valueClass == Long.class) {
+                output.write(LONG);
+                output.writeVarLong((Long) value);
+            } else if (valueClass == Double.class) {
+                output.write(DOUBLE);
+                output.writeFixedLong(Double.doubleToRawLongBits((Double) value));
+            } else if (valueClass == Float.class) {
+                output.write(FLOAT);
+                output.writeFixedInt(Float.floatToRawIntBits((Float) value));
+            } else if (valueClass == Boolean.class) {
+                output.write((Boolean) value ? BOOLEAN_TRUE : BOOLEAN_FALSE);
+            } else if (valueClass == Short.class) {
+                output.write(SHORT);
+                output.writeVarLong((Short) value);
+            } else if (valueClass == Byte.class) {
+                output.write(BYTE);
+                output.write((Byte) value);
+            } else if (valueClass == Character.class) {
+                output.write(CHARACTER);
+                output.writeVarLong((Character) value);
+            } else if (value instanceof Enum) {
+                output.write(ENUM);
+                writeClass(((Enum) value).getDeclaringClass());
+                output.writeVarLong(((Enum) value).ordinal());
+            } else {
+                Integer handle = objectHandles.get(value);
+                if (handle != null) {
+                    output.write(REFERENCE);
+                    output.writeVarLong(handle);
+                } else {
+                    writeObject(value, valueClass);
+                }
+            }
+        }
+
+        private void writeObject(Object value, Class<?> valueClass) throws IOException {
+            if (valueClass == StreamEvent.class) {
+                output.write(STREAM_EVENT);
+                registerHandle(value);
+                writeStreamEvent((StreamEvent) value);
+            } else if (valueClass == StateEvent.class) {
+                output.write(STATE_EVENT);
+                registerHandle(value);
+                writeStateEvent((StateEvent) value);
+            } else if (valueClass == SnapshotState.class) {
+                output.write(SNAPSHOT_STATE);
+                registerHandle(value);
+                output.write(((SnapshotState) value).isIncrementalSnapshot() ? BOOLEAN_TRUE : BOOLEAN_FALSE);
+                writeValue(((SnapshotState) value).getState());
+            } else if (valueClass == SnapshotStateList.class) {
+                output.write(SNAPSHOT_STATE_LIST);
+                registerHandle(value);
+                writeValue(((SnapshotStateList) value).getSnapshotStates());
+            } else if (valueClass == Operation.class) {
+                output.write(OPERATION);
+                registerHandle(value);
+                Operation operation = (Operation) value;
+                output.writeVarLong(operation.operation == null ? -1 : operation.operation.ordinal());
+                writeValue(operation.parameters);
+            } else if (valueClass == IndexEventHolder.class) {
+                output.write(INDEX_EVENT_HOLDER);
+                registerHandle(value);
+                writeValue(((IndexEventHolder) value).getPrimaryKeyData());
+                writeValue(((IndexEventHolder) value).getIndexData());
+            } else if (value instanceof AttributeIndex) {
+                output.write(ATTRIBUTE_INDEX);
+                registerHandle(value);
+                writeValue(((AttributeIndex) value).getType());
+                writeValue(((AttributeIndex) value).getAttributeType());
+                writeMap(HASH_MAP, ((AttributeIndex) value).asMap());
+            } else if (valueClass == Object[].class) {
+                output.write(OBJECT_ARRAY);
+                registerHandle(value);
+                writeArrayContent((Object[]) value);
+            } else if (valueClass == byte[].class) {
+                output.write(BYTE_ARRAY);
+                registerHandle(value);
+                output.writeVarLong(((byte[]) value).length);
+                output.write((byte[]) value);
+            } else if (valueClass == HashMap.class) {
+                writeMap(HASH_MAP, (Map<?, ?>) value);
+            } else if (valueClass == LinkedHashMap.class) {
+                writeMap(LINKED_HASH_MAP, (Map<?, ?>) value);
+            } else if (valueClass == ConcurrentHashMap.class) {
+                writeMap(CONCURRENT_HASH_MAP, (Map<?, ?>) value);
+            } else if (valueClass == TreeMap.class && ((TreeMap) value).comparator() == null) {
+                writeMap(TREE_MAP, (Map<?, ?>) value);
+            } else if (valueClass == ArrayList.class) {
+                writeCollection(ARRAY_LIST, (Collection<?>) value);
+            } else if (valueClass == LinkedList.class) {
+                writeCollection(LINKED_LIST, (Collection<?>) value);
+            } else if (valueClass == HashSet.class) {
+                writeCollection(HASH_SET, (Collection<?>) value);
+            } else if (valueClass == LinkedHashSet.class) {
+                writeCollection(LINKED_HASH_SET, (Collection<?>) value);
+            } else if (valueClass == TreeSet.class && ((TreeSet) value).comparator() == null) {
+                writeCollection(TREE_SET, (Collection<?>) value);
+            } else if (valueClass == ArrayDeque.class) {
+                writeCollection(ARRAY_DEQUE, (Collection<?>) value);
+            } else if (valueClass == LinkedBlockingQueue.class &&
+                    ((LinkedBlockingQueue) value).remainingCapacity() + ((LinkedBlockingQueue) value).size() ==
+                            Integer.MAX_VALUE) {
+                writeCollection(LINKED_BLOCKING_QUEUE, (Collection<?>) value);
+            } else if (value instanceof Serializable) {
+                output.write(SERIALIZABLE);
+                registerHandle(value);
+                byte[] bytes = javaStateSerializer.serialize(value);
+                output.writeVarLong(bytes.length);
+                output.write(bytes);
+            } else {
+                throw new NotSerializableException(valueClass.getName());
+            }
+        }
+
+        private void registerHandle(Object value) {
+            objectHandles.put(value, objectHandles.size());
+        }
+
+        private void writeString(String value) {
+            Integer handle = stringHandles.get(value);
+            if (handle != null) {
+                output.write(STRING_REFERENCE);
+                output.writeVarLong(handle);
+            } else {
+                stringHandles.put(value, stringHandles.size());
+                output.write(STRING);
+                writeRawString(value);
+            }
+        }
+
+        private void writeRawString(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            output.writeVarLong(bytes.length);
+            output.write(bytes);
+        }
+
+        private void writeClass(Class<?> valueClass) {
+            Integer handle = classHandles.get(valueClass);
+            if (handle != null) {
+                output.writeVarLong(handle);
+            } else {
+                handle = classHandles.size();
+                classHandles.put(valueClass, handle);
+                output.writeVarLong(handle);
+                writeRawString(valueClass.getName());
+            }
+        }
+
+        private void writeArrayContent(Object[] array) throws IOException {
+            if (array == null) {
+                output.writeVarLong(-1);
+            } else {
+                output.writeVarLong(array.length);
+                for (Object item : array) {
+                    writeValue(item);
+                }
+            }
+        }
+
+        private void writeStreamEvent(StreamEvent streamEvent) throws IOException {
+            // Similar to its Java serialization, events chained to a stream event are written by value
+            for (StreamEvent event = streamEvent; event != null; event = event.getNext()) {
+                writeArrayContent(event.getBeforeWindowData());
+                writeArrayContent(event.getOnAfterWindowData());
+                writeArrayContent(event.getOutputData());
+                output.writeVarLong(event.getType() == null ? -1 : event.getType().ordinal());
+                output.writeVarLong(event.getTimestamp());
+                output.write(event.getNext() != null ? BOOLEAN_TRUE : BOOLEAN_FALSE);
+            }
+        }
+
+        private void writeStateEvent(StateEvent stateEvent) throws IOException {
+            StreamEvent[] streamEvents = stateEvent.getStreamEvents();
+            output.writeVarLong(streamEvents.length);
+            for (StreamEvent streamEvent : streamEvents) {
+                writeValue(streamEvent);
+            }
+            writeArrayContent(stateEvent.getOutputData());
+            output.writeVarLong(stateEvent.getType() == null ? -1 : stateEvent.getType().ordinal());
+            output.writeVarLong(stateEvent.getTimestamp());
+            output.writeVarLong(stateEvent.getId());
+            writeValue(stateEvent.getNext());
+        }
+
+        private void writeMap(byte tag, Map<?, ?> map) throws IOException {
+            output.write(tag);
+            registerHandle(map);
+            output.writeVarLong(map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                writeValue(entry.getKey());
+                writeValue(entry.getValue());
+            }
+        }
+
+        private void writeCollection(byte tag, Collection<?> collection) throws IOException {
+            output.write(tag);
+            registerHandle(collection);
+            output.writeVarLong(collection.size());
+            for (Object item : collection) {
+                writeValue(item);
+            }
+        }
+    }
+
+    /**
+     * Reads the objects written by the {@link StateWriter}.
+     */
+    private class StateReader {
+        private final Input input;
+        private final List<Object> objectHandles = new ArrayList<>();
+        private final List<String> stringHandles = new ArrayList<>();
+        private final List<Class> classHandles = new ArrayList<>();
+
+        StateReader(byte[] bytes, int offset) {
+            this.input = new Input(bytes, offset);
+        }
+
+        Object readValue() throws IOException, ClassNotFoundException {
+            byte tag = input.read();
+            switch (tag) {
+                case NULL:
+                    return null;
+                case REFERENCE:
+                    return objectHandles.get((int) input.readVarLong());
+                case STRING: {
+                    String value = readRawString();
+                    stringHandles.add(value);
+                    return value;
+                }
+                case STRING_REFERENCE:
+                    return stringHandles.get((int) input.readVarLong());
+                case INTEGER:
+                    return (int) input.readVarLong();
+                case LONG:
+                    return input.readVarLong();
+                case DOUBLE:
+                    return Double.longBitsToDouble(input.readFixedLong());
+                case FLOAT:
+                    return Float.intBitsToFloat(input.readFixedInt());
+                case BOOLEAN_TRUE:
+                    return Boolean.TRUE;
+                case BOOLEAN_FALSE:
+                    return Boolean.FALSE;
+                case SHORT:
+                    return (short) input.readVarLong();
+                case BYTE:
+                    return input.read();
+                case CHARACTER:
+                    return (char) input.readVarLong();
+                case ENUM:
+                    return readClass().getEnumConstants()[(int) input.readVarLong()];
+                case STREAM_EVENT:
+                    return readStreamEvent();
+                case STATE_EVENT:
+                    return readStateEvent();
+                case SNAPSHOT_STATE: {
+                    int handle = reserveHandle();
+                    boolean isIncrementalSnapshot = input.read() == BOOLEAN_TRUE;
+                    SnapshotState snapshotState = new SnapshotState(readValue(), isIncrementalSnapshot);
+                    objectHandles.set(handle, snapshotState);
+                    return snapshotState;
+                }
+                case SNAPSHOT_STATE_LIST: {
+                    SnapshotStateList snapshotStateList = new SnapshotStateList();
+                    objectHandles.add(snapshotStateList);
+                    snapshotStateList.setSnapshotStates((TreeMap<Long, SnapshotState>) readValue());
+                    return snapshotStateList;
+                }
+                case OPERATION: {
+                    int handle = reserveHandle();
+                    int operatorIndex = (int) input.readVarLong();
+                    Operation operation = new Operation(operatorIndex < 0 ? null : OPERATORS[operatorIndex],
+                            readValue());
+                    objectHandles.set(handle, operation);
+                    return operation;
+                }
+                case INDEX_EVENT_HOLDER: {
+                    int handle = reserveHandle();
+                    Map<Object, StreamEvent> primaryKeyData = (Map<Object, StreamEvent>) readValue();
+                    Map<String, AttributeIndex> indexData = (Map<String, AttributeIndex>) readValue();
+                    IndexEventHolder indexEventHolder = new IndexEventHolder(primaryKeyData, indexData);
+                    objectHandles.set(handle, indexEventHolder);
+                    return indexEventHolder;
+                }
+                case ATTRIBUTE_INDEX: {
+                    int handle = reserveHandle();
+                    AttributeIndex.Type type = (AttributeIndex.Type) readValue();
+                    Attribute.Type attributeType = (Attribute.Type) readValue();
+                    AttributeIndex attributeIndex = AttributeIndex.create(type, attributeType);
+                    objectHandles.set(handle, attributeIndex);
+                    attributeIndex.putAll((Map<Object, Set<StreamEvent>>) readValue());
+                    return attributeIndex;
+                }
+                case OBJECT_ARRAY: {
+                    int handle = reserveHandle();
+                    int length = (int) input.readVarLong();
+                    Object[] array = new Object[length];
+                    objectHandles.set(handle, array);
+                    for (int i = 0; i < length; i++) {
+                        array[i] = readValue();
+                    }
+                    return array;
+                }
+                case BYTE_ARRAY: {
+                    byte[] bytes = input.read((int) input.readVarLong());
+                    objectHandles.add(bytes);
+                    return bytes;
+                }
+                case HASH_MAP:
+                    return readMap(new HashMap<>());
+                case LINKED_HASH_MAP:
+                    return readMap(new LinkedHashMap<>());
+                case CONCURRENT_HASH_MAP:
+                    return readMap(new ConcurrentHashMap<>());
+                case TREE_MAP:
+                    return readMap(new TreeMap<>());
+                case ARRAY_LIST:
+                    return readCollection(new ArrayList<>());
+                case LINKED_LIST:
+                    return readCollection(new LinkedList<>());
+                case HASH_SET:
+                    return readCollection(new HashSet<>());
+                case LINKED_HASH_SET:
+                    return readCollection(new LinkedHashSet<>());
+                case TREE_SET:
+                    return readCollection(new TreeSet<>());
+                case ARRAY_DEQUE:
+                    return readCollection(new ArrayDeque<>());
+                case LINKED_BLOCKING_QUEUE:
+                    return readCollection(new LinkedBlockingQueue<>());
+                case SERIALIZABLE: {
+                    int handle = reserveHandle();
+                    Object value = javaStateSerializer.deserialize(input.read((int) input.readVarLong()));
+                    objectHandles.set(handle, value);
+                    return value;
+                }
+                default:
+                    throw new StreamCorruptedException("Invalid type tag " + tag + " found when deserializing state");
+            }
+        }
+
+        private int reserveHandle() {
+            objectHandles.add(null);
+            return objectHandles.size() - 1;
+        }
+
+        private String readRawString() {
+            return new String(input.read((int) input.readVarLong()), StandardCharsets.UTF_8);
+        }
+
+        private Class readClass() throws ClassNotFoundException {
+            int handle = (int) input.readVarLong();
+            if (handle < classHandles.size()) {
+                return classHandles.get(handle);
+            }
+            Class valueClass = Class.forName(readRawString(), false, BinaryStateSerializer.class.getClassLoader());
+            classHandles.add(valueClass);
+            return valueClass;
+        }
+
+        private Object[] readArrayContent() throws IOException, ClassNotFoundException {
+            int length = (int) input.readVarLong();
+            if (length < 0) {
+                return null;
+            }
+            Object[] array = new Object[length];
+            for (int i = 0; i < length; i++) {
+                array[i] = readValue();
+            }
+            return array;
+        }
+
+        private StreamEvent readStreamEvent() throws IOException, ClassNotFoundException {
+            StreamEvent firstEvent = new StreamEvent(0, 0, 0);
+            objectHandles.add(firstEvent);
+            StreamEvent event = firstEvent;
+            while (true) {
+                event.setBeforeWindowData(readArrayContent());
+                event.setOnAfterWindowData(readArrayContent());
+                event.setOutputData(readArrayContent());
+                int typeIndex = (int) input.readVarLong();
+                event.setType(typeIndex < 0 ? null : EVENT_TYPES[typeIndex]);
+                event.setTimestamp(input.readVarLong());
+                if (input.read() != BOOLEAN_TRUE) {
+                    return firstEvent;
+                }
+                StreamEvent nextEvent = new StreamEvent(0, 0, 0);
+                event.setNext(nextEvent);
+                event = nextEvent;
+            }
+        }
+
+        private StateEvent readStateEvent() throws IOException, ClassNotFoundException {
+            int handle = reserveHandle();
+            int streamEventsSize = (int) input.readVarLong();
+            StreamEvent[] streamEvents = new StreamEvent[streamEventsSize];
+            for (int i = 0; i < streamEventsSize; i++) {
+                streamEvents[i] = (StreamEvent) readValue();
+            }
+            Object[] outputData = readArrayContent();
+            StateEvent stateEvent = new StateEvent(streamEventsSize, outputData == null ? 0 : outputData.length);
+            objectHandles.set(handle, stateEvent);
+            for (int i = 0; i < streamEventsSize; i++) {
+                stateEvent.setEvent(i, streamEvents[i]);
+            }
+            for (int i = 0; outputData != null && i < outputData.length; i++) {
+                stateEvent.setOutputData(outputData[i], i);
+            }
+            int typeIndex = (int) input.readVarLong();
+            stateEvent.setType(typeIndex < 0 ? null : EVENT_TYPES[typeIndex]);
+            stateEvent.setTimestamp(input.readVarLong());
+            stateEvent.setId(input.readVarLong());
+            stateEvent.setNext((StateEvent) readValue());
+            return stateEvent;
+        }
+
+        private Map<Object, Object> readMap(Map<Object, Object> map) throws IOException, ClassNotFoundException {
+            objectHandles.add(map);
+            long size = input.readVarLong();
+            for (long i = 0; i < size; i++) {
+                map.put(readValue(), readValue());
+            }
+            return map;
+        }
+
+        private Collection<Object> readCollection(Collection<Object> collection)
+                throws IOException, ClassNotFoundException {
+            objectHandles.add(collection);
+            long size = input.readVarLong();
+            for (long i = 0; i < size; i++) {
+                collection.add(readValue());
+            }
+            return collection;
+        }
+    }
+
+    /**
+     * Growable byte buffer with variable length number encoding.
+     */
+    private static class Output extends ByteArrayOutputStream {
+
+        Output() {
+            super(1024);
+        }
+
+        @Override
+        public void write(int value) {
+            ensureCapacity(1);
+            buf[count++] = (byte) value;
+        }
+
+        @Override
+        public void write(byte[] bytes) {
+            write(bytes, 0, bytes.length);
+        }
+
+        void writeVarLong(long value) {
+            // zig-zag encoding to keep small negative numbers short
+            long zigZagValue = (value << 1) ^ (value >> 63);
+            ensureCapacity(10);
+            while ((zigZagValue & ~0x7FL) != 0) {
+                buf[count++] = (byte) ((zigZagValue & 0x7F) | 0x80);
+                zigZagValue >>>= 7;
+            }
+            buf[count++] = (byte) zigZagValue;
+        }
+
+        void writeFixedLong(long value) {
+            ensureCapacity(8);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                buf[count++] = (byte) (value >> shift);
+            }
+        }
+
+        void writeFixedInt(int value) {
+            ensureCapacity(4);
+            for (int shift = 24; shift >= 0; shift -= 8) {
+                buf[count++] = (byte) (value >> shift);
+            }
+        }
+
+        private void ensureCapacity(int length) {
+            if (count + length > buf.length) {
+                byte[] newBuf = new byte[Math.max(buf.length << 1, count + length)];
+                System.arraycopy(buf, 0, newBuf, 0, count);
+                buf = newBuf;
+            }
+        }
+    }
+
+    /**
+     * Reader of the bytes written by {@link Output}.
+     */
+    private static class Input {
+        private final byte[] bytes;
+        private int position;
+
+        Input(byte[] bytes, int position) {
+            this.bytes = bytes;
+            this.position = position;
+        }
+
+        byte read() {
+            return bytes[position++];
+        }
+
+        byte[] read(int length) {
+            byte[] result = new byte[length];
+            System.arraycopy(bytes, position, result, 0, length);
+            position += length;
+            return result;
+        }
+
+        long readVarLong() {
+            long zigZagValue = 0;
+            int shift = 0;
+            byte value;
+            do {
+                value = bytes[position++];
+                zigZagValue |= (long) (value & 0x7F) << shift;
+                shift += 7;
+            } while ((value & 0x80) != 0);
+            return (zigZagValue >>> 1) ^ -(zigZagValue & 1);
+        }
+
+        long readFixedLong() {
+            long value = 0;
+            for (int i = 0; i < 8; i++) {
+                value = (value << 8) | (bytes[position++] & 0xFF);
+            }
+            return value;
+        }
+
+        int readFixedInt() {
+            int value = 0;
+            for (int i = 0; i < 4; i++) {
+                value = (value << 8) | (bytes[position++] & 0xFF);
+            }
+            return value;
+        }
+    }
+}
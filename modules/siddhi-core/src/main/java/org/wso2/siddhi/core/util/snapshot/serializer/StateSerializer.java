@@ -0,0 +1,33 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.util.snapshot.serializer;
+
+import java.io.IOException;
+
+/**
+ * Interface for the serializers used to convert the snapshot states of Siddhi apps into bytes and vise-versa.
+ * The serializer to be used can be set via {@link org.wso2.siddhi.core.SiddhiManager#setStateSerializer}.
+ */
+public interface StateSerializer {
+
+    byte[] serialize(Object state) throws IOException;
+
+    Object deserialize(byte[] bytes) throws IOException, ClassNotFoundException;
+
+}
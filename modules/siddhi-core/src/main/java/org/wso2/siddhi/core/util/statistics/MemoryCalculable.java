@@ -19,7 +19,9 @@
 package org.wso2.siddhi.core.util.statistics;
 
 /**
- * Memory Calculable Objects
+ * Memory Calculable Objects. When the memory usage is estimated, the memory usage of these objects is scaled by the
+ * element counts of the {@link org.wso2.siddhi.core.util.statistics.memory.ElementCountable} state holders reachable
+ * from them, in between the sampled calculations.
  */
 public interface MemoryCalculable {
 
@@ -28,4 +28,14 @@ public interface StatisticsManager {
     void stopReporting();
 
     void cleanup();
+
+    /**
+     * Report a configuration of a Siddhi app element, such as the wait strategy of an async stream, which does not
+     * change during the runtime of the Siddhi app.
+     *
+     * @param name  unique name of the configuration
+     * @param value configured value
+     */
+    default void reportConfiguration(String name, String value) {
+    }
 }
@@ -0,0 +1,34 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.util.statistics.memory;
+
+/**
+ * State holders that keep a running count of the elements they hold, such as the events of a window or a table and
+ * the aggregators of group by keys. When the memory usage is estimated, the memory retained by the holders is
+ * measured per element on a sampled schedule, and scaled by their element counts in between the samples.
+ */
+public interface ElementCountable {
+
+    /**
+     * Get the number of elements currently held. This is called outside of the event processing threads, hence
+     * it should be cheap and should not iterate over the elements.
+     *
+     * @return number of elements
+     */
+    long getElementCount();
+}
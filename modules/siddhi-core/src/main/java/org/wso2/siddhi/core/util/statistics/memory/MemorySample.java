@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.util.statistics.memory;
+
+import java.util.List;
+
+/**
+ * Result of a full reflective walk over an object, which separates the memory retained by the
+ * {@link ElementCountable} state holders reachable from the object from the rest, such that the memory usage can be
+ * estimated from the element counts of the holders until the object is sampled again.
+ */
+public class MemorySample {
+    private final long fixedSize;
+    private final long elementsSize;
+    private final long elementCount;
+    private final List<ElementCountable> elementHolders;
+
+    public MemorySample(long fixedSize, long elementsSize, List<ElementCountable> elementHolders) {
+        this.fixedSize = fixedSize;
+        this.elementsSize = elementsSize;
+        this.elementHolders = elementHolders;
+        this.elementCount = countElements();
+    }
+
+    /**
+     * Get the memory retained by the object excluding the element holders.
+     *
+     * @return size in bytes
+     */
+    public long getFixedSize() {
+        return fixedSize;
+    }
+
+    /**
+     * Get the memory retained by the element holders at the time of sampling.
+     *
+     * @return size in bytes
+     */
+    public long getElementsSize() {
+        return elementsSize;
+    }
+
+    /**
+     * Get the number of elements held at the time of sampling.
+     *
+     * @return number of elements
+     */
+    public long getElementCount() {
+        return elementCount;
+    }
+
+    public long getSize() {
+        return fixedSize + elementsSize;
+    }
+
+    /**
+     * Count the elements currently held by the element holders found at the time of sampling.
+     *
+     * @return number of elements
+     */
+    public long countElements() {
+        long count = 0;
+        for (ElementCountable elementHolder : elementHolders) {
+            count += elementHolder.getElementCount();
+        }
+        return count;
+    }
+}
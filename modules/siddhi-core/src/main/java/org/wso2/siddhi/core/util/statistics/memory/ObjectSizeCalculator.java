@@ -43,6 +43,7 @@ import java.lang.reflect.Array;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Deque;
 import java.util.LinkedList;
@@ -86,6 +87,8 @@ public class ObjectSizeCalculator {
     private final Set<Class> ignoreCalculation = Sets.newIdentityHashSet();
     private final Set<Object> alreadyVisited = Sets.newIdentityHashSet();
     private final Deque<Object> pending = new ArrayDeque<Object>(16 * 1024);
+    private final Set<Object> elementHolders = Sets.newIdentityHashSet();
+    private boolean deferElementHolders = false;
     private long size;
 
 
@@ -135,6 +138,18 @@ public class ObjectSizeCalculator {
         return obj == null ? 0 : new ObjectSizeCalculator(CurrentLayout.SPEC).calculateObjectSize(obj);
     }
 
+    /**
+     * Given an object, samples the total allocated size of the object and all other objects reachable from it,
+     * separating the size retained by the {@link ElementCountable} state holders reachable from it.
+     *
+     * @param obj the object
+     * @return the sample of the object
+     * @throws UnsupportedOperationException if the current vm memory layout cannot be detected.
+     */
+    public static MemorySample sampleObjectSize(Object obj) throws UnsupportedOperationException {
+        return new ObjectSizeCalculator(CurrentLayout.SPEC).calculateMemorySample(obj);
+    }
+
     @VisibleForTesting
     static long roundTo(long x, int multiple) {
         return ((x + multiple - 1) / multiple) * multiple;
@@ -283,28 +298,67 @@ public class ObjectSizeCalculator {
      * retains.
      */
     public synchronized long calculateObjectSize(Object obj) {
-        boolean isFirst = true;
         if (log.isDebugEnabled()) {
             log.debug("Object for size calculation: " + obj.getClass().getName());
         }
-        // Breadth-first traversal instead of naive depth-first with recursive
-        // implementation, so we don't blow the stack traversing long linked lists.
         try {
-            for (;; ) {
-                visit(obj, isFirst);
-                isFirst = false;
-                if (pending.isEmpty()) {
-                    return size;
-                }
-                obj = pending.removeFirst();
+            visitAll(obj, true);
+            return size;
+        } finally {
+            reset();
+        }
+    }
+
+    /**
+     * Given an object, returns the total allocated size of the object and all other objects reachable from it,
+     * separating the size retained by the {@link ElementCountable} state holders reachable from it. The holders
+     * are visited after all the other objects, hence objects shared between the holders and the rest are accounted
+     * to the rest.
+     *
+     * @param obj the object
+     * @return the sample of the object
+     */
+    public synchronized MemorySample calculateMemorySample(Object obj) {
+        if (log.isDebugEnabled()) {
+            log.debug("Object for size sampling: " + obj.getClass().getName());
+        }
+        try {
+            deferElementHolders = true;
+            visitAll(obj, true);
+            long fixedSize = size;
+            deferElementHolders = false;
+            List<ElementCountable> holders = new ArrayList<ElementCountable>(elementHolders.size());
+            for (Object elementHolder : elementHolders) {
+                holders.add((ElementCountable) elementHolder);
+                visitAll(elementHolder, false);
             }
+            return new MemorySample(fixedSize, size - fixedSize, holders);
         } finally {
-            alreadyVisited.clear();
-            pending.clear();
-            size = 0;
+            reset();
+        }
+    }
+
+    private void visitAll(Object obj, boolean isFirst) {
+        // Breadth-first traversal instead of naive depth-first with recursive
+        // implementation, so we don't blow the stack traversing long linked lists.
+        for (;; ) {
+            visit(obj, isFirst);
+            isFirst = false;
+            if (pending.isEmpty()) {
+                return;
+            }
+            obj = pending.removeFirst();
         }
     }
 
+    private void reset() {
+        alreadyVisited.clear();
+        pending.clear();
+        elementHolders.clear();
+        deferElementHolders = false;
+        size = 0;
+    }
+
     private void visit(Object obj, boolean isFirst) {
         if (alreadyVisited.contains(obj)) {
             return;
@@ -316,6 +370,10 @@ public class ObjectSizeCalculator {
                     return;
                 }
             }
+            if (deferElementHolders && obj instanceof ElementCountable) {
+                elementHolders.add(obj);
+                return;
+            }
         }
         if (clazz == ArrayElementsVisitor.class) {
             ((ArrayElementsVisitor) obj).visit(this);
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.util.statistics.metrics;
+
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.MetricRegistry;
+import org.wso2.siddhi.core.util.statistics.LatencyTracker;
+
+/**
+ * Class to calculate Siddhi latency into a {@link Histogram} backed by a {@link StripedHistogramReservoir}, which
+ * reports the percentiles of all the latencies of each reporting interval in nanoseconds. Unlike
+ * {@link SiddhiLatencyMetric}, marking the latency neither allocates objects nor looks up the metric registry.
+ */
+public class SiddhiHistogramLatencyMetric implements LatencyTracker {
+    private final ThreadLocal<MarkInTime> markInTime = new ThreadLocal<MarkInTime>() {
+        protected MarkInTime initialValue() {
+            return new MarkInTime();
+        }
+    };
+    private final Histogram histogram;
+    private final String metricName;
+
+    public SiddhiHistogramLatencyMetric(String name, MetricRegistry metricRegistry, long reportingInterval) {
+        this.metricName = name;
+        this.histogram = getOrRegisterHistogram(name, metricRegistry, reportingInterval);
+    }
+
+    private static Histogram getOrRegisterHistogram(String name, MetricRegistry metricRegistry,
+                                                    long reportingInterval) {
+        synchronized (metricRegistry) {
+            Metric metric = metricRegistry.getMetrics().get(name);
+            if (metric instanceof Histogram) {
+                return (Histogram) metric;
+            }
+            return metricRegistry.register(name, new Histogram(new StripedHistogramReservoir(reportingInterval)));
+        }
+    }
+
+    /**
+     * This is called when the processing of the event is started. This is
+     * called at ProcessStreamReceiver#receive before the event is passed into
+     * process chain
+     */
+    @Override
+    public void markIn() {
+        MarkInTime time = markInTime.get();
+        if (time.marked) {
+            throw new IllegalStateException("MarkIn consecutively called without calling markOut in " + metricName);
+        }
+        time.marked = true;
+        time.nanoTime = System.nanoTime();
+    }
+
+    /**
+     * This is called to when the processing of an event is finished. This is called at
+     * two places,
+     * 1. OutputRateLimiter#sendToCallBacks - When the event is processed and by the full chain and emitted out
+     * 2. ProcessStreamReceiver#receive - When event is not processed by full process chain(e.g. Filtered out by a
+     * filter)
+     */
+    @Override
+    public void markOut() {
+        MarkInTime time = markInTime.get();
+        if (time.marked) {
+            histogram.update(System.nanoTime() - time.nanoTime);
+            time.marked = false;
+        }
+    }
+
+    /**
+     * @return Name of the latency tracker
+     */
+    @Override
+    public String getName() {
+        return metricName;
+    }
+
+    public Histogram getHistogram() {
+        return histogram;
+    }
+
+    private static class MarkInTime {
+        private boolean marked;
+        private long nanoTime;
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.util.statistics.metrics;
+
+import org.wso2.siddhi.core.util.statistics.LatencyTracker;
+import org.wso2.siddhi.core.util.statistics.StatisticsManager;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Factory class to create Trackers and Managers, where the latencies of the queries, junctions, sinks and mappers
+ * are recorded into histograms reporting accurate percentiles per reporting interval, through
+ * {@link SiddhiHistogramLatencyMetric}. The other trackers are the same as of {@link SiddhiMetricsFactory}.
+ */
+public class SiddhiHistogramMetricsFactory extends SiddhiMetricsFactory {
+
+    @Override
+    public LatencyTracker createLatencyTracker(String name, StatisticsManager statisticsManager) {
+        SiddhiStatisticsManager siddhiStatisticsManager = (SiddhiStatisticsManager) statisticsManager;
+        return new SiddhiHistogramLatencyMetric(name, siddhiStatisticsManager.getRegistry(),
+                TimeUnit.SECONDS.toMillis(siddhiStatisticsManager.getInterval()));
+    }
+}
@@ -21,20 +21,36 @@ package org.wso2.siddhi.core.util.statistics.metrics;
 import com.codahale.metrics.Gauge;
 import com.codahale.metrics.MetricRegistry;
 import org.wso2.siddhi.core.util.statistics.MemoryUsageTracker;
+import org.wso2.siddhi.core.util.statistics.memory.ElementCountable;
+import org.wso2.siddhi.core.util.statistics.memory.MemorySample;
 import org.wso2.siddhi.core.util.statistics.memory.ObjectSizeCalculator;
 
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
 /**
- * Class to calculate Siddhi memory usage.
+ * Class to calculate Siddhi memory usage. By default the memory usage is calculated by walking over the registered
+ * objects on every report. When a sampling interval is given, the walk is only done once per interval, and the
+ * memory usage is estimated in between from the element counts of the {@link ElementCountable} state holders found
+ * on the last walk, and the memory retained per element measured on it.
  */
 public class SiddhiMemoryUsageMetric implements MemoryUsageTracker {
     private ConcurrentMap<Object, ObjectMetric> registeredObjects = new ConcurrentHashMap<Object, ObjectMetric>();
     private MetricRegistry metricRegistry;
+    private long samplingInterval;
 
     public SiddhiMemoryUsageMetric(MetricRegistry metricRegistry) {
+        this(metricRegistry, 0);
+    }
+
+    /**
+     * @param metricRegistry   registry to register the memory usage gauges
+     * @param samplingInterval interval in milliseconds between the walks over the objects, or zero to walk over the
+     *                         objects on every report
+     */
+    public SiddhiMemoryUsageMetric(MetricRegistry metricRegistry, long samplingInterval) {
         this.metricRegistry = metricRegistry;
+        this.samplingInterval = samplingInterval;
     }
 
     /**
@@ -66,6 +82,9 @@ public class SiddhiMemoryUsageMetric implements MemoryUsageTracker {
 
         private final Object object;
         private String name;
+        private MemorySample memorySample;
+        private long sampledTime;
+        private double elementSize = 0;
 
         public ObjectMetric(final Object object, String name) {
             this.object = object;
@@ -83,12 +102,30 @@ public class SiddhiMemoryUsageMetric implements MemoryUsageTracker {
                         @Override
                         public Long getValue() {
                             try {
-                                return ObjectSizeCalculator.getObjectSize(object);
+                                if (samplingInterval <= 0) {
+                                    return ObjectSizeCalculator.getObjectSize(object);
+                                }
+                                return estimateSize();
                             } catch (UnsupportedOperationException e) {
                                 return 0L;
                             }
                         }
                     });
         }
+
+        private synchronized long estimateSize() {
+            long currentTime = System.currentTimeMillis();
+            if (memorySample == null || currentTime - sampledTime >= samplingInterval) {
+                memorySample = ObjectSizeCalculator.sampleObjectSize(object);
+                sampledTime = currentTime;
+                if (memorySample.getElementCount() > 0) {
+                    elementSize = (double) memorySample.getElementsSize() / memorySample.getElementCount();
+                }
+                return memorySample.getSize();
+            }
+            long elementCountChange = memorySample.countElements() - memorySample.getElementCount();
+            return Math.max(memorySample.getFixedSize(),
+                    memorySample.getSize() + Math.round(elementCountChange * elementSize));
+        }
     }
 }
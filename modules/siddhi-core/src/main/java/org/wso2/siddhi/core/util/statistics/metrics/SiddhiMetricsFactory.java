@@ -27,6 +27,7 @@ import org.wso2.siddhi.core.util.statistics.ThroughputTracker;
 import org.wso2.siddhi.query.api.annotation.Element;
 
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Factory class to create Trackers and Managers.
@@ -46,7 +47,9 @@ public class SiddhiMetricsFactory implements StatisticsTrackerFactory {
     }
 
     public MemoryUsageTracker createMemoryUsageTracker(StatisticsManager statisticsManager) {
-        return new SiddhiMemoryUsageMetric(((SiddhiStatisticsManager) statisticsManager).getRegistry());
+        SiddhiStatisticsManager siddhiStatisticsManager = (SiddhiStatisticsManager) statisticsManager;
+        return new SiddhiMemoryUsageMetric(siddhiStatisticsManager.getRegistry(),
+                TimeUnit.SECONDS.toMillis(siddhiStatisticsManager.getMemorySamplingInterval()));
     }
 
     @Override
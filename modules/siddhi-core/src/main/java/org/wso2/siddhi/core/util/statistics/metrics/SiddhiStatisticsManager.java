@@ -19,6 +19,7 @@
 package org.wso2.siddhi.core.util.statistics.metrics;
 
 import com.codahale.metrics.ConsoleReporter;
+import com.codahale.metrics.Gauge;
 import com.codahale.metrics.JmxReporter;
 import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.Reporter;
@@ -37,6 +38,7 @@ public class SiddhiStatisticsManager implements StatisticsManager {
     private Reporter reporter;
     private String reporterName = "console";
     private int interval = 60;
+    private int memorySamplingInterval = 0;
 
     public SiddhiStatisticsManager(List<Element> elements) {
         for (Element element : elements) {
@@ -44,6 +46,8 @@ public class SiddhiStatisticsManager implements StatisticsManager {
                 reporterName = element.getValue();
             } else if ("interval".equals(element.getKey())) {
                 interval = Integer.parseInt(element.getValue());
+            } else if ("memory.sampling.interval".equals(element.getKey())) {
+                memorySamplingInterval = Integer.parseInt(element.getValue());
             }
         }
     }
@@ -52,6 +56,24 @@ public class SiddhiStatisticsManager implements StatisticsManager {
         return metricRegistry;
     }
 
+    /**
+     * Get the interval between the reports.
+     *
+     * @return interval in seconds
+     */
+    public int getInterval() {
+        return interval;
+    }
+
+    /**
+     * Get the interval between the full memory usage calculations, in between which the memory usage is estimated.
+     *
+     * @return interval in seconds, or zero when the memory usage is fully calculated on every report
+     */
+    public int getMemorySamplingInterval() {
+        return memorySamplingInterval;
+    }
+
     public void startReporting() {
         if (reporterName.equalsIgnoreCase("console")) {
             reporter = ConsoleReporter.forRegistry(metricRegistry)
@@ -84,6 +106,18 @@ public class SiddhiStatisticsManager implements StatisticsManager {
         }
     }
 
+    @Override
+    public void reportConfiguration(String name, final String value) {
+        if (!metricRegistry.getNames().contains(name)) {
+            metricRegistry.register(name, new Gauge<String>() {
+                @Override
+                public String getValue() {
+                    return value;
+                }
+            });
+        }
+    }
+
     @Override
     public void cleanup() {
 
@@ -0,0 +1,261 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.util.statistics.metrics;
+
+import com.codahale.metrics.Reservoir;
+import com.codahale.metrics.Snapshot;
+
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * {@link Reservoir} recording every value into log-linear buckets, in the manner of HdrHistogram, such that the
+ * percentiles are accurate to within two percent of the value, rather than being computed from a sample of the
+ * values. The buckets are striped by the recording threads to reduce contention, and are only ever incremented,
+ * hence recording a value is lock-free and allocation free.
+ * <p>
+ * The snapshots cover the values recorded in an interval, which ends when a snapshot is taken after at least half
+ * of the reporting interval has passed since the previous one. Snapshots taken sooner return the snapshot of the
+ * previous interval, such that the reporters reading the snapshot several times per report see the same values.
+ */
+public class StripedHistogramReservoir implements Reservoir {
+    // Values below the sub bucket count are recorded exactly, and the values above are recorded in buckets of the
+    // half of the sub bucket count per power of two.
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_HALF_COUNT = SUB_BUCKET_COUNT >> 1;
+    // Values above 2^40 nanoseconds, around 18 minutes, are recorded in the highest bucket.
+    private static final int MAX_VALUE_BITS = 40;
+    private static final long MAX_VALUE = (1L << MAX_VALUE_BITS) - 1;
+    private static final int BUCKET_COUNT = bucketIndex(MAX_VALUE) + 1;
+    private static final int MAX_STRIPES = 8;
+
+    private final AtomicLongArray[] stripes;
+    private final int stripeMask;
+    private final long snapshotInterval;
+    private final long[] previousCounts = new long[BUCKET_COUNT];
+    private IntervalSnapshot snapshot;
+    private long snapshotTime;
+
+    /**
+     * @param reportingInterval interval between the reports in milliseconds
+     */
+    public StripedHistogramReservoir(long reportingInterval) {
+        int stripeCount = Math.min(Integer.highestOneBit(Runtime.getRuntime().availableProcessors()), MAX_STRIPES);
+        this.stripes = new AtomicLongArray[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new AtomicLongArray(BUCKET_COUNT);
+        }
+        this.stripeMask = stripeCount - 1;
+        this.snapshotInterval = reportingInterval / 2;
+        this.snapshot = new IntervalSnapshot(new long[BUCKET_COUNT]);
+        this.snapshotTime = System.currentTimeMillis();
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return value < 0 ? 0 : (int) value;
+        }
+        if (value > MAX_VALUE) {
+            value = MAX_VALUE;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - (SUB_BUCKET_BITS - 1);
+        int subBucket = (int) (value >>> shift) - SUB_BUCKET_HALF_COUNT;
+        return SUB_BUCKET_COUNT + (shift - 1) * SUB_BUCKET_HALF_COUNT + subBucket;
+    }
+
+    static long lowestValue(int bucketIndex) {
+        if (bucketIndex < SUB_BUCKET_COUNT) {
+            return bucketIndex;
+        }
+        int shift = (bucketIndex - SUB_BUCKET_COUNT) / SUB_BUCKET_HALF_COUNT + 1;
+        long subBucket = (bucketIndex - SUB_BUCKET_COUNT) % SUB_BUCKET_HALF_COUNT + SUB_BUCKET_HALF_COUNT;
+        return subBucket << shift;
+    }
+
+    static long highestValue(int bucketIndex) {
+        if (bucketIndex < SUB_BUCKET_COUNT) {
+            return bucketIndex;
+        }
+        int shift = (bucketIndex - SUB_BUCKET_COUNT) / SUB_BUCKET_HALF_COUNT + 1;
+        return lowestValue(bucketIndex) + (1L << shift) - 1;
+    }
+
+    @Override
+    public int size() {
+        return getSnapshot().size();
+    }
+
+    @Override
+    public void update(long value) {
+        stripes[(int) Thread.currentThread().getId() & stripeMask].getAndIncrement(bucketIndex(value));
+    }
+
+    @Override
+    public synchronized Snapshot getSnapshot() {
+        long currentTime = System.currentTimeMillis();
+        if (currentTime - snapshotTime >= snapshotInterval) {
+            long[] intervalCounts = new long[BUCKET_COUNT];
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                long count = 0;
+                for (AtomicLongArray stripe : stripes) {
+                    count += stripe.get(i);
+                }
+                intervalCounts[i] = count - previousCounts[i];
+                previousCounts[i] = count;
+            }
+            snapshot = new IntervalSnapshot(intervalCounts);
+            snapshotTime = currentTime;
+        }
+        return snapshot;
+    }
+
+    /**
+     * Snapshot of the values recorded in an interval, where each value is represented by the middle of its bucket.
+     */
+    static class IntervalSnapshot extends Snapshot {
+        private final long[] counts;
+        private final long totalCount;
+
+        IntervalSnapshot(long[] counts) {
+            this.counts = counts;
+            long totalCount = 0;
+            for (long count : counts) {
+                totalCount += count;
+            }
+            this.totalCount = totalCount;
+        }
+
+        private static long value(int bucketIndex) {
+            long lowestValue = lowestValue(bucketIndex);
+            return lowestValue + (highestValue(bucketIndex) - lowestValue) / 2;
+        }
+
+        @Override
+        public double getValue(double quantile) {
+            if (quantile < 0.0 || quantile > 1.0 || Double.isNaN(quantile)) {
+                throw new IllegalArgumentException(quantile + " is not in [0..1]");
+            }
+            if (totalCount == 0) {
+                return 0.0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(quantile * totalCount));
+            long count = 0;
+            for (int i = 0; i < counts.length; i++) {
+                count += counts[i];
+                if (count >= rank) {
+                    return value(i);
+                }
+            }
+            return getMax();
+        }
+
+        /**
+         * Returns the value of each non empty bucket once, in ascending order, rather than a value per recorded
+         * value, as there can be millions of values in an interval.
+         *
+         * @return values of the non empty buckets
+         */
+        @Override
+        public long[] getValues() {
+            int bucketCount = 0;
+            for (long count : counts) {
+                if (count > 0) {
+                    bucketCount++;
+                }
+            }
+            long[] values = new long[bucketCount];
+            int index = 0;
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] > 0) {
+                    values[index++] = value(i);
+                }
+            }
+            return values;
+        }
+
+        @Override
+        public int size() {
+            return (int) Math.min(totalCount, Integer.MAX_VALUE);
+        }
+
+        @Override
+        public long getMax() {
+            for (int i = counts.length - 1; i >= 0; i--) {
+                if (counts[i] > 0) {
+                    return highestValue(i);
+                }
+            }
+            return 0;
+        }
+
+        @Override
+        public double getMean() {
+            if (totalCount == 0) {
+                return 0;
+            }
+            double sum = 0;
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] > 0) {
+                    sum += (double) value(i) * counts[i];
+                }
+            }
+            return sum / totalCount;
+        }
+
+        @Override
+        public long getMin() {
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] > 0) {
+                    return lowestValue(i);
+                }
+            }
+            return 0;
+        }
+
+        @Override
+        public double getStdDev() {
+            if (totalCount <= 1) {
+                return 0;
+            }
+            double mean = getMean();
+            double variance = 0;
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] > 0) {
+                    double diff = value(i) - mean;
+                    variance += diff * diff * counts[i];
+                }
+            }
+            return Math.sqrt(variance / (totalCount - 1));
+        }
+
+        @Override
+        public void dump(OutputStream output) {
+            try (PrintWriter out = new PrintWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8))) {
+                for (int i = 0; i < counts.length; i++) {
+                    if (counts[i] > 0) {
+                        out.printf("%d %d%n", value(i), counts[i]);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -41,12 +41,25 @@ public class InMemoryBroker {
         broker.publish(topic, message);
     }
 
+    /**
+     * Publish a batch of messages to the subscribers of the topic, such that each subscriber receives them together
+     * via {@link Subscriber#onMessages(Object[])}.
+     *
+     * @param topic    topic to publish to
+     * @param messages messages to publish
+     */
+    public static void publishBatch(String topic, Object[] messages) {
+        broker.broadcastBatch(topic, messages);
+    }
+
     interface Broker {
         void register(Subscriber subscriber);
 
         void unregister(Subscriber subscriber);
 
         void broadcast(String topic, Object msg);
+
+        void broadcastBatch(String topic, Object[] msgs);
     }
 
     /**
@@ -55,6 +68,12 @@ public class InMemoryBroker {
     public interface Subscriber {
         void onMessage(Object msg);
 
+        default void onMessages(Object[] msgs) {
+            for (Object msg : msgs) {
+                onMessage(msg);
+            }
+        }
+
         String getTopic();
     }
 
@@ -113,6 +132,18 @@ public class InMemoryBroker {
             }
         }
 
+        @Override
+        public void broadcastBatch(String topic, Object[] msgs) {
+            synchronized (mutex) {
+                if (this.topicSubscribers.containsKey(topic)) {
+                    List<Subscriber> subscribers = new ArrayList<>(this.topicSubscribers.get(topic));
+                    for (Subscriber subscriber : subscribers) {
+                        subscriber.onMessages(msgs);
+                    }
+                }
+            }
+        }
+
         public void publish(String topic, Object msg) {
             broadcast(topic, msg);
         }
@@ -1161,8 +1161,8 @@ AssertJUnit.assertEquals("Number of success events", 4, inEventCount.get());
 
             List<Object[]> expected = Arrays.asList(
                     new Object[]{1496275200000L, "WSO2", 65.71428571428571, 460.0},
-                    new Object[]{1496275200000L, "CISCO", 800.0, 2400.0},
                     new Object[]{1496275200000L, "IBM", 433.3333333333333, 2600.0},
+                    new Object[]{1496275200000L, "CISCO", 800.0, 2400.0},
                     new Object[]{1498867200000L, "IBM", 100.0, 100.0},
                     new Object[]{1501545600000L, "IBM", 400.0, 400.0},
                     new Object[]{1533081600000L, "WSO2", 60.0, 60.0},
@@ -2249,7 +2249,7 @@ AssertJUnit.assertEquals("Number of success events", 4, inEventCount.get());
             Thread.sleep(100);
 
             List<Object[]> expected = Arrays.asList(
-                    new Object[]{198.0, 1980.0, 300f},
+                    new Object[]{198.0, 1980.0, 3500f},
                     new Object[]{400.0, 400.0, 3600f},
                     new Object[]{700.0, 700.0, 14000f},
                     new Object[]{600.0, 600.0, 3600f}
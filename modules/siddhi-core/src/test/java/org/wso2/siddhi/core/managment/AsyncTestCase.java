@@ -32,7 +32,9 @@ import org.wso2.siddhi.core.stream.output.StreamCallback;
 import org.wso2.siddhi.core.util.EventPrinter;
 import org.wso2.siddhi.core.util.SiddhiTestHelper;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public class AsyncTestCase {
@@ -400,4 +402,141 @@ public class AsyncTestCase {
         SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
 
     }
+
+    @Test
+    public void asyncTest9() throws InterruptedException {
+        log.info("async test 9");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                " " +
+                "@async(buffer.size='16', workers='1', batch.size.max='10')" +
+                "define stream cseEventStream (symbol string, price float, volume int);" +
+                "@async(buffer.size='8', workers='1', batch.size.max='5')" +
+                "define stream innerStream (symbol string, price float, volume int);" +
+                "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream[70 < price] " +
+                "select * " +
+                "insert into innerStream ;" +
+                "" +
+                "@info(name = 'query2') " +
+                "from innerStream " +
+                "select * " +
+                "insert into outputStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        List<Integer> volumes = new ArrayList<>();
+        siddhiAppRuntime.addCallback("outputStream", new StreamCallback() {
+
+            @Override
+            public void receive(Event[] events) {
+                eventArrived = true;
+                for (Event event : events) {
+                    volumes.add((Integer) event.getData(2));
+                    count.incrementAndGet();
+                }
+            }
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        int volume = 0;
+        for (int i = 0; i < 5; i++) {
+            Event[] events = new Event[50];
+            for (int j = 0; j < events.length; j++) {
+                events[j] = new Event(System.currentTimeMillis(), new Object[]{"WSO2", 115.6f, volume++});
+            }
+            inputHandler.send(events);
+        }
+        SiddhiTestHelper.waitForEvents(100, 250, count, 10000);
+        AssertJUnit.assertEquals(250, count.get());
+        for (int i = 0; i < volumes.size(); i++) {
+            AssertJUnit.assertEquals(Integer.valueOf(i), volumes.get(i));
+        }
+        siddhiAppRuntime.shutdown();
+        AssertJUnit.assertTrue(eventArrived);
+    }
+
+    @Test
+    public void asyncTest10() throws InterruptedException {
+        log.info("async test 10");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        String[] waitStrategies = {"blocking", "sleeping", "yielding", "busy-spin", "phased-backoff"};
+        String[] producers = {"single", "multi"};
+        for (String waitStrategy : waitStrategies) {
+            for (String producer : producers) {
+                count.set(0);
+                String siddhiApp = "" +
+                        "@async(buffer.size='16', workers='2', batch.size.max='5', wait.strategy='" +
+                        waitStrategy + "', producer='" + producer + "')" +
+                        "define stream cseEventStream (symbol string, price float, volume int);" +
+                        "" +
+                        "@info(name = 'query1') " +
+                        "from cseEventStream[70 < price] " +
+                        "select * " +
+                        "insert into outputStream ;";
+
+                SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+                siddhiAppRuntime.addCallback("outputStream", new StreamCallback() {
+
+                    @Override
+                    public void receive(Event[] events) {
+                        eventArrived = true;
+                        count.addAndGet(events.length);
+                    }
+                });
+
+                InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+                siddhiAppRuntime.start();
+                for (int i = 0; i < 40; i++) {
+                    inputHandler.send(new Object[]{"WSO2", 115.6f, i});
+                }
+                SiddhiTestHelper.waitForEvents(10, 40, count, 10000);
+                siddhiAppRuntime.shutdown();
+                AssertJUnit.assertEquals("Events of wait strategy '" + waitStrategy + "' and producer '" +
+                        producer + "'", 40, count.get());
+            }
+        }
+        AssertJUnit.assertTrue(eventArrived);
+        siddhiManager.shutdown();
+    }
+
+    @Test(expectedExceptions = SiddhiAppCreationException.class)
+    public void asyncTest11() throws InterruptedException {
+        log.info("async test 11");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                "@async(buffer.size='16', workers='1', wait.strategy='spinning')" +
+                "define stream cseEventStream (symbol string, price float, volume int);" +
+                "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream[70 > price] " +
+                "select * " +
+                "insert into outputStream ;";
+
+        siddhiManager.createSiddhiAppRuntime(siddhiApp);
+    }
+
+    @Test(expectedExceptions = SiddhiAppCreationException.class)
+    public void asyncTest12() throws InterruptedException {
+        log.info("async test 12");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                "@async(buffer.size='16', workers='1', producer='dual')" +
+                "define stream cseEventStream (symbol string, price float, volume int);" +
+                "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream[70 > price] " +
+                "select * " +
+                "insert into outputStream ;";
+
+        siddhiManager.createSiddhiAppRuntime(siddhiApp);
+    }
 }
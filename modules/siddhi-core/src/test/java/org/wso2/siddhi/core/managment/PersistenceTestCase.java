@@ -1119,4 +1119,138 @@ public class PersistenceTestCase {
 
         siddhiAppRuntime.shutdown();
     }
+
+    @Test(dependsOnMethods = "persistenceTest13")
+    public void persistenceTest14() throws InterruptedException, ExecutionException {
+        log.info("persistence test 14 - non-blocking snapshot of window query");
+
+        PersistenceStore persistenceStore = new InMemoryPersistenceStore();
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setPersistenceStore(persistenceStore);
+
+        String siddhiApp = "" +
+                "@app:name('Test') " +
+                "@app:snapshot(blocking='false') " +
+                "" +
+                "define stream StockStream ( symbol string, price float, volume int );" +
+                "" +
+                "@info(name = 'query1')" +
+                "from StockStream[price>10]#window.length(10) " +
+                "select symbol, price, sum(volume) as totalVol " +
+                "group by symbol " +
+                "insert into OutStream ";
+
+        QueryCallback queryCallback = new QueryCallback() {
+            @Override
+            public void receive(long timestamp, Event[] inEvents, Event[] removeEvents) {
+                EventPrinter.print(timestamp, inEvents, removeEvents);
+                eventArrived = true;
+                for (Event inEvent : inEvents) {
+                    count++;
+                    lastValue = (Long) inEvent.getData(2);
+                }
+            }
+        };
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("query1", queryCallback);
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+
+        inputHandler.send(new Object[]{"IBM", 75.6f, 100});
+        inputHandler.send(new Object[]{"IBM", 75.6f, 100});
+        AssertJUnit.assertEquals(new Long(200), lastValue);
+
+        //persisting, events sent after capturing the snapshot should not be part of it
+        PersistenceReference persistenceReference = siddhiAppRuntime.persist();
+        inputHandler.send(new Object[]{"IBM", 75.6f, 100});
+        persistenceReference.getFullStateFuture().get();
+        AssertJUnit.assertEquals(new Long(300), lastValue);
+
+        //restarting siddhi app
+        siddhiAppRuntime.shutdown();
+        siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("query1", queryCallback);
+        inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+
+        //loading
+        try {
+            siddhiAppRuntime.restoreLastRevision();
+        } catch (CannotRestoreSiddhiAppStateException e) {
+            Assert.fail("Restoring of Siddhi app " + siddhiAppRuntime.getName() + " failed", e);
+        }
+
+        inputHandler.send(new Object[]{"IBM", 75.6f, 100});
+        siddhiAppRuntime.shutdown();
+
+        AssertJUnit.assertEquals(4, count);
+        AssertJUnit.assertEquals(new Long(300), lastValue);
+        AssertJUnit.assertEquals(true, eventArrived);
+    }
+
+    @Test(dependsOnMethods = "persistenceTest14")
+    public void persistenceTest15() throws InterruptedException, ExecutionException {
+        log.info("persistence test 15 - non-blocking snapshot of indexed table");
+
+        PersistenceStore persistenceStore = new InMemoryPersistenceStore();
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setPersistenceStore(persistenceStore);
+
+        String siddhiApp = "" +
+                "@app:name('Test') " +
+                "@app:snapshot(blocking='false') " +
+                "" +
+                "define stream StockStream (symbol string, price float, volume long); " +
+                "define stream UpdateStream (symbol string, volume long); " +
+                "@PrimaryKey('symbol') " +
+                "@Index('volume') " +
+                "define table StockTable (symbol string, price float, volume long); " +
+                "" +
+                "from StockStream " +
+                "insert into StockTable; " +
+                "" +
+                "from UpdateStream " +
+                "update StockTable " +
+                "   set StockTable.volume = volume " +
+                "   on StockTable.symbol == symbol; ";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.start();
+        siddhiAppRuntime.getInputHandler("StockStream").send(new Object[]{"IBM", 75.6f, 100L});
+        siddhiAppRuntime.getInputHandler("StockStream").send(new Object[]{"WSO2", 57.6f, 200L});
+
+        //persisting, the table events updated in place after capturing the snapshot should not be part of it
+        PersistenceReference persistenceReference = siddhiAppRuntime.persist();
+        siddhiAppRuntime.getInputHandler("UpdateStream").send(new Object[]{"IBM", 500L});
+        persistenceReference.getFullStateFuture().get();
+        Event[] events = siddhiAppRuntime.query("from StockTable on volume == 500L select symbol ");
+        AssertJUnit.assertEquals(1, events.length);
+
+        //restarting siddhi app
+        siddhiAppRuntime.shutdown();
+        siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.start();
+
+        //loading
+        try {
+            siddhiAppRuntime.restoreLastRevision();
+        } catch (CannotRestoreSiddhiAppStateException e) {
+            Assert.fail("Restoring of Siddhi app " + siddhiAppRuntime.getName() + " failed", e);
+        }
+
+        events = siddhiAppRuntime.query("from StockTable select symbol, volume ");
+        AssertJUnit.assertEquals(2, events.length);
+        events = siddhiAppRuntime.query("from StockTable on volume == 100L select symbol ");
+        AssertJUnit.assertEquals(1, events.length);
+        AssertJUnit.assertEquals("IBM", events[0].getData(0));
+        events = siddhiAppRuntime.query("from StockTable on volume == 500L select symbol ");
+        AssertJUnit.assertNull(events);
+        events = siddhiAppRuntime.query("from StockTable on symbol == 'WSO2' select volume ");
+        AssertJUnit.assertEquals(200L, events[0].getData(0));
+        siddhiAppRuntime.shutdown();
+    }
 }
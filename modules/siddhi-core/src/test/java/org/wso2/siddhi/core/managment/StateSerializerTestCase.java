@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.managment;
+
+import org.apache.log4j.Logger;
+import org.testng.Assert;
+import org.testng.AssertJUnit;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.siddhi.core.SiddhiAppRuntime;
+import org.wso2.siddhi.core.SiddhiManager;
+import org.wso2.siddhi.core.event.ComplexEvent;
+import org.wso2.siddhi.core.event.Event;
+import org.wso2.siddhi.core.event.stream.StreamEvent;
+import org.wso2.siddhi.core.exception.CannotRestoreSiddhiAppStateException;
+import org.wso2.siddhi.core.query.output.callback.QueryCallback;
+import org.wso2.siddhi.core.stream.input.InputHandler;
+import org.wso2.siddhi.core.util.EventPrinter;
+import org.wso2.siddhi.core.util.persistence.InMemoryPersistenceStore;
+import org.wso2.siddhi.core.util.persistence.PersistenceStore;
+import org.wso2.siddhi.core.util.snapshot.serializer.BinaryStateSerializer;
+import org.wso2.siddhi.core.util.snapshot.serializer.JavaStateSerializer;
+import org.wso2.siddhi.core.util.snapshot.state.SnapshotState;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class StateSerializerTestCase {
+    private static final Logger log = Logger.getLogger(StateSerializerTestCase.class);
+    private int count;
+    private Long lastValue;
+
+    @BeforeMethod
+    public void init() {
+        count = 0;
+        lastValue = 0L;
+    }
+
+    @Test
+    public void stateSerializerTest1() throws Exception {
+        log.info("state serializer test 1 - binary serializer round trip");
+
+        StreamEvent streamEvent = new StreamEvent(1, 0, 2);
+        streamEvent.setBeforeWindowData(new Object[]{"IBM"});
+        streamEvent.setOutputData(new Object[]{75.6f, 100L});
+        streamEvent.setTimestamp(1000L);
+        streamEvent.setType(ComplexEvent.Type.EXPIRED);
+        StreamEvent nextStreamEvent = new StreamEvent(1, 0, 2);
+        nextStreamEvent.setBeforeWindowData(new Object[]{"WSO2"});
+        nextStreamEvent.setOutputData(new Object[]{-5.5d, null});
+        nextStreamEvent.setTimestamp(-1L);
+        streamEvent.setNext(nextStreamEvent);
+
+        List<Object> events = new ArrayList<>();
+        events.add(streamEvent);
+        events.add(streamEvent);
+        Map<String, Object> state = new HashMap<>();
+        state.put("Events", events);
+        state.put("Count", Integer.MIN_VALUE);
+        state.put("Flag", true);
+        state.put("Snapshot", new SnapshotState(Long.MAX_VALUE, true));
+
+        BinaryStateSerializer binaryStateSerializer = new BinaryStateSerializer();
+        byte[] bytes = binaryStateSerializer.serialize(state);
+        Map<String, Object> restoredState = (Map<String, Object>) binaryStateSerializer.deserialize(bytes);
+
+        AssertJUnit.assertEquals(Integer.MIN_VALUE, restoredState.get("Count"));
+        AssertJUnit.assertEquals(Boolean.TRUE, restoredState.get("Flag"));
+        SnapshotState snapshotState = (SnapshotState) restoredState.get("Snapshot");
+        AssertJUnit.assertTrue(snapshotState.isIncrementalSnapshot());
+        AssertJUnit.assertEquals(Long.MAX_VALUE, snapshotState.getState());
+
+        List<Object> restoredEvents = (List<Object>) restoredState.get("Events");
+        AssertJUnit.assertEquals(2, restoredEvents.size());
+        AssertJUnit.assertSame(restoredEvents.get(0), restoredEvents.get(1));
+        StreamEvent restoredEvent = (StreamEvent) restoredEvents.get(0);
+        AssertJUnit.assertEquals("IBM", restoredEvent.getBeforeWindowData()[0]);
+        AssertJUnit.assertEquals(75.6f, restoredEvent.getOutputData()[0]);
+        AssertJUnit.assertEquals(100L, restoredEvent.getOutputData()[1]);
+        AssertJUnit.assertEquals(1000L, restoredEvent.getTimestamp());
+        AssertJUnit.assertEquals(ComplexEvent.Type.EXPIRED, restoredEvent.getType());
+        StreamEvent restoredNextEvent = restoredEvent.getNext();
+        AssertJUnit.assertEquals("WSO2", restoredNextEvent.getBeforeWindowData()[0]);
+        AssertJUnit.assertEquals(-5.5d, restoredNextEvent.getOutputData()[0]);
+        AssertJUnit.assertNull(restoredNextEvent.getOutputData()[1]);
+        AssertJUnit.assertEquals(-1L, restoredNextEvent.getTimestamp());
+        AssertJUnit.assertNull(restoredNextEvent.getNext());
+
+        AssertJUnit.assertTrue(bytes.length < new JavaStateSerializer().serialize(state).length);
+        Map<String, Object> javaRestoredState = (Map<String, Object>) binaryStateSerializer.deserialize(
+                new JavaStateSerializer().serialize(state));
+        AssertJUnit.assertEquals(Integer.MIN_VALUE, javaRestoredState.get("Count"));
+    }
+
+    @Test(dependsOnMethods = "stateSerializerTest1")
+    public void stateSerializerTest2() throws InterruptedException {
+        log.info("state serializer test 2 - persisting window and table states with binary serializer");
+
+        PersistenceStore persistenceStore = new InMemoryPersistenceStore();
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setPersistenceStore(persistenceStore);
+        siddhiManager.setStateSerializer(new BinaryStateSerializer());
+
+        String siddhiApp = "" +
+                "@app:name('Test') " +
+                "" +
+                "define stream StockStream ( symbol string, price float, volume long );" +
+                "define stream CheckStream ( symbol string );" +
+                "@PrimaryKey('symbol') " +
+                "@Index('volume') " +
+                "define table StockTable ( symbol string, price float, volume long );" +
+                "" +
+                "@info(name = 'query1')" +
+                "from StockStream#window.length(10) " +
+                "select symbol, price, sum(volume) as totalVol " +
+                "insert into OutStream; " +
+                "" +
+                "@info(name = 'query2')" +
+                "from StockStream " +
+                "insert into StockTable; " +
+                "" +
+                "@info(name = 'query3')" +
+                "from CheckStream join StockTable " +
+                "on CheckStream.symbol == StockTable.symbol " +
+                "select StockTable.symbol, StockTable.volume " +
+                "insert into CheckedStream ;";
+
+        QueryCallback queryCallback = new QueryCallback() {
+            @Override
+            public void receive(long timestamp, Event[] inEvents, Event[] removeEvents) {
+                EventPrinter.print(timestamp, inEvents, removeEvents);
+                for (Event inEvent : inEvents) {
+                    lastValue = (Long) inEvent.getData(2);
+                }
+            }
+        };
+        QueryCallback checkCallback = new QueryCallback() {
+            @Override
+            public void receive(long timestamp, Event[] inEvents, Event[] removeEvents) {
+                EventPrinter.print(timestamp, inEvents, removeEvents);
+                if (inEvents != null) {
+                    for (Event inEvent : inEvents) {
+                        count++;
+                        AssertJUnit.assertEquals("IBM", inEvent.getData(0));
+                        AssertJUnit.assertEquals(100L, inEvent.getData(1));
+                    }
+                }
+            }
+        };
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("query1", queryCallback);
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+
+        inputHandler.send(new Object[]{"IBM", 75.6f, 100L});
+        inputHandler.send(new Object[]{"WSO2", 57.6f, 200L});
+        AssertJUnit.assertEquals(new Long(300), lastValue);
+
+        //persisting
+        siddhiAppRuntime.persist();
+        Thread.sleep(500);
+
+        //restarting siddhi app
+        siddhiAppRuntime.shutdown();
+        siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("query1", queryCallback);
+        siddhiAppRuntime.addCallback("query3", checkCallback);
+        inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+
+        //loading
+        try {
+            siddhiAppRuntime.restoreLastRevision();
+        } catch (CannotRestoreSiddhiAppStateException e) {
+            Assert.fail("Restoring of Siddhi app " + siddhiAppRuntime.getName() + " failed", e);
+        }
+
+        inputHandler.send(new Object[]{"ORACLE", 57.6f, 50L});
+        siddhiAppRuntime.getInputHandler("CheckStream").send(new Object[]{"IBM"});
+        siddhiAppRuntime.shutdown();
+
+        AssertJUnit.assertEquals(new Long(350), lastValue);
+        AssertJUnit.assertEquals(1, count);
+    }
+}
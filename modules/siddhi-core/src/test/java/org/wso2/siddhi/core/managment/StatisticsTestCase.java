@@ -18,17 +18,32 @@
 
 package org.wso2.siddhi.core.managment;
 
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Snapshot;
 import org.apache.log4j.Logger;
 import org.testng.AssertJUnit;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 import org.wso2.siddhi.core.SiddhiAppRuntime;
 import org.wso2.siddhi.core.SiddhiManager;
+import org.wso2.siddhi.core.config.StatisticsConfiguration;
 import org.wso2.siddhi.core.event.Event;
+import org.wso2.siddhi.core.event.stream.MetaStreamEvent;
+import org.wso2.siddhi.core.event.stream.StreamEvent;
+import org.wso2.siddhi.core.event.stream.StreamEventCloner;
+import org.wso2.siddhi.core.event.stream.StreamEventPool;
+import org.wso2.siddhi.core.event.stream.holder.SnapshotableStreamEventQueue;
+import org.wso2.siddhi.core.event.stream.holder.StreamEventClonerHolder;
 import org.wso2.siddhi.core.stream.input.InputHandler;
 import org.wso2.siddhi.core.stream.output.StreamCallback;
 import org.wso2.siddhi.core.util.EventPrinter;
 import org.wso2.siddhi.core.util.SiddhiConstants;
+import org.wso2.siddhi.core.util.statistics.memory.ObjectSizeCalculator;
+import org.wso2.siddhi.core.util.statistics.metrics.SiddhiHistogramMetricsFactory;
+import org.wso2.siddhi.core.util.statistics.metrics.SiddhiMemoryUsageMetric;
+import org.wso2.siddhi.core.util.statistics.metrics.StripedHistogramReservoir;
+import org.wso2.siddhi.query.api.definition.Attribute;
 
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
@@ -480,4 +495,235 @@ public class StatisticsTestCase {
 
     }
 
+    /**
+     * To test reporting the configuration of async streams
+     */
+    @Test
+    public void statisticsTest7() throws InterruptedException {
+        log.info("statistics test 7");
+        SiddhiManager siddhiManager = new SiddhiManager();
+        String siddhiApp = "" +
+                "@app:statistics(reporter = 'console', interval = '2' )" +
+                " " +
+                "@async(buffer.size='16', workers='1', wait.strategy='yielding', producer='single')" +
+                "define stream cseEventStream (symbol string, price float, volume int);" +
+                "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream[70 > price] " +
+                "select * " +
+                "insert into outputStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("outputStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                eventArrived = true;
+            }
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PrintStream ps = new PrintStream(baos);
+        PrintStream old = System.out;
+        System.setOut(ps);
+
+        siddhiAppRuntime.start();
+        inputHandler.send(new Object[]{"WSO2", 55.6f, 100});
+
+        Thread.sleep(3010);
+        siddhiAppRuntime.shutdown();
+        AssertJUnit.assertTrue(eventArrived);
+
+        System.out.flush();
+        String output = baos.toString();
+
+        String streamMetricName = SiddhiConstants.METRIC_INFIX_STREAMS + SiddhiConstants.METRIC_DELIMITER +
+                "cseEventStream" + SiddhiConstants.METRIC_DELIMITER;
+        AssertJUnit.assertTrue(output.contains(streamMetricName + "size"));
+        AssertJUnit.assertTrue(output.contains(streamMetricName + SiddhiConstants.ANNOTATION_ELEMENT_WAIT_STRATEGY));
+        AssertJUnit.assertTrue(output.contains("value = yielding"));
+        AssertJUnit.assertTrue(output.contains(streamMetricName + SiddhiConstants.ANNOTATION_ELEMENT_PRODUCER));
+        AssertJUnit.assertTrue(output.contains("value = single"));
+
+        log.info(output);
+        System.setOut(old);
+
+    }
+
+    /**
+     * To test estimating the memory usage from the element counts in between the samples
+     */
+    @Test
+    public void statisticsTest8() {
+        log.info("statistics test 8");
+        MetaStreamEvent metaStreamEvent = new MetaStreamEvent();
+        metaStreamEvent.addOutputData(new Attribute("symbol", Attribute.Type.STRING));
+        metaStreamEvent.addOutputData(new Attribute("price", Attribute.Type.FLOAT));
+        metaStreamEvent.addOutputData(new Attribute("volume", Attribute.Type.LONG));
+        StreamEventCloner streamEventCloner = new StreamEventCloner(metaStreamEvent,
+                new StreamEventPool(metaStreamEvent, 5));
+        SnapshotableStreamEventQueue eventQueue =
+                new SnapshotableStreamEventQueue(new StreamEventClonerHolder(streamEventCloner));
+        Object[] state = new Object[]{eventQueue, new Object[]{"WSO2", 55.6f}};
+
+        MetricRegistry metricRegistry = new MetricRegistry();
+        SiddhiMemoryUsageMetric memoryUsageMetric = new SiddhiMemoryUsageMetric(metricRegistry, 60000);
+        memoryUsageMetric.registerObject(state, "query1.memory");
+        Gauge memoryGauge = metricRegistry.getGauges().get("query1.memory");
+
+        addEvents(eventQueue, streamEventCloner, 0, 100);
+        long sampledSize = (Long) memoryGauge.getValue();
+        AssertJUnit.assertEquals(ObjectSizeCalculator.getObjectSize(state), sampledSize);
+        AssertJUnit.assertEquals(100, eventQueue.getElementCount());
+
+        addEvents(eventQueue, streamEventCloner, 100, 200);
+        long estimatedSize = (Long) memoryGauge.getValue();
+        long calculatedSize = ObjectSizeCalculator.getObjectSize(state);
+        AssertJUnit.assertTrue(estimatedSize > sampledSize);
+        AssertJUnit.assertTrue(Math.abs(estimatedSize - calculatedSize) < calculatedSize / 10);
+
+        while (eventQueue.poll() != null) {
+            // drain the queue
+        }
+        AssertJUnit.assertEquals(0, eventQueue.getElementCount());
+        AssertJUnit.assertTrue((Long) memoryGauge.getValue() < sampledSize);
+    }
+
+    /**
+     * To test reporting the memory usage with memory sampling
+     */
+    @Test
+    public void statisticsTest9() throws InterruptedException {
+        log.info("statistics test 9");
+        SiddhiManager siddhiManager = new SiddhiManager();
+        String siddhiApp = "" +
+                "@app:statistics(reporter = 'console', interval = '2', memory.sampling.interval = '60' )" +
+                " " +
+                "define stream cseEventStream (symbol string, price float, volume int);" +
+                "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream#window.length(10) " +
+                "select symbol, sum(volume) as totalVolume " +
+                "group by symbol " +
+                "insert into outputStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("outputStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                eventArrived = true;
+            }
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PrintStream ps = new PrintStream(baos);
+        PrintStream old = System.out;
+        System.setOut(ps);
+
+        siddhiAppRuntime.start();
+        for (int i = 0; i < 20; i++) {
+            inputHandler.send(new Object[]{"WSO2" + (i % 4), 55.6f, 100 + i});
+        }
+
+        Thread.sleep(3010);
+        siddhiAppRuntime.shutdown();
+        AssertJUnit.assertTrue(eventArrived);
+
+        System.out.flush();
+        String output = baos.toString();
+        AssertJUnit.assertTrue(output.contains("query1.memory"));
+        AssertJUnit.assertFalse(output.contains("query1.memory\n             value = 0\n"));
+
+        log.info(output);
+        System.setOut(old);
+    }
+
+    /**
+     * To test the percentiles of the latency histograms
+     */
+    @Test
+    public void statisticsTest10() {
+        log.info("statistics test 10");
+        StripedHistogramReservoir reservoir = new StripedHistogramReservoir(0);
+        for (long i = 1; i <= 100000; i++) {
+            reservoir.update(i * 100);
+        }
+        Snapshot snapshot = reservoir.getSnapshot();
+        AssertJUnit.assertEquals(100000, snapshot.size());
+        AssertJUnit.assertEquals(5000000, snapshot.getMedian(), 5000000 * 0.02);
+        AssertJUnit.assertEquals(9900000, snapshot.get99thPercentile(), 9900000 * 0.02);
+        AssertJUnit.assertEquals(9990000, snapshot.get999thPercentile(), 9990000 * 0.02);
+        AssertJUnit.assertTrue(snapshot.getMax() >= 10000000 && snapshot.getMax() <= 10000000 * 1.04);
+        AssertJUnit.assertEquals(100, snapshot.getMin());
+
+        // snapshots only cover the values recorded since the previous snapshot
+        reservoir.update(42);
+        snapshot = reservoir.getSnapshot();
+        AssertJUnit.assertEquals(1, snapshot.size());
+        AssertJUnit.assertEquals(42.0, snapshot.get999thPercentile());
+        AssertJUnit.assertEquals(0, reservoir.getSnapshot().size());
+    }
+
+    /**
+     * To test reporting latency histograms
+     */
+    @Test
+    public void statisticsTest11() throws InterruptedException {
+        log.info("statistics test 11");
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setStatisticsConfiguration(new StatisticsConfiguration(new SiddhiHistogramMetricsFactory()));
+        String siddhiApp = "" +
+                "@app:statistics(reporter = 'console', interval = '2' )" +
+                " " +
+                "define stream cseEventStream (symbol string, price float, volume int);" +
+                "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream[70 > price] " +
+                "select * " +
+                "insert into outputStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("outputStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                eventArrived = true;
+            }
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PrintStream ps = new PrintStream(baos);
+        PrintStream old = System.out;
+        System.setOut(ps);
+
+        siddhiAppRuntime.start();
+        for (int i = 0; i < 100; i++) {
+            inputHandler.send(new Object[]{"WSO2", 55.6f, 100 + i});
+        }
+
+        Thread.sleep(3010);
+        siddhiAppRuntime.shutdown();
+        AssertJUnit.assertTrue(eventArrived);
+
+        System.out.flush();
+        String output = baos.toString();
+        AssertJUnit.assertTrue(output.contains("Histograms"));
+        AssertJUnit.assertTrue(output.contains("query1.latency"));
+        AssertJUnit.assertTrue(output.contains("99.9% <="));
+        AssertJUnit.assertFalse(output.contains("-- Timers"));
+
+        log.info(output);
+        System.setOut(old);
+    }
+
+    private static void addEvents(SnapshotableStreamEventQueue eventQueue, StreamEventCloner streamEventCloner,
+                                  int from, int to) {
+        for (int i = from; i < to; i++) {
+            StreamEvent streamEvent = streamEventCloner.copyStreamEvent(new StreamEvent(0, 0, 3));
+            streamEvent.setOutputData(new Object[]{"WSO2", 55.6f + i, 1000L + i});
+            eventQueue.add(streamEvent);
+        }
+    }
 }
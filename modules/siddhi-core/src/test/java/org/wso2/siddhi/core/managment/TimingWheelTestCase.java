@@ -0,0 +1,267 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.managment;
+
+import org.apache.log4j.Logger;
+import org.testng.AssertJUnit;
+import org.testng.annotations.Test;
+import org.wso2.siddhi.core.SiddhiAppRuntime;
+import org.wso2.siddhi.core.SiddhiManager;
+import org.wso2.siddhi.core.config.SiddhiAppContext;
+import org.wso2.siddhi.core.event.ComplexEvent;
+import org.wso2.siddhi.core.event.Event;
+import org.wso2.siddhi.core.event.stream.StreamEventPool;
+import org.wso2.siddhi.core.stream.input.InputHandler;
+import org.wso2.siddhi.core.stream.output.StreamCallback;
+import org.wso2.siddhi.core.util.Scheduler;
+import org.wso2.siddhi.core.util.SiddhiTestHelper;
+import org.wso2.siddhi.core.util.SystemTimeBasedScheduler;
+import org.wso2.siddhi.core.util.ThreadBarrier;
+import org.wso2.siddhi.core.util.TimingWheel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class TimingWheelTestCase {
+    private static final Logger log = Logger.getLogger(TimingWheelTestCase.class);
+
+    @Test
+    public void timingWheelTest1() throws InterruptedException {
+        log.info("timingWheelTest1 - time windows of many partitions expiring together");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        String siddhiApp = "" +
+                "define stream StockStream (symbol string, price float, volume long); " +
+                "" +
+                "partition with (symbol of StockStream) " +
+                "begin " +
+                "   @info(name = 'query1') " +
+                "   from StockStream#window.time(300 milliseconds) " +
+                "   select symbol, sum(volume) as totalVolume " +
+                "   insert expired events into OutputStream; " +
+                "end;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        AtomicInteger removeEventCount = new AtomicInteger();
+        siddhiAppRuntime.addCallback("OutputStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                removeEventCount.addAndGet(events.length);
+            }
+        });
+
+        InputHandler stockStream = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+        try {
+            for (int i = 0; i < 1000; i++) {
+                stockStream.send(new Object[]{"S" + i, 10f, 10L});
+            }
+            SiddhiTestHelper.waitForEvents(100, 1000, removeEventCount, 10000);
+            AssertJUnit.assertEquals(1000, removeEventCount.get());
+
+            // The schedulers register again for the events arriving after their first notification
+            for (int i = 0; i < 1000; i++) {
+                stockStream.send(new Object[]{"S" + i, 10f, 10L});
+            }
+            SiddhiTestHelper.waitForEvents(100, 2000, removeEventCount, 10000);
+            AssertJUnit.assertEquals(2000, removeEventCount.get());
+        } finally {
+            siddhiAppRuntime.shutdown();
+        }
+    }
+
+    @Test
+    public void timingWheelTest2() throws InterruptedException {
+        log.info("timingWheelTest2 - time windows of many partitions in playback mode");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        String siddhiApp = "" +
+                "@app:playback " +
+                "define stream StockStream (symbol string, price float, volume long); " +
+                "" +
+                "partition with (symbol of StockStream) " +
+                "begin " +
+                "   @info(name = 'query1') " +
+                "   from StockStream#window.time(2 sec) " +
+                "   select symbol, sum(volume) as totalVolume " +
+                "   insert expired events into OutputStream; " +
+                "end;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        AtomicInteger removeEventCount = new AtomicInteger();
+        siddhiAppRuntime.addCallback("OutputStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                removeEventCount.addAndGet(events.length);
+            }
+        });
+
+        InputHandler stockStream = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+        try {
+            long timestamp = 1000000L;
+            for (int i = 0; i < 100; i++) {
+                // Spread the expiry times over more than a rotation of the wheel
+                stockStream.send(timestamp + i * 10, new Object[]{"S" + i, 10f, 10L});
+            }
+            AssertJUnit.assertEquals(0, removeEventCount.get());
+
+            stockStream.send(timestamp + 2000, new Object[]{"S100", 10f, 10L});
+            AssertJUnit.assertEquals(1, removeEventCount.get());
+
+            stockStream.send(timestamp + 2500, new Object[]{"S100", 10f, 10L});
+            AssertJUnit.assertEquals(51, removeEventCount.get());
+
+            // Event time jumping over several rotations of the wheel
+            stockStream.send(timestamp + 60000, new Object[]{"S100", 10f, 10L});
+            AssertJUnit.assertEquals(102, removeEventCount.get());
+        } finally {
+            siddhiAppRuntime.shutdown();
+        }
+    }
+
+    @Test
+    public void timingWheelTest3() throws InterruptedException {
+        log.info("timingWheelTest3 - ticker running before the notification time re-arms itself");
+
+        AtomicLong currentTime = new AtomicLong(1000L);
+        ManualTickerExecutor scheduledExecutorService = new ManualTickerExecutor();
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        SiddhiAppContext siddhiAppContext = new SiddhiAppContext();
+        siddhiAppContext.setName("TimingWheelTest3");
+        siddhiAppContext.setThreadBarrier(new ThreadBarrier());
+        siddhiAppContext.setTimestampGenerator(currentTime::get);
+        siddhiAppContext.setScheduledExecutorService(scheduledExecutorService);
+        siddhiAppContext.setExecutorService(executorService);
+        siddhiAppContext.setTimingWheel(new TimingWheel(siddhiAppContext));
+
+        List<Long> timerEvents = new ArrayList<>();
+        CountDownLatch latch = new CountDownLatch(1);
+        Scheduler scheduler = new SystemTimeBasedScheduler(scheduledExecutorService, complexEventChunk -> {
+            ComplexEvent complexEvent = complexEventChunk.getFirst();
+            timerEvents.add(complexEvent.getTimestamp());
+            latch.countDown();
+        }, siddhiAppContext);
+        scheduler.setStreamEventPool(new StreamEventPool(0, 0, 0, 5));
+        try {
+            scheduler.notifyAt(1100L);
+            AssertJUnit.assertEquals(1, scheduledExecutorService.tickers.size());
+            AssertJUnit.assertEquals(100L, (long) scheduledExecutorService.delays.get(0));
+
+            // The ticker runs early, as the clock of the executor is ahead of the system clock
+            currentTime.set(1060L);
+            scheduledExecutorService.tickers.get(0).run();
+            AssertJUnit.assertEquals(2, scheduledExecutorService.tickers.size());
+            AssertJUnit.assertEquals(40L, (long) scheduledExecutorService.delays.get(1));
+            AssertJUnit.assertEquals(1, siddhiAppContext.getTimingWheel().size());
+
+            currentTime.set(1100L);
+            scheduledExecutorService.tickers.get(1).run();
+            AssertJUnit.assertTrue(latch.await(5, TimeUnit.SECONDS));
+            AssertJUnit.assertEquals(1, timerEvents.size());
+            AssertJUnit.assertEquals(1100L, (long) timerEvents.get(0));
+            AssertJUnit.assertEquals(0, siddhiAppContext.getTimingWheel().size());
+        } finally {
+            scheduledExecutorService.shutdownNow();
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void timingWheelTest4() throws InterruptedException {
+        log.info("timingWheelTest4 - notification a rotation later after the processing of a timer event failed");
+
+        AtomicLong currentTime = new AtomicLong(1000L);
+        ManualTickerExecutor scheduledExecutorService = new ManualTickerExecutor();
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        SiddhiAppContext siddhiAppContext = new SiddhiAppContext();
+        siddhiAppContext.setName("TimingWheelTest4");
+        siddhiAppContext.setThreadBarrier(new ThreadBarrier());
+        siddhiAppContext.setTimestampGenerator(currentTime::get);
+        siddhiAppContext.setScheduledExecutorService(scheduledExecutorService);
+        siddhiAppContext.setExecutorService(executorService);
+        siddhiAppContext.setTimingWheel(new TimingWheel(siddhiAppContext));
+
+        List<Long> timerEvents = new ArrayList<>();
+        CountDownLatch latch = new CountDownLatch(2);
+        Scheduler scheduler = new SystemTimeBasedScheduler(scheduledExecutorService, complexEventChunk -> {
+            for (ComplexEvent complexEvent = complexEventChunk.getFirst(); complexEvent != null;
+                 complexEvent = complexEvent.getNext()) {
+                timerEvents.add(complexEvent.getTimestamp());
+            }
+            latch.countDown();
+            if (timerEvents.size() == 1) {
+                throw new IllegalStateException("Failing the first timer event");
+            }
+        }, siddhiAppContext);
+        scheduler.setStreamEventPool(new StreamEventPool(0, 0, 0, 5));
+        try {
+            // Both notification times fall into the same bucket of the wheel
+            scheduler.notifyAt(1100L);
+            scheduler.notifyAt(1612L);
+            AssertJUnit.assertEquals(1, scheduledExecutorService.tickers.size());
+            AssertJUnit.assertEquals(100L, (long) scheduledExecutorService.delays.get(0));
+
+            currentTime.set(1100L);
+            scheduledExecutorService.tickers.get(0).run();
+            SiddhiTestHelper.waitForEvents(10, 2, scheduledExecutorService.tickers, 5000);
+            AssertJUnit.assertEquals(2, scheduledExecutorService.tickers.size());
+            AssertJUnit.assertEquals(512L, (long) scheduledExecutorService.delays.get(1));
+
+            currentTime.set(1612L);
+            scheduledExecutorService.tickers.get(1).run();
+            AssertJUnit.assertTrue(latch.await(5, TimeUnit.SECONDS));
+            // The failed timer event is not sent again with the next one
+            AssertJUnit.assertEquals(2, timerEvents.size());
+            AssertJUnit.assertEquals(1100L, (long) timerEvents.get(0));
+            AssertJUnit.assertEquals(1612L, (long) timerEvents.get(1));
+            AssertJUnit.assertEquals(0, siddhiAppContext.getTimingWheel().size());
+        } finally {
+            scheduledExecutorService.shutdownNow();
+            executorService.shutdownNow();
+        }
+    }
+
+    /**
+     * Scheduled executor recording the runs of the timing wheel's ticker, which are run by the test instead.
+     */
+    private static class ManualTickerExecutor extends ScheduledThreadPoolExecutor {
+        private final List<Runnable> tickers = new ArrayList<>();
+        private final List<Long> delays = new ArrayList<>();
+
+        ManualTickerExecutor() {
+            super(1);
+        }
+
+        @Override
+        public synchronized ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+            tickers.add(command);
+            delays.add(unit.toMillis(delay));
+            return super.schedule(command, 1, TimeUnit.DAYS);
+        }
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.query;
+
+import org.apache.log4j.Logger;
+import org.testng.AssertJUnit;
+import org.testng.annotations.Test;
+import org.wso2.siddhi.core.SiddhiAppRuntime;
+import org.wso2.siddhi.core.SiddhiManager;
+import org.wso2.siddhi.core.event.Event;
+import org.wso2.siddhi.core.stream.input.InputHandler;
+import org.wso2.siddhi.core.stream.output.StreamCallback;
+import org.wso2.siddhi.core.util.EventPrinter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class CompiledExpressionTestCase {
+    private static final Logger log = Logger.getLogger(CompiledExpressionTestCase.class);
+
+    private static final String STOCK_STREAM = "" +
+            "define stream StockStream (symbol string, price float, volume long, quantity int, weight double, " +
+            "available bool);";
+
+    private static final Object[][] STOCK_EVENTS = {
+            {"IBM", 75.6f, 100L, 4, 1.5d, true},
+            {"WSO2", 55.5f, 10L, 0, 2.0d, false},
+            {"ORACLE", null, 200L, 8, null, true},
+            {"IBM", 120f, null, 3, 0.0d, null},
+            {null, 40f, 60L, 2, -1.0d, false},
+            {"GOOG", Float.NaN, 30L, 5, Double.NaN, true},
+            {"WSO2", 101f, 5000L, -3, 10.25d, true}
+    };
+
+    @Test
+    public void compiledExpressionTest1() throws InterruptedException {
+        log.info("compiled expression test1 - filter with math, nulls and division by zero");
+
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from StockStream[price * 2 > volume / quantity and volume - quantity != 0] " +
+                "select symbol, price, volume " +
+                "insert into OutputStream;";
+
+        List<Object[]> events = assertSameOutput(query);
+        AssertJUnit.assertEquals(3, events.size());
+        AssertJUnit.assertEquals("IBM", events.get(0)[0]);
+        AssertJUnit.assertNull(events.get(1)[0]);
+        AssertJUnit.assertEquals("WSO2", events.get(2)[0]);
+    }
+
+    @Test
+    public void compiledExpressionTest2() throws InterruptedException {
+        log.info("compiled expression test2 - filter with and, or, not, bool and string compares");
+
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from StockStream[(symbol == 'IBM' or not (symbol != 'WSO2') or available) and " +
+                "not (weight >= 10.25 or price <= 40) and quantity < 5l] " +
+                "select symbol, price, volume " +
+                "insert into OutputStream;";
+
+        List<Object[]> events = assertSameOutput(query);
+        AssertJUnit.assertEquals(3, events.size());
+        AssertJUnit.assertEquals("IBM", events.get(0)[0]);
+        AssertJUnit.assertEquals("WSO2", events.get(1)[0]);
+        AssertJUnit.assertEquals("IBM", events.get(2)[0]);
+    }
+
+    @Test
+    public void compiledExpressionTest3() throws InterruptedException {
+        log.info("compiled expression test3 - select expressions of all numeric types");
+
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from StockStream " +
+                "select symbol, price * quantity + 1 as total, volume % quantity as remainder, " +
+                "weight / price as ratio, quantity - 1 as previous, price > weight and available as flag, " +
+                "volume == quantity * 25 as match " +
+                "insert into OutputStream;";
+
+        List<Object[]> events = assertSameOutput(query);
+        AssertJUnit.assertEquals(STOCK_EVENTS.length, events.size());
+        AssertJUnit.assertEquals(Arrays.asList("IBM", 303.4f, 0L, 1.5d / 75.6f, 3, true, true),
+                Arrays.asList(events.get(0)));
+        AssertJUnit.assertEquals(Arrays.asList("WSO2", 1f, null, 2.0d / 55.5f, -1, false, false),
+                Arrays.asList(events.get(1)));
+        AssertJUnit.assertEquals(Arrays.asList("ORACLE", null, 0L, null, 7, false, true),
+                Arrays.asList(events.get(2)));
+    }
+
+    @Test
+    public void compiledExpressionTest4() throws InterruptedException {
+        log.info("compiled expression test4 - expressions having functions and is null checks");
+
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from StockStream[ifThenElse(price > 50, volume, 0l) + 1 > 50 or (symbol is null and price < 50)] " +
+                "select symbol, coalesce(price, 0f) * 2 as price, convert(quantity, 'long') + volume as total " +
+                "insert into OutputStream;";
+
+        List<Object[]> events = assertSameOutput(query);
+        AssertJUnit.assertEquals(3, events.size());
+        AssertJUnit.assertEquals(Arrays.asList("IBM", 151.2f, 104L), Arrays.asList(events.get(0)));
+        AssertJUnit.assertEquals(Arrays.asList(null, 80f, 62L), Arrays.asList(events.get(1)));
+    }
+
+    @Test
+    public void compiledExpressionTest5() throws InterruptedException {
+        log.info("compiled expression test5 - expressions of partitioned and windowed queries");
+
+        String query = "" +
+                "partition with (symbol of StockStream) " +
+                "begin " +
+                "   @info(name = 'query1') " +
+                "   from StockStream[volume > 20 or price > 100]#window.length(2) " +
+                "   select symbol, price + 1 as price, sum(volume) as totalVolume, volume * 2 as doubleVolume " +
+                "   insert into OutputStream; " +
+                "end;";
+
+        List<Object[]> events = assertSameOutput(query);
+        AssertJUnit.assertEquals(5, events.size());
+        AssertJUnit.assertEquals(Arrays.asList("IBM", 121f, 100L, null), Arrays.asList(events.get(2)));
+        AssertJUnit.assertEquals(Arrays.asList("WSO2", 102f, 5000L, 10000L), Arrays.asList(events.get(4)));
+    }
+
+    private List<Object[]> assertSameOutput(String query) throws InterruptedException {
+        List<Object[]> interpretedEvents = runQuery("@app:name('InterpretedTest') " + STOCK_STREAM + query);
+        List<Object[]> compiledEvents = runQuery("@app:name('CompiledTest') @app:compile('true') " + STOCK_STREAM +
+                query);
+        AssertJUnit.assertEquals(interpretedEvents.size(), compiledEvents.size());
+        for (int i = 0; i < interpretedEvents.size(); i++) {
+            AssertJUnit.assertEquals(Arrays.asList(interpretedEvents.get(i)), Arrays.asList(compiledEvents.get(i)));
+        }
+        return compiledEvents;
+    }
+
+    private List<Object[]> runQuery(String siddhiApp) throws InterruptedException {
+        SiddhiManager siddhiManager = new SiddhiManager();
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        List<Object[]> events = new ArrayList<>();
+        siddhiAppRuntime.addCallback("OutputStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] receivedEvents) {
+                EventPrinter.print(receivedEvents);
+                for (Event event : receivedEvents) {
+                    events.add(event.getData());
+                }
+            }
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+        for (Object[] event : STOCK_EVENTS) {
+            inputHandler.send(event.clone());
+        }
+        Thread.sleep(100);
+        siddhiAppRuntime.shutdown();
+        return events;
+    }
+}
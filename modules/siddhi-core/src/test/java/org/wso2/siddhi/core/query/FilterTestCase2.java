@@ -1754,4 +1754,87 @@ public class FilterTestCase2 {
 
     }
 
+    @Test
+    public void filterTest122() throws InterruptedException {
+        log.info("filter test122 - math expressions evaluated without boxing");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String cseEventStream = "define stream cseEventStream (symbol string, price float, volume long, quantity int);";
+        String query = "@info(name = 'query1') " +
+                "from cseEventStream[price * 2 > volume / quantity and volume - quantity != 0] " +
+                "select symbol " +
+                "insert into outputStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(cseEventStream + query);
+        siddhiAppRuntime.addCallback("query1", new QueryCallback() {
+            @Override
+            public void receive(long timeStamp, Event[] inEvents, Event[] removeEvents) {
+                EventPrinter.print(timeStamp, inEvents, removeEvents);
+                for (Event inEvent : inEvents) {
+                    AssertJUnit.assertEquals("IBM", inEvent.getData(0));
+                }
+                count = count + inEvents.length;
+                eventArrived = true;
+            }
+
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+
+        siddhiAppRuntime.start();
+
+        inputHandler.send(new Object[]{"IBM", 60f, 100L, 2});
+        inputHandler.send(new Object[]{"WSO2", 20f, 100L, 2});
+        inputHandler.send(new Object[]{"ORACLE", 60f, 100L, 0});
+        inputHandler.send(new Object[]{"GOOG", null, 100L, 2});
+        inputHandler.send(new Object[]{"MSFT", 60f, 10L, 10});
+        inputHandler.send(new Object[]{"XYZ", 60f, null, 1});
+        Thread.sleep(100);
+        AssertJUnit.assertEquals(1, count);
+        AssertJUnit.assertTrue(eventArrived);
+        siddhiAppRuntime.shutdown();
+
+    }
+
+    @Test
+    public void filterTest123() throws InterruptedException {
+        log.info("filter test123 - divide expressions with constant and nested divisors");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String cseEventStream = "define stream cseEventStream (symbol string, price float, volume long, quantity int);";
+        String query = "@info(name = 'query1') " +
+                "from cseEventStream[price / 2 > volume / (quantity / 2) and quantity % 2 == 0] " +
+                "select symbol " +
+                "insert into outputStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(cseEventStream + query);
+        siddhiAppRuntime.addCallback("query1", new QueryCallback() {
+            @Override
+            public void receive(long timeStamp, Event[] inEvents, Event[] removeEvents) {
+                EventPrinter.print(timeStamp, inEvents, removeEvents);
+                for (Event inEvent : inEvents) {
+                    AssertJUnit.assertEquals("IBM", inEvent.getData(0));
+                }
+                count = count + inEvents.length;
+                eventArrived = true;
+            }
+
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+
+        siddhiAppRuntime.start();
+
+        inputHandler.send(new Object[]{"IBM", 300f, 100L, 4});
+        inputHandler.send(new Object[]{"WSO2", 300f, 100L, 1});
+        inputHandler.send(new Object[]{"ORACLE", 60f, 100L, 4});
+        inputHandler.send(new Object[]{"GOOG", null, 100L, 4});
+        inputHandler.send(new Object[]{"MSFT", 300f, 100L, 5});
+        Thread.sleep(100);
+        AssertJUnit.assertEquals(1, count);
+        AssertJUnit.assertTrue(eventArrived);
+        siddhiAppRuntime.shutdown();
+
+    }
+
 }
@@ -28,6 +28,10 @@ import org.wso2.siddhi.core.query.output.callback.QueryCallback;
 import org.wso2.siddhi.core.stream.input.InputHandler;
 import org.wso2.siddhi.core.util.EventPrinter;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 public class GroupByTestCase {
     private static final Logger log = Logger.getLogger(GroupByTestCase.class);
     private volatile int count;
@@ -144,4 +148,53 @@ public class GroupByTestCase {
 
         siddhiAppRuntime.shutdown();
     }
+
+    @Test
+    public void testGroupByQuery3() throws InterruptedException {
+        log.info("GroupBy test3 - group by multiple attributes");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                "define stream cseEventStream (symbol string, exchange string, volume long);" +
+                "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream " +
+                "select symbol, exchange, sum(volume) as totalVolume " +
+                "   group by symbol, exchange " +
+                "insert into outputStream;" +
+                "";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+
+        final List<Long> totalVolumes = new ArrayList<Long>();
+        siddhiAppRuntime.addCallback("query1", new QueryCallback() {
+            @Override
+            public void receive(long timeStamp, Event[] inEvents, Event[] removeEvents) {
+                EventPrinter.print(timeStamp, inEvents, removeEvents);
+                for (Event inEvent : inEvents) {
+                    totalVolumes.add((Long) inEvent.getData(2));
+                }
+                eventArrived = true;
+            }
+
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+
+        siddhiAppRuntime.start();
+
+        inputHandler.send(new Object[]{"IBM", "NYSE", 100L});
+        inputHandler.send(new Object[]{"IBM", "NASDAQ", 200L});
+        inputHandler.send(new Object[]{"IBM::", "NYSE", 300L});
+        inputHandler.send(new Object[]{"IBM", "::NYSE", 400L});
+        inputHandler.send(new Object[]{"IBM", null, 500L});
+        inputHandler.send(new Object[]{"IBM", "NYSE", 600L});
+        inputHandler.send(new Object[]{"IBM", null, 700L});
+
+        AssertJUnit.assertTrue(eventArrived);
+        AssertJUnit.assertEquals(Arrays.asList(100L, 200L, 300L, 400L, 500L, 700L, 1200L), totalVolumes);
+
+        siddhiAppRuntime.shutdown();
+    }
 }
@@ -31,6 +31,9 @@ import org.wso2.siddhi.core.util.EventPrinter;
 import org.wso2.siddhi.core.util.SiddhiTestHelper;
 import org.wso2.siddhi.query.api.exception.SiddhiAppValidationException;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public class JoinTestCase {
@@ -932,4 +935,57 @@ public class JoinTestCase {
             siddhiAppRuntime.shutdown();
         }
     }
+
+    @Test
+    public void joinTest21() throws InterruptedException {
+        log.info("Join test21 - equality join on an indexed length window");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        String streams = "" +
+                "define stream StockStream (symbol string, price float, volume long); " +
+                "define stream CheckStream (symbol string, minVolume long); ";
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from CheckStream as c unidirectional join StockStream#window.length(3) as s " +
+                "on c.symbol == s.symbol and s.volume > c.minVolume " +
+                "select s.symbol, s.volume " +
+                "insert into OutputStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+        final List<Object> volumes = new ArrayList<>();
+        try {
+            siddhiAppRuntime.addCallback("query1", new QueryCallback() {
+                @Override
+                public void receive(long timestamp, Event[] inEvents, Event[] removeEvents) {
+                    EventPrinter.print(timestamp, inEvents, removeEvents);
+                    if (inEvents != null) {
+                        for (Event inEvent : inEvents) {
+                            inEventCount.incrementAndGet();
+                            volumes.add(inEvent.getData(1));
+                        }
+                    }
+                }
+            });
+            InputHandler stockStreamHandler = siddhiAppRuntime.getInputHandler("StockStream");
+            InputHandler checkStreamHandler = siddhiAppRuntime.getInputHandler("CheckStream");
+            siddhiAppRuntime.start();
+
+            stockStreamHandler.send(new Object[]{"IBM", 75.6f, 100L});
+            stockStreamHandler.send(new Object[]{"WSO2", 57.6f, 200L});
+            stockStreamHandler.send(new Object[]{"IBM", 76.6f, 300L});
+            checkStreamHandler.send(new Object[]{"IBM", 50L});
+            checkStreamHandler.send(new Object[]{"IBM", 150L});
+            stockStreamHandler.send(new Object[]{"ORACLE", 37.6f, 400L});
+            stockStreamHandler.send(new Object[]{"GOOG", 97.6f, 500L});
+            checkStreamHandler.send(new Object[]{"IBM", 50L});
+            checkStreamHandler.send(new Object[]{"WSO2", 50L});
+            stockStreamHandler.send(new Object[]{"WSO2", 57.6f, 600L});
+            checkStreamHandler.send(new Object[]{"WSO2", 50L});
+
+            AssertJUnit.assertEquals(5, inEventCount.get());
+            AssertJUnit.assertEquals(Arrays.<Object>asList(100L, 300L, 300L, 300L, 600L), volumes);
+        } finally {
+            siddhiAppRuntime.shutdown();
+        }
+    }
 }
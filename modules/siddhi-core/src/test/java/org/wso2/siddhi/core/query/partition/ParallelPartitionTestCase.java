@@ -0,0 +1,391 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.query.partition;
+
+import org.apache.log4j.Logger;
+import org.testng.AssertJUnit;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.siddhi.core.SiddhiAppRuntime;
+import org.wso2.siddhi.core.SiddhiManager;
+import org.wso2.siddhi.core.event.Event;
+import org.wso2.siddhi.core.exception.CannotRestoreSiddhiAppStateException;
+import org.wso2.siddhi.core.exception.SiddhiAppCreationException;
+import org.wso2.siddhi.core.stream.input.InputHandler;
+import org.wso2.siddhi.core.stream.output.StreamCallback;
+import org.wso2.siddhi.core.util.SiddhiConstants;
+import org.wso2.siddhi.core.util.SiddhiTestHelper;
+import org.wso2.siddhi.core.util.persistence.InMemoryPersistenceStore;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ParallelPartitionTestCase {
+    private static final Logger log = Logger.getLogger(ParallelPartitionTestCase.class);
+    private AtomicInteger count;
+    private Map<String, Integer> lastVolumes;
+    private Set<String> threadNames;
+    private volatile boolean outOfOrder;
+
+    @BeforeMethod
+    public void init() {
+        count = new AtomicInteger(0);
+        lastVolumes = new HashMap<>();
+        threadNames = ConcurrentHashMap.newKeySet();
+        outOfOrder = false;
+    }
+
+    @Test
+    public void parallelPartitionTest1() throws InterruptedException {
+        log.info("Parallel partition test1 - per key ordering across lanes");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                "define stream cseEventStream (symbol string, price float, volume int);" +
+                "" +
+                "@async(workers='4', buffer.size='64') " +
+                "partition with (symbol of cseEventStream) " +
+                "begin " +
+                "   @info(name = 'query1') " +
+                "   from cseEventStream#window.length(2) " +
+                "   select symbol, sum(volume) as totalVolume, volume " +
+                "   insert into #innerStream ;" +
+                "" +
+                "   @info(name = 'query2') " +
+                "   from #innerStream[totalVolume > 0] " +
+                "   select symbol, totalVolume, volume " +
+                "   insert into outputStream ;" +
+                "end;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("outputStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                threadNames.add(Thread.currentThread().getName());
+                synchronized (lastVolumes) {
+                    for (Event event : events) {
+                        String symbol = (String) event.getData(0);
+                        int volume = (Integer) event.getData(2);
+                        Integer lastVolume = lastVolumes.put(symbol, volume);
+                        long expectedTotal = lastVolume == null ? volume : lastVolume + volume;
+                        if ((lastVolume != null && lastVolume + 1 != volume) ||
+                                expectedTotal != (Long) event.getData(1)) {
+                            outOfOrder = true;
+                        }
+                        count.incrementAndGet();
+                    }
+                }
+            }
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        for (int i = 1; i <= 100; i++) {
+            for (int j = 0; j < 50; j++) {
+                inputHandler.send(new Object[]{"SYMBOL" + j, 10f, i});
+            }
+        }
+        SiddhiTestHelper.waitForEvents(100, 5000, count, 60000);
+        siddhiAppRuntime.shutdown();
+
+        AssertJUnit.assertEquals(5000, count.get());
+        AssertJUnit.assertFalse(outOfOrder);
+        AssertJUnit.assertEquals(50, lastVolumes.size());
+        AssertJUnit.assertFalse(threadNames.contains(Thread.currentThread().getName()));
+    }
+
+    @Test
+    public void parallelPartitionTest2() throws InterruptedException {
+        log.info("Parallel partition test2 - event batches and range partitions");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                "define stream cseEventStream (symbol string, price float, volume int);" +
+                "" +
+                "@async(workers='2') " +
+                "partition with (price >= 100 as 'high' or price < 100 as 'low' of cseEventStream) " +
+                "begin " +
+                "   @info(name = 'query1') " +
+                "   from cseEventStream " +
+                "   select symbol, count() as eventCount, volume " +
+                "   insert into outputStream ;" +
+                "end;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        Map<String, Long> eventCounts = new ConcurrentHashMap<>();
+        siddhiAppRuntime.addCallback("outputStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                for (Event event : events) {
+                    eventCounts.merge((String) event.getData(0), 1L, Long::sum);
+                    count.incrementAndGet();
+                }
+            }
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        for (int i = 0; i < 10; i++) {
+            Event[] events = new Event[20];
+            for (int j = 0; j < events.length; j++) {
+                events[j] = new Event(System.currentTimeMillis(), new Object[]{j % 2 == 0 ? "IBM" : "WSO2",
+                        j % 2 == 0 ? 150f : 50f, i * events.length + j});
+            }
+            inputHandler.send(events);
+        }
+        SiddhiTestHelper.waitForEvents(100, 200, count, 60000);
+        siddhiAppRuntime.shutdown();
+
+        AssertJUnit.assertEquals(200, count.get());
+        AssertJUnit.assertEquals(Long.valueOf(100), eventCounts.get("IBM"));
+        AssertJUnit.assertEquals(Long.valueOf(100), eventCounts.get("WSO2"));
+    }
+
+    @Test
+    public void parallelPartitionTest3() throws InterruptedException {
+        log.info("Parallel partition test3 - lane metrics");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                "@app:statistics(reporter = 'console', interval = '2' )" +
+                "define stream cseEventStream (symbol string, price float, volume int);" +
+                "" +
+                "@info(name = 'partition1') " +
+                "@async(workers='2', buffer.size='16') " +
+                "partition with (symbol of cseEventStream) " +
+                "begin " +
+                "   @info(name = 'query1') " +
+                "   from cseEventStream " +
+                "   select symbol, volume " +
+                "   insert into outputStream ;" +
+                "end;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("outputStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                count.addAndGet(events.length);
+            }
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PrintStream ps = new PrintStream(baos);
+        PrintStream old = System.out;
+        System.setOut(ps);
+        try {
+            siddhiAppRuntime.start();
+            inputHandler.send(new Object[]{"IBM", 75.6f, 100});
+            inputHandler.send(new Object[]{"WSO2", 55.6f, 100});
+            SiddhiTestHelper.waitForEvents(100, 2, count, 60000);
+            Thread.sleep(2500);
+            siddhiAppRuntime.shutdown();
+            System.out.flush();
+        } finally {
+            System.setOut(old);
+        }
+        String output = baos.toString();
+        log.info(output);
+
+        AssertJUnit.assertEquals(2, count.get());
+        String partitionMetricName = SiddhiConstants.METRIC_INFIX_PARTITIONS + SiddhiConstants.METRIC_DELIMITER +
+                "partition1" + SiddhiConstants.METRIC_DELIMITER;
+        AssertJUnit.assertTrue(output.contains(partitionMetricName + "lane0.size"));
+        AssertJUnit.assertTrue(output.contains(partitionMetricName + "lane1.size"));
+    }
+
+    @Test(expectedExceptions = SiddhiAppCreationException.class)
+    public void parallelPartitionTest4() {
+        log.info("Parallel partition test4 - invalid worker count");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                "define stream cseEventStream (symbol string, price float, volume int);" +
+                "" +
+                "@async(workers='0') " +
+                "partition with (symbol of cseEventStream) " +
+                "begin " +
+                "   from cseEventStream " +
+                "   select symbol, volume " +
+                "   insert into outputStream ;" +
+                "end;";
+
+        siddhiManager.createSiddhiAppRuntime(siddhiApp);
+    }
+
+    @Test
+    public void parallelPartitionTest5() throws InterruptedException {
+        log.info("Parallel partition test5 - senders blocked on a full lane get released on shutdown");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                "define stream cseEventStream (symbol string, price float, volume int);" +
+                "" +
+                "@async(workers='1', buffer.size='1') " +
+                "partition with (symbol of cseEventStream) " +
+                "begin " +
+                "   from cseEventStream " +
+                "   select symbol, volume " +
+                "   insert into outputStream ;" +
+                "end;";
+
+        CountDownLatch processing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("outputStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                count.addAndGet(events.length);
+                processing.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        Thread sender = new Thread(() -> {
+            try {
+                for (int i = 0; i < 10; i++) {
+                    inputHandler.send(new Object[]{"IBM", 75.6f, i});
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        sender.start();
+
+        AssertJUnit.assertTrue(processing.await(10, TimeUnit.SECONDS));
+        Thread.sleep(200);
+        AssertJUnit.assertTrue(sender.isAlive());
+        siddhiAppRuntime.shutdown();
+        sender.join(10000);
+        release.countDown();
+
+        AssertJUnit.assertFalse(sender.isAlive());
+        AssertJUnit.assertTrue(count.get() < 10);
+    }
+
+    @Test
+    public void parallelPartitionTest6() throws InterruptedException, ExecutionException,
+            CannotRestoreSiddhiAppStateException {
+        log.info("Parallel partition test6 - events queued in the lanes are processed before persisting");
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setPersistenceStore(new InMemoryPersistenceStore());
+
+        String siddhiApp = "" +
+                "@app:name('LaneSnapshotTest') " +
+                "define stream cseEventStream (symbol string, price float, volume int);" +
+                "" +
+                "@async(workers='1', buffer.size='64') " +
+                "partition with (symbol of cseEventStream) " +
+                "begin " +
+                "   from cseEventStream " +
+                "   select symbol, count() as total " +
+                "   insert into outputStream ;" +
+                "end;";
+
+        AtomicLong lastTotal = new AtomicLong();
+        StreamCallback streamCallback = new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                lastTotal.set((Long) events[events.length - 1].getData(1));
+                try {
+                    Thread.sleep(10);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("outputStream", streamCallback);
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        for (int i = 0; i < 20; i++) {
+            inputHandler.send(new Object[]{"IBM", 75.6f, i});
+        }
+        siddhiAppRuntime.persist().getFuture().get();
+        siddhiAppRuntime.shutdown();
+        AssertJUnit.assertEquals(20, lastTotal.get());
+
+        siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("outputStream", streamCallback);
+        inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        siddhiAppRuntime.restoreLastRevision();
+        inputHandler.send(new Object[]{"IBM", 75.6f, 20});
+        Thread.sleep(500);
+        siddhiAppRuntime.shutdown();
+
+        AssertJUnit.assertEquals(21, lastTotal.get());
+    }
+
+    @Test
+    public void parallelPartitionTest7() throws InterruptedException {
+        log.info("Parallel partition test7 - lanes feeding each other do not block on full lanes");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                "define stream cseEventStream (symbol string, next string, volume int);" +
+                "" +
+                "@async(workers='2', buffer.size='1') " +
+                "partition with (symbol of cseEventStream) " +
+                "begin " +
+                "   from cseEventStream[volume > 0] " +
+                "   select next as symbol, symbol as next, volume - 1 as volume " +
+                "   insert into cseEventStream ;" +
+                "" +
+                "   from cseEventStream " +
+                "   select symbol, volume " +
+                "   insert into outputStream ;" +
+                "end;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("outputStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                count.addAndGet(events.length);
+            }
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        for (int i = 0; i < 10; i++) {
+            inputHandler.send(new Object[]{"A", "B", 20});
+            inputHandler.send(new Object[]{"B", "A", 20});
+        }
+        SiddhiTestHelper.waitForEvents(100, 420, count, 10000);
+        siddhiAppRuntime.shutdown();
+
+        AssertJUnit.assertEquals(420, count.get());
+    }
+}
@@ -0,0 +1,377 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.siddhi.core.query.partition;
+
+import org.apache.log4j.Logger;
+import org.testng.AssertJUnit;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.siddhi.core.SiddhiAppRuntime;
+import org.wso2.siddhi.core.SiddhiManager;
+import org.wso2.siddhi.core.event.Event;
+import org.wso2.siddhi.core.exception.CannotRestoreSiddhiAppStateException;
+import org.wso2.siddhi.core.exception.SiddhiAppCreationException;
+import org.wso2.siddhi.core.stream.input.InputHandler;
+import org.wso2.siddhi.core.stream.output.StreamCallback;
+import org.wso2.siddhi.core.util.EventPrinter;
+import org.wso2.siddhi.core.util.SiddhiTestHelper;
+import org.wso2.siddhi.core.util.persistence.FileSystemPersistenceStore;
+import org.wso2.siddhi.core.util.persistence.InMemoryPersistenceStore;
+import org.wso2.siddhi.core.util.persistence.PersistenceStore;
+import org.wso2.siddhi.core.util.persistence.util.PersistenceConstants;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class PartitionPurgeTestCase {
+    private static final Logger log = Logger.getLogger(PartitionPurgeTestCase.class);
+    private AtomicInteger count;
+    private List<Object[]> outputs;
+
+    private static final String PARTITION = "" +
+            "partition with (symbol of StockStream) " +
+            "begin " +
+            "   @info(name = 'query1') " +
+            "   from StockStream#window.length(2) " +
+            "   select symbol, sum(volume) as totalVolume " +
+            "   insert into OutputStream ;" +
+            "end;";
+
+    private static final String TIME_WINDOW_PARTITION = "" +
+            "partition with (symbol of StockStream) " +
+            "begin " +
+            "   @info(name = 'query1') " +
+            "   from StockStream#window.time(1 sec) " +
+            "   select symbol, volume " +
+            "   insert all events into OutputStream ;" +
+            "end;";
+
+    @BeforeMethod
+    public void init() {
+        count = new AtomicInteger(0);
+        outputs = new ArrayList<>();
+    }
+
+    @Test
+    public void partitionPurgeTest1() throws InterruptedException {
+        log.info("Partition purge test1 - idle partition instances are purged with their state");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                "define stream StockStream (symbol string, volume long);" +
+                "@purge(enable='true', interval='100 millisec', idle.period='200 millisec') " +
+                PARTITION;
+
+        SiddhiAppRuntime siddhiAppRuntime = createRuntime(siddhiManager, siddhiApp);
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+
+        inputHandler.send(new Object[]{"IBM", 100L});
+        inputHandler.send(new Object[]{"WSO2", 10L});
+        Thread.sleep(600);
+        inputHandler.send(new Object[]{"IBM", 200L});
+        inputHandler.send(new Object[]{"WSO2", 20L});
+
+        SiddhiTestHelper.waitForEvents(10, 4, count, 1000);
+        AssertJUnit.assertEquals(4, count.get());
+        AssertJUnit.assertEquals(200L, outputs.get(2)[1]);
+        AssertJUnit.assertEquals(20L, outputs.get(3)[1]);
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test
+    public void partitionPurgeTest2() throws InterruptedException {
+        log.info("Partition purge test2 - active partition instances are not purged");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                "define stream StockStream (symbol string, volume long);" +
+                "@purge(enable='true', interval='100 millisec', idle.period='1 sec') " +
+                PARTITION;
+
+        SiddhiAppRuntime siddhiAppRuntime = createRuntime(siddhiManager, siddhiApp);
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+
+        inputHandler.send(new Object[]{"IBM", 100L});
+        Thread.sleep(300);
+        inputHandler.send(new Object[]{"IBM", 200L});
+
+        SiddhiTestHelper.waitForEvents(10, 2, count, 1000);
+        AssertJUnit.assertEquals(2, count.get());
+        AssertJUnit.assertEquals(300L, outputs.get(1)[1]);
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test
+    public void partitionPurgeTest3() throws InterruptedException {
+        log.info("Partition purge test3 - state of purged partition instances is spilled and revived");
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setPersistenceStore(new InMemoryPersistenceStore());
+
+        String siddhiApp = "" +
+                "@app:name('PurgeTest3') " +
+                "define stream StockStream (symbol string, volume long);" +
+                "@purge(enable='true', interval='100 millisec', idle.period='200 millisec', spill.state='true') " +
+                PARTITION;
+
+        SiddhiAppRuntime siddhiAppRuntime = createRuntime(siddhiManager, siddhiApp);
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+
+        inputHandler.send(new Object[]{"IBM", 100L});
+        inputHandler.send(new Object[]{"WSO2", 10L});
+        Thread.sleep(600);
+        inputHandler.send(new Object[]{"IBM", 200L});
+        inputHandler.send(new Object[]{"IBM", 400L});
+        inputHandler.send(new Object[]{"WSO2", 20L});
+
+        SiddhiTestHelper.waitForEvents(10, 5, count, 1000);
+        AssertJUnit.assertEquals(5, count.get());
+        AssertJUnit.assertEquals(300L, outputs.get(2)[1]);
+        AssertJUnit.assertEquals(600L, outputs.get(3)[1]);
+        AssertJUnit.assertEquals(30L, outputs.get(4)[1]);
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test
+    public void partitionPurgeTest4() throws InterruptedException, CannotRestoreSiddhiAppStateException {
+        log.info("Partition purge test4 - spilled partition keys are persisted and restored");
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setPersistenceStore(new InMemoryPersistenceStore());
+
+        String siddhiApp = "" +
+                "@app:name('PurgeTest4') " +
+                "define stream StockStream (symbol string, volume long);" +
+                "@purge(enable='true', interval='100 millisec', idle.period='200 millisec', spill.state='true') " +
+                PARTITION;
+
+        SiddhiAppRuntime siddhiAppRuntime = createRuntime(siddhiManager, siddhiApp);
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+
+        inputHandler.send(new Object[]{"IBM", 100L});
+        Thread.sleep(600);
+        siddhiAppRuntime.persist();
+        Thread.sleep(100);
+        siddhiAppRuntime.shutdown();
+
+        siddhiAppRuntime = createRuntime(siddhiManager, siddhiApp);
+        inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+        siddhiAppRuntime.restoreLastRevision();
+
+        inputHandler.send(new Object[]{"IBM", 200L});
+
+        SiddhiTestHelper.waitForEvents(10, 2, count, 1000);
+        AssertJUnit.assertEquals(2, count.get());
+        AssertJUnit.assertEquals(300L, outputs.get(1)[1]);
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test
+    public void partitionPurgeTest5() throws InterruptedException {
+        log.info("Partition purge test5 - purging can be disabled");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                "define stream StockStream (symbol string, volume long);" +
+                "@purge(enable='false', interval='100 millisec', idle.period='100 millisec') " +
+                PARTITION;
+
+        SiddhiAppRuntime siddhiAppRuntime = createRuntime(siddhiManager, siddhiApp);
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+
+        inputHandler.send(new Object[]{"IBM", 100L});
+        Thread.sleep(400);
+        inputHandler.send(new Object[]{"IBM", 200L});
+
+        SiddhiTestHelper.waitForEvents(10, 2, count, 1000);
+        AssertJUnit.assertEquals(300L, outputs.get(1)[1]);
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test(expectedExceptions = SiddhiAppCreationException.class)
+    public void partitionPurgeTest6() {
+        log.info("Partition purge test6 - idle period is required");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                "define stream StockStream (symbol string, volume long);" +
+                "@purge(enable='true', interval='1 sec') " +
+                PARTITION;
+        siddhiManager.createSiddhiAppRuntime(siddhiApp);
+    }
+
+    @Test(expectedExceptions = SiddhiAppCreationException.class)
+    public void partitionPurgeTest7() {
+        log.info("Partition purge test7 - invalid purge interval");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                "define stream StockStream (symbol string, volume long);" +
+                "@purge(enable='true', interval='one second', idle.period='1 min') " +
+                PARTITION;
+        siddhiManager.createSiddhiAppRuntime(siddhiApp);
+    }
+
+    @Test(expectedExceptions = SiddhiAppCreationException.class)
+    public void partitionPurgeTest8() {
+        log.info("Partition purge test8 - spilling state requires a persistence store");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                "define stream StockStream (symbol string, volume long);" +
+                "@purge(enable='true', interval='1 sec', idle.period='1 min', spill.state='true') " +
+                PARTITION;
+        siddhiManager.createSiddhiAppRuntime(siddhiApp);
+    }
+
+    @Test
+    public void partitionPurgeTest9() throws InterruptedException, IOException {
+        log.info("Partition purge test9 - states of more spilled partition keys than the revisions kept by a file " +
+                "system persistence store are revived and removed");
+        File folder = Files.createTempDirectory("partition-purge-test9").toFile();
+        PersistenceStore persistenceStore = new FileSystemPersistenceStore();
+        Map<String, Object> configs = new HashMap<>();
+        configs.put("location", folder.getAbsolutePath());
+        Map<String, Object> properties = new HashMap<>();
+        properties.put(PersistenceConstants.STATE_PERSISTENCE_CONFIGS, configs);
+        properties.put(PersistenceConstants.STATE_PERSISTENCE_REVISIONS_TO_KEEP, 3);
+        persistenceStore.setProperties(properties);
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setPersistenceStore(persistenceStore);
+
+        String siddhiApp = "" +
+                "@app:name('PurgeTest9') " +
+                "define stream StockStream (symbol string, volume long);" +
+                "@purge(enable='true', interval='100 millisec', idle.period='200 millisec', spill.state='true') " +
+                PARTITION;
+
+        SiddhiAppRuntime siddhiAppRuntime = createRuntime(siddhiManager, siddhiApp);
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+        try {
+            for (int i = 0; i < 5; i++) {
+                inputHandler.send(new Object[]{"S" + i, 100L * (i + 1)});
+            }
+            Thread.sleep(600);
+            String[] spilledStates = folder.list();
+            AssertJUnit.assertNotNull(spilledStates);
+            AssertJUnit.assertEquals(5, spilledStates.length);
+
+            for (int i = 0; i < 5; i++) {
+                inputHandler.send(new Object[]{"S" + i, 1L});
+            }
+            SiddhiTestHelper.waitForEvents(10, 10, count, 1000);
+            AssertJUnit.assertEquals(10, count.get());
+            for (int i = 0; i < 5; i++) {
+                AssertJUnit.assertEquals(100L * (i + 1) + 1, outputs.get(5 + i)[1]);
+            }
+            spilledStates = folder.list();
+            AssertJUnit.assertNotNull(spilledStates);
+            AssertJUnit.assertEquals(0, spilledStates.length);
+        } finally {
+            siddhiAppRuntime.shutdown();
+            Files.walk(folder.toPath()).sorted(Comparator.reverseOrder()).map(Path::toFile)
+                    .forEach(File::delete);
+        }
+    }
+
+    @Test
+    public void partitionPurgeTest10() throws InterruptedException {
+        log.info("Partition purge test10 - timers of purged partition instances are stopped");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                "define stream StockStream (symbol string, volume long);" +
+                "@purge(enable='true', interval='100 millisec', idle.period='200 millisec') " +
+                TIME_WINDOW_PARTITION;
+
+        SiddhiAppRuntime siddhiAppRuntime = createRuntime(siddhiManager, siddhiApp);
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+
+        inputHandler.send(new Object[]{"IBM", 100L});
+        Thread.sleep(1500);
+        siddhiAppRuntime.shutdown();
+
+        AssertJUnit.assertEquals(1, count.get());
+    }
+
+    @Test
+    public void partitionPurgeTest11() throws InterruptedException {
+        log.info("Partition purge test11 - timers of revived partition instances are not duplicated");
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setPersistenceStore(new InMemoryPersistenceStore());
+
+        String siddhiApp = "" +
+                "@app:name('PurgeTest11') " +
+                "define stream StockStream (symbol string, volume long);" +
+                "@purge(enable='true', interval='100 millisec', idle.period='200 millisec', spill.state='true') " +
+                TIME_WINDOW_PARTITION;
+
+        SiddhiAppRuntime siddhiAppRuntime = createRuntime(siddhiManager, siddhiApp);
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+
+        inputHandler.send(new Object[]{"IBM", 100L});
+        Thread.sleep(600);
+        // Events keep the revived instance active until the first event expires
+        for (int i = 0; i < 6; i++) {
+            inputHandler.send(new Object[]{"IBM", 200L});
+            Thread.sleep(100);
+        }
+        Thread.sleep(200);
+        siddhiAppRuntime.shutdown();
+
+        int firstEventOutputs = 0;
+        for (Object[] output : outputs) {
+            if (output[1].equals(100L)) {
+                firstEventOutputs++;
+            }
+        }
+        AssertJUnit.assertEquals(2, firstEventOutputs);
+    }
+
+    private SiddhiAppRuntime createRuntime(SiddhiManager siddhiManager, String siddhiApp) {
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("OutputStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                for (Event event : events) {
+                    outputs.add(event.getData());
+                    count.incrementAndGet();
+                }
+            }
+        });
+        return siddhiAppRuntime;
+    }
+}
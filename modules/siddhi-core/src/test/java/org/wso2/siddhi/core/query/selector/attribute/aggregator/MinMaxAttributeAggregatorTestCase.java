@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.query.selector.attribute.aggregator;
+
+import org.apache.log4j.Logger;
+import org.testng.AssertJUnit;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.siddhi.core.SiddhiAppRuntime;
+import org.wso2.siddhi.core.SiddhiManager;
+import org.wso2.siddhi.core.event.Event;
+import org.wso2.siddhi.core.exception.CannotRestoreSiddhiAppStateException;
+import org.wso2.siddhi.core.stream.input.InputHandler;
+import org.wso2.siddhi.core.stream.output.StreamCallback;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+
+public class MinMaxAttributeAggregatorTestCase {
+    private static final Logger log = Logger.getLogger(MinMaxAttributeAggregatorTestCase.class);
+    private static final int[] VALUES = {5, 3, 5, 1, 4, 4, 2};
+    private static final int[] EXPECTED_MAX = {5, 5, 5, 5, 5, 4, 4};
+    private static final int[] EXPECTED_MIN = {5, 3, 3, 1, 1, 1, 2};
+    private List<Object[]> outputs;
+
+    @BeforeMethod
+    public void init() {
+        outputs = new ArrayList<>();
+    }
+
+    @Test
+    public void minMaxTest1() throws InterruptedException {
+        log.info("MinMax TestCase 1 - sliding min and max of all the types over a length window");
+        SiddhiAppRuntime siddhiAppRuntime = createSiddhiAppRuntime();
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("inputStream");
+        siddhiAppRuntime.start();
+
+        for (int value : VALUES) {
+            send(inputHandler, value);
+        }
+        assertOutputs(0);
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test
+    public void minMaxTest2() throws InterruptedException, CannotRestoreSiddhiAppStateException {
+        log.info("MinMax TestCase 2 - sliding min and max are restored from a snapshot");
+        SiddhiAppRuntime siddhiAppRuntime = createSiddhiAppRuntime();
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("inputStream");
+        siddhiAppRuntime.start();
+
+        for (int i = 0; i < 3; i++) {
+            send(inputHandler, VALUES[i]);
+        }
+        byte[] snapshot = siddhiAppRuntime.snapshot();
+        send(inputHandler, 100);
+        send(inputHandler, -100);
+        siddhiAppRuntime.restore(snapshot);
+
+        outputs.clear();
+        for (int i = 3; i < VALUES.length; i++) {
+            send(inputHandler, VALUES[i]);
+        }
+        assertOutputs(3);
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test
+    public void minMaxTest3() {
+        log.info("MinMax TestCase 3 - monotonic deques wrap around, grow, and restore boxed snapshots");
+        DoubleMonotonicDeque maxDeque = new DoubleMonotonicDeque(true);
+        LongMonotonicDeque minDeque = new LongMonotonicDeque(false);
+        for (int i = 0; i < 6; i++) {
+            maxDeque.add(100 - i);
+            minDeque.add(i);
+        }
+        for (int i = 0; i < 4; i++) {
+            AssertJUnit.assertEquals(0, maxDeque.removeFirstOccurrence(100 - i));
+            AssertJUnit.assertEquals(0, minDeque.removeFirstOccurrence(i));
+        }
+        for (int i = 6; i < 20; i++) {
+            maxDeque.add(100 - i);
+            minDeque.add(i);
+        }
+        AssertJUnit.assertEquals(16, maxDeque.size());
+        AssertJUnit.assertEquals(96.0, maxDeque.peekFirst());
+        AssertJUnit.assertEquals(4L, minDeque.peekFirst());
+        AssertJUnit.assertEquals(-1, maxDeque.removeFirstOccurrence(200));
+
+        // a greater value drops all the values before it, and the dropped values are not found on removal
+        maxDeque.add(200);
+        AssertJUnit.assertEquals(1, maxDeque.size());
+        AssertJUnit.assertEquals(-1, maxDeque.removeFirstOccurrence(96));
+
+        // values removed from the middle keep the order of the rest
+        minDeque.restore(new long[]{1, 2, 2, 3});
+        AssertJUnit.assertEquals(1, minDeque.removeFirstOccurrence(2));
+        AssertJUnit.assertTrue(Arrays.equals(new long[]{1, 2, 3}, minDeque.toArray()));
+
+        // snapshots taken while the values were held as boxed values
+        maxDeque.restore(new LinkedList<>(Arrays.asList(5.5f, 4.5f, 3.5f)));
+        AssertJUnit.assertTrue(Arrays.equals(new double[]{5.5, 4.5, 3.5}, maxDeque.toArray()));
+        minDeque.restore(new LinkedList<>(Arrays.asList(1, 2, 3)));
+        AssertJUnit.assertTrue(Arrays.equals(new long[]{1, 2, 3}, minDeque.toArray()));
+    }
+
+    private SiddhiAppRuntime createSiddhiAppRuntime() {
+        SiddhiManager siddhiManager = new SiddhiManager();
+        String siddhiApp = "" +
+                "define stream inputStream (intValue int, longValue long, floatValue float, doubleValue double); " +
+                "" +
+                "@info(name = 'query1') " +
+                "from inputStream#window.length(3) " +
+                "select max(intValue) as maxInt, min(intValue) as minInt, " +
+                "   max(longValue) as maxLong, min(longValue) as minLong, " +
+                "   max(floatValue) as maxFloat, min(floatValue) as minFloat, " +
+                "   max(doubleValue) as maxDouble, min(doubleValue) as minDouble " +
+                "insert into outputStream;";
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("outputStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                for (Event event : events) {
+                    outputs.add(event.getData());
+                }
+            }
+        });
+        return siddhiAppRuntime;
+    }
+
+    private static void send(InputHandler inputHandler, int value) throws InterruptedException {
+        inputHandler.send(new Object[]{value, (long) value, (float) value, (double) value});
+    }
+
+    private void assertOutputs(int from) {
+        AssertJUnit.assertEquals(VALUES.length - from, outputs.size());
+        for (int i = 0; i < outputs.size(); i++) {
+            int max = EXPECTED_MAX[from + i];
+            int min = EXPECTED_MIN[from + i];
+            AssertJUnit.assertArrayEquals(new Object[]{max, min, (long) max, (long) min, (float) max, (float) min,
+                    (double) max, (double) min}, outputs.get(i));
+        }
+    }
+}
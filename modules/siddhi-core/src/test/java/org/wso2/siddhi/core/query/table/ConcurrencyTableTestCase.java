@@ -0,0 +1,291 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.query.table;
+
+import org.apache.log4j.Logger;
+import org.testng.AssertJUnit;
+import org.testng.annotations.Test;
+import org.wso2.siddhi.core.SiddhiAppRuntime;
+import org.wso2.siddhi.core.SiddhiManager;
+import org.wso2.siddhi.core.event.Event;
+import org.wso2.siddhi.core.exception.SiddhiAppCreationException;
+import org.wso2.siddhi.core.stream.input.InputHandler;
+import org.wso2.siddhi.core.stream.output.StreamCallback;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ConcurrencyTableTestCase {
+    private static final Logger log = Logger.getLogger(ConcurrencyTableTestCase.class);
+
+    private static final String STREAMS = "" +
+            "define stream StockStream (symbol string, price float, volume long); " +
+            "define stream CheckStockStream (symbol string); " +
+            "define stream DeleteStockStream (symbol string); ";
+
+    private static final String QUERIES = "" +
+            "@info(name = 'query1') " +
+            "from StockStream " +
+            "update or insert into StockTable " +
+            "   set StockTable.price = price, StockTable.volume = volume " +
+            "   on StockTable.symbol == symbol ;" +
+            "" +
+            "@info(name = 'query2') " +
+            "from CheckStockStream join StockTable " +
+            "   on CheckStockStream.symbol == StockTable.symbol " +
+            "select CheckStockStream.symbol, StockTable.volume " +
+            "insert into OutStream ;" +
+            "" +
+            "@info(name = 'query3') " +
+            "from CheckStockStream[(symbol == StockTable.symbol) in StockTable] " +
+            "insert into ContainsStream ;" +
+            "" +
+            "@info(name = 'query4') " +
+            "from DeleteStockStream " +
+            "delete StockTable " +
+            "   on StockTable.symbol == symbol ;";
+
+    @Test
+    public void concurrencyTableTest1() throws InterruptedException {
+        log.info("concurrencyTableTest1 - table operations with optimistic reads");
+
+        List<Object[]> lockEvents = runTableOperations("");
+        List<Object[]> optimisticEvents = runTableOperations("@Concurrency(type='optimistic') ");
+        AssertJUnit.assertEquals(4, optimisticEvents.size());
+        AssertJUnit.assertEquals(lockEvents.size(), optimisticEvents.size());
+        for (int i = 0; i < lockEvents.size(); i++) {
+            AssertJUnit.assertArrayEquals(lockEvents.get(i), optimisticEvents.get(i));
+        }
+    }
+
+    @Test
+    public void concurrencyTableTest2() throws InterruptedException {
+        log.info("concurrencyTableTest2 - off-heap table with optimistic reads");
+
+        List<Object[]> lockEvents = runTableOperations("@store(type='offheap') ");
+        List<Object[]> optimisticEvents = runTableOperations("@store(type='offheap') " +
+                "@Concurrency(type='optimistic') ");
+        AssertJUnit.assertEquals(4, optimisticEvents.size());
+        AssertJUnit.assertEquals(lockEvents.size(), optimisticEvents.size());
+        for (int i = 0; i < lockEvents.size(); i++) {
+            AssertJUnit.assertArrayEquals(lockEvents.get(i), optimisticEvents.get(i));
+        }
+    }
+
+    @Test(expectedExceptions = SiddhiAppCreationException.class)
+    public void concurrencyTableTest3() {
+        log.info("concurrencyTableTest3 - unsupported concurrency type");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        String siddhiApp = "" +
+                STREAMS +
+                "@Concurrency(type='striped') " +
+                "define table StockTable (symbol string, price float, volume long); " +
+                QUERIES;
+
+        SiddhiAppRuntime siddhiAppRuntime = null;
+        try {
+            siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        } finally {
+            if (siddhiAppRuntime != null) {
+                siddhiAppRuntime.shutdown();
+            }
+        }
+    }
+
+    @Test
+    public void concurrencyTableTest4() throws Exception {
+        log.info("concurrencyTableTest4 - concurrent writers and optimistic readers");
+
+        final int keys = 100;
+        final int iterations = 2000;
+        SiddhiManager siddhiManager = new SiddhiManager();
+        String siddhiApp = "" +
+                STREAMS +
+                "@Concurrency(type='optimistic') " +
+                "@PrimaryKey('symbol') " +
+                "@Index('volume') " +
+                "define table StockTable (symbol string, price float, volume long); " +
+                QUERIES;
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        AtomicInteger joinedCount = new AtomicInteger();
+        AtomicInteger containedCount = new AtomicInteger();
+        siddhiAppRuntime.addCallback("OutStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                joinedCount.addAndGet(events.length);
+            }
+        });
+        siddhiAppRuntime.addCallback("ContainsStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                containedCount.addAndGet(events.length);
+            }
+        });
+        InputHandler stockStream = siddhiAppRuntime.getInputHandler("StockStream");
+        InputHandler checkStockStream = siddhiAppRuntime.getInputHandler("CheckStockStream");
+        siddhiAppRuntime.start();
+        for (int i = 0; i < keys; i++) {
+            stockStream.send(new Object[]{"S" + i, 10f, (long) i});
+        }
+
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 2; thread++) {
+                final int offset = thread;
+                futures.add(executorService.submit(() -> {
+                    for (int i = 0; i < iterations; i++) {
+                        stockStream.send(new Object[]{"S" + (i % keys), 20f, (long) (i * 2 + offset)});
+                    }
+                    return null;
+                }));
+                futures.add(executorService.submit(() -> {
+                    for (int i = 0; i < iterations; i++) {
+                        checkStockStream.send(new Object[]{"S" + ((i + offset) % keys)});
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        AssertJUnit.assertEquals(2 * iterations, joinedCount.get());
+        AssertJUnit.assertEquals(2 * iterations, containedCount.get());
+        AssertJUnit.assertEquals(keys, siddhiAppRuntime.query("from StockTable select symbol").length);
+        AssertJUnit.assertEquals(keys, siddhiAppRuntime.query("from StockTable on price == 20f select symbol")
+                .length);
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test
+    public void concurrencyTableTest5() throws Exception {
+        log.info("concurrencyTableTest5 - concurrent writers and scanning readers");
+
+        final int keys = 100;
+        final int iterations = 500;
+        SiddhiManager siddhiManager = new SiddhiManager();
+        String siddhiApp = "" +
+                STREAMS +
+                "define stream ScanStream (volume long); " +
+                "@Concurrency(type='optimistic') " +
+                "@PrimaryKey('symbol') " +
+                "@Index('volume') " +
+                "define table StockTable (symbol string, price float, volume long); " +
+                QUERIES +
+                "@info(name = 'query5') " +
+                "from ScanStream join StockTable " +
+                "   on StockTable.volume >= ScanStream.volume " +
+                "select StockTable.symbol " +
+                "insert into ScanOutStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        AtomicInteger scannedCount = new AtomicInteger();
+        siddhiAppRuntime.addCallback("ScanOutStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                scannedCount.addAndGet(events.length);
+            }
+        });
+        InputHandler stockStream = siddhiAppRuntime.getInputHandler("StockStream");
+        InputHandler scanStream = siddhiAppRuntime.getInputHandler("ScanStream");
+        siddhiAppRuntime.start();
+        for (int i = 0; i < keys; i++) {
+            stockStream.send(new Object[]{"S" + i, 10f, (long) i});
+        }
+
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 2; thread++) {
+                final int offset = thread;
+                futures.add(executorService.submit(() -> {
+                    for (int i = 0; i < iterations * 10; i++) {
+                        stockStream.send(new Object[]{"S" + (i % keys), 20f, (long) (i * 2 + offset)});
+                    }
+                    return null;
+                }));
+                futures.add(executorService.submit(() -> {
+                    for (int i = 0; i < iterations; i++) {
+                        scanStream.send(new Object[]{0L});
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        // Writers only overwrite existing keys, hence every scan has to see all the keys
+        AssertJUnit.assertEquals(2 * iterations * keys, scannedCount.get());
+        siddhiAppRuntime.shutdown();
+    }
+
+    private List<Object[]> runTableOperations(String tableAnnotations) throws InterruptedException {
+        SiddhiManager siddhiManager = new SiddhiManager();
+        String siddhiApp = "" +
+                STREAMS +
+                tableAnnotations +
+                "@PrimaryKey('symbol') " +
+                "define table StockTable (symbol string, price float, volume long); " +
+                QUERIES;
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        List<Object[]> events = new ArrayList<>();
+        siddhiAppRuntime.addCallback("OutStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] receivedEvents) {
+                for (Event event : receivedEvents) {
+                    events.add(event.getData());
+                }
+            }
+        });
+        try {
+            InputHandler stockStream = siddhiAppRuntime.getInputHandler("StockStream");
+            InputHandler checkStockStream = siddhiAppRuntime.getInputHandler("CheckStockStream");
+            InputHandler deleteStockStream = siddhiAppRuntime.getInputHandler("DeleteStockStream");
+            siddhiAppRuntime.start();
+            stockStream.send(new Object[]{"WSO2", 55.6f, 100L});
+            stockStream.send(new Object[]{"IBM", 75.6f, 10L});
+            checkStockStream.send(new Object[]{"WSO2"});
+            checkStockStream.send(new Object[]{"IBM"});
+            stockStream.send(new Object[]{"WSO2", 57.6f, 200L});
+            checkStockStream.send(new Object[]{"WSO2"});
+            deleteStockStream.send(new Object[]{"IBM"});
+            checkStockStream.send(new Object[]{"IBM"});
+            checkStockStream.send(new Object[]{"WSO2"});
+            return events;
+        } finally {
+            siddhiAppRuntime.shutdown();
+        }
+    }
+}
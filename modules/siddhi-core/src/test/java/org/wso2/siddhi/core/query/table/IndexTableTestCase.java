@@ -25,17 +25,21 @@ import org.testng.annotations.Test;
 import org.wso2.siddhi.core.SiddhiAppRuntime;
 import org.wso2.siddhi.core.SiddhiManager;
 import org.wso2.siddhi.core.event.Event;
+import org.wso2.siddhi.core.exception.CannotRestoreSiddhiAppStateException;
 import org.wso2.siddhi.core.exception.SiddhiAppCreationException;
 import org.wso2.siddhi.core.query.output.callback.QueryCallback;
 import org.wso2.siddhi.core.stream.input.InputHandler;
 import org.wso2.siddhi.core.util.EventPrinter;
 import org.wso2.siddhi.core.util.SiddhiTestHelper;
+import org.wso2.siddhi.core.util.persistence.InMemoryPersistenceStore;
+import org.wso2.siddhi.core.util.snapshot.serializer.BinaryStateSerializer;
 import org.wso2.siddhi.query.api.exception.AttributeNotExistException;
 import org.wso2.siddhi.query.api.exception.DuplicateAnnotationException;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public class IndexTableTestCase {
@@ -2233,4 +2237,204 @@ public class IndexTableTestCase {
         }
     }
 
+    @Test
+    public void indexTableTest34() throws InterruptedException {
+        log.info("indexTableTest34 - hash index on string attribute");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        String streams = "" +
+                "define stream StockStream (symbol string, price float, volume long); " +
+                "define stream CheckStockStream (symbol string); " +
+                "define stream DeleteStockStream (symbol string); " +
+                "@Index('symbol', type='hash') " +
+                "define table StockTable (symbol string, price float, volume long); ";
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from StockStream " +
+                "insert into StockTable ;" +
+                "" +
+                "@info(name = 'query2') " +
+                "from CheckStockStream join StockTable " +
+                " on CheckStockStream.symbol == StockTable.symbol " +
+                "select CheckStockStream.symbol, StockTable.volume " +
+                "insert into OutStream;" +
+                "" +
+                "@info(name = 'query3') " +
+                "from DeleteStockStream " +
+                "delete StockTable " +
+                " on StockTable.symbol == symbol;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+        try {
+            siddhiAppRuntime.addCallback("query2", new QueryCallback() {
+                @Override
+                public void receive(long timestamp, Event[] inEvents, Event[] removeEvents) {
+                    EventPrinter.print(timestamp, inEvents, removeEvents);
+                    if (inEvents != null) {
+                        for (Event event : inEvents) {
+                            inEventsList.add(event.getData());
+                            inEventCount.incrementAndGet();
+                        }
+                        eventArrived = true;
+                    }
+                }
+            });
+
+            InputHandler stockStream = siddhiAppRuntime.getInputHandler("StockStream");
+            InputHandler checkStockStream = siddhiAppRuntime.getInputHandler("CheckStockStream");
+            InputHandler deleteStockStream = siddhiAppRuntime.getInputHandler("DeleteStockStream");
+
+            siddhiAppRuntime.start();
+            stockStream.send(new Object[]{"WSO2", 55.6f, 100L});
+            stockStream.send(new Object[]{"IBM", 55.6f, 10L});
+            stockStream.send(new Object[]{"WSO2", 57.6f, 200L});
+            stockStream.send(new Object[]{null, 50.6f, 300L});
+            checkStockStream.send(new Object[]{"WSO2"});
+            deleteStockStream.send(new Object[]{"WSO2"});
+            checkStockStream.send(new Object[]{"WSO2"});
+            checkStockStream.send(new Object[]{"IBM"});
+
+            List<Object[]> expected = Arrays.asList(
+                    new Object[]{"WSO2", 100L},
+                    new Object[]{"WSO2", 200L},
+                    new Object[]{"IBM", 10L}
+            );
+            SiddhiTestHelper.waitForEvents(100, 3, inEventCount, 60000);
+            AssertJUnit.assertEquals("In events matched", true, SiddhiTestHelper.isUnsortedEventsMatch(inEventsList,
+                    expected));
+            AssertJUnit.assertEquals("Number of success events", 3, inEventCount.get());
+            AssertJUnit.assertEquals("Event arrived", true, eventArrived);
+            AssertJUnit.assertEquals(2, siddhiAppRuntime.query("from StockTable select symbol").length);
+        } finally {
+            siddhiAppRuntime.shutdown();
+        }
+    }
+
+    @Test
+    public void indexTableTest35() throws InterruptedException {
+        log.info("indexTableTest35 - hash index on numeric attributes with equality and range conditions");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        String streams = "" +
+                "define stream StockStream (symbol string, price float, volume long, quantity int); " +
+                "define stream UpdateStockStream (symbol string, volume long); " +
+                "@Index('volume', 'quantity', type='hash') " +
+                "define table StockTable (symbol string, price float, volume long, quantity int); ";
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from StockStream " +
+                "insert into StockTable ;" +
+                "" +
+                "@info(name = 'query2') " +
+                "from UpdateStockStream " +
+                "update StockTable " +
+                "   set StockTable.volume = volume " +
+                "   on StockTable.symbol == symbol;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+        try {
+            InputHandler stockStream = siddhiAppRuntime.getInputHandler("StockStream");
+            InputHandler updateStockStream = siddhiAppRuntime.getInputHandler("UpdateStockStream");
+
+            siddhiAppRuntime.start();
+            for (int i = 0; i < 100; i++) {
+                stockStream.send(new Object[]{"S" + i, 10f, (long) i, i % 10});
+            }
+            stockStream.send(new Object[]{"NULL", 10f, null, null});
+            updateStockStream.send(new Object[]{"S5", 500L});
+
+            Event[] events = siddhiAppRuntime.query("from StockTable on volume == 500L select symbol");
+            AssertJUnit.assertEquals(1, events.length);
+            AssertJUnit.assertEquals("S5", events[0].getData(0));
+            AssertJUnit.assertNull(siddhiAppRuntime.query("from StockTable on volume == 5L select symbol"));
+            AssertJUnit.assertEquals(10, siddhiAppRuntime.query("from StockTable on quantity == 3 " +
+                    "select symbol").length);
+            AssertJUnit.assertEquals(5, siddhiAppRuntime.query("from StockTable on volume > 95L " +
+                    "select symbol").length);
+            AssertJUnit.assertEquals(30, siddhiAppRuntime.query("from StockTable on quantity < 3 " +
+                    "select symbol").length);
+            AssertJUnit.assertEquals(1, siddhiAppRuntime.query("from StockTable on volume is null " +
+                    "select symbol").length);
+        } finally {
+            siddhiAppRuntime.shutdown();
+        }
+    }
+
+    @Test(expectedExceptions = SiddhiAppCreationException.class)
+    public void indexTableTest36() throws InterruptedException {
+        log.info("indexTableTest36 - unsupported index type");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        String streams = "" +
+                "define stream StockStream (symbol string, price float, volume long); " +
+                "@Index('symbol', type='bitmap') " +
+                "define table StockTable (symbol string, price float, volume long); ";
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from StockStream " +
+                "insert into StockTable ;" +
+                "";
+
+        SiddhiAppRuntime siddhiAppRuntime = null;
+        try {
+            siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+
+        } finally {
+            if (siddhiAppRuntime != null) {
+                siddhiAppRuntime.shutdown();
+            }
+        }
+    }
+
+    @Test
+    public void indexTableTest37() throws InterruptedException, CannotRestoreSiddhiAppStateException,
+            ExecutionException {
+        log.info("indexTableTest37 - persisting tables having hash indexes");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setPersistenceStore(new InMemoryPersistenceStore());
+        siddhiManager.setStateSerializer(new BinaryStateSerializer());
+        String siddhiApp = "" +
+                "@app:name('HashIndexPersistence') " +
+                "define stream StockStream (symbol string, price float, volume long); " +
+                "define stream DeleteStockStream (symbol string); " +
+                "@PrimaryKey('symbol') " +
+                "@Index('volume', 'price', type='hash') " +
+                "define table StockTable (symbol string, price float, volume long); " +
+                "" +
+                "@info(name = 'query1') " +
+                "from StockStream " +
+                "insert into StockTable ;" +
+                "" +
+                "@info(name = 'query2') " +
+                "from DeleteStockStream " +
+                "delete StockTable " +
+                " on StockTable.symbol == symbol;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.start();
+        InputHandler stockStream = siddhiAppRuntime.getInputHandler("StockStream");
+        stockStream.send(new Object[]{"WSO2", 55.6f, 100L});
+        stockStream.send(new Object[]{"IBM", 55.6f, 100L});
+        stockStream.send(new Object[]{"ORACLE", 20.5f, 200L});
+        siddhiAppRuntime.persist().getFuture().get();
+        siddhiAppRuntime.shutdown();
+
+        siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        try {
+            siddhiAppRuntime.start();
+            siddhiAppRuntime.restoreLastRevision();
+            siddhiAppRuntime.getInputHandler("DeleteStockStream").send(new Object[]{"WSO2"});
+
+            Event[] events = siddhiAppRuntime.query("from StockTable on volume == 100L select symbol");
+            AssertJUnit.assertEquals(1, events.length);
+            AssertJUnit.assertEquals("IBM", events[0].getData(0));
+            events = siddhiAppRuntime.query("from StockTable on price == 20.5f select symbol");
+            AssertJUnit.assertEquals(1, events.length);
+            AssertJUnit.assertEquals("ORACLE", events[0].getData(0));
+        } finally {
+            siddhiAppRuntime.shutdown();
+        }
+    }
+
 }
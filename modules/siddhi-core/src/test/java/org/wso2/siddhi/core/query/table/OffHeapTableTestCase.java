@@ -0,0 +1,289 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.siddhi.core.query.table;
+
+import org.apache.log4j.Logger;
+import org.testng.AssertJUnit;
+import org.testng.annotations.Test;
+import org.wso2.siddhi.core.SiddhiAppRuntime;
+import org.wso2.siddhi.core.SiddhiManager;
+import org.wso2.siddhi.core.event.Event;
+import org.wso2.siddhi.core.exception.CannotRestoreSiddhiAppStateException;
+import org.wso2.siddhi.core.stream.input.InputHandler;
+import org.wso2.siddhi.core.util.persistence.InMemoryPersistenceStore;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+public class OffHeapTableTestCase {
+    private static final Logger log = Logger.getLogger(OffHeapTableTestCase.class);
+
+    private static final String STREAMS = "" +
+            "define stream StockStream (symbol string, price float, volume long, active bool); " +
+            "define stream DeleteStockStream (symbol string, volume long); " +
+            "define stream UpdateStockStream (symbol string, price float, volume long, active bool); ";
+
+    private static final String QUERIES = "" +
+            "@info(name = 'query1') " +
+            "from StockStream " +
+            "insert into StockTable ;" +
+            "" +
+            "@info(name = 'query2') " +
+            "from DeleteStockStream " +
+            "delete StockTable " +
+            "   on StockTable.symbol == symbol or StockTable.volume < volume ;" +
+            "" +
+            "@info(name = 'query3') " +
+            "from UpdateStockStream " +
+            "update or insert into StockTable " +
+            "   set StockTable.price = price, StockTable.volume = volume, StockTable.active = active " +
+            "   on StockTable.symbol == symbol ;";
+
+    private static final Object[][] STOCK_EVENTS = {
+            {"WSO2", 55.6f, 100L, true},
+            {"IBM", 75.6f, 10L, false},
+            {"ORACLE", null, 200L, true},
+            {"GOOG", 40f, 5L, null},
+            {"WSO2", 57.6f, 300L, false},
+            {null, 10f, 400L, true}
+    };
+
+    @Test
+    public void offHeapTableTest1() throws InterruptedException {
+        log.info("offHeapTableTest1 - table without keys");
+
+        List<Object[]> rows = assertSameContents("", "from StockTable select *");
+        AssertJUnit.assertEquals(STOCK_EVENTS.length, rows.size());
+    }
+
+    @Test
+    public void offHeapTableTest2() throws InterruptedException {
+        log.info("offHeapTableTest2 - table with primary key, deletes and updates");
+
+        List<Object[]> rows = assertSameContents("@PrimaryKey('symbol') ", "from StockTable select *",
+                new Object[]{"DeleteStockStream", "IBM", 0L},
+                new Object[]{"UpdateStockStream", "WSO2", 60f, 150L, true},
+                new Object[]{"UpdateStockStream", "AMZN", 90f, 1L, false},
+                new Object[]{"DeleteStockStream", "", 6L});
+        AssertJUnit.assertEquals(Arrays.asList(
+                Arrays.asList("ORACLE", null, 200L, true),
+                Arrays.asList("WSO2", 60f, 150L, true),
+                Arrays.asList(null, 10f, 400L, true)), toLists(rows));
+    }
+
+    @Test
+    public void offHeapTableTest3() throws InterruptedException {
+        log.info("offHeapTableTest3 - table with numeric primary key, range conditions");
+
+        List<Object[]> rows = assertSameContents("@PrimaryKey('volume') ",
+                "from StockTable on volume >= 100L and symbol != 'WSO2' select symbol, volume",
+                new Object[]{"UpdateStockStream", "IBM", 80f, 10L, true},
+                new Object[]{"DeleteStockStream", "GOOG", 0L});
+        AssertJUnit.assertEquals(Arrays.asList(
+                Arrays.asList("ORACLE", 200L)), toLists(rows));
+    }
+
+    @Test
+    public void offHeapTableTest4() throws InterruptedException {
+        log.info("offHeapTableTest4 - updating indexed attributes");
+
+        List<Object[]> rows = assertSameContents("@Index('volume') ",
+                "from StockTable on symbol == 'MSFT' or volume > 450L select *",
+                new Object[]{"UpdateStockStream", "IBM", 80f, 500L, true},
+                new Object[]{"UpdateStockStream", "MSFT", 1f, 1L, false},
+                new Object[]{"DeleteStockStream", "WSO2", 0L});
+        AssertJUnit.assertEquals(Arrays.asList(
+                Arrays.asList("IBM", 80f, 500L, true),
+                Arrays.asList("MSFT", 1f, 1L, false)), toLists(rows));
+    }
+
+    @Test
+    public void offHeapTableTest5() throws InterruptedException {
+        log.info("offHeapTableTest5 - joining streams with the table");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        String siddhiApp = "" +
+                "define stream StockStream (symbol string, price float, volume long, active bool); " +
+                "define stream CheckStockStream (symbol string); " +
+                "@store(type='offheap') @PrimaryKey('symbol') " +
+                "define table StockTable (symbol string, price float, volume long, active bool); " +
+                "" +
+                "@info(name = 'query1') " +
+                "from StockStream " +
+                "insert into StockTable ;" +
+                "" +
+                "@info(name = 'query2') " +
+                "from CheckStockStream join StockTable " +
+                "   on CheckStockStream.symbol == StockTable.symbol " +
+                "select CheckStockStream.symbol, StockTable.volume " +
+                "insert into OutStream;" +
+                "" +
+                "@info(name = 'query3') " +
+                "from CheckStockStream[(symbol == StockTable.symbol) in StockTable] " +
+                "select symbol, -1L as volume " +
+                "insert into OutStream;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        List<Object[]> outEvents = new ArrayList<>();
+        siddhiAppRuntime.addCallback("OutStream", new org.wso2.siddhi.core.stream.output.StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                for (Event event : events) {
+                    outEvents.add(event.getData());
+                }
+            }
+        });
+        try {
+            siddhiAppRuntime.start();
+            InputHandler stockStream = siddhiAppRuntime.getInputHandler("StockStream");
+            InputHandler checkStockStream = siddhiAppRuntime.getInputHandler("CheckStockStream");
+            for (Object[] event : STOCK_EVENTS) {
+                stockStream.send(event.clone());
+            }
+            checkStockStream.send(new Object[]{"IBM"});
+            checkStockStream.send(new Object[]{"MSFT"});
+            checkStockStream.send(new Object[]{"WSO2"});
+
+            AssertJUnit.assertEquals(Arrays.asList(Arrays.asList("IBM", 10L), Arrays.asList("IBM", -1L),
+                    Arrays.asList("WSO2", 100L), Arrays.asList("WSO2", -1L)), toLists(outEvents));
+        } finally {
+            siddhiAppRuntime.shutdown();
+        }
+    }
+
+    @Test
+    public void offHeapTableTest6() throws InterruptedException, CannotRestoreSiddhiAppStateException,
+            ExecutionException {
+        log.info("offHeapTableTest6 - persisting and restoring the table");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setPersistenceStore(new InMemoryPersistenceStore());
+        String siddhiApp = "@app:name('OffHeapTablePersistence') " + STREAMS +
+                "@store(type='offheap') @PrimaryKey('symbol') @Index('volume') " +
+                "define table StockTable (symbol string, price float, volume long, active bool); " + QUERIES;
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.start();
+        InputHandler stockStream = siddhiAppRuntime.getInputHandler("StockStream");
+        for (Object[] event : STOCK_EVENTS) {
+            stockStream.send(event.clone());
+        }
+        siddhiAppRuntime.persist().getFuture().get();
+        siddhiAppRuntime.shutdown();
+
+        siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        try {
+            siddhiAppRuntime.start();
+            siddhiAppRuntime.restoreLastRevision();
+            siddhiAppRuntime.getInputHandler("DeleteStockStream").send(new Object[]{"GOOG", 0L});
+            List<Object[]> rows = sort(siddhiAppRuntime.query("from StockTable on volume < 300L select symbol"));
+            AssertJUnit.assertEquals(Arrays.asList(Arrays.asList("IBM"), Arrays.asList("ORACLE"),
+                    Arrays.asList("WSO2")), toLists(rows));
+        } finally {
+            siddhiAppRuntime.shutdown();
+        }
+    }
+
+    @Test
+    public void offHeapTableTest7() throws InterruptedException, CannotRestoreSiddhiAppStateException,
+            ExecutionException {
+        log.info("offHeapTableTest7 - persisting and restoring a grown table with removed rows");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setPersistenceStore(new InMemoryPersistenceStore());
+        String siddhiApp = "@app:name('OffHeapTableGrownPersistence') " + STREAMS +
+                "@store(type='offheap') " +
+                "define table StockTable (symbol string, price float, volume long, active bool); " + QUERIES;
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.start();
+        InputHandler stockStream = siddhiAppRuntime.getInputHandler("StockStream");
+        for (long i = 0; i < 150; i++) {
+            stockStream.send(new Object[]{"S" + (i % 10), i % 3 == 0 ? null : (float) i, i, i % 2 == 0});
+        }
+        siddhiAppRuntime.getInputHandler("DeleteStockStream").send(new Object[]{"S1", 20L});
+        List<Object[]> persistedRows = sort(siddhiAppRuntime.query("from StockTable select *"));
+        siddhiAppRuntime.persist().getFuture().get();
+        siddhiAppRuntime.getInputHandler("DeleteStockStream").send(new Object[]{"S2", 0L});
+        siddhiAppRuntime.shutdown();
+
+        siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        try {
+            siddhiAppRuntime.start();
+            siddhiAppRuntime.restoreLastRevision();
+            List<Object[]> restoredRows = sort(siddhiAppRuntime.query("from StockTable select *"));
+            AssertJUnit.assertEquals(117, restoredRows.size());
+            AssertJUnit.assertEquals(toLists(persistedRows), toLists(restoredRows));
+        } finally {
+            siddhiAppRuntime.shutdown();
+        }
+    }
+
+    private List<Object[]> assertSameContents(String tableAnnotations, String onDemandQuery, Object[]... operations)
+            throws InterruptedException {
+        List<Object[]> inMemoryRows = run(tableAnnotations, onDemandQuery, operations);
+        List<Object[]> offHeapRows = run("@store(type='offheap') " + tableAnnotations, onDemandQuery, operations);
+        AssertJUnit.assertEquals(toLists(inMemoryRows), toLists(offHeapRows));
+        return offHeapRows;
+    }
+
+    private List<Object[]> run(String tableAnnotations, String onDemandQuery, Object[]... operations)
+            throws InterruptedException {
+        SiddhiManager siddhiManager = new SiddhiManager();
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(STREAMS + tableAnnotations +
+                "define table StockTable (symbol string, price float, volume long, active bool); " + QUERIES);
+        try {
+            siddhiAppRuntime.start();
+            InputHandler stockStream = siddhiAppRuntime.getInputHandler("StockStream");
+            for (Object[] event : STOCK_EVENTS) {
+                stockStream.send(event.clone());
+            }
+            for (Object[] operation : operations) {
+                siddhiAppRuntime.getInputHandler((String) operation[0]).send(
+                        Arrays.copyOfRange(operation, 1, operation.length));
+            }
+            return sort(siddhiAppRuntime.query(onDemandQuery));
+        } finally {
+            siddhiAppRuntime.shutdown();
+        }
+    }
+
+    private static List<Object[]> sort(Event[] events) {
+        List<Object[]> rows = new ArrayList<>();
+        if (events != null) {
+            for (Event event : events) {
+                rows.add(event.getData());
+            }
+        }
+        rows.sort(Comparator.comparing(row -> Arrays.toString(row)));
+        return rows;
+    }
+
+    private static List<List<Object>> toLists(List<Object[]> rows) {
+        List<List<Object>> lists = new ArrayList<>();
+        for (Object[] row : rows) {
+            lists.add(Arrays.asList(row));
+        }
+        return lists;
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.query.table.util;
+
+import org.wso2.siddhi.annotation.Example;
+import org.wso2.siddhi.annotation.Extension;
+import org.wso2.siddhi.core.exception.ConnectionUnavailableException;
+import org.wso2.siddhi.core.table.record.AbstractRecordTable;
+import org.wso2.siddhi.core.table.record.ExpressionBuilder;
+import org.wso2.siddhi.core.table.record.RecordIterator;
+import org.wso2.siddhi.core.util.collection.operator.CompiledCondition;
+import org.wso2.siddhi.core.util.collection.operator.CompiledExpression;
+import org.wso2.siddhi.core.util.config.ConfigReader;
+import org.wso2.siddhi.query.api.definition.TableDefinition;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Custom store for testing how records are read, keeping the records in a list and returning all of them on find.
+ */
+@Extension(
+        name = "testIterator",
+        namespace = "store",
+        description = "Using this implementation the reading of records from a store can be tested.",
+        examples = {
+                @Example(
+                        syntax = "@store(type='testIterator')" +
+                                "define table testTable (symbol string, price int, volume float); ",
+                        description = "The above syntax initializes a testIterator type store."
+                )
+        }
+)
+public class TestIteratorStore extends AbstractRecordTable {
+    public static final List<Object[]> RECORDS = new CopyOnWriteArrayList<>();
+    public static final AtomicInteger RECORDS_READ = new AtomicInteger();
+    public static final AtomicBoolean CLOSED = new AtomicBoolean();
+
+    public static void reset() {
+        RECORDS.clear();
+        RECORDS_READ.set(0);
+        CLOSED.set(false);
+    }
+
+    @Override
+    protected void init(TableDefinition tableDefinition, ConfigReader configReader) {
+        //Not Applicable
+    }
+
+    @Override
+    protected void add(List<Object[]> records) throws ConnectionUnavailableException {
+        RECORDS.addAll(records);
+    }
+
+    @Override
+    protected RecordIterator<Object[]> find(Map<String, Object> findConditionParameterMap,
+                                            CompiledCondition compiledCondition)
+            throws ConnectionUnavailableException {
+        return new RecordIterator<Object[]>() {
+            private int index = 0;
+
+            @Override
+            public boolean hasNext() {
+                return index < RECORDS.size();
+            }
+
+            @Override
+            public Object[] next() {
+                RECORDS_READ.incrementAndGet();
+                return RECORDS.get(index++);
+            }
+
+            @Override
+            public void close() {
+                CLOSED.set(true);
+            }
+        };
+    }
+
+    @Override
+    protected boolean contains(Map<String, Object> containsConditionParameterMap,
+                               CompiledCondition compiledCondition) throws ConnectionUnavailableException {
+        return !RECORDS.isEmpty();
+    }
+
+    @Override
+    protected void delete(List<Map<String, Object>> deleteConditionParameterMaps,
+                          CompiledCondition compiledCondition) throws ConnectionUnavailableException {
+        //Not Applicable
+    }
+
+    @Override
+    protected void update(CompiledCondition updateCondition,
+                          List<Map<String, Object>> updateConditionParameterMaps,
+                          Map<String, CompiledExpression> updateSetExpressions,
+                          List<Map<String, Object>> updateSetParameterMaps) throws ConnectionUnavailableException {
+        //Not Applicable
+    }
+
+    @Override
+    protected void updateOrAdd(CompiledCondition updateCondition,
+                               List<Map<String, Object>> updateConditionParameterMaps,
+                               Map<String, CompiledExpression> updateSetExpressions,
+                               List<Map<String, Object>> updateSetParameterMaps,
+                               List<Object[]> addingRecords)
+            throws ConnectionUnavailableException {
+        //Not Applicable
+    }
+
+    @Override
+    protected CompiledCondition compileCondition(ExpressionBuilder expressionBuilder) {
+        return null;    //not implemented
+    }
+
+    @Override
+    protected CompiledExpression compileSetAttribute(ExpressionBuilder expressionBuilder) {
+        return null;
+    }
+
+    @Override
+    protected void connect() throws ConnectionUnavailableException {
+        //Not Applicable
+    }
+
+    @Override
+    protected void disconnect() {
+        //Not Applicable
+    }
+
+    @Override
+    protected void destroy() {
+        //Not Applicable
+    }
+}
@@ -0,0 +1,242 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.store;
+
+import org.apache.log4j.Logger;
+import org.testng.AssertJUnit;
+import org.testng.annotations.Test;
+import org.wso2.siddhi.core.SiddhiAppRuntime;
+import org.wso2.siddhi.core.SiddhiManager;
+import org.wso2.siddhi.core.event.Event;
+import org.wso2.siddhi.core.exception.StoreQueryCreationException;
+import org.wso2.siddhi.core.query.PreparedStoreQuery;
+import org.wso2.siddhi.core.query.StoreQueryIterator;
+import org.wso2.siddhi.core.stream.input.InputHandler;
+import org.wso2.siddhi.query.api.execution.query.StoreQuery;
+import org.wso2.siddhi.query.compiler.SiddhiCompiler;
+
+public class PreparedStoreQueryTestCase {
+
+    private static final Logger log = Logger.getLogger(PreparedStoreQueryTestCase.class);
+
+    @Test
+    public void preparedStoreQueryTest1() throws InterruptedException {
+        log.info("preparedStoreQueryTest1 - binding parameters of a store query on an indexed table");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        String siddhiApp = "" +
+                "define stream StockStream (symbol string, price float, volume long); " +
+                "@PrimaryKey('symbol') " +
+                "define table StockTable (symbol string, price float, volume long); " +
+                "from StockStream insert into StockTable; ";
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        InputHandler stockStream = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+        stockStream.send(new Object[]{"WSO2", 55.6f, 100L});
+        stockStream.send(new Object[]{"IBM", 75.6f, 200L});
+        stockStream.send(new Object[]{"GOOG", 57.6f, 300L});
+
+        PreparedStoreQuery preparedStoreQuery = siddhiAppRuntime.prepareQuery("" +
+                "from StockTable " +
+                "on symbol == ? " +
+                "select symbol, volume ");
+        AssertJUnit.assertEquals(1, preparedStoreQuery.getParameterCount());
+
+        Event[] events = preparedStoreQuery.execute("IBM");
+        AssertJUnit.assertEquals(1, events.length);
+        AssertJUnit.assertArrayEquals(new Object[]{"IBM", 200L}, events[0].getData());
+
+        events = preparedStoreQuery.execute("WSO2");
+        AssertJUnit.assertEquals(1, events.length);
+        AssertJUnit.assertArrayEquals(new Object[]{"WSO2", 100L}, events[0].getData());
+
+        events = preparedStoreQuery.execute("ORACLE");
+        AssertJUnit.assertNull(events);
+
+        preparedStoreQuery = siddhiAppRuntime.prepareQuery("" +
+                "from StockTable " +
+                "on volume > ? and price < ? " +
+                "select * ");
+        AssertJUnit.assertEquals(2, preparedStoreQuery.getParameterCount());
+
+        events = preparedStoreQuery.execute(100L, 60f);
+        AssertJUnit.assertEquals(1, events.length);
+        AssertJUnit.assertArrayEquals(new Object[]{"GOOG", 57.6f, 300L}, events[0].getData());
+
+        // Values of other types compile the store query again
+        events = preparedStoreQuery.execute(50, 100.0);
+        AssertJUnit.assertEquals(3, events.length);
+        AssertJUnit.assertEquals(3, events[0].getData().length);
+
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test
+    public void preparedStoreQueryTest2() throws InterruptedException {
+        log.info("preparedStoreQueryTest2 - binding parameters of a store query on a window, and quoted '?'");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        String siddhiApp = "" +
+                "define stream StockStream (symbol string, price float, volume long); " +
+                "define window StockWindow (symbol string, price float, volume long) length(5); " +
+                "from StockStream insert into StockWindow; ";
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        InputHandler stockStream = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+        stockStream.send(new Object[]{"WSO2", 55.6f, 100L});
+        stockStream.send(new Object[]{"WSO2?", 75.6f, 200L});
+        stockStream.send(new Object[]{"IBM", 57.6f, 300L});
+
+        PreparedStoreQuery preparedStoreQuery = siddhiAppRuntime.prepareQuery("" +
+                "from StockWindow " +
+                "on symbol == 'WSO2?' or volume == ? " +
+                "select volume ");
+        AssertJUnit.assertEquals(1, preparedStoreQuery.getParameterCount());
+
+        Event[] events = preparedStoreQuery.execute(300L);
+        AssertJUnit.assertEquals(2, events.length);
+        AssertJUnit.assertEquals(200L, events[0].getData(0));
+        AssertJUnit.assertEquals(300L, events[1].getData(0));
+
+        StoreQueryIterator storeQueryIterator = preparedStoreQuery.executeAsIterator(1, -1, 10, 300L);
+        AssertJUnit.assertTrue(storeQueryIterator.hasNext());
+        events = storeQueryIterator.next();
+        AssertJUnit.assertEquals(1, events.length);
+        AssertJUnit.assertEquals(300L, events[0].getData(0));
+        AssertJUnit.assertFalse(storeQueryIterator.hasNext());
+
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test
+    public void preparedStoreQueryTest3() throws InterruptedException {
+        log.info("preparedStoreQueryTest3 - caching the runtimes of store query strings");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        String siddhiApp = "" +
+                "define stream StockStream (symbol string, price float, volume long); " +
+                "define table StockTable (symbol string, price float, volume long); " +
+                "from StockStream insert into StockTable; ";
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        InputHandler stockStream = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+        stockStream.send(new Object[]{"WSO2", 55.6f, 100L});
+        stockStream.send(new Object[]{"IBM", 75.6f, 200L});
+
+        String storeQuery = "" +
+                "from StockTable " +
+                "on volume > 150 " +
+                "select symbol ";
+        for (int i = 0; i < 3; i++) {
+            Event[] events = siddhiAppRuntime.query(storeQuery);
+            AssertJUnit.assertEquals(1, events.length);
+            AssertJUnit.assertEquals("IBM", events[0].getData(0));
+        }
+        AssertJUnit.assertEquals(1, siddhiAppRuntime.getStoreQueryCacheMissCount());
+        AssertJUnit.assertEquals(2, siddhiAppRuntime.getStoreQueryCacheHitCount());
+
+        String preparedQuery = "" +
+                "from StockTable " +
+                "on volume > ? " +
+                "select symbol ";
+        PreparedStoreQuery preparedStoreQuery = siddhiAppRuntime.prepareQuery(preparedQuery);
+        AssertJUnit.assertSame(preparedStoreQuery, siddhiAppRuntime.prepareQuery(preparedQuery));
+        AssertJUnit.assertEquals(2, siddhiAppRuntime.getStoreQueryCacheMissCount());
+        AssertJUnit.assertEquals(3, siddhiAppRuntime.getStoreQueryCacheHitCount());
+        AssertJUnit.assertEquals(2, preparedStoreQuery.execute(50L).length);
+
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test
+    public void preparedStoreQueryTest4() throws InterruptedException {
+        log.info("preparedStoreQueryTest4 - invalid parameters");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        String siddhiApp = "" +
+                "define stream StockStream (symbol string, price float, volume long); " +
+                "define table StockTable (symbol string, price float, volume long); " +
+                "from StockStream insert into StockTable; ";
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.start();
+
+        PreparedStoreQuery preparedStoreQuery = siddhiAppRuntime.prepareQuery("" +
+                "from StockTable " +
+                "on symbol == ? " +
+                "select symbol ");
+        try {
+            preparedStoreQuery.execute("WSO2", "IBM");
+            AssertJUnit.fail("Store query executed with too many parameters");
+        } catch (StoreQueryCreationException e) {
+            log.info("Expected exception: " + e.getMessage());
+        }
+        try {
+            preparedStoreQuery.execute(new Object[]{null});
+            AssertJUnit.fail("Store query executed with a null parameter");
+        } catch (StoreQueryCreationException e) {
+            log.info("Expected exception: " + e.getMessage());
+        }
+        try {
+            siddhiAppRuntime.prepareQuery("" +
+                    "select ? as symbol " +
+                    "delete StockTable " +
+                    "on StockTable.symbol == symbol ").execute("WSO2");
+            AssertJUnit.fail("Delete store query executed with parameters");
+        } catch (StoreQueryCreationException e) {
+            log.info("Expected exception: " + e.getMessage());
+        }
+
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test
+    public void preparedStoreQueryTest5() throws InterruptedException {
+        log.info("preparedStoreQueryTest5 - evicting the least recently used runtimes of store query strings");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        String siddhiApp = "" +
+                "define stream StockStream (symbol string, price float, volume long); " +
+                "define table StockTable (symbol string, price float, volume long); " +
+                "from StockStream insert into StockTable; ";
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        InputHandler stockStream = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+        stockStream.send(new Object[]{"IBM", 75.6f, 200L});
+
+        for (int i = 0; i <= 100; i++) {
+            siddhiAppRuntime.query("from StockTable on volume > " + i + " select symbol ");
+        }
+        AssertJUnit.assertEquals(101, siddhiAppRuntime.getStoreQueryCacheMissCount());
+        siddhiAppRuntime.query("from StockTable on volume > 100 select symbol ");
+        AssertJUnit.assertEquals(1, siddhiAppRuntime.getStoreQueryCacheHitCount());
+        siddhiAppRuntime.query("from StockTable on volume > 0 select symbol ");
+        AssertJUnit.assertEquals(102, siddhiAppRuntime.getStoreQueryCacheMissCount());
+
+        // parsed store queries are cached separately, and are not counted
+        StoreQuery storeQuery = SiddhiCompiler.parseStoreQuery("from StockTable on volume > 100 select symbol ");
+        for (int i = 0; i < 2; i++) {
+            Event[] events = siddhiAppRuntime.query(storeQuery);
+            AssertJUnit.assertEquals(1, events.length);
+        }
+        AssertJUnit.assertEquals(102, siddhiAppRuntime.getStoreQueryCacheMissCount());
+        AssertJUnit.assertEquals(1, siddhiAppRuntime.getStoreQueryCacheHitCount());
+
+        siddhiAppRuntime.shutdown();
+    }
+}
@@ -0,0 +1,222 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.store;
+
+import org.apache.log4j.Logger;
+import org.testng.AssertJUnit;
+import org.testng.annotations.Test;
+import org.wso2.siddhi.core.SiddhiAppRuntime;
+import org.wso2.siddhi.core.SiddhiManager;
+import org.wso2.siddhi.core.event.Event;
+import org.wso2.siddhi.core.exception.StoreQueryCreationException;
+import org.wso2.siddhi.core.query.StoreQueryIterator;
+import org.wso2.siddhi.core.query.table.util.TestIteratorStore;
+import org.wso2.siddhi.core.stream.input.InputHandler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class StoreQueryIteratorTestCase {
+
+    private static final Logger log = Logger.getLogger(StoreQueryIteratorTestCase.class);
+
+    @Test
+    public void storeQueryIteratorTest1() throws InterruptedException {
+        log.info("storeQueryIteratorTest1 - paging the results of an in-memory table and a window");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        String siddhiApp = "" +
+                "define stream StockStream (symbol string, price float, volume long); " +
+                "define table StockTable (symbol string, price float, volume long); " +
+                "define window StockWindow (symbol string, price float, volume long) length(5); " +
+                "from StockStream insert into StockTable; " +
+                "from StockStream insert into StockWindow; ";
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        InputHandler stockStream = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+        for (long i = 0; i < 10; i++) {
+            stockStream.send(new Object[]{"WSO2", 50f + i, i});
+        }
+
+        List<Event[]> pages = getPages(siddhiAppRuntime.queryAsIterator("" +
+                "from StockTable " +
+                "select symbol, volume ", 3));
+        AssertJUnit.assertEquals(4, pages.size());
+        AssertJUnit.assertEquals(3, pages.get(0).length);
+        AssertJUnit.assertEquals(1, pages.get(3).length);
+        AssertJUnit.assertEquals(Arrays.asList(0L, 1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L), getVolumes(pages));
+        AssertJUnit.assertEquals(2, pages.get(0)[0].getData().length);
+
+        pages = getPages(siddhiAppRuntime.queryAsIterator("" +
+                "from StockTable " +
+                "on price > 52 " +
+                "select volume ", 4));
+        AssertJUnit.assertEquals(Arrays.asList(3L, 4L, 5L, 6L, 7L, 8L, 9L), getVolumes(pages));
+
+        pages = getPages(siddhiAppRuntime.queryAsIterator("" +
+                "from StockWindow " +
+                "select volume ", 2));
+        AssertJUnit.assertEquals(3, pages.size());
+        AssertJUnit.assertEquals(Arrays.asList(5L, 6L, 7L, 8L, 9L), getVolumes(pages));
+
+        pages = getPages(siddhiAppRuntime.queryAsIterator("" +
+                "from StockTable " +
+                "on price > 100 " +
+                "select volume ", 2));
+        AssertJUnit.assertEquals(0, pages.size());
+
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test
+    public void storeQueryIteratorTest2() throws InterruptedException {
+        log.info("storeQueryIteratorTest2 - offset and limit with stateless and stateful selections");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        String siddhiApp = "" +
+                "define stream StockStream (symbol string, price float, volume long); " +
+                "define table StockTable (symbol string, price float, volume long); " +
+                "from StockStream insert into StockTable; ";
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        InputHandler stockStream = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+        for (long i = 0; i < 10; i++) {
+            stockStream.send(new Object[]{i % 2 == 0 ? "WSO2" : "IBM", 50f + i, i});
+        }
+
+        List<Event[]> pages = getPages(siddhiAppRuntime.queryAsIterator("" +
+                "from StockTable " +
+                "select volume ", 2, 5, 2));
+        AssertJUnit.assertEquals(3, pages.size());
+        AssertJUnit.assertEquals(Arrays.asList(2L, 3L, 4L, 5L, 6L), getVolumes(pages));
+
+        pages = getPages(siddhiAppRuntime.queryAsIterator("" +
+                "from StockTable " +
+                "select volume " +
+                "having volume % 3 == 0 ", 1, 10, 2));
+        AssertJUnit.assertEquals(Arrays.asList(3L, 6L, 9L), getVolumes(pages));
+
+        pages = getPages(siddhiAppRuntime.queryAsIterator("" +
+                "from StockTable " +
+                "select volume " +
+                "order by volume desc " +
+                "limit 6 ", 3, 10, 2));
+        AssertJUnit.assertEquals(Arrays.asList(6L, 5L, 4L), getVolumes(pages));
+
+        pages = getPages(siddhiAppRuntime.queryAsIterator("" +
+                "from StockTable " +
+                "select symbol, sum(volume) as volume " +
+                "group by symbol ", 0, -1, 1));
+        AssertJUnit.assertEquals(2, pages.size());
+        AssertJUnit.assertEquals(Arrays.asList(20L, 25L), getVolumes(pages));
+
+        pages = getPages(siddhiAppRuntime.queryAsIterator("" +
+                "from StockTable " +
+                "select volume ", 0, 0, 2));
+        AssertJUnit.assertEquals(0, pages.size());
+
+        pages = getPages(siddhiAppRuntime.queryAsIterator("" +
+                "from StockTable " +
+                "select volume ", 20, -1, 2));
+        AssertJUnit.assertEquals(0, pages.size());
+
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test
+    public void storeQueryIteratorTest3() throws InterruptedException {
+        log.info("storeQueryIteratorTest3 - records are read from the store only as pages are requested");
+
+        TestIteratorStore.reset();
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setExtension("store:testIterator", TestIteratorStore.class);
+        String siddhiApp = "" +
+                "define stream StockStream (symbol string, price float, volume long); " +
+                "@store(type='testIterator') " +
+                "define table StockTable (symbol string, price float, volume long); " +
+                "from StockStream insert into StockTable; ";
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        InputHandler stockStream = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+        for (long i = 0; i < 100; i++) {
+            stockStream.send(new Object[]{"WSO2", 50f + i, i});
+        }
+
+        StoreQueryIterator iterator = siddhiAppRuntime.queryAsIterator("" +
+                "from StockTable " +
+                "select symbol, volume ", 10);
+        AssertJUnit.assertEquals(0, TestIteratorStore.RECORDS_READ.get());
+        Event[] page = iterator.next();
+        AssertJUnit.assertEquals(10, page.length);
+        AssertJUnit.assertEquals(9L, page[9].getData(1));
+        AssertJUnit.assertEquals(10, TestIteratorStore.RECORDS_READ.get());
+        AssertJUnit.assertFalse(TestIteratorStore.CLOSED.get());
+        iterator.close();
+        AssertJUnit.assertTrue(TestIteratorStore.CLOSED.get());
+        AssertJUnit.assertFalse(iterator.hasNext());
+
+        TestIteratorStore.RECORDS_READ.set(0);
+        TestIteratorStore.CLOSED.set(false);
+        List<Event[]> pages = getPages(siddhiAppRuntime.queryAsIterator("" +
+                "from StockTable " +
+                "select volume ", 5, 15, 10));
+        AssertJUnit.assertEquals(2, pages.size());
+        AssertJUnit.assertEquals(5L, pages.get(0)[0].getData(0));
+        AssertJUnit.assertEquals(19L, pages.get(1)[4].getData(0));
+        AssertJUnit.assertEquals(20, TestIteratorStore.RECORDS_READ.get());
+        AssertJUnit.assertTrue(TestIteratorStore.CLOSED.get());
+
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test(expectedExceptions = StoreQueryCreationException.class)
+    public void storeQueryIteratorTest4() {
+        log.info("storeQueryIteratorTest4 - invalid fetch size");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        String siddhiApp = "" +
+                "define table StockTable (symbol string, price float, volume long); ";
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.start();
+        try {
+            siddhiAppRuntime.queryAsIterator("from StockTable select symbol ", 0);
+        } finally {
+            siddhiAppRuntime.shutdown();
+        }
+    }
+
+    private static List<Event[]> getPages(StoreQueryIterator iterator) {
+        List<Event[]> pages = new ArrayList<>();
+        while (iterator.hasNext()) {
+            pages.add(iterator.next());
+        }
+        return pages;
+    }
+
+    private static List<Object> getVolumes(List<Event[]> pages) {
+        List<Object> volumes = new ArrayList<>();
+        for (Event[] page : pages) {
+            for (Event event : page) {
+                volumes.add(event.getData(event.getData().length - 1));
+            }
+        }
+        return volumes;
+    }
+}
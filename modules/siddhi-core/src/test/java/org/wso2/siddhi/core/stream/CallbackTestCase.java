@@ -25,13 +25,20 @@ import org.testng.annotations.Test;
 import org.wso2.siddhi.core.SiddhiAppRuntime;
 import org.wso2.siddhi.core.SiddhiManager;
 import org.wso2.siddhi.core.event.Event;
+import org.wso2.siddhi.core.event.EventView;
 import org.wso2.siddhi.core.exception.DefinitionNotExistException;
 import org.wso2.siddhi.core.exception.QueryNotExistException;
+import org.wso2.siddhi.core.query.output.callback.BatchedQueryCallback;
 import org.wso2.siddhi.core.query.output.callback.QueryCallback;
 import org.wso2.siddhi.core.stream.input.InputHandler;
+import org.wso2.siddhi.core.stream.output.BatchedStreamCallback;
 import org.wso2.siddhi.core.stream.output.StreamCallback;
 import org.wso2.siddhi.core.util.EventPrinter;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 /**
  * Created on 1/24/15.
  */
@@ -154,4 +161,106 @@ public class CallbackTestCase {
 
         siddhiAppRuntime.shutdown();
     }
+
+    @Test
+    public void callbackTest4() throws InterruptedException {
+        log.info("callback test4 - batched stream and query callbacks");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                "@app:name('callbackTest4') " +
+                "" +
+                "define stream StockStream (symbol string, price float, volume long);" +
+                "" +
+                "@info(name = 'query1') " +
+                "from StockStream#window.length(1) " +
+                "select symbol, price " +
+                "insert all events into outputStream;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+
+        List<Event> queryCurrentEvents = new ArrayList<>();
+        List<Event> queryExpiredEvents = new ArrayList<>();
+        siddhiAppRuntime.addCallback("query1", new BatchedQueryCallback() {
+            @Override
+            public void receive(long timestamp, EventView currentEvents, EventView expiredEvents) {
+                while (currentEvents.next()) {
+                    AssertJUnit.assertFalse(currentEvents.isExpired());
+                    queryCurrentEvents.add(currentEvents.toEvent());
+                }
+                while (expiredEvents.next()) {
+                    AssertJUnit.assertTrue(expiredEvents.isExpired());
+                    queryExpiredEvents.add(expiredEvents.toEvent());
+                }
+            }
+        });
+
+        List<Object> symbols = new ArrayList<>();
+        siddhiAppRuntime.addCallback("outputStream", new BatchedStreamCallback() {
+            @Override
+            public void receive(EventView events) {
+                while (events.next()) {
+                    symbols.add(events.getData(0));
+                    count++;
+                }
+                eventArrived = true;
+            }
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+
+        siddhiAppRuntime.start();
+
+        inputHandler.send(new Object[]{"IBM", 700f, 100L});
+        inputHandler.send(new Object[]{"WSO2", 60.5f, 200L});
+        Thread.sleep(100);
+        AssertJUnit.assertEquals(3, count);
+        AssertJUnit.assertTrue(eventArrived);
+        AssertJUnit.assertEquals(Arrays.asList("IBM", "IBM", "WSO2"), symbols);
+        AssertJUnit.assertEquals(2, queryCurrentEvents.size());
+        AssertJUnit.assertEquals(1, queryExpiredEvents.size());
+        AssertJUnit.assertEquals("WSO2", queryCurrentEvents.get(1).getData(0));
+        AssertJUnit.assertEquals("IBM", queryExpiredEvents.get(0).getData(0));
+        AssertJUnit.assertEquals(60.5f, queryCurrentEvents.get(1).getData(1));
+
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test
+    public void callbackTest5() throws InterruptedException {
+        log.info("callback test5 - batched stream callback on an input stream");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                "@app:name('callbackTest5') " +
+                "" +
+                "define stream StockStream (symbol string, price float, volume long);";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+
+        List<Long> volumes = new ArrayList<>();
+        siddhiAppRuntime.addCallback("StockStream", new BatchedStreamCallback() {
+            @Override
+            public void receive(EventView events) {
+                AssertJUnit.assertFalse(events.isEmpty());
+                while (events.next()) {
+                    volumes.add((Long) events.getData(2));
+                }
+                events.rewind();
+                AssertJUnit.assertTrue(events.next());
+            }
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+
+        siddhiAppRuntime.start();
+
+        inputHandler.send(new Object[]{"IBM", 700f, 100L});
+        inputHandler.send(new Event[]{new Event(System.currentTimeMillis(), new Object[]{"WSO2", 60.5f, 200L}),
+                new Event(System.currentTimeMillis(), new Object[]{"ORACLE", 60.5f, 300L})});
+        Thread.sleep(100);
+        AssertJUnit.assertEquals(Arrays.asList(100L, 200L, 300L), volumes);
+
+        siddhiAppRuntime.shutdown();
+    }
 }
@@ -0,0 +1,285 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.siddhi.core.transport;
+
+import org.apache.log4j.Logger;
+import org.testng.AssertJUnit;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.siddhi.core.SiddhiAppRuntime;
+import org.wso2.siddhi.core.SiddhiManager;
+import org.wso2.siddhi.core.event.Event;
+import org.wso2.siddhi.core.exception.SiddhiAppCreationException;
+import org.wso2.siddhi.core.stream.input.InputHandler;
+import org.wso2.siddhi.core.stream.output.sink.Sink;
+import org.wso2.siddhi.core.util.SiddhiTestHelper;
+import org.wso2.siddhi.core.util.transport.InMemoryBroker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class AsyncSinkTestCase {
+    private static final Logger log = Logger.getLogger(AsyncSinkTestCase.class);
+    private AtomicInteger eventCount;
+    private List<Event[]> messages;
+    private List<Long> volumes;
+    private CountDownLatch publishLatch;
+
+    @BeforeMethod
+    public void init() {
+        eventCount = new AtomicInteger(0);
+        messages = new ArrayList<>();
+        volumes = new ArrayList<>();
+        publishLatch = new CountDownLatch(0);
+    }
+
+    @Test
+    public void asyncSinkTest1() throws InterruptedException {
+        log.info("Async sink test1 - events are published in batches");
+        InMemoryBroker.Subscriber subscriber = createSubscriber("AsyncSinkTest1");
+        InMemoryBroker.subscribe(subscriber);
+
+        SiddhiAppRuntime siddhiAppRuntime = createRuntime("AsyncSinkTest1",
+                "@async(buffer.size='16', batch.size='4', flush.interval='500 millisec')");
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("FooStream");
+        siddhiAppRuntime.start();
+
+        for (long i = 0; i < 8; i++) {
+            inputHandler.send(new Object[]{"WSO2", 55.6f, i});
+        }
+        SiddhiTestHelper.waitForEvents(10, 8, eventCount, 2000);
+        inputHandler.send(new Object[]{"WSO2", 55.6f, 8L});
+        SiddhiTestHelper.waitForEvents(10, 9, eventCount, 2000);
+
+        AssertJUnit.assertEquals(9, eventCount.get());
+        AssertJUnit.assertEquals(3, messages.size());
+        AssertJUnit.assertEquals(4, messages.get(0).length);
+        AssertJUnit.assertEquals(4, messages.get(1).length);
+        AssertJUnit.assertEquals(1, messages.get(2).length);
+        assertInOrder(0, 9);
+        siddhiAppRuntime.shutdown();
+        InMemoryBroker.unsubscribe(subscriber);
+    }
+
+    @Test
+    public void asyncSinkTest2() throws InterruptedException {
+        log.info("Async sink test2 - a slow subscriber does not block the sending thread");
+        publishLatch = new CountDownLatch(1);
+        InMemoryBroker.Subscriber subscriber = createSubscriber("AsyncSinkTest2");
+        InMemoryBroker.subscribe(subscriber);
+
+        SiddhiAppRuntime siddhiAppRuntime = createRuntime("AsyncSinkTest2",
+                "@async(buffer.size='16', batch.size='2', workers='1')");
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("FooStream");
+        siddhiAppRuntime.start();
+
+        for (long i = 0; i < 10; i++) {
+            inputHandler.send(new Object[]{"WSO2", 55.6f, i});
+        }
+        AssertJUnit.assertEquals(0, eventCount.get());
+        publishLatch.countDown();
+
+        SiddhiTestHelper.waitForEvents(10, 10, eventCount, 2000);
+        AssertJUnit.assertEquals(10, eventCount.get());
+        assertInOrder(0, 10);
+        siddhiAppRuntime.shutdown();
+        InMemoryBroker.unsubscribe(subscriber);
+    }
+
+    @Test
+    public void asyncSinkTest3() throws InterruptedException {
+        log.info("Async sink test3 - oldest events are dropped when the buffer is full");
+        publishLatch = new CountDownLatch(1);
+        InMemoryBroker.Subscriber subscriber = createSubscriber("AsyncSinkTest3");
+        InMemoryBroker.subscribe(subscriber);
+
+        SiddhiAppRuntime siddhiAppRuntime = createRuntime("AsyncSinkTest3",
+                "@async(buffer.size='2', batch.size='1', overflow='drop-oldest')");
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("FooStream");
+        siddhiAppRuntime.start();
+
+        inputHandler.send(new Object[]{"WSO2", 55.6f, 0L});
+        Thread.sleep(200);
+        for (long i = 1; i < 6; i++) {
+            inputHandler.send(new Object[]{"WSO2", 55.6f, i});
+        }
+        Sink sink = siddhiAppRuntime.getSinks().iterator().next().get(0);
+        AssertJUnit.assertEquals(2, sink.getAsyncSinkPublisher().getBufferedEvents());
+        AssertJUnit.assertEquals(3, sink.getAsyncSinkPublisher().getDroppedEvents());
+        publishLatch.countDown();
+
+        SiddhiTestHelper.waitForEvents(10, 3, eventCount, 2000);
+        Thread.sleep(100);
+        AssertJUnit.assertEquals(3, eventCount.get());
+        AssertJUnit.assertEquals(0L, volumes.get(0).longValue());
+        AssertJUnit.assertEquals(4L, volumes.get(1).longValue());
+        AssertJUnit.assertEquals(5L, volumes.get(2).longValue());
+        siddhiAppRuntime.shutdown();
+        InMemoryBroker.unsubscribe(subscriber);
+    }
+
+    @Test
+    public void asyncSinkTest4() throws InterruptedException {
+        log.info("Async sink test4 - events are spilled to a file when the buffer is full");
+        publishLatch = new CountDownLatch(1);
+        InMemoryBroker.Subscriber subscriber = createSubscriber("AsyncSinkTest4");
+        InMemoryBroker.subscribe(subscriber);
+
+        SiddhiAppRuntime siddhiAppRuntime = createRuntime("AsyncSinkTest4",
+                "@async(buffer.size='2', batch.size='1', overflow='spill')");
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("FooStream");
+        siddhiAppRuntime.start();
+
+        inputHandler.send(new Object[]{"WSO2", 55.6f, 0L});
+        Thread.sleep(200);
+        for (long i = 1; i < 10; i++) {
+            inputHandler.send(new Object[]{"WSO2", 55.6f, i});
+        }
+        Sink sink = siddhiAppRuntime.getSinks().iterator().next().get(0);
+        AssertJUnit.assertEquals(9, sink.getAsyncSinkPublisher().getBufferedEvents());
+        publishLatch.countDown();
+
+        SiddhiTestHelper.waitForEvents(10, 10, eventCount, 2000);
+        AssertJUnit.assertEquals(10, eventCount.get());
+        AssertJUnit.assertEquals(0, sink.getAsyncSinkPublisher().getDroppedEvents());
+        assertInOrder(0, 10);
+        siddhiAppRuntime.shutdown();
+        InMemoryBroker.unsubscribe(subscriber);
+    }
+
+    @Test
+    public void asyncSinkTest5() throws InterruptedException {
+        log.info("Async sink test5 - buffered events are published on shutdown");
+        InMemoryBroker.Subscriber subscriber = createSubscriber("AsyncSinkTest5");
+        InMemoryBroker.subscribe(subscriber);
+
+        SiddhiAppRuntime siddhiAppRuntime = createRuntime("AsyncSinkTest5",
+                "@async(buffer.size='64', batch.size='64', flush.interval='1 min', workers='2')");
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("FooStream");
+        siddhiAppRuntime.start();
+
+        for (long i = 0; i < 20; i++) {
+            inputHandler.send(new Object[]{"WSO2", 55.6f, i});
+        }
+        siddhiAppRuntime.shutdown();
+        AssertJUnit.assertEquals(20, eventCount.get());
+        InMemoryBroker.unsubscribe(subscriber);
+    }
+
+    @Test(expectedExceptions = SiddhiAppCreationException.class)
+    public void asyncSinkTest6() {
+        log.info("Async sink test6 - invalid overflow policy");
+        createRuntime("AsyncSinkTest6", "@async(buffer.size='16', overflow='discard')");
+    }
+
+    @Test(expectedExceptions = SiddhiAppCreationException.class)
+    public void asyncSinkTest7() {
+        log.info("Async sink test7 - invalid batch size");
+        createRuntime("AsyncSinkTest7", "@async(buffer.size='16', batch.size='0')");
+    }
+
+    @Test
+    public void asyncSinkTest8() throws InterruptedException {
+        log.info("Async sink test8 - senders blocked on a full buffer are released on shutdown");
+        publishLatch = new CountDownLatch(1);
+        InMemoryBroker.Subscriber subscriber = createSubscriber("AsyncSinkTest8");
+        InMemoryBroker.subscribe(subscriber);
+
+        SiddhiAppRuntime siddhiAppRuntime = createRuntime("AsyncSinkTest8",
+                "@async(buffer.size='2', batch.size='1', workers='1', overflow='block')");
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("FooStream");
+        siddhiAppRuntime.start();
+
+        Thread sender = new Thread(() -> {
+            try {
+                for (long i = 0; i < 10; i++) {
+                    inputHandler.send(new Object[]{"WSO2", 55.6f, i});
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        sender.start();
+        Thread.sleep(300);
+        AssertJUnit.assertTrue(sender.isAlive());
+        Sink sink = siddhiAppRuntime.getSinks().iterator().next().get(0);
+
+        siddhiAppRuntime.shutdown();
+        sender.join(2000);
+        AssertJUnit.assertFalse(sender.isAlive());
+        publishLatch.countDown();
+
+        // Events buffered before the shutdown are still published, while the later events are dropped
+        long droppedEvents = sink.getAsyncSinkPublisher().getDroppedEvents();
+        AssertJUnit.assertTrue(droppedEvents > 0);
+        SiddhiTestHelper.waitForEvents(10, (int) (10 - droppedEvents), eventCount, 2000);
+        AssertJUnit.assertEquals(10, eventCount.get() + droppedEvents);
+        InMemoryBroker.unsubscribe(subscriber);
+    }
+
+    private SiddhiAppRuntime createRuntime(String topic, String asyncAnnotation) {
+        String siddhiApp = "" +
+                "define stream FooStream (symbol string, price float, volume long); " +
+                "@sink(type='inMemory', topic='" + topic + "', " + asyncAnnotation + ", @map(type='passThrough')) " +
+                "define stream BarStream (symbol string, price float, volume long); " +
+                "" +
+                "from FooStream " +
+                "select * " +
+                "insert into BarStream; ";
+        SiddhiManager siddhiManager = new SiddhiManager();
+        return siddhiManager.createSiddhiAppRuntime(siddhiApp);
+    }
+
+    private InMemoryBroker.Subscriber createSubscriber(String topic) {
+        return new InMemoryBroker.Subscriber() {
+            @Override
+            public void onMessage(Object msg) {
+                try {
+                    publishLatch.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                Event[] events = msg instanceof Event[] ? (Event[]) msg : new Event[]{(Event) msg};
+                synchronized (AsyncSinkTestCase.this) {
+                    messages.add(events);
+                    for (Event event : events) {
+                        volumes.add((Long) event.getData(2));
+                    }
+                }
+                eventCount.addAndGet(events.length);
+            }
+
+            @Override
+            public String getTopic() {
+                return topic;
+            }
+        };
+    }
+
+    private void assertInOrder(long from, int count) {
+        AssertJUnit.assertEquals(count, volumes.size());
+        for (int i = 0; i < count; i++) {
+            AssertJUnit.assertEquals(from + i, volumes.get(i).longValue());
+        }
+    }
+}
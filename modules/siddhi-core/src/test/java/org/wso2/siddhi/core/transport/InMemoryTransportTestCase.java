@@ -28,12 +28,16 @@ import org.wso2.siddhi.core.event.Event;
 import org.wso2.siddhi.core.exception.ConnectionUnavailableException;
 import org.wso2.siddhi.core.exception.SiddhiAppCreationException;
 import org.wso2.siddhi.core.stream.input.InputHandler;
+import org.wso2.siddhi.core.stream.input.source.SourceMapper;
 import org.wso2.siddhi.core.stream.output.StreamCallback;
 import org.wso2.siddhi.core.util.EventPrinter;
 import org.wso2.siddhi.core.util.config.InMemoryConfigManager;
 import org.wso2.siddhi.core.util.transport.InMemoryBroker;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -814,5 +818,95 @@ public class InMemoryTransportTestCase {
         siddhiAppRuntime.shutdown();
     }
 
+    @Test
+    public void inMemoryTestCase12() throws InterruptedException {
+        log.info("Test inMemory 12 - batch of events is mapped and sent together");
+
+        String streams = "" +
+                "@app:name('TestSiddhiApp')" +
+                "@source(type='inMemory', topic='Foo', @map(type='passThrough')) " +
+                "define stream FooStream (symbol string, price float, volume long); " +
+                "define stream BarStream (symbol string, price float, volume long); ";
+
+        String query = "" +
+                "from FooStream " +
+                "select * " +
+                "insert into BarStream; ";
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+
+        List<Event> receivedEvents = new ArrayList<>();
+        siddhiAppRuntime.addCallback("BarStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                wso2Count.incrementAndGet();
+                receivedEvents.addAll(Arrays.asList(events));
+            }
+        });
+        siddhiAppRuntime.start();
+        InMemoryBroker.publishBatch("Foo", new Object[]{
+                new Event(System.currentTimeMillis(), new Object[]{"WSO2", 55.6f, 100L}),
+                new Event[]{
+                        new Event(System.currentTimeMillis(), new Object[]{"IBM", 75.6f, 101L}),
+                        new Event(System.currentTimeMillis(), new Object[]{"WSO2", 57.6f, 102L})},
+                null,
+                new Object[]{"ORACLE", 45.6f, 103L}});
+        Thread.sleep(100);
+
+        AssertJUnit.assertEquals("Number of batches", 1, wso2Count.get());
+        AssertJUnit.assertEquals("Number of events", 4, receivedEvents.size());
+        for (int i = 0; i < receivedEvents.size(); i++) {
+            AssertJUnit.assertEquals(100L + i, receivedEvents.get(i).getData(2));
+        }
+        AssertJUnit.assertTrue(receivedEvents.get(3).getTimestamp() > 0);
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test
+    public void inMemoryTestCase13() throws InterruptedException {
+        log.info("Test inMemory 13 - transport properties are applied per event of a batch");
 
+        String streams = "" +
+                "@app:name('TestSiddhiApp')" +
+                "@source(type='testTrpInMemory', topic='Foo', prop1='hi', prop2='test', " +
+                "   @map(type='passThrough', @attributes(symbol='trp:symbol'," +
+                "        volume='volume',price='trp:price'))) " +
+                "define stream FooStream (symbol string, price string, volume long); " +
+                "define stream BarStream (symbol string, price string, volume long); ";
+
+        String query = "" +
+                "from FooStream " +
+                "select * " +
+                "insert into BarStream; ";
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+
+        List<Event> receivedEvents = new ArrayList<>();
+        siddhiAppRuntime.addCallback("BarStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                wso2Count.incrementAndGet();
+                receivedEvents.addAll(Arrays.asList(events));
+            }
+        });
+        siddhiAppRuntime.start();
+        SourceMapper sourceMapper = siddhiAppRuntime.getSources().iterator().next().get(0).getMapper();
+        sourceMapper.onEvents(new Object[]{
+                        new Event(System.currentTimeMillis(), new Object[]{"WSO2", "in", 100L}),
+                        new Event(System.currentTimeMillis(), new Object[]{"IBM", "in", 101L}),
+                        new Event(System.currentTimeMillis(), new Object[]{"ORACLE", "in", 102L})},
+                new String[][]{{"a", "1"}, {"b", null}, {"c", "3"}});
+        Thread.sleep(100);
+
+        // the event with null transport properties is dropped
+        AssertJUnit.assertEquals("Number of batches", 1, wso2Count.get());
+        AssertJUnit.assertEquals("Number of events", 2, receivedEvents.size());
+        AssertJUnit.assertArrayEquals(new Object[]{"a", "1", 100L}, receivedEvents.get(0).getData());
+        AssertJUnit.assertArrayEquals(new Object[]{"c", "3", 102L}, receivedEvents.get(1).getData());
+        siddhiAppRuntime.shutdown();
+    }
 }
@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.transport;
+
+import org.apache.log4j.Logger;
+import org.testng.AssertJUnit;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.siddhi.core.SiddhiAppRuntime;
+import org.wso2.siddhi.core.SiddhiManager;
+import org.wso2.siddhi.core.event.Event;
+import org.wso2.siddhi.core.exception.SiddhiAppCreationException;
+import org.wso2.siddhi.core.stream.input.source.Source;
+import org.wso2.siddhi.core.stream.input.source.SourceFlowController;
+import org.wso2.siddhi.core.stream.output.StreamCallback;
+import org.wso2.siddhi.core.util.SiddhiTestHelper;
+import org.wso2.siddhi.core.util.transport.InMemoryBroker;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SourceBackpressureTestCase {
+    private static final Logger log = Logger.getLogger(SourceBackpressureTestCase.class);
+    private AtomicInteger eventCount;
+    private CountDownLatch consumeLatch;
+
+    @BeforeMethod
+    public void init() {
+        eventCount = new AtomicInteger(0);
+        consumeLatch = new CountDownLatch(1);
+    }
+
+    @Test
+    public void sourceBackpressureTest1() throws InterruptedException {
+        log.info("Source backpressure test1 - sources are paused while an async stream buffer is filled");
+        SiddhiManager siddhiManager = new SiddhiManager();
+        String siddhiApp = "" +
+                "@app:name('SourceBackpressureTest1') " +
+                "@app:backpressure(high.watermark='0.5', low.watermark='0.25', interval='10 millisec') " +
+                "@source(type='inMemory', topic='BackpressureTest1', @map(type='passThrough')) " +
+                "@async(buffer.size='16') " +
+                "define stream FooStream (symbol string, price float, volume long); " +
+                "" +
+                "from FooStream " +
+                "select * " +
+                "insert into BarStream;";
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("BarStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                awaitConsumeLatch();
+                eventCount.addAndGet(events.length);
+            }
+        });
+        siddhiAppRuntime.start();
+        SourceFlowController sourceFlowController = siddhiAppRuntime.getSourceFlowController();
+        Source source = siddhiAppRuntime.getSources().iterator().next().get(0);
+
+        for (long i = 0; i < 12; i++) {
+            InMemoryBroker.publish("BackpressureTest1", new Event(System.currentTimeMillis(),
+                    new Object[]{"WSO2", 55.6f, i}));
+        }
+        waitForPause(sourceFlowController, true);
+        AssertJUnit.assertTrue(source.isFlowControlPaused());
+        AssertJUnit.assertEquals(1, sourceFlowController.getPauseCount());
+
+        // events are not consumed while the source is paused
+        InMemoryBroker.publish("BackpressureTest1", new Event(System.currentTimeMillis(),
+                new Object[]{"WSO2", 55.6f, 100L}));
+        // snapshots do not resume the sources paused on backpressure
+        siddhiAppRuntime.snapshot();
+        AssertJUnit.assertTrue(source.isFlowControlPaused());
+
+        consumeLatch.countDown();
+        SiddhiTestHelper.waitForEvents(10, 12, eventCount, 2000);
+        waitForPause(sourceFlowController, false);
+        AssertJUnit.assertFalse(source.isFlowControlPaused());
+        AssertJUnit.assertTrue(sourceFlowController.getPausedTime() > 0);
+
+        InMemoryBroker.publish("BackpressureTest1", new Event(System.currentTimeMillis(),
+                new Object[]{"WSO2", 55.6f, 12L}));
+        SiddhiTestHelper.waitForEvents(10, 13, eventCount, 2000);
+        AssertJUnit.assertEquals(13, eventCount.get());
+        AssertJUnit.assertEquals(1, sourceFlowController.getPauseCount());
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test
+    public void sourceBackpressureTest2() throws InterruptedException {
+        log.info("Source backpressure test2 - sources are paused while an async sink buffer is filled");
+        TestBlockingInMemorySink.releaseLatch = new CountDownLatch(1);
+        TestBlockingInMemorySink.publishedEvents.set(0);
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setExtension("sink:testBlockingInMemory", TestBlockingInMemorySink.class);
+        String siddhiApp = "" +
+                "@app:name('SourceBackpressureTest2') " +
+                "@app:backpressure(high.watermark='0.5', low.watermark='0.25', interval='10 millisec') " +
+                "@source(type='inMemory', topic='BackpressureTest2', @map(type='passThrough')) " +
+                "define stream FooStream (symbol string, price float, volume long); " +
+                "@sink(type='testBlockingInMemory', topic='BackpressureTest2Out', @map(type='passThrough')) " +
+                "@async(buffer.size='8', batch.size='1', workers='1') " +
+                "define stream BarStream (symbol string, price float, volume long); " +
+                "" +
+                "from FooStream " +
+                "select * " +
+                "insert into BarStream;";
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.start();
+        SourceFlowController sourceFlowController = siddhiAppRuntime.getSourceFlowController();
+
+        for (long i = 0; i < 6; i++) {
+            InMemoryBroker.publish("BackpressureTest2", new Event(System.currentTimeMillis(),
+                    new Object[]{"WSO2", 55.6f, i}));
+        }
+        waitForPause(sourceFlowController, true);
+        AssertJUnit.assertEquals(1, sourceFlowController.getPauseCount());
+
+        TestBlockingInMemorySink.releaseLatch.countDown();
+        SiddhiTestHelper.waitForEvents(10, 6, TestBlockingInMemorySink.publishedEvents, 2000);
+        waitForPause(sourceFlowController, false);
+        AssertJUnit.assertEquals(6, TestBlockingInMemorySink.publishedEvents.get());
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test
+    public void sourceBackpressureTest3() {
+        log.info("Source backpressure test3 - backpressure is disabled by default");
+        SiddhiManager siddhiManager = new SiddhiManager();
+        String siddhiApp = "" +
+                "@source(type='inMemory', topic='BackpressureTest3', @map(type='passThrough')) " +
+                "@async(buffer.size='16') " +
+                "define stream FooStream (symbol string, price float, volume long); ";
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        AssertJUnit.assertNull(siddhiAppRuntime.getSourceFlowController());
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test(expectedExceptions = SiddhiAppCreationException.class)
+    public void sourceBackpressureTest4() {
+        log.info("Source backpressure test4 - low watermark should be below the high watermark");
+        SiddhiManager siddhiManager = new SiddhiManager();
+        String siddhiApp = "" +
+                "@app:backpressure(high.watermark='0.5', low.watermark='0.6') " +
+                "define stream FooStream (symbol string, price float, volume long); ";
+        siddhiManager.createSiddhiAppRuntime(siddhiApp);
+    }
+
+    @Test(expectedExceptions = SiddhiAppCreationException.class)
+    public void sourceBackpressureTest5() {
+        log.info("Source backpressure test5 - unknown elements are rejected");
+        SiddhiManager siddhiManager = new SiddhiManager();
+        String siddhiApp = "" +
+                "@app:backpressure(threshold='0.5') " +
+                "define stream FooStream (symbol string, price float, volume long); ";
+        siddhiManager.createSiddhiAppRuntime(siddhiApp);
+    }
+
+    private void awaitConsumeLatch() {
+        try {
+            consumeLatch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void waitForPause(SourceFlowController sourceFlowController, boolean paused)
+            throws InterruptedException {
+        long start = System.currentTimeMillis();
+        while (sourceFlowController.isPaused() != paused && System.currentTimeMillis() - start < 2000) {
+            Thread.sleep(10);
+        }
+        AssertJUnit.assertEquals(paused, sourceFlowController.isPaused());
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.transport;
+
+import org.wso2.siddhi.annotation.Example;
+import org.wso2.siddhi.annotation.Extension;
+import org.wso2.siddhi.annotation.Parameter;
+import org.wso2.siddhi.annotation.util.DataType;
+import org.wso2.siddhi.core.event.Event;
+import org.wso2.siddhi.core.exception.ConnectionUnavailableException;
+import org.wso2.siddhi.core.stream.output.sink.InMemorySink;
+import org.wso2.siddhi.core.util.transport.DynamicOptions;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Extension(
+        name = "testBlockingInMemory",
+        namespace = "sink",
+        description = "In-memory sink for testing slow endpoints, blocking the publishing thread until released. " +
+                "The events are published outside the in-memory broker such that the broker is not blocked.",
+        parameters = @Parameter(name = "topic", type = DataType.STRING, description = "Event will be delivered to all" +
+                "the subscribers of the same topic"),
+        examples = @Example(
+                syntax = "@sink(type='testBlockingInMemory', topic='Foo', @map(type='passThrough'))\n" +
+                        "define stream BarStream (symbol string, price float, volume long)",
+                description = "In this example events of BarStream are published once the release latch is " +
+                        "counted down."
+        )
+)
+public class TestBlockingInMemorySink extends InMemorySink {
+    public static CountDownLatch releaseLatch = new CountDownLatch(0);
+    public static AtomicInteger publishedEvents = new AtomicInteger(0);
+
+    @Override
+    public void publish(Object payload, DynamicOptions dynamicOptions) throws ConnectionUnavailableException {
+        try {
+            releaseLatch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        publishedEvents.addAndGet(payload instanceof Event[] ? ((Event[]) payload).length : 1);
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.performance;
+
+import org.wso2.siddhi.core.SiddhiAppRuntime;
+import org.wso2.siddhi.core.SiddhiManager;
+import org.wso2.siddhi.core.event.Event;
+import org.wso2.siddhi.core.stream.input.InputHandler;
+import org.wso2.siddhi.core.stream.output.StreamCallback;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Variant of {@link PartitionPerformance} which processes a fixed set of partition keys in parallel, by scheduling
+ * them to worker lanes with {@code @async} on the partition. The number of lanes can be given as the first argument.
+ */
+public class ParallelPartitionPerformance {
+    private static final int KEY_COUNT = 10000;
+
+    public static void main(String[] args) throws InterruptedException {
+        int workers = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                "define stream cseEventStream (symbol string, price float, volume long);" +
+                "" +
+                "@async(workers='" + workers + "', buffer.size='4096') " +
+                "partition with (symbol of cseEventStream) " +
+                "begin " +
+                "   @info(name = 'query1') " +
+                "   from cseEventStream[700 > price]#window.length(10) " +
+                "   select symbol, avg(price) as avgPrice, sum(volume) as totalVolume " +
+                "   insert into outputStream ;" +
+                "end;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        AtomicLong eventCount = new AtomicLong();
+        siddhiAppRuntime.addCallback("outputStream", new StreamCallback() {
+            long startTime = System.currentTimeMillis();
+
+            @Override
+            public void receive(Event[] events) {
+                long count = eventCount.addAndGet(events.length);
+                if (count >= 1000000 && eventCount.compareAndSet(count, 0)) {
+                    long currentTime = System.currentTimeMillis();
+                    System.out.println("Throughput : " + (count * 1000) / (currentTime - startTime));
+                    startTime = currentTime;
+                }
+            }
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+
+        String[] symbols = new String[KEY_COUNT];
+        for (int i = 0; i < KEY_COUNT; i++) {
+            symbols[i] = "WSO2" + i;
+        }
+        long i = 0;
+        while (true) {
+            inputHandler.send(new Object[]{symbols[(int) (i % KEY_COUNT)], 55.6f, i});
+            i++;
+        }
+    }
+}